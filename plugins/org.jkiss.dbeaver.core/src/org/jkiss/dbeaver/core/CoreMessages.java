@@ -535,6 +535,19 @@ public class CoreMessages extends NLS {
 
 	public static String transaction_log_dialog_error_not_connected;
 
+	public static String query_statistics_view_column_query;
+	public static String query_statistics_view_column_executions;
+	public static String query_statistics_view_column_errors;
+	public static String query_statistics_view_column_total_time;
+	public static String query_statistics_view_column_avg_time;
+	public static String query_statistics_view_column_p50_time;
+	public static String query_statistics_view_column_p95_time;
+	public static String query_statistics_view_column_p99_time;
+	public static String query_statistics_view_column_max_time;
+	public static String query_statistics_view_column_rows_fetched;
+	public static String query_statistics_view_column_connection;
+	public static String query_statistics_view_action_reset;
+
 	static {
 		// initialize resource bundle
 		NLS.initializeMessages(BUNDLE_NAME, CoreMessages.class);
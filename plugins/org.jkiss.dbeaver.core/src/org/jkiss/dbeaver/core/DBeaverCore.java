@@ -32,6 +32,7 @@ import org.jkiss.dbeaver.model.qm.QMController;
 import org.jkiss.dbeaver.model.qm.QMUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.qm.SQLQueryStatisticsCollector;
 import org.jkiss.dbeaver.registry.BaseApplicationImpl;
 import org.jkiss.dbeaver.registry.BasePlatformImpl;
 import org.jkiss.dbeaver.registry.DataSourceProviderRegistry;
@@ -70,6 +71,7 @@ public class DBeaverCore extends BasePlatformImpl {
     private DBeaverWorkspace workspace;
     private QMControllerImpl queryManager;
     private QMLogFileWriter qmLogWriter;
+    private SQLQueryStatisticsCollector queryStatistics;
     private DBACertificateStorage certificateStorage;
 
     private static boolean disposed = false;
@@ -161,6 +163,9 @@ public class DBeaverCore extends BasePlatformImpl {
         this.qmLogWriter = new QMLogFileWriter();
         this.queryManager.registerMetaListener(qmLogWriter);
 
+        this.queryStatistics = new SQLQueryStatisticsCollector();
+        this.queryManager.registerMetaListener(queryStatistics);
+
         super.initialize();
 
         log.debug("Core initialized (" + (System.currentTimeMillis() - startTime) + "ms)");
@@ -186,6 +191,10 @@ public class DBeaverCore extends BasePlatformImpl {
             this.qmLogWriter.dispose();
             this.qmLogWriter = null;
         }
+        if (this.queryStatistics != null) {
+            this.queryManager.unregisterMetaListener(queryStatistics);
+            this.queryStatistics = null;
+        }
         if (this.queryManager != null) {
             this.queryManager.dispose();
             //queryManager = null;
@@ -255,6 +264,10 @@ public class DBeaverCore extends BasePlatformImpl {
         return queryManager;
     }
 
+    public SQLQueryStatisticsCollector getQueryStatistics() {
+        return queryStatistics;
+    }
+
     @NotNull
     @Override
     public DBPPreferenceStore getPreferenceStore() {
@@ -0,0 +1,163 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.views.qm;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.viewers.ColumnLabelProvider;
+import org.eclipse.jface.viewers.ColumnViewerToolTipSupport;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.ui.part.ViewPart;
+import org.jkiss.dbeaver.core.CoreMessages;
+import org.jkiss.dbeaver.core.DBeaverCore;
+import org.jkiss.dbeaver.model.sql.qm.SQLQueryStatistics;
+import org.jkiss.dbeaver.model.sql.qm.SQLQueryStatisticsCollector;
+import org.jkiss.dbeaver.ui.DBeaverIcons;
+import org.jkiss.dbeaver.ui.UIIcon;
+import org.jkiss.dbeaver.ui.UIUtils;
+import org.jkiss.dbeaver.ui.controls.ListContentProvider;
+import org.jkiss.dbeaver.ui.controls.ViewerColumnController;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Top queries.
+ * Shows execution statistics of queries grouped by fingerprint (query text without literals).
+ */
+public class QueryStatisticsView extends ViewPart
+{
+    public static final String VIEW_ID = "org.jkiss.dbeaver.core.queryStatistics";
+
+    private static final int REFRESH_PERIOD = 2000;
+    private static final int MAX_QUERIES = 500;
+    private static final int MAX_QUERY_TEXT_LENGTH = 300;
+
+    private TableViewer queryViewer;
+    // Viewer input. Statistics objects are updated in place by collector
+    private final List<SQLQueryStatistics> shownQueries = new ArrayList<>();
+
+    @Override
+    public void createPartControl(Composite parent)
+    {
+        Composite group = UIUtils.createPlaceholder(parent, 1);
+
+        queryViewer = new TableViewer(group, SWT.MULTI | SWT.FULL_SELECTION);
+        Table table = queryViewer.getTable();
+        table.setHeaderVisible(true);
+        table.setLinesVisible(true);
+        table.setLayoutData(new GridData(GridData.FILL_BOTH));
+        queryViewer.setContentProvider(new ListContentProvider());
+        ColumnViewerToolTipSupport.enableFor(queryViewer);
+
+        ViewerColumnController<Object, SQLQueryStatistics> columnController = new ViewerColumnController<>("queryStatisticsViewer", queryViewer);
+        columnController.addColumn(CoreMessages.query_statistics_view_column_query, null, SWT.LEFT, true, true, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return CommonUtils.truncateString(((SQLQueryStatistics) element).getFingerprint(), MAX_QUERY_TEXT_LENGTH);
+            }
+
+            @Override
+            public String getToolTipText(Object element) {
+                return ((SQLQueryStatistics) element).getLastQueryText();
+            }
+        });
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_executions, SQLQueryStatistics::getExecuteCount);
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_errors, SQLQueryStatistics::getErrorCount);
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_total_time, SQLQueryStatistics::getTotalTime);
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_avg_time, SQLQueryStatistics::getAverageTime);
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_p50_time, s -> s.getTimeAtPercentile(50));
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_p95_time, s -> s.getTimeAtPercentile(95));
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_p99_time, s -> s.getTimeAtPercentile(99));
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_max_time, SQLQueryStatistics::getMaxTime);
+        addNumericColumn(columnController, CoreMessages.query_statistics_view_column_rows_fetched, SQLQueryStatistics::getRowsFetched);
+        columnController.addColumn(CoreMessages.query_statistics_view_column_connection, null, SWT.LEFT, true, false, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return CommonUtils.notEmpty(((SQLQueryStatistics) element).getLastDataSourceName());
+            }
+        });
+        columnController.createColumns(false);
+        queryViewer.setInput(shownQueries);
+
+        getViewSite().getActionBars().getToolBarManager().add(
+            new Action(CoreMessages.query_statistics_view_action_reset, DBeaverIcons.getImageDescriptor(UIIcon.ERASE)) {
+                @Override
+                public void run() {
+                    SQLQueryStatisticsCollector statistics = DBeaverCore.getInstance().getQueryStatistics();
+                    if (statistics != null) {
+                        statistics.resetStatistics();
+                    }
+                    refreshStatistics();
+                }
+            });
+
+        refreshStatistics();
+        scheduleRefresh();
+    }
+
+    private static void addNumericColumn(ViewerColumnController<Object, SQLQueryStatistics> columnController, String name, ToLongFunction<SQLQueryStatistics> valueProvider) {
+        columnController.addColumn(name, null, SWT.RIGHT, true, false, true, null, new ColumnLabelProvider() {
+            @Override
+            public String getText(Object element) {
+                return String.valueOf(valueProvider.applyAsLong((SQLQueryStatistics) element));
+            }
+        }, null);
+    }
+
+    private void scheduleRefresh()
+    {
+        queryViewer.getControl().getDisplay().timerExec(REFRESH_PERIOD, () -> {
+            if (queryViewer.getControl().isDisposed()) {
+                return;
+            }
+            if (queryViewer.getControl().isVisible()) {
+                refreshStatistics();
+            }
+            scheduleRefresh();
+        });
+    }
+
+    private void refreshStatistics()
+    {
+        SQLQueryStatisticsCollector statistics = DBeaverCore.getInstance().getQueryStatistics();
+        if (statistics == null || queryViewer.getControl().isDisposed()) {
+            return;
+        }
+        List<SQLQueryStatistics> topQueries = statistics.getTopQueries(MAX_QUERIES);
+        if (topQueries.equals(shownQueries)) {
+            // Same queries in the same order - just update their values
+            queryViewer.update(shownQueries.toArray(), null);
+        } else {
+            shownQueries.clear();
+            shownQueries.addAll(topQueries);
+            queryViewer.refresh();
+        }
+    }
+
+    @Override
+    public void setFocus()
+    {
+        queryViewer.getControl().setFocus();
+    }
+
+}
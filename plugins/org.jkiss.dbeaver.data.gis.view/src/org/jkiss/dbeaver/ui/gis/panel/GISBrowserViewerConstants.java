@@ -27,4 +27,7 @@ public class GISBrowserViewerConstants {
     };
     public static final String WEB_INC_PATH = "web/inc/";
     public static final String VIEW_TEMPLATE_PATH = "web/view_template.html";
+
+    // Maximum number of features sent to the map at once
+    public static final int TILE_MAX_FEATURES = 1000;
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.gis.panel;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.simplify.DouglasPeuckerSimplifier;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Geometry source for the leaflet viewer.
+ *
+ * Keeps map features in a spatial index and serves them to the map in GeoJSON chunks.
+ * Only features intersecting the current viewport are served. Geometries are simplified according to the zoom level.
+ * Features already delivered for the current zoom level are not sent again.
+ */
+public class GISGeometryTileSource {
+
+    // Leaflet tile size in pixels
+    private static final int TILE_SIZE = 256;
+
+    public static class Feature {
+        private final Geometry geometry;
+        @Nullable
+        private final String tipJson;
+
+        public Feature(@NotNull Geometry geometry, @Nullable String tipJson) {
+            this.geometry = geometry;
+            this.tipJson = tipJson;
+        }
+    }
+
+    private final List<Feature> features;
+    private final boolean simpleCRS;
+    private final STRtree index = new STRtree();
+    private final Envelope bounds = new Envelope();
+
+    private int deliveredZoom = Integer.MIN_VALUE;
+    private final BitSet delivered = new BitSet();
+
+    public GISGeometryTileSource(@NotNull List<Feature> features, boolean simpleCRS) {
+        this.features = features;
+        this.simpleCRS = simpleCRS;
+        for (int i = 0; i < features.size(); i++) {
+            Envelope envelope = features.get(i).geometry.getEnvelopeInternal();
+            index.insert(envelope, i);
+            bounds.expandToInclude(envelope);
+        }
+        index.build();
+    }
+
+    /**
+     * Bounds of all features or null if there are no features
+     */
+    @Nullable
+    public Envelope getBounds() {
+        return bounds.isNull() ? null : bounds;
+    }
+
+    /**
+     * Forgets delivered features. Next read serves all visible features with 'reset' flag.
+     * Must be called when map page is rendered again.
+     */
+    public synchronized void reset() {
+        deliveredZoom = Integer.MIN_VALUE;
+        delivered.clear();
+    }
+
+    /**
+     * Reads next chunk of features visible in the specified viewport.
+     * If zoom level differs from the previous call then all visible features are served again (with different
+     * simplification) and result has 'reset' flag set.
+     *
+     * @return JSON object with array of GeoJSON features, 'reset' and 'more' flags
+     */
+    @NotNull
+    public synchronized String readFeatures(double west, double south, double east, double north, int zoom, int maxFeatures) {
+        boolean reset = zoom != deliveredZoom;
+        if (reset) {
+            deliveredZoom = zoom;
+            delivered.clear();
+        }
+        if (!simpleCRS && east - west >= 360) {
+            // Viewport covers the whole world (probably with some of its copies)
+            west = -180;
+            east = 180;
+        }
+        Envelope viewport = new Envelope(west, east, south, north);
+        @SuppressWarnings("unchecked")
+        List<Integer> visible = index.query(viewport);
+
+        double tolerance = getSimplifyTolerance(zoom);
+        double scale = getCoordinateScale(tolerance);
+        StringBuilder json = new StringBuilder(Math.min(visible.size(), maxFeatures) * 100 + 50);
+        json.append("{\"reset\":").append(reset).append(",\"features\":[");
+        int count = 0;
+        boolean more = false;
+        for (Integer featureIndex : visible) {
+            if (delivered.get(featureIndex)) {
+                continue;
+            }
+            if (count >= maxFeatures) {
+                more = true;
+                break;
+            }
+            Feature feature = features.get(featureIndex);
+            if (!viewport.intersects(feature.geometry.getEnvelopeInternal())) {
+                // Index query is not exact
+                continue;
+            }
+            if (count > 0) json.append(',');
+            writeFeature(json, featureIndex, feature, simplify(feature.geometry, tolerance), scale);
+            delivered.set(featureIndex);
+            count++;
+        }
+        json.append("],\"more\":").append(more).append('}');
+        return json.toString();
+    }
+
+    /**
+     * Writes all features (as is) in GeoJSON array. Used for standalone map view.
+     */
+    @NotNull
+    public String readAllFeatures() {
+        StringBuilder json = new StringBuilder(features.size() * 100 + 2);
+        json.append('[');
+        for (int i = 0; i < features.size(); i++) {
+            if (i > 0) json.append(',');
+            Feature feature = features.get(i);
+            writeFeature(json, i, feature, feature.geometry, 0);
+        }
+        json.append(']');
+        return json.toString();
+    }
+
+    /**
+     * Size of one screen pixel in map units
+     */
+    private double getSimplifyTolerance(int zoom) {
+        double pixelSize = 1.0 / Math.pow(2, zoom);
+        if (!simpleCRS) {
+            // Degrees per pixel (at equator)
+            pixelSize *= 360.0 / TILE_SIZE;
+        }
+        return pixelSize;
+    }
+
+    /**
+     * Coordinates are rounded to 1/10 of pixel - there is no point to transfer more digits.
+     */
+    private static double getCoordinateScale(double tolerance) {
+        if (tolerance <= 0) {
+            return 0;
+        }
+        return Math.pow(10, Math.max(0, Math.ceil(-Math.log10(tolerance / 10))));
+    }
+
+    @NotNull
+    private static Geometry simplify(@NotNull Geometry geometry, double tolerance) {
+        if (geometry.getDimension() == 0 || geometry.getNumPoints() <= 4) {
+            return geometry;
+        }
+        Geometry simplified = DouglasPeuckerSimplifier.simplify(geometry, tolerance);
+        // Geometries smaller than a pixel collapse to nothing. Keep them as is, they are small anyway.
+        return simplified.isEmpty() ? geometry : simplified;
+    }
+
+    private static void writeFeature(@NotNull StringBuilder json, int id, @NotNull Feature feature, @NotNull Geometry geometry, double scale) {
+        json.append("{\"type\":\"Feature\",\"id\":").append(id).append(",\"geometry\":");
+        writeGeometry(json, geometry, scale);
+        json.append(",\"tip\":").append(feature.tipJson == null ? "null" : feature.tipJson).append('}');
+    }
+
+    private static void writeGeometry(@NotNull StringBuilder json, @NotNull Geometry geometry, double scale) {
+        if (geometry instanceof Point) {
+            json.append("{\"type\":\"Point\",\"coordinates\":");
+            writeCoordinate(json, geometry.getCoordinate(), scale);
+        } else if (geometry instanceof LineString) {
+            json.append("{\"type\":\"LineString\",\"coordinates\":");
+            writeCoordinates(json, ((LineString) geometry).getCoordinateSequence(), scale);
+        } else if (geometry instanceof Polygon) {
+            json.append("{\"type\":\"Polygon\",\"coordinates\":");
+            writePolygon(json, (Polygon) geometry, scale);
+        } else if (geometry instanceof MultiPoint) {
+            json.append("{\"type\":\"MultiPoint\",\"coordinates\":[");
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                if (i > 0) json.append(',');
+                writeCoordinate(json, geometry.getGeometryN(i).getCoordinate(), scale);
+            }
+            json.append(']');
+        } else if (geometry instanceof MultiLineString) {
+            json.append("{\"type\":\"MultiLineString\",\"coordinates\":[");
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                if (i > 0) json.append(',');
+                writeCoordinates(json, ((LineString) geometry.getGeometryN(i)).getCoordinateSequence(), scale);
+            }
+            json.append(']');
+        } else if (geometry instanceof MultiPolygon) {
+            json.append("{\"type\":\"MultiPolygon\",\"coordinates\":[");
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                if (i > 0) json.append(',');
+                writePolygon(json, (Polygon) geometry.getGeometryN(i), scale);
+            }
+            json.append(']');
+        } else {
+            json.append("{\"type\":\"GeometryCollection\",\"geometries\":[");
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                if (i > 0) json.append(',');
+                writeGeometry(json, geometry.getGeometryN(i), scale);
+            }
+            json.append("]}");
+            return;
+        }
+        json.append('}');
+    }
+
+    private static void writePolygon(@NotNull StringBuilder json, @NotNull Polygon polygon, double scale) {
+        json.append('[');
+        writeCoordinates(json, polygon.getExteriorRing().getCoordinateSequence(), scale);
+        for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+            json.append(',');
+            writeCoordinates(json, polygon.getInteriorRingN(i).getCoordinateSequence(), scale);
+        }
+        json.append(']');
+    }
+
+    private static void writeCoordinates(@NotNull StringBuilder json, @NotNull CoordinateSequence sequence, double scale) {
+        json.append('[');
+        for (int i = 0; i < sequence.size(); i++) {
+            if (i > 0) json.append(',');
+            json.append('[');
+            writeNumber(json, sequence.getX(i), scale);
+            json.append(',');
+            writeNumber(json, sequence.getY(i), scale);
+            json.append(']');
+        }
+        json.append(']');
+    }
+
+    private static void writeCoordinate(@NotNull StringBuilder json, @Nullable Coordinate coordinate, double scale) {
+        if (coordinate == null) {
+            json.append("[]");
+            return;
+        }
+        json.append('[');
+        writeNumber(json, coordinate.x, scale);
+        json.append(',');
+        writeNumber(json, coordinate.y, scale);
+        json.append(']');
+    }
+
+    private static void writeNumber(@NotNull StringBuilder json, double value, double scale) {
+        if (scale > 0) {
+            value = Math.round(value * scale) / scale;
+        }
+        if (value == (long) value) {
+            json.append((long) value);
+        } else {
+            json.append(value);
+        }
+    }
+
+}
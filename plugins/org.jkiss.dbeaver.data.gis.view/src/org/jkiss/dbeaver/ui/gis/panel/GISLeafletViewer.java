@@ -67,7 +67,10 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
 
 import java.io.*;
 import java.util.*;
@@ -92,6 +95,10 @@ public class GISLeafletViewer implements IGeometryValueEditor {
     private int sourceSRID; // Explicitly set SRID
     private int actualSourceSRID; // SRID taken from geometry value
     private File scriptFile;
+    private File standaloneScriptFile;
+    private GISGeometryTileSource tileSource;
+    private String mapCRS;
+    private boolean showMap;
     private final ToolBarManager toolBarManager;
     private int defaultSRID; // Target SRID used to render map
 
@@ -118,9 +125,32 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             }
         };
 
+        // Map requests geometries of the visible area in chunks
+        final BrowserFunction loadGeometryTile = new BrowserFunction(browser, "loadGeometryTile") {
+            @Override
+            public Object function(Object[] arguments) {
+                GISGeometryTileSource source = tileSource;
+                if (source == null || arguments.length < 5) {
+                    return null;
+                }
+                if (arguments.length > 5 && CommonUtils.toBoolean(arguments[5])) {
+                    // First request of a newly rendered page. Previous page may have received some features already.
+                    source.reset();
+                }
+                return source.readFeatures(
+                    CommonUtils.toDouble(arguments[0]),
+                    CommonUtils.toDouble(arguments[1]),
+                    CommonUtils.toDouble(arguments[2]),
+                    CommonUtils.toDouble(arguments[3]),
+                    CommonUtils.toInt(arguments[4]),
+                    GISBrowserViewerConstants.TILE_MAX_FEATURES);
+            }
+        };
+
         browser.addDisposeListener(e -> {
             cleanupFiles();
             setClipboardContents.dispose();
+            loadGeometryTile.dispose();
         });
 
         {
@@ -236,6 +266,7 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         if (browser != null) {
             try {
                 if (ArrayUtils.isEmpty(values)) {
+                    tileSource = null;
                     browser.setUrl("about:blank");
                 } else {
                     final Bounds bounds = recenter ? null : Bounds.tryExtractFromBrowser(browser);
@@ -268,9 +299,14 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             }
         }
 
-        List<String> geomValues = new ArrayList<>();
-        List<String> geomTipValues = new ArrayList<>();
+        List<GISGeometryTileSource.Feature> features = new ArrayList<>();
         boolean showMap = false;
+
+        // Prepare values and transform all of them to the map SRID in one batch
+        DBGeometry[] sourceValues = new DBGeometry[values.length];
+        int[] sourceSRIDs = new int[values.length];
+        GisTransformRequest[] requests = new GisTransformRequest[values.length];
+        List<GisTransformRequest> batch = new ArrayList<>();
         for (int i = 0; i < values.length; i++) {
             DBGeometry value = values[i];
             if (DBUtils.isNullValue(value)) {
@@ -288,11 +324,31 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             } catch (DBException e) {
                 log.error("Error forcing geometry to 2D", e);
             }
-            Object targetValue = value.getRawValue();
             int srid = sourceSRID == 0 ? value.getSRID() : sourceSRID;
             if (srid == GisConstants.SRID_SIMPLE) {
                 srid = attributeSrid;
             }
+            sourceValues[i] = value;
+            sourceSRIDs[i] = srid;
+            if (srid != GisConstants.SRID_SIMPLE && srid != GisConstants.SRID_4326) {
+                Geometry geometry = value.getGeometry();
+                if (geometry != null) {
+                    requests[i] = new GisTransformRequest(geometry, srid, GisConstants.SRID_4326);
+                    batch.add(requests[i]);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            GisTransformUtils.transformGisData(batch.toArray(new GisTransformRequest[0]));
+        }
+
+        for (int i = 0; i < sourceValues.length; i++) {
+            DBGeometry value = sourceValues[i];
+            if (value == null) {
+                continue;
+            }
+            Object targetValue = value.getRawValue();
+            int srid = sourceSRIDs[i];
             if (srid == GisConstants.SRID_SIMPLE) {
                 showMap = false;
                 actualSourceSRID = srid;
@@ -300,17 +356,14 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                 showMap = true;
                 actualSourceSRID = srid;
             } else {
-                Geometry geometry = value.getGeometry();
-                if (geometry != null) {
-                    try {
-                        GisTransformRequest request = new GisTransformRequest(geometry, srid, GisConstants.SRID_4326);
-                        GisTransformUtils.transformGisData(request);
+                GisTransformRequest request = requests[i];
+                if (request != null) {
+                    if (request.getError() == null) {
                         targetValue = request.getTargetValue();
-                        srid = request.getTargetSRID();
                         actualSourceSRID = request.getSourceSRID();
                         showMap = request.isShowOnMap();
-                    } catch (DBException e) {
-                        log.debug("Error transforming CRS", e);
+                    } else {
+                        log.debug("Error transforming CRS", request.getError());
                         actualSourceSRID = srid;
                         showMap = false;
                     }
@@ -319,14 +372,13 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                 }
             }
 
-            if (targetValue == null) {
+            Geometry targetGeometry = toGeometry(targetValue);
+            if (targetGeometry == null || targetGeometry.isEmpty()) {
                 continue;
             }
-            geomValues.add("'" + targetValue + "'");
+            String tipJson = null;
             try {
-                if (CommonUtils.isEmpty(value.getProperties())) {
-                    geomTipValues.add("null");
-                } else {
+                if (!CommonUtils.isEmpty(value.getProperties())) {
                     Map<String, Object> simplifiedProperties = new LinkedHashMap<>();
                     for (Map.Entry<String, Object> pe : value.getProperties().entrySet()) {
                         Object pv = pe.getValue();
@@ -339,16 +391,30 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                         }
                         simplifiedProperties.put(pe.getKey(), pv);
                     }
-                    geomTipValues.add(gson.toJson(simplifiedProperties));
+                    tipJson = gson.toJson(simplifiedProperties);
                 }
             } catch (Exception e) {
                 log.debug(e);
             }
+            features.add(new GISGeometryTileSource.Feature(targetGeometry, tipJson));
         }
         this.defaultSRID = actualSourceSRID;
-        String geomValuesString = String.join(",", geomValues);
-        String geomTipValuesString = String.join(",", geomTipValues);
-        String geomCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
+        this.mapCRS = actualSourceSRID == GisConstants.SRID_SIMPLE ? GisConstants.LL_CRS_SIMPLE : GisConstants.LL_CRS_3857;
+        this.showMap = showMap;
+        this.tileSource = new GISGeometryTileSource(features, actualSourceSRID == GisConstants.SRID_SIMPLE);
+
+        // Features are loaded by the map itself, page contains only map settings
+        writeViewScript(scriptFile, null, bounds);
+
+        return scriptFile;
+    }
+
+    /**
+     * Writes map page. If features are not specified then map reads them with loadGeometryTile function.
+     */
+    private void writeViewScript(@NotNull File file, @Nullable String features, @Nullable Bounds bounds) throws IOException {
+        Envelope dataBounds = tileSource == null ? null : tileSource.getBounds();
+        String geomCRS = mapCRS;
         boolean isShowMap = showMap;
 
         InputStream fis = GISViewerActivator.getDefault().getResourceStream(GISBrowserViewerConstants.VIEW_TEMPLATE_PATH);
@@ -359,10 +425,12 @@ public class GISLeafletViewer implements IGeometryValueEditor {
             String viewTemplate = IOUtils.readToString(isr);
             viewTemplate = GeneralUtils.replaceVariables(viewTemplate, name -> {
                 switch (name) {
-                    case "geomValues":
-                        return geomValuesString;
-                    case "geomTipValues":
-                        return geomTipValuesString;
+                    case "geomFeatures":
+                        return CommonUtils.toString(features, "null");
+                    case "geomDataBounds":
+                        return dataBounds == null ? "undefined" : String.format(Locale.ENGLISH,
+                            "L.latLngBounds(L.latLng(%f, %f), L.latLng(%f, %f))",
+                            dataBounds.getMinY(), dataBounds.getMinX(), dataBounds.getMaxY(), dataBounds.getMaxX());
                     case "geomSRID":
                         return String.valueOf(defaultSRID);
                     case "showMap":
@@ -382,14 +450,41 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                 }
                 return null;
             });
-            try (FileOutputStream fos = new FileOutputStream(scriptFile)) {
+            try (FileOutputStream fos = new FileOutputStream(file)) {
                 fos.write(viewTemplate.getBytes(GeneralUtils.UTF8_CHARSET));
             }
         } finally {
             ContentUtils.close(fis);
         }
+    }
 
-        return scriptFile;
+    /**
+     * External browser can't call viewer functions so standalone page contains all features
+     */
+    private File generateStandaloneScript() throws IOException {
+        if (standaloneScriptFile == null) {
+            standaloneScriptFile = new File(scriptFile.getParentFile(), scriptFile.getName().replace("gis.html", "gis-full.html"));
+        }
+        writeViewScript(standaloneScriptFile, tileSource == null ? "[]" : tileSource.readAllFeatures(), Bounds.tryExtractFromBrowser(browser));
+        return standaloneScriptFile;
+    }
+
+    @Nullable
+    private static Geometry toGeometry(@NotNull Object value) {
+        if (value instanceof Geometry) {
+            return (Geometry) value;
+        }
+        String wkt = value.toString();
+        if (wkt.startsWith("SRID=")) {
+            // EWKT
+            wkt = wkt.substring(wkt.indexOf(';') + 1);
+        }
+        try {
+            return new WKTReader().read(wkt);
+        } catch (ParseException e) {
+            log.debug("Error parsing geometry '" + CommonUtils.truncateString(wkt, 100) + "'", e);
+            return null;
+        }
     }
 
     private void checkIncludesExistence(File scriptDir) throws IOException {
@@ -421,6 +516,11 @@ public class GISLeafletViewer implements IGeometryValueEditor {
                 log.debug("Can't delete temp script file '" + scriptFile.getAbsolutePath() + "'");
             }
         }
+        if (standaloneScriptFile != null && standaloneScriptFile.exists()) {
+            if (!standaloneScriptFile.delete()) {
+                log.debug("Can't delete temp script file '" + standaloneScriptFile.getAbsolutePath() + "'");
+            }
+        }
     }
 
     public Composite getBrowserComposite() {
@@ -440,7 +540,11 @@ public class GISLeafletViewer implements IGeometryValueEditor {
         toolBarManager.add(new Action(GISMessages.panel_leaflet_viewer_tool_bar_action_text_open, DBeaverIcons.getImageDescriptor(UIIcon.BROWSER)) {
             @Override
             public void run() {
-                UIUtils.launchProgram(scriptFile.getAbsolutePath());
+                try {
+                    UIUtils.launchProgram(generateStandaloneScript().getAbsolutePath());
+                } catch (IOException e) {
+                    DBWorkbench.getPlatformUI().showError("Open map", "Error generating map page", e);
+                }
             }
         });
         toolBarManager.add(new Action(GISMessages.panel_leaflet_viewer_tool_bar_action_text_copy_as, DBeaverIcons.getImageDescriptor(UIIcon.PICTURE)) {
@@ -0,0 +1,288 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.gis;
+
+import org.cts.crs.CRSException;
+import org.cts.crs.CoordinateReferenceSystem;
+import org.cts.crs.GeodeticCRS;
+import org.cts.op.CoordinateOperation;
+import org.cts.op.CoordinateOperationFactory;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Geometry reprojection pipeline.
+ *
+ * Coordinate operation is resolved once for each (source SRID, target SRID) pair and then reused.
+ * Geometries are transformed sequence by sequence in place (on a geometry copy) without per-coordinate allocations.
+ * Large batches of requests are transformed in parallel.
+ */
+public class GisTransformPipeline {
+
+    private static final Log log = Log.getLog(GisTransformPipeline.class);
+
+    // Minimal batch size to transform in parallel
+    private static final int PARALLEL_BATCH_SIZE = 500;
+
+    private static final GisTransformPipeline INSTANCE = new GisTransformPipeline();
+
+    private final Map<Long, Transformation> transformations = new ConcurrentHashMap<>();
+
+    /**
+     * Resolved transformation between two CRSs
+     */
+    private static class Transformation {
+        // Null means that geometry coordinates remain the same
+        @Nullable
+        private final CoordinateOperation operation;
+        // Used if source CRS uses Web Mercator coordinate system and main operation fails
+        @Nullable
+        private final CoordinateOperation fallbackOperation;
+        private final boolean hasFallback;
+
+        Transformation(@Nullable CoordinateOperation operation, @Nullable CoordinateOperation fallbackOperation, boolean hasFallback) {
+            this.operation = operation;
+            this.fallbackOperation = fallbackOperation;
+            this.hasFallback = hasFallback;
+        }
+    }
+
+    public static GisTransformPipeline getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates pipeline with its own transformations cache. Use {@link #getInstance()} to share cache.
+     */
+    public GisTransformPipeline() {
+    }
+
+    /**
+     * Transforms single geometry. Fills request target value.
+     */
+    public void transform(@NotNull GisTransformRequest request) throws DBException {
+        Transformation transformation = getTransformation(request.getSourceSRID(), request.getTargetSRID());
+        transform(request, transformation);
+    }
+
+    /**
+     * Transforms batch of geometries. Large batches are processed in parallel.
+     * Errors do not interrupt processing, they are reported by {@link GisTransformRequest#getError()}.
+     */
+    public void transform(@NotNull GisTransformRequest[] requests) {
+        // Resolve all operations first. CRS factory is not thread-safe and it is the slowest part anyway.
+        for (GisTransformRequest request : requests) {
+            try {
+                getTransformation(request.getSourceSRID(), request.getTargetSRID());
+            } catch (DBException e) {
+                request.setError(e);
+            }
+        }
+        if (requests.length < PARALLEL_BATCH_SIZE) {
+            for (GisTransformRequest request : requests) {
+                transformSafe(request);
+            }
+        } else {
+            Arrays.stream(requests).parallel().forEach(this::transformSafe);
+        }
+    }
+
+    public void clearCache() {
+        transformations.clear();
+    }
+
+    public int getCachedTransformationCount() {
+        return transformations.size();
+    }
+
+    /**
+     * Registers transformation with explicit operations instead of resolving them from CRS registry
+     */
+    public void putTransformation(int sourceSRID, int targetSRID, @Nullable CoordinateOperation operation, @Nullable CoordinateOperation fallbackOperation) {
+        transformations.put(makeKey(sourceSRID, targetSRID), new Transformation(operation, fallbackOperation, fallbackOperation != null));
+    }
+
+    private void transformSafe(@NotNull GisTransformRequest request) {
+        if (request.getError() != null) {
+            return;
+        }
+        try {
+            transform(request, getTransformation(request.getSourceSRID(), request.getTargetSRID()));
+        } catch (Exception e) {
+            request.setError(e);
+        }
+    }
+
+    private void transform(@NotNull GisTransformRequest request, @NotNull Transformation transformation) throws DBException {
+        int targetSRID = request.getTargetSRID();
+        try {
+            Geometry targetValue = transformGeometry(request.getSourceValue(), transformation.operation);
+            targetValue.setSRID(targetSRID);
+            request.setTargetValue(targetValue);
+            request.setShowOnMap(true);
+        } catch (IllegalArgumentException e) {
+            if (transformation.hasFallback) {
+                try {
+                    Geometry targetValue = transformGeometry(request.getSourceValue(), transformation.fallbackOperation);
+                    targetValue.setSRID(targetSRID);
+                    request.setTargetValue(targetValue);
+                    request.setShowOnMap(false);
+                } catch (Exception e1) {
+                    throw new DBException("Error transforming SRIDs", e1);
+                }
+            }
+        } catch (Exception e) {
+            throw new DBException("Error transforming SRIDs", e);
+        }
+    }
+
+    /**
+     * Transforms geometry between two CRSs. Coordinate operation is not cached.
+     * Throws IllegalArgumentException if geometry coordinates are out of CRS domain.
+     */
+    @NotNull
+    static Geometry transform(@NotNull Geometry geometry, @NotNull CoordinateReferenceSystem sourceCRS, @NotNull CoordinateReferenceSystem targetCRS) throws DBException {
+        return transformGeometry(geometry, findOperation(sourceCRS, targetCRS));
+    }
+
+    @NotNull
+    private Transformation getTransformation(int sourceSRID, int targetSRID) throws DBException {
+        Long key = makeKey(sourceSRID, targetSRID);
+        Transformation transformation = transformations.get(key);
+        if (transformation == null) {
+            synchronized (this) {
+                transformation = transformations.get(key);
+                if (transformation == null) {
+                    transformation = createTransformation(sourceSRID, targetSRID);
+                    transformations.put(key, transformation);
+                }
+            }
+        }
+        return transformation;
+    }
+
+    private static long makeKey(int sourceSRID, int targetSRID) {
+        return ((long) sourceSRID << 32) | (targetSRID & 0xFFFFFFFFL);
+    }
+
+    @NotNull
+    private static Transformation createTransformation(int sourceSRID, int targetSRID) throws DBException {
+        try {
+            CoordinateReferenceSystem crs1 = GisTransformUtils.getCRSFactory().getCRS("EPSG:" + sourceSRID);
+            CoordinateReferenceSystem crs2 = GisTransformUtils.getCRSFactory().getCRS("EPSG:" + targetSRID);
+            CoordinateReferenceSystem crs3857 = GisTransformUtils.getCRS3857();
+
+            CoordinateOperation operation = findOperation(crs1, crs2);
+            boolean hasFallback = crs3857 != null &&
+                CommonUtils.equalObjects(crs1.getCoordinateSystem(), crs3857.getCoordinateSystem());
+            CoordinateOperation fallbackOperation = hasFallback ? findOperation(crs3857, crs2) : null;
+            return new Transformation(operation, fallbackOperation, hasFallback);
+        } catch (CRSException e) {
+            throw new DBException("Error resolving CRS transformation " + sourceSRID + "->" + targetSRID, e);
+        }
+    }
+
+    @Nullable
+    private static CoordinateOperation findOperation(CoordinateReferenceSystem crs1, CoordinateReferenceSystem crs2) throws DBException {
+        if (crs1 instanceof GeodeticCRS && crs2 instanceof GeodeticCRS) {
+            try {
+                Set<CoordinateOperation> coordOps = CoordinateOperationFactory.createCoordinateOperations((GeodeticCRS) crs1, (GeodeticCRS) crs2);
+                if (!coordOps.isEmpty()) {
+                    return CoordinateOperationFactory.getMostPrecise(coordOps);
+                }
+            } catch (Exception e) {
+                throw new DBException("Error creating coordinate operation", e);
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static Geometry transformGeometry(@NotNull Geometry geometry, @Nullable CoordinateOperation operation) {
+        Geometry result = geometry.copy();
+        if (operation != null) {
+            result.apply(new TransformFilter(operation));
+            result.geometryChanged();
+        }
+        return result;
+    }
+
+    /**
+     * Transforms coordinate sequences in place.
+     * Coordinate buffers are reused for all coordinates of a geometry.
+     */
+    private static class TransformFilter implements CoordinateSequenceFilter {
+        private final CoordinateOperation operation;
+        private final double[] buffer2D = new double[2];
+        private final double[] buffer3D = new double[3];
+
+        TransformFilter(CoordinateOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public void filter(CoordinateSequence seq, int i) {
+            double z = seq.getDimension() > 2 ? seq.getOrdinate(i, CoordinateSequence.Z) : Double.NaN;
+            double[] coord;
+            if (Double.isNaN(z)) {
+                coord = buffer2D;
+            } else {
+                coord = buffer3D;
+                coord[2] = z;
+            }
+            coord[0] = seq.getOrdinate(i, CoordinateSequence.X);
+            coord[1] = seq.getOrdinate(i, CoordinateSequence.Y);
+            double[] target;
+            try {
+                target = operation.transform(coord);
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Error transforming coordinate", e);
+            }
+            if (target != null) {
+                seq.setOrdinate(i, CoordinateSequence.X, target[0]);
+                seq.setOrdinate(i, CoordinateSequence.Y, target[1]);
+                if (target.length > 2 && seq.getDimension() > 2) {
+                    seq.setOrdinate(i, CoordinateSequence.Z, target[2]);
+                }
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public boolean isGeometryChanged() {
+            return true;
+        }
+    }
+
+}
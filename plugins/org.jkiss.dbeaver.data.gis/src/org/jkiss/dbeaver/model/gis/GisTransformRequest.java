@@ -30,6 +30,7 @@ public class GisTransformRequest {
     private int targetSRID;
 
     private boolean showOnMap;
+    private Throwable error;
 
     public GisTransformRequest(Geometry sourceValue, int sourceSRID, int targetSRID) {
         this.sourceValue = sourceValue;
@@ -73,4 +74,12 @@ public class GisTransformRequest {
     public void setShowOnMap(boolean showOnMap) {
         this.showOnMap = showOnMap;
     }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public void setError(Throwable error) {
+        this.error = error;
+    }
 }
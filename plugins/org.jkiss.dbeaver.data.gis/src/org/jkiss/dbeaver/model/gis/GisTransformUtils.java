@@ -17,14 +17,8 @@
 package org.jkiss.dbeaver.model.gis;
 
 import org.cts.CRSFactory;
-import org.cts.IllegalCoordinateException;
 import org.cts.crs.CRSException;
 import org.cts.crs.CoordinateReferenceSystem;
-import org.cts.crs.GeodeticCRS;
-import org.cts.crs.ProjectedCRS;
-import org.cts.op.CoordinateOperation;
-import org.cts.op.CoordinateOperationException;
-import org.cts.op.CoordinateOperationFactory;
 import org.cts.registry.EPSGRegistry;
 import org.cts.registry.RegistryException;
 import org.cts.registry.RegistryManager;
@@ -41,12 +35,10 @@ import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.utils.CommonUtils;
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * GisTransformUtils.
@@ -95,86 +87,30 @@ public class GisTransformUtils {
         return crsCodes;
     }
 
-    public static void transformGisData(GisTransformRequest request) throws DBException {
-        try {
-            //srcSRID = 3857;
-            CoordinateReferenceSystem crs1 = crsFactory.getCRS("EPSG:" + request.getSourceSRID());
-            CoordinateReferenceSystem crs2 = crsFactory.getCRS("EPSG:" + request.getTargetSRID());
-
-            try {
-                Geometry targetValue = transformGisData(request.getSourceValue(), crs1, crs2);
-                targetValue.setSRID(request.getTargetSRID());
-                request.setTargetValue(targetValue);
-                request.setShowOnMap(true);
-            } catch (IllegalArgumentException e) {
-                if (CommonUtils.equalObjects(crs1.getCoordinateSystem(), crs3857.getCoordinateSystem())) {
-                    Geometry geometry = transformGisData(request.getSourceValue(), crs3857, crs2);
-                    geometry.setSRID(request.getTargetSRID());
-                    request.setTargetValue(geometry);
-                    request.setShowOnMap(false);
-//                    if (crs1 instanceof ProjectedCRS) {
-//                        geometry = transformGeometryTo((ProjectedCRS) crs1, geometry);
-//                    }
-                }
-                //throw e;
-            }
-        } catch (Exception e) {
-            throw new DBException("Error transforming SRIDs", e);
-        }
-    }
-
-    private static Geometry transformGeometryTo(ProjectedCRS projectedCRS, Geometry geometry) throws CoordinateOperationException, IllegalCoordinateException {
-        CoordinateOperation coordinateOperation = projectedCRS.toGeographicCoordinateConverter();
-        for (Coordinate coord : geometry.getCoordinates()) {
-            double[] srcCoord = getCoordinateValues(coord);
-            double[] transform = coordinateOperation.transform(srcCoord);
-            setCoordinateValues(coord, transform);
-        }
-        return null;
-    }
-
-    public static Geometry transformGisData(Geometry jtsValue, CoordinateReferenceSystem crs1, CoordinateReferenceSystem crs2) throws Exception {
-        if (crs1 instanceof GeodeticCRS && crs2 instanceof GeodeticCRS) {
-            Set<CoordinateOperation> coordOps = CoordinateOperationFactory.createCoordinateOperations((GeodeticCRS) crs1, (GeodeticCRS) crs2);
-            if (!coordOps.isEmpty()) {
-            	CoordinateOperation op = CoordinateOperationFactory.getMostPrecise(coordOps);
-                // Transform coord using the op CoordinateOperation from crs1 to crs2
-                jtsValue = transformGeometry(jtsValue, op);
-                return jtsValue;
-            }
-        }
-        return jtsValue;
+    static CoordinateReferenceSystem getCRS3857() {
+        return crs3857;
     }
 
-    private static Geometry transformGeometry(Geometry geom, CoordinateOperation op) throws Exception {
-        geom = (Geometry) geom.clone();
-        for (Coordinate coord : geom.getCoordinates()) {
-            double[] srcCoord = getCoordinateValues(coord);
-            double[] targetCoord = op.transform(srcCoord);
-            setCoordinateValues(coord, targetCoord);
-        }
-        return geom;
-
+    /**
+     * Transforms geometry. Coordinate operations are cached by {@link GisTransformPipeline}.
+     */
+    public static void transformGisData(GisTransformRequest request) throws DBException {
+        GisTransformPipeline.getInstance().transform(request);
     }
 
-    private static void setCoordinateValues(Coordinate coord, double[] targetCoord) {
-        if (targetCoord != null) {
-            coord.x = targetCoord[0];
-            coord.y = targetCoord[1];
-            if (targetCoord.length > 2) {
-                coord.z = targetCoord[2];
-            }
-        }
+    /**
+     * Transforms batch of geometries. See {@link GisTransformPipeline#transform(GisTransformRequest[])}
+     */
+    public static void transformGisData(GisTransformRequest[] requests) {
+        GisTransformPipeline.getInstance().transform(requests);
     }
 
-    private static double[] getCoordinateValues(Coordinate coord) {
-        double[] srcCoord;
-        if (Double.isNaN(coord.z)) {
-            srcCoord = new double[]{coord.x, coord.y};
-        } else {
-            srcCoord = new double[]{coord.x, coord.y, coord.z};
-        }
-        return srcCoord;
+    /**
+     * @deprecated use {@link #transformGisData(GisTransformRequest)} which caches coordinate operations
+     */
+    @Deprecated
+    public static Geometry transformGisData(Geometry jtsValue, CoordinateReferenceSystem crs1, CoordinateReferenceSystem crs2) throws Exception {
+        return GisTransformPipeline.transform(jtsValue, crs1, crs2);
     }
 
     public static DBGeometry getGeometryValueFromObject(DBSDataContainer dataContainer, DBDValueHandler valueHandler, DBSTypedObject valueType, Object cellValue) {
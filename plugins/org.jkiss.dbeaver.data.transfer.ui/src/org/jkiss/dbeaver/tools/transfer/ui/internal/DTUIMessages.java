@@ -55,6 +55,8 @@ public class DTUIMessages extends NLS {
 	public static String database_consumer_wizard_truncate_checkbox_question;
 	public static String database_consumer_wizard_disable_import_batches_label;
 	public static String database_consumer_wizard_disable_import_batches_description;
+	public static String database_consumer_wizard_use_checkpoints_label;
+	public static String database_consumer_wizard_use_checkpoints_description;
 	public static String database_consumer_wizard_on_duplicate_key_insert_method_text;
 	public static String database_consumer_wizard_link_label_replace_method_wiki;
 	
@@ -170,6 +170,14 @@ public class DatabaseConsumerPageLoadSettings extends ActiveWizardPage<DataTrans
                     settings.setDisableUsingBatches(useBatchCheck.getSelection());
                 }
             });
+
+            final Button useCheckpointsCheck = UIUtils.createCheckbox(performanceSettings, DTUIMessages.database_consumer_wizard_use_checkpoints_label, DTUIMessages.database_consumer_wizard_use_checkpoints_description, settings.isUseCheckpoints(), 4);
+            useCheckpointsCheck.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setUseCheckpoints(useCheckpointsCheck.getSelection());
+                }
+            });
         }
 
         {
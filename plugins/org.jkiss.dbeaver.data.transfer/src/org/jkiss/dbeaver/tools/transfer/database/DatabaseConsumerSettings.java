@@ -60,6 +60,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private boolean disableUsingBatches = false;
     private String onDuplicateKeyInsertMethodId;
     private boolean disableReferentialIntegrity;
+    private boolean useCheckpoints = false;
 
     private transient Map<String, Object> dialogSettings;
 
@@ -161,6 +162,14 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.onDuplicateKeyInsertMethodId = onDuplicateKeyInsertMethodId;
     }
 
+    public boolean isUseCheckpoints() {
+        return useCheckpoints;
+    }
+
+    public void setUseCheckpoints(boolean useCheckpoints) {
+        this.useCheckpoints = useCheckpoints;
+    }
+
     public int getCommitAfterRows() {
         return commitAfterRows;
     }
@@ -195,6 +204,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         disableReferentialIntegrity = CommonUtils.getBoolean(settings.get("disableReferentialIntegrity"), disableReferentialIntegrity);
         truncateBeforeLoad = CommonUtils.getBoolean(settings.get("truncateBeforeLoad"), truncateBeforeLoad);
         openTableOnFinish = CommonUtils.getBoolean(settings.get("openTableOnFinish"), openTableOnFinish);
+        useCheckpoints = CommonUtils.getBoolean(settings.get("useCheckpoints"), useCheckpoints);
 
         List<DataTransferPipe> dataPipes = dataTransferSettings.getDataPipes();
         {
@@ -261,6 +271,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
         settings.put("truncateBeforeLoad", truncateBeforeLoad);
         settings.put("openTableOnFinish", openTableOnFinish);
+        settings.put("useCheckpoints", useCheckpoints);
 
         // Load all data mappings
         Map<String, Object> mappings = new LinkedHashMap<>();
@@ -290,6 +301,7 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_truncate_before_load, truncateBeforeLoad);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_checkpoints, useCheckpoints);
 
         return summary.toString();
     }
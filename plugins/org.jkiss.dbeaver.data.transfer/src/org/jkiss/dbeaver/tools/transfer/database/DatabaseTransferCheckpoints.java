@@ -0,0 +1,238 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.task.DBTTask;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Data transfer checkpoints.
+ * Keeps position of the last committed row of each transferred container in the task state folder.
+ * Next run of the same task resumes transfer from that position.
+ */
+public class DatabaseTransferCheckpoints {
+
+    private static final Log log = Log.getLog(DatabaseTransferCheckpoints.class);
+
+    private static final String CHECKPOINTS_FILE_NAME = "transfer-checkpoints.json";
+
+    private static final Gson gson = new GsonBuilder().setLenient().setPrettyPrinting().create();
+    private static final Type CHECKPOINTS_TYPE = new TypeToken<LinkedHashMap<String, Checkpoint>>() {}.getType();
+
+    // Types of serialized key values. Key value without type is a string
+    private static final String KEY_TYPE_INTEGER = "integer";
+    private static final String KEY_TYPE_DECIMAL = "decimal";
+    private static final String KEY_TYPE_TIMESTAMP = "timestamp";
+    private static final String KEY_TYPE_DATE = "date";
+
+    // Checkpoints which are used by running transfers. Removed when the last transfer of the task finishes
+    private static final Map<String, DatabaseTransferCheckpoints> taskCheckpoints = new HashMap<>();
+
+    public static class Checkpoint {
+        private long committedRows;
+        @Nullable
+        private String keyAttribute;
+        @Nullable
+        private String keyType;
+        @Nullable
+        private String keyValue;
+
+        public Checkpoint() {
+        }
+
+        Checkpoint(long committedRows, @Nullable String keyAttribute, @Nullable Object keyValue) {
+            this.committedRows = committedRows;
+            this.keyAttribute = keyAttribute;
+            if (keyValue instanceof Long || keyValue instanceof Integer || keyValue instanceof Short || keyValue instanceof Byte) {
+                this.keyType = KEY_TYPE_INTEGER;
+                this.keyValue = keyValue.toString();
+            } else if (keyValue instanceof Number) {
+                // Keeps all digits of BigDecimal
+                this.keyType = KEY_TYPE_DECIMAL;
+                this.keyValue = keyValue.toString();
+            } else if (keyValue instanceof Timestamp) {
+                // Keeps nanoseconds and doesn't depend on the local time zone
+                this.keyType = KEY_TYPE_TIMESTAMP;
+                this.keyValue = ((Timestamp) keyValue).toInstant().toString();
+            } else if (keyValue instanceof Date) {
+                this.keyType = KEY_TYPE_DATE;
+                this.keyValue = String.valueOf(((Date) keyValue).getTime());
+            } else {
+                this.keyValue = keyValue == null ? null : keyValue.toString();
+            }
+        }
+
+        public long getCommittedRows() {
+            return committedRows;
+        }
+
+        @Nullable
+        public String getKeyAttribute() {
+            return keyAttribute;
+        }
+
+        /**
+         * Returns key value of the last committed row.
+         * Numbers and dates are restored with the same precision they had in the source.
+         */
+        @Nullable
+        public Object getKeyValue() {
+            if (keyValue == null || keyType == null) {
+                return keyValue;
+            }
+            try {
+                switch (keyType) {
+                    case KEY_TYPE_INTEGER:
+                        return Long.valueOf(keyValue);
+                    case KEY_TYPE_DECIMAL:
+                        return new BigDecimal(keyValue);
+                    case KEY_TYPE_TIMESTAMP:
+                        return Timestamp.from(Instant.parse(keyValue));
+                    case KEY_TYPE_DATE:
+                        return new Date(Long.parseLong(keyValue));
+                    default:
+                        log.debug("Unsupported checkpoint key type '" + keyType + "'");
+                        return keyValue;
+                }
+            } catch (Exception e) {
+                log.debug("Bad checkpoint key value '" + keyValue + "'", e);
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return keyAttribute == null ? "offset " + committedRows : keyAttribute + " > " + keyValue + " (" + committedRows + " rows)";
+        }
+    }
+
+    private final File checkpointsFile;
+    private final Map<String, Checkpoint> checkpoints;
+    private int useCount;
+
+    private DatabaseTransferCheckpoints(@NotNull File checkpointsFile) {
+        this.checkpointsFile = checkpointsFile;
+        this.checkpoints = loadCheckpoints(checkpointsFile);
+    }
+
+    /**
+     * Returns checkpoints of the specified task.
+     * All running transfer jobs of the same task share one instance (and one state file).
+     * Each call must be paired with {@link #release()} when the transfer finishes.
+     */
+    @NotNull
+    public static DatabaseTransferCheckpoints getTaskCheckpoints(@NotNull DBTTask task) {
+        File checkpointsFile = new File(task.getRunLogFolder(), CHECKPOINTS_FILE_NAME);
+        synchronized (taskCheckpoints) {
+            DatabaseTransferCheckpoints checkpoints = taskCheckpoints.computeIfAbsent(
+                checkpointsFile.getAbsolutePath(),
+                path -> new DatabaseTransferCheckpoints(checkpointsFile));
+            checkpoints.useCount++;
+            return checkpoints;
+        }
+    }
+
+    /**
+     * Releases checkpoints used by finished transfer.
+     * Checkpoints are removed from memory when all transfers of the task finish. Next run reads them from file.
+     */
+    public void release() {
+        synchronized (taskCheckpoints) {
+            if (--useCount <= 0) {
+                taskCheckpoints.remove(checkpointsFile.getAbsolutePath(), this);
+            }
+        }
+    }
+
+    @Nullable
+    public synchronized Checkpoint getCheckpoint(@NotNull String sourceId) {
+        return checkpoints.get(sourceId);
+    }
+
+    /**
+     * Saves position of the last committed row.
+     * @param keyValue key value of the last committed row. Numbers and dates are stored as is, other values as strings.
+     */
+    public synchronized void updateCheckpoint(@NotNull String sourceId, long committedRows, @Nullable String keyAttribute, @Nullable Object keyValue) {
+        checkpoints.put(sourceId, new Checkpoint(committedRows, keyAttribute, keyValue));
+        flushCheckpoints();
+    }
+
+    public synchronized void removeCheckpoint(@NotNull String sourceId) {
+        if (checkpoints.remove(sourceId) != null) {
+            flushCheckpoints();
+        }
+    }
+
+    private static Map<String, Checkpoint> loadCheckpoints(File file) {
+        if (file.exists()) {
+            try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                Map<String, Checkpoint> result = gson.fromJson(reader, CHECKPOINTS_TYPE);
+                if (result != null) {
+                    return result;
+                }
+            } catch (Exception e) {
+                log.error("Error reading data transfer checkpoints from '" + file.getAbsolutePath() + "'", e);
+            }
+        }
+        return new LinkedHashMap<>();
+    }
+
+    private void flushCheckpoints() {
+        if (checkpoints.isEmpty()) {
+            if (checkpointsFile.exists() && !checkpointsFile.delete()) {
+                log.debug("Can't delete data transfer checkpoints file '" + checkpointsFile.getAbsolutePath() + "'");
+            }
+            return;
+        }
+        File folder = checkpointsFile.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.error("Can't create task state folder '" + folder.getAbsolutePath() + "'");
+            return;
+        }
+        // Write into temp file and then replace the original one.
+        // This way checkpoints file remains consistent even if process dies in the middle of write.
+        File tempFile = new File(folder, CHECKPOINTS_FILE_NAME + ".tmp");
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)) {
+                gson.toJson(checkpoints, CHECKPOINTS_TYPE, writer);
+            }
+            Files.move(tempFile.toPath(), checkpointsFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Error writing data transfer checkpoints", e);
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDAttributeBindingCustom;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.DBDInsertReplaceMethod;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
@@ -79,6 +80,15 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private boolean isPreview;
     private List<Object[]> previewRows;
 
+    // Checkpoints of resumable transfer. Set by producer
+    private DatabaseTransferCheckpoints checkpoints;
+    private String checkpointSourceId;
+    private String checkpointKeyName;
+    private long checkpointBaseRows;
+    private int checkpointKeyIndex = -1;
+    private Object checkpointKeyValue;
+    private boolean checkpointDirty;
+
     public static class ColumnMapping {
         public DBDAttributeBinding sourceAttr;
         public DatabaseMappingAttribute targetAttr;
@@ -149,7 +159,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         AbstractExecutionSource executionSource = new AbstractExecutionSource(containerMapping.getSource(), targetContext, this);
 
         DBSDataManipulator targetObject = getTargetObject();
-        if (!isPreview && offset <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
+        if (!isPreview && offset <= 0 && checkpointBaseRows <= 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
             // Truncate target tables
             if ((targetObject.getSupportedFeatures() & DBSDataManipulator.DATA_TRUNCATE) != 0) {
                 targetObject.truncateData(
@@ -171,6 +181,18 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
         columnMappings = new ColumnMapping[rsAttributes.length];
         sourceBindings = rsAttributes;
+        checkpointKeyIndex = -1;
+        if (checkpointKeyName != null) {
+            for (int i = 0; i < rsAttributes.length; i++) {
+                if (checkpointKeyName.equalsIgnoreCase(rsAttributes[i].getName())) {
+                    checkpointKeyIndex = i;
+                    break;
+                }
+            }
+            if (checkpointKeyIndex < 0) {
+                log.debug("Checkpoint key attribute '" + checkpointKeyName + "' not found in result set. Row offset will be used.");
+            }
+        }
         targetAttributes = new ArrayList<>(columnMappings.length);
         for (int i = 0; i < rsAttributes.length; i++) {
             if (isSkipColumn(rsAttributes[i])) {
@@ -264,6 +286,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         for (int i = 0; i < columnMappings.length; i++) {
             ColumnMapping column = columnMappings[i];
             if (column == null || column.targetIndex < 0) {
+                if (i == checkpointKeyIndex) {
+                    checkpointKeyValue = sourceBindings[i].getValueHandler().fetchValueObject(session, resultSet, sourceBindings[i], i);
+                }
                 continue;
             }
             final Object attrValue;
@@ -277,6 +302,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 // No value handler - get raw value
                 attrValue = resultSet.getAttributeValue(i);
             }
+            if (i == checkpointKeyIndex) {
+                checkpointKeyValue = attrValue;
+            }
             if (containerMapping != null && containerMapping.getTarget() instanceof DBSDocumentContainer) {
                 rowValues[column.targetIndex] = attrValue;
             } else {
@@ -291,6 +319,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         executeBatch.add(rowValues);
 
         rowsExported++;
+        checkpointDirty = true;
         // No need. monitor is incremented in data reader
         //session.getProgressMonitor().worked(1);
 
@@ -361,6 +390,51 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 txnManager.commit(targetSession);
             }
         }
+        if (needCommit) {
+            saveCheckpoint();
+        }
+    }
+
+    private void saveCheckpoint() {
+        if (checkpoints == null || !checkpointDirty) {
+            return;
+        }
+        Object keyValue = null;
+        if (checkpointKeyIndex >= 0 && !DBUtils.isNullValue(checkpointKeyValue)) {
+            if (checkpointKeyValue instanceof Number || checkpointKeyValue instanceof Date || checkpointKeyValue instanceof String) {
+                // Checkpoints keep these values without precision loss
+                keyValue = checkpointKeyValue;
+            } else {
+                DBDAttributeBinding keyBinding = sourceBindings[checkpointKeyIndex];
+                keyValue = keyBinding.getValueHandler().getValueDisplayString(keyBinding, checkpointKeyValue, DBDDisplayFormat.NATIVE);
+            }
+        }
+        checkpoints.updateCheckpoint(
+            checkpointSourceId,
+            checkpointBaseRows + rowsExported,
+            keyValue == null ? null : checkpointKeyName,
+            keyValue);
+        checkpointDirty = false;
+    }
+
+    /**
+     * Enables checkpoints for this consumer.
+     * Position of the last committed row is saved in checkpoints after each commit.
+     * @param keyName     name of source attribute used to resume transfer. If null then row offset is used.
+     * @param baseRows    number of rows transferred by previous (interrupted) runs
+     */
+    void setCheckpoints(@NotNull DatabaseTransferCheckpoints checkpoints, @NotNull String sourceId, @Nullable String keyName, long baseRows) {
+        this.checkpoints = checkpoints;
+        this.checkpointSourceId = sourceId;
+        this.checkpointKeyName = keyName;
+        this.checkpointBaseRows = baseRows;
+    }
+
+    /**
+     * Returns true if all rows received by this consumer were committed and saved in checkpoint
+     */
+    boolean isCheckpointCommitted() {
+        return !checkpointDirty;
     }
 
     @Override
@@ -24,7 +24,9 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -38,6 +40,7 @@ import org.jkiss.dbeaver.model.sql.SQLScriptElement;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -51,7 +54,9 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -229,31 +234,70 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
                         }
 
-                        monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export_table_data, (int) totalRows);
-
+                        DBDDataFilter readFilter = dataFilter;
+                        long startOffset = 0;
+                        DatabaseTransferCheckpoints checkpoints = getTransferCheckpoints(consumer, task);
                         try {
-                            monitor.subTask("Read data");
-
-                            // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
-                                // Just do it in single query
-                                dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize());
-                            } else {
-                                // Read all data by segments
-                                long offset = 0;
-                                int segmentSize = settings.getSegmentSize();
-                                for (; ; ) {
-                                    DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
-                                    if (statistics == null || statistics.getRowsFetched() < segmentSize) {
-                                        // Done
-                                        break;
+                            String checkpointSourceId = null;
+                            if (checkpoints != null) {
+                                checkpointSourceId = DBUtils.getObjectFullId(dataContainer);
+                                DatabaseTransferCheckpoints.Checkpoint checkpoint = checkpoints.getCheckpoint(checkpointSourceId);
+                                long committedRows = checkpoint == null ? 0 : checkpoint.getCommittedRows();
+                                DBSEntityAttribute keyAttribute = getCheckpointKeyAttribute(monitor);
+                                if (keyAttribute != null) {
+                                    // Read rows in key order. This makes the last committed key a valid resume point
+                                    readFilter = makeCheckpointFilter(session, keyAttribute, checkpoint);
+                                } else {
+                                    startOffset = committedRows;
+                                }
+                                if (checkpoint != null) {
+                                    log.debug("Resume transfer of '" + dataContainer.getName() + "' from checkpoint: " + checkpoint);
+                                    if (totalRows > 0) {
+                                        totalRows = Math.max(totalRows - committedRows, 0);
                                     }
-                                    offset += statistics.getRowsFetched();
                                 }
+                                ((DatabaseTransferConsumer) consumer).setCheckpoints(
+                                    checkpoints,
+                                    checkpointSourceId,
+                                    keyAttribute == null ? null : keyAttribute.getName(),
+                                    committedRows);
+                            }
+
+                            monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export_table_data, (int) totalRows);
+
+                            try {
+                                monitor.subTask("Read data");
+
+                                // Perform export
+                                if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                                    // Just do it in single query
+                                    dataContainer.readData(transferSource, session, consumer, readFilter, startOffset > 0 ? startOffset : -1, -1, readFlags, settings.getFetchSize());
+                                } else {
+                                    // Read all data by segments
+                                    long offset = startOffset;
+                                    int segmentSize = settings.getSegmentSize();
+                                    for (; ; ) {
+                                        DBCStatistics statistics = dataContainer.readData(
+                                            transferSource, session, consumer, readFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        if (statistics == null || statistics.getRowsFetched() < segmentSize) {
+                                            // Done
+                                            break;
+                                        }
+                                        offset += statistics.getRowsFetched();
+                                    }
+                                }
+                                if (checkpoints != null && !monitor.isCanceled() && ((DatabaseTransferConsumer) consumer).isCheckpointCommitted()) {
+                                    // Transfer completed - next run starts from scratch
+                                    checkpoints.removeCheckpoint(checkpointSourceId);
+                                }
+                            } finally {
+                                monitor.done();
                             }
                         } finally {
-                            monitor.done();
+                            if (checkpoints != null) {
+                                // Evicts checkpoints from memory after the last transfer of the task
+                                checkpoints.release();
+                            }
                         }
 
                     } finally {
@@ -278,6 +322,61 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         });
     }
 
+    @Nullable
+    private static DatabaseTransferCheckpoints getTransferCheckpoints(@NotNull IDataTransferConsumer consumer, @Nullable DBTTask task) {
+        if (task == null || task.isTemporary() || !(consumer instanceof DatabaseTransferConsumer)) {
+            return null;
+        }
+        DatabaseConsumerSettings consumerSettings = ((DatabaseTransferConsumer) consumer).getSettings();
+        if (consumerSettings == null || !consumerSettings.isUseCheckpoints()) {
+            return null;
+        }
+        return DatabaseTransferCheckpoints.getTaskCheckpoints(task);
+    }
+
+    /**
+     * Returns single-column unique key of source entity.
+     * Transfer may be resumed by key only if source is a plain table and its filter doesn't use OR conditions.
+     */
+    @Nullable
+    private DBSEntityAttribute getCheckpointKeyAttribute(@NotNull DBRProgressMonitor monitor) {
+        if (!(dataContainer instanceof DBSEntity) || (dataFilter != null && dataFilter.isAnyConstraint())) {
+            return null;
+        }
+        try {
+            List<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+            if (identifier.size() == 1) {
+                DBSEntityAttribute keyAttribute = identifier.get(0);
+                DBDAttributeConstraint keyConstraint = dataFilter == null ? null : dataFilter.getConstraint(keyAttribute.getName());
+                if (keyConstraint == null || !keyConstraint.hasCondition()) {
+                    return keyAttribute;
+                }
+            }
+        } catch (DBException e) {
+            log.debug("Error reading identifier of '" + dataContainer.getName() + "'", e);
+        }
+        return null;
+    }
+
+    @NotNull
+    private DBDDataFilter makeCheckpointFilter(
+        @NotNull DBCSession session,
+        @NotNull DBSEntityAttribute keyAttribute,
+        @Nullable DatabaseTransferCheckpoints.Checkpoint checkpoint) throws DBCException
+    {
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        filter.resetOrderBy();
+        filter.setOrder(DBUtils.getQuotedIdentifier(keyAttribute));
+        if (checkpoint != null && checkpoint.getKeyValue() != null && keyAttribute.getName().equals(checkpoint.getKeyAttribute())) {
+            DBDValueHandler valueHandler = DBUtils.findValueHandler(session, keyAttribute);
+            DBDAttributeConstraint keyConstraint = new DBDAttributeConstraint(keyAttribute, keyAttribute.getOrdinalPosition());
+            keyConstraint.setOperator(DBCLogicalOperator.GREATER);
+            keyConstraint.setValue(valueHandler.getValueFromObject(session, keyAttribute, checkpoint.getKeyValue(), false, true));
+            filter.addConstraints(Collections.singletonList(keyConstraint));
+        }
+        return filter;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DatabaseTransferProducer &&
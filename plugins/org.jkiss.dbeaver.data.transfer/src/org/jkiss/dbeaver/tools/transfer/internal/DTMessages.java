@@ -126,6 +126,7 @@ public class DTMessages extends NLS {
 	public static String database_consumer_settings_option_transfer_auto_generated_columns;
 	public static String database_consumer_settings_option_disable_referential_integrity;
 	public static String database_consumer_settings_option_truncate_before_load;
+	public static String database_consumer_settings_option_use_checkpoints;
 
 	public static String data_transfer_settings_title_find_producer;
 	public static String data_transfer_settings_message_find_data_producer;
@@ -144,30 +144,23 @@ public class DiagramObjectCollector {
         throws DBException
     {
         Collection<DBSEntity> tables = collectTables(monitor, roots, settings, showViews);
+        List<DBSEntity> newTables = new ArrayList<>(tables.size());
+        boolean allowDuplicates = diagram.getContentProvider().allowEntityDuplicates();
         for (DBSEntity table : tables) {
             if (DBUtils.isHiddenObject(table)) {
                 // Skip hidden tables
                 continue;
             }
-            addDiagramEntity(monitor, table);
+            if (!allowDuplicates && diagram.containsTable(table)) {
+                // Avoid duplicates
+                continue;
+            }
+            newTables.add(table);
         }
+        erdEntities.addAll(DiagramObjectLoader.makeEntities(monitor, diagram, newTables));
 
         // Add new relations
-        for (ERDEntity erdEntity : erdEntities) {
-            erdEntity.addModelRelations(monitor, diagram, true, false);
-        }
-    }
-
-    private void addDiagramEntity(DBRProgressMonitor monitor, DBSEntity table)
-    {
-        if (diagram.containsTable(table) && !diagram.getContentProvider().allowEntityDuplicates()) {
-            // Avoid duplicates
-            return;
-        }
-        ERDEntity erdEntity = ERDUtils.makeEntityFromObject(monitor, diagram, erdEntities, table, null);
-        if (erdEntity != null) {
-            erdEntities.add(erdEntity);
-        }
+        DiagramObjectLoader.loadRelations(monitor, diagram, erdEntities);
     }
 
     private boolean aliasExist(String alias) {
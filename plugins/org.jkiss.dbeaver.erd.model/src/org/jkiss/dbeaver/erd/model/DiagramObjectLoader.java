@@ -0,0 +1,162 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
+import org.jkiss.dbeaver.utils.RuntimeUtils;
+
+import java.util.*;
+
+/**
+ * Diagram entities loader.
+ *
+ * Large entity sets are loaded in bulk: structure (attributes, keys and foreign keys) of each parent container
+ * is read at once instead of per-entity queries. Then entities are created from the cached metadata.
+ * Metadata caches and navigator model are not thread-safe, so everything is loaded in the caller thread.
+ */
+public class DiagramObjectLoader {
+
+    private static final Log log = Log.getLog(DiagramObjectLoader.class);
+
+    // Minimal number of entities which turns on bulk loading
+    public static final int BULK_LOAD_MIN_ENTITIES = 20;
+
+    private static final long PROGRESS_UPDATE_INTERVAL = 500;
+
+    /**
+     * Reads structure of all containers which own at least {@link #BULK_LOAD_MIN_ENTITIES} of the specified entities.
+     * Drivers which support it read all attributes, constraints and foreign keys of a container with a few queries.
+     */
+    public static void cacheContainers(@NotNull DBRProgressMonitor monitor, @NotNull Collection<? extends DBSEntity> entities) {
+        Map<DBSObjectContainer, Integer> containers = new LinkedHashMap<>();
+        for (DBSEntity entity : entities) {
+            DBSObject parent = entity.getParentObject();
+            if (parent instanceof DBSObjectContainer) {
+                containers.merge((DBSObjectContainer) parent, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containers.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (entry.getValue() < BULK_LOAD_MIN_ENTITIES) {
+                continue;
+            }
+            DBSObjectContainer container = entry.getKey();
+            monitor.subTask("Cache " + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI) + " structure");
+            try {
+                container.cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+            } catch (DBException e) {
+                log.warn("Error caching structure of '" + container.getName() + "'", e);
+            }
+        }
+    }
+
+    /**
+     * Creates diagram entities. Result list has the same order as source entities list.
+     */
+    @NotNull
+    public static List<ERDEntity> makeEntities(@NotNull DBRProgressMonitor monitor, @NotNull ERDDiagram diagram, @NotNull List<? extends DBSEntity> entities) {
+        if (entities.size() < BULK_LOAD_MIN_ENTITIES) {
+            List<ERDEntity> result = new ArrayList<>(entities.size());
+            monitor.beginTask("Load entities metadata", entities.size());
+            for (DBSEntity entity : entities) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                monitor.subTask("Load " + entity.getName());
+                ERDEntity erdEntity = ERDUtils.makeEntityFromObject(monitor, diagram, result, entity, null);
+                result.add(erdEntity);
+                monitor.worked(1);
+            }
+            monitor.done();
+            return result;
+        }
+
+        cacheContainers(monitor, entities);
+
+        List<ERDEntity> result = new ArrayList<>(entities.size());
+        monitor.beginTask("Load entities metadata", entities.size());
+        ProgressReporter progress = new ProgressReporter(monitor, "Load entities metadata", entities.size());
+        for (DBSEntity entity : entities) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            result.add(ERDUtils.makeEntityFromObject(monitor, diagram, Collections.emptyList(), entity, null));
+            progress.itemLoaded();
+        }
+        monitor.done();
+        return result;
+    }
+
+    /**
+     * Creates associations of the specified entities.
+     * Entity associations are already in metadata cache at this moment (they were read during entities creation).
+     */
+    public static void loadRelations(@NotNull DBRProgressMonitor monitor, @NotNull ERDContainer diagram, @NotNull List<ERDEntity> erdEntities) {
+        monitor.beginTask("Load entities' relations", erdEntities.size());
+        ProgressReporter progress = new ProgressReporter(monitor, "Load relations", erdEntities.size());
+        for (ERDEntity erdEntity : erdEntities) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            erdEntity.addModelRelations(monitor, diagram, true, false);
+            progress.itemLoaded();
+        }
+        monitor.done();
+    }
+
+    /**
+     * Reports number of processed items and remaining time
+     */
+    private static class ProgressReporter {
+        private final DBRProgressMonitor monitor;
+        private final String taskName;
+        private final int totalItems;
+        private final long startTime = System.currentTimeMillis();
+        private long updateTime;
+        private int loadedItems;
+
+        ProgressReporter(DBRProgressMonitor monitor, String taskName, int totalItems) {
+            this.monitor = monitor;
+            this.taskName = taskName;
+            this.totalItems = totalItems;
+        }
+
+        void itemLoaded() {
+            loadedItems++;
+            monitor.worked(1);
+            long currentTime = System.currentTimeMillis();
+            if (currentTime - updateTime > PROGRESS_UPDATE_INTERVAL || loadedItems == totalItems) {
+                updateTime = currentTime;
+                long elapsedTime = currentTime - startTime;
+                long remainingTime = (long) (elapsedTime * (totalItems - loadedItems) / (double) loadedItems);
+                monitor.subTask(taskName + ": " + loadedItems + " of " + totalItems +
+                    (remainingTime > 0 ? " (remaining " + RuntimeUtils.formatExecutionTime(remainingTime) + ")" : ""));
+            }
+        }
+    }
+
+}
@@ -261,9 +261,9 @@ public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
     }
 
     public void fillEntities(DBRProgressMonitor monitor, Collection<DBSEntity> entities, DBSObject dbObject) throws DBException {
-        // Load entities
-        monitor.beginTask("Load entities metadata", entities.size());
-        List<ERDEntity> entityCache = new ArrayList<>();
+        // Resolve entities
+        List<DBSEntity> tables = new ArrayList<>(entities.size());
+        Set<DBSEntity> tableSet = new HashSet<>();
         for (DBSEntity table : entities) {
             if (monitor.isCanceled()) {
                 break;
@@ -273,33 +273,24 @@ public class ERDDiagram extends ERDObject<DBSObject> implements ERDContainer {
             } catch (DBException e) {
                 log.error("Error resolving real entity for " + table.getName());
             }
-            if (entityMap.containsKey(table)) {
+            if (entityMap.containsKey(table) || !tableSet.add(table)) {
                 continue;
             }
-            monitor.subTask("Load " + table.getName());
-            ERDEntity erdEntity = ERDUtils.makeEntityFromObject(monitor, this, entityCache, table, null);
+            tables.add(table);
+        }
+
+        // Load entities
+        List<ERDEntity> entityCache = DiagramObjectLoader.makeEntities(monitor, this, tables);
+        for (ERDEntity erdEntity : entityCache) {
+            DBSEntity table = erdEntity.getObject();
             erdEntity.setPrimary(table == dbObject);
 
             addEntity(erdEntity, false);
             entityMap.put(table, erdEntity);
-            entityCache.add(erdEntity);
-
-            monitor.worked(1);
         }
 
-        monitor.done();
-
         // Load relations
-        monitor.beginTask("Load entities' relations", entities.size());
-        for (ERDEntity erdEntity : entityCache) {
-            if (monitor.isCanceled()) {
-                break;
-            }
-            monitor.subTask("Load " + erdEntity.getName());
-            erdEntity.addModelRelations(monitor, this, true, false);
-            monitor.worked(1);
-        }
-        monitor.done();
+        DiagramObjectLoader.loadRelations(monitor, this, entityCache);
     }
 
     public boolean containsTable(DBSEntity table) {
@@ -56,7 +56,7 @@ public class DelegatingLayoutManager implements LayoutManager {
 
     public void rearrange(IFigure container)
     {
-        graphLayoutManager.layout(container);
+        graphLayoutManager.rearrange(container);
         xyLayoutManager.cleanupConstraints();
     }
 
@@ -19,25 +19,48 @@
  */
 package org.jkiss.dbeaver.erd.ui.layout;
 
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.draw2d.AbstractLayout;
 import org.eclipse.draw2d.Animation;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.ConnectionEditPart;
+import org.eclipse.gef.EditPart;
 import org.jkiss.dbeaver.erd.ui.layout.algorithm.direct.DirectedGraphLayoutVisitor;
+import org.jkiss.dbeaver.erd.ui.layout.algorithm.layered.LayeredGraphLayout;
 import org.jkiss.dbeaver.erd.ui.part.DiagramPart;
+import org.jkiss.dbeaver.erd.ui.part.NodePart;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.ui.UIUtils;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
- * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram
+ * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram.
+ * Large diagrams are laid out by LayeredGraphLayout in background job.
+ * If only a few nodes were added to already laid out diagram then only these new nodes are placed.
+ *
  * @author Serge Rider
  */
 public class GraphLayoutAuto extends AbstractLayout
 {
 
+	// Diagrams with more nodes are laid out in background
+	public static final int LARGE_DIAGRAM_SIZE = 200;
+	// Maximal ratio of new nodes which are placed without full layout
+	private static final double MAX_INCREMENTAL_RATIO = 0.25;
+
 	private DiagramPart diagram;
+	private boolean fullLayout;
+	private AbstractJob layoutJob;
 
 	public GraphLayoutAuto(DiagramPart diagram)
 	{
@@ -58,9 +81,60 @@ public class GraphLayoutAuto extends AbstractLayout
 	}
 
 	
+	/**
+	 * Lays out all nodes (even if they already have bounds)
+	 */
+	public void rearrange(IFigure container)
+	{
+		fullLayout = true;
+		try {
+			layout(container);
+		} finally {
+			fullLayout = false;
+		}
+	}
+
 	@Override
     public void layout(IFigure container)
 	{
+		if (layoutJob != null) {
+			// Wait for background layout
+			return;
+		}
+		List<NodePart> nodeParts = new ArrayList<>();
+		int placedCount = 0;
+		for (Object child : diagram.getChildren()) {
+			if (child instanceof NodePart) {
+				nodeParts.add((NodePart) child);
+				if (((NodePart) child).getBounds() != null) {
+					placedCount++;
+				}
+			}
+		}
+		if (!fullLayout && placedCount > 0) {
+			int newCount = nodeParts.size() - placedCount;
+			if (newCount == 0 && nodeParts.size() >= LARGE_DIAGRAM_SIZE) {
+				// Keep existing layout. Large diagrams are laid out only on explicit request.
+				for (NodePart part : nodeParts) {
+					part.getFigure().setBounds(part.getBounds().getCopy());
+				}
+				return;
+			}
+			if (newCount > 0 && newCount <= nodeParts.size() * MAX_INCREMENTAL_RATIO) {
+				Animation.markBegin();
+				LayeredGraphLayout graphLayout = createGraphLayout(nodeParts, true);
+				graphLayout.layout(new VoidProgressMonitor());
+				applyGraphLayout(graphLayout);
+				diagram.setTableModelBounds();
+				Animation.run(400);
+				return;
+			}
+		}
+		if (nodeParts.size() >= LARGE_DIAGRAM_SIZE) {
+			startLayoutJob(container, createGraphLayout(nodeParts, false));
+			return;
+		}
+
         Animation.markBegin();
 /*
 		GraphAnimation.recordInitialState(container);
@@ -76,4 +150,68 @@ public class GraphLayoutAuto extends AbstractLayout
         Animation.run(400);
 	}
 	
-}
\ No newline at end of file
+	private LayeredGraphLayout createGraphLayout(List<NodePart> nodeParts, boolean keepPlaced)
+	{
+		LayeredGraphLayout graphLayout = new LayeredGraphLayout();
+		Map<EditPart, LayeredGraphLayout.Node> partNodes = new IdentityHashMap<>();
+		for (NodePart part : nodeParts) {
+			Dimension size = part.getFigure().getPreferredSize(-1, -1);
+			Rectangle bounds = part.getBounds();
+			LayeredGraphLayout.Node node;
+			if (keepPlaced && bounds != null) {
+				node = graphLayout.addFixedNode(part, bounds.x, bounds.y, size.width, size.height);
+			} else {
+				node = graphLayout.addNode(part, size.width, size.height);
+			}
+			partNodes.put(part, node);
+		}
+		for (NodePart part : nodeParts) {
+			LayeredGraphLayout.Node source = partNodes.get(part);
+			for (Object connection : part.getSourceConnections()) {
+				LayeredGraphLayout.Node target = partNodes.get(((ConnectionEditPart) connection).getTarget());
+				if (target != null) {
+					graphLayout.addEdge(source, target);
+				}
+			}
+		}
+		return graphLayout;
+	}
+
+	private void startLayoutJob(IFigure container, LayeredGraphLayout graphLayout)
+	{
+		AbstractJob job = new AbstractJob("Layout diagram") {
+			@Override
+			protected IStatus run(DBRProgressMonitor monitor) {
+				boolean completed = graphLayout.layout(monitor);
+				UIUtils.asyncExec(() -> {
+					layoutJob = null;
+					if (completed && diagram.isActive()) {
+						applyGraphLayout(graphLayout);
+						diagram.setTableModelBounds();
+						if (container.getLayoutManager() != GraphLayoutAuto.this) {
+							// Manual layout is active - update its constraints
+							diagram.setTableFigureBounds(true);
+						}
+						container.revalidate();
+					}
+				});
+				return completed ? Status.OK_STATUS : Status.CANCEL_STATUS;
+			}
+		};
+		layoutJob = job;
+		job.schedule();
+	}
+
+	private void applyGraphLayout(LayeredGraphLayout graphLayout)
+	{
+		for (LayeredGraphLayout.Node node : graphLayout.getNodes()) {
+			NodePart part = (NodePart) node.getData();
+			if (part.getParent() != diagram) {
+				// Removed from diagram during layout
+				continue;
+			}
+			part.getFigure().setBounds(new Rectangle(node.getX(), node.getY(), node.getWidth(), node.getHeight()));
+		}
+	}
+
+}
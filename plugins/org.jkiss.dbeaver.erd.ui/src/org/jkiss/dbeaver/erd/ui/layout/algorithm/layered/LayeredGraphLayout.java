@@ -0,0 +1,637 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.erd.ui.layout.algorithm.layered;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.*;
+
+/**
+ * Layered graph layout for large diagrams.
+ *
+ * Each connected component is laid out separately: cycles are broken, nodes are assigned to layers (columns)
+ * by the longest path, layers are ordered with barycenter heuristic and too tall layers are wrapped into several columns.
+ * Then components are packed in rows. All steps are (almost) linear in the number of nodes and edges.
+ *
+ * If graph contains fixed nodes (which already have a position) then only other nodes are placed,
+ * as close to their placed neighbors as possible.
+ */
+public class LayeredGraphLayout {
+
+    private static final int SWEEP_COUNT = 4;
+    private static final int MIN_COLUMN_SIZE = 10;
+    private static final int MAX_SEARCH_RING = 500;
+
+    public static class Node {
+        private final int index;
+        private final Object data;
+        private final int width;
+        private final int height;
+        private int x;
+        private int y;
+        private boolean fixed;
+
+        private Node(int index, Object data, int width, int height) {
+            this.index = index;
+            this.data = data;
+            this.width = width;
+            this.height = height;
+        }
+
+        public Object getData() {
+            return data;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        public boolean isFixed() {
+            return fixed;
+        }
+
+        @Override
+        public String toString() {
+            return data + " [" + x + "," + y + " " + width + "x" + height + "]";
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+    private int[] edgeSources = new int[16];
+    private int[] edgeTargets = new int[16];
+    private int edgeCount;
+
+    private int nodeSpacing = 40;
+    private int layerSpacing = 80;
+    private double aspectRatio = 1.5;
+
+    // Adjacency (CSR): neighbors of node i are adjacent[adjacentStart[i]..adjacentStart[i + 1])
+    private int[] adjacentStart;
+    private int[] adjacent;
+    private int[] outgoingStart;
+    private int[] outgoing;
+
+    // Per-node work data
+    private int[] layers;
+    private int[] topologicalIndex;
+    private double[] positions;
+    private double[] barycenters;
+    private boolean[] hasIncoming;
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    @NotNull
+    public Node addNode(@Nullable Object data, int width, int height) {
+        Node node = new Node(nodes.size(), data, width, height);
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Adds node which position must be preserved
+     */
+    @NotNull
+    public Node addFixedNode(@Nullable Object data, int x, int y, int width, int height) {
+        Node node = addNode(data, width, height);
+        node.x = x;
+        node.y = y;
+        node.fixed = true;
+        return node;
+    }
+
+    public void addEdge(@NotNull Node source, @NotNull Node target) {
+        if (edgeCount == edgeSources.length) {
+            edgeSources = Arrays.copyOf(edgeSources, edgeCount * 2);
+            edgeTargets = Arrays.copyOf(edgeTargets, edgeCount * 2);
+        }
+        edgeSources[edgeCount] = source.index;
+        edgeTargets[edgeCount] = target.index;
+        edgeCount++;
+    }
+
+    public void setNodeSpacing(int nodeSpacing) {
+        this.nodeSpacing = nodeSpacing;
+    }
+
+    public void setLayerSpacing(int layerSpacing) {
+        this.layerSpacing = layerSpacing;
+    }
+
+    /**
+     * Desired width/height ratio of the whole diagram
+     */
+    public void setAspectRatio(double aspectRatio) {
+        this.aspectRatio = aspectRatio;
+    }
+
+    /**
+     * Calculates node positions.
+     *
+     * @return false if layout was canceled
+     */
+    public boolean layout(@NotNull DBRProgressMonitor monitor) {
+        if (nodes.isEmpty()) {
+            return true;
+        }
+        buildAdjacency();
+        for (Node node : nodes) {
+            if (node.fixed) {
+                return placeIncrementally(monitor);
+            }
+        }
+
+        List<int[]> components = findComponents();
+        monitor.beginTask("Layout diagram", components.size());
+        try {
+            layers = new int[nodes.size()];
+            topologicalIndex = new int[nodes.size()];
+            positions = new double[nodes.size()];
+            barycenters = new double[nodes.size()];
+            hasIncoming = new boolean[nodes.size()];
+            for (int target : outgoing) {
+                hasIncoming[target] = true;
+            }
+            int[][] componentSizes = new int[components.size()][];
+            for (int i = 0; i < components.size(); i++) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                if (i % 100 == 0) {
+                    monitor.subTask("Layout component " + (i + 1) + " of " + components.size());
+                }
+                componentSizes[i] = layoutComponent(components.get(i));
+                monitor.worked(1);
+            }
+            packComponents(components, componentSizes);
+        } finally {
+            monitor.done();
+        }
+        return true;
+    }
+
+    private void buildAdjacency() {
+        int nodeCount = nodes.size();
+        adjacentStart = new int[nodeCount + 1];
+        outgoingStart = new int[nodeCount + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            int source = edgeSources[i], target = edgeTargets[i];
+            if (source == target) {
+                continue;
+            }
+            adjacentStart[source + 1]++;
+            adjacentStart[target + 1]++;
+            outgoingStart[source + 1]++;
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            adjacentStart[i + 1] += adjacentStart[i];
+            outgoingStart[i + 1] += outgoingStart[i];
+        }
+        adjacent = new int[adjacentStart[nodeCount]];
+        outgoing = new int[outgoingStart[nodeCount]];
+        int[] adjacentPos = Arrays.copyOf(adjacentStart, nodeCount);
+        int[] outgoingPos = Arrays.copyOf(outgoingStart, nodeCount);
+        for (int i = 0; i < edgeCount; i++) {
+            int source = edgeSources[i], target = edgeTargets[i];
+            if (source == target) {
+                continue;
+            }
+            adjacent[adjacentPos[source]++] = target;
+            adjacent[adjacentPos[target]++] = source;
+            outgoing[outgoingPos[source]++] = target;
+        }
+    }
+
+    private List<int[]> findComponents() {
+        int nodeCount = nodes.size();
+        boolean[] visited = new boolean[nodeCount];
+        int[] queue = new int[nodeCount];
+        List<int[]> components = new ArrayList<>();
+        for (int start = 0; start < nodeCount; start++) {
+            if (visited[start]) {
+                continue;
+            }
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            visited[start] = true;
+            while (head < tail) {
+                int node = queue[head++];
+                for (int i = adjacentStart[node]; i < adjacentStart[node + 1]; i++) {
+                    int neighbor = adjacent[i];
+                    if (!visited[neighbor]) {
+                        visited[neighbor] = true;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            components.add(Arrays.copyOf(queue, tail));
+        }
+        return components;
+    }
+
+    /**
+     * Lays out single connected component with origin in (0, 0).
+     *
+     * @return component width and height
+     */
+    private int[] layoutComponent(int[] component) {
+        if (component.length == 1) {
+            Node node = nodes.get(component[0]);
+            node.x = 0;
+            node.y = 0;
+            return new int[] { node.width, node.height };
+        }
+
+        int[] topologicalOrder = sortTopologically(component);
+
+        // Longest path layering. Back edges (found during topological sort) are ignored.
+        for (int i = 0; i < topologicalOrder.length; i++) {
+            topologicalIndex[topologicalOrder[i]] = i;
+            layers[topologicalOrder[i]] = 0;
+        }
+        int layerCount = 1;
+        for (int i = 0; i < topologicalOrder.length; i++) {
+            int node = topologicalOrder[i];
+            for (int k = outgoingStart[node]; k < outgoingStart[node + 1]; k++) {
+                int target = outgoing[k];
+                if (topologicalIndex[target] > i && layers[target] <= layers[node]) {
+                    layers[target] = layers[node] + 1;
+                    layerCount = Math.max(layerCount, layers[target] + 1);
+                }
+            }
+        }
+
+        // Group nodes by layers (in topological order)
+        List<List<Integer>> layerNodes = new ArrayList<>(layerCount);
+        for (int i = 0; i < layerCount; i++) {
+            layerNodes.add(new ArrayList<>());
+        }
+        for (int node : topologicalOrder) {
+            layerNodes.get(layers[node]).add(node);
+        }
+        for (List<Integer> layer : layerNodes) {
+            updatePositions(layer);
+        }
+
+        // Reduce crossings
+        for (int sweep = 0; sweep < SWEEP_COUNT; sweep++) {
+            for (int i = 1; i < layerCount; i++) {
+                orderByBarycenter(layerNodes.get(i), true);
+            }
+            for (int i = layerCount - 2; i >= 0; i--) {
+                orderByBarycenter(layerNodes.get(i), false);
+            }
+        }
+
+        // Assign coordinates. Tall layers are wrapped into several columns.
+        int maxColumnSize = Math.max(MIN_COLUMN_SIZE, (int) Math.ceil(Math.sqrt(component.length * aspectRatio)));
+        List<int[]> columns = new ArrayList<>();
+        int x = 0, maxHeight = 0;
+        for (List<Integer> layer : layerNodes) {
+            for (int start = 0; start < layer.size(); start += maxColumnSize) {
+                int end = Math.min(layer.size(), start + maxColumnSize);
+                int columnWidth = 0, y = 0;
+                for (int i = start; i < end; i++) {
+                    Node node = nodes.get(layer.get(i));
+                    node.x = x;
+                    node.y = y;
+                    y += node.height + nodeSpacing;
+                    columnWidth = Math.max(columnWidth, node.width);
+                }
+                int columnHeight = y - nodeSpacing;
+                maxHeight = Math.max(maxHeight, columnHeight);
+                columns.add(new int[] { layers[layer.get(start)], start, end, columnHeight, x, columnWidth });
+                x += columnWidth + layerSpacing;
+            }
+        }
+        int totalWidth = x - layerSpacing;
+
+        // Long chains of layers are folded into several bands placed one under another
+        int bandCount = Math.max(1, (int) Math.round(Math.sqrt(totalWidth / (maxHeight * aspectRatio))));
+        int bandWidth = totalWidth / bandCount + 1;
+        int bandX = 0, bandY = 0, bandIndex = 0, width = 0;
+        for (int[] column : columns) {
+            int columnX = column[4];
+            if (columnX - bandX + column[5] > bandWidth && columnX > bandX && bandIndex < bandCount - 1) {
+                bandX = columnX;
+                bandY += maxHeight + layerSpacing;
+                bandIndex++;
+            }
+            width = Math.max(width, columnX - bandX + column[5]);
+            // Center columns vertically
+            int offsetY = bandY + (maxHeight - column[3]) / 2;
+            List<Integer> layer = layerNodes.get(column[0]);
+            for (int i = column[1]; i < column[2]; i++) {
+                Node node = nodes.get(layer.get(i));
+                node.x -= bandX;
+                node.y += offsetY;
+            }
+        }
+        return new int[] { width, bandY + maxHeight };
+    }
+
+    /**
+     * Iterative DFS. Returns nodes in reverse post-order, which is a topological order if back edges are ignored.
+     * Sources are visited first.
+     */
+    private int[] sortTopologically(int[] component) {
+        // Layers array is used as visit state: 0 - not visited, 1 - in progress, 2 - done
+        int[] state = layers;
+        for (int node : component) {
+            state[node] = 0;
+        }
+        int[] result = new int[component.length];
+        int resultPos = component.length;
+        int[] stack = new int[component.length];
+        int[] stackEdge = new int[component.length];
+        for (int pass = 0; pass < 2; pass++) {
+            for (int start : component) {
+                if (state[start] != 0 || (pass == 0 && hasIncoming[start])) {
+                    continue;
+                }
+                int depth = 0;
+                stack[0] = start;
+                stackEdge[0] = outgoingStart[start];
+                state[start] = 1;
+                while (depth >= 0) {
+                    int node = stack[depth];
+                    if (stackEdge[depth] < outgoingStart[node + 1]) {
+                        int target = outgoing[stackEdge[depth]++];
+                        if (state[target] == 0) {
+                            state[target] = 1;
+                            depth++;
+                            stack[depth] = target;
+                            stackEdge[depth] = outgoingStart[target];
+                        }
+                    } else {
+                        state[node] = 2;
+                        result[--resultPos] = node;
+                        depth--;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void orderByBarycenter(List<Integer> layer, boolean usePrevious) {
+        if (layer.size() < 2) {
+            return;
+        }
+        int layerIndex = layers[layer.get(0)];
+        for (int node : layer) {
+            double sum = 0;
+            int count = 0;
+            for (int k = adjacentStart[node]; k < adjacentStart[node + 1]; k++) {
+                int neighbor = adjacent[k];
+                if (usePrevious ? layers[neighbor] < layerIndex : layers[neighbor] > layerIndex) {
+                    sum += positions[neighbor];
+                    count++;
+                }
+            }
+            barycenters[node] = count == 0 ? positions[node] : sum / count;
+        }
+        layer.sort(Comparator.comparingDouble(node -> barycenters[node]));
+        updatePositions(layer);
+    }
+
+    /**
+     * Node position within its layer normalized to [0..1]
+     */
+    private void updatePositions(List<Integer> layer) {
+        int size = layer.size();
+        for (int i = 0; i < size; i++) {
+            positions[layer.get(i)] = size == 1 ? 0.5 : (double) i / (size - 1);
+        }
+    }
+
+    /**
+     * Packs components in rows. Largest components go first.
+     */
+    private void packComponents(List<int[]> components, int[][] componentSizes) {
+        Integer[] order = new Integer[components.size()];
+        long totalArea = 0;
+        int maxWidth = 0;
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            totalArea += (long) (componentSizes[i][0] + nodeSpacing) * (componentSizes[i][1] + nodeSpacing);
+            maxWidth = Math.max(maxWidth, componentSizes[i][0]);
+        }
+        Arrays.sort(order, (o1, o2) -> {
+            int diff = componentSizes[o2][1] - componentSizes[o1][1];
+            return diff != 0 ? diff : componentSizes[o2][0] - componentSizes[o1][0];
+        });
+        int rowWidth = Math.max(maxWidth, (int) Math.sqrt(totalArea * aspectRatio));
+
+        int x = 0, y = 0, rowHeight = 0;
+        for (int index : order) {
+            int[] size = componentSizes[index];
+            if (x > 0 && x + size[0] > rowWidth) {
+                x = 0;
+                y += rowHeight + nodeSpacing;
+                rowHeight = 0;
+            }
+            for (int node : components.get(index)) {
+                Node n = nodes.get(node);
+                n.x += x;
+                n.y += y;
+            }
+            x += size[0] + nodeSpacing;
+            rowHeight = Math.max(rowHeight, size[1]);
+        }
+    }
+
+    /**
+     * Places non-fixed nodes near their already placed neighbors without overlapping other nodes.
+     */
+    private boolean placeIncrementally(@NotNull DBRProgressMonitor monitor) {
+        List<Node> newNodes = new ArrayList<>();
+        long widthSum = 0, heightSum = 0;
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        for (Node node : nodes) {
+            if (node.fixed) {
+                widthSum += node.width;
+                heightSum += node.height;
+                minX = Math.min(minX, node.x);
+                minY = Math.min(minY, node.y);
+                maxX = Math.max(maxX, node.x + node.width);
+            } else {
+                newNodes.add(node);
+            }
+        }
+        int fixedCount = nodes.size() - newNodes.size();
+        OccupancyGrid grid = new OccupancyGrid(
+            (int) Math.max(10, widthSum / fixedCount + nodeSpacing),
+            (int) Math.max(10, heightSum / fixedCount + nodeSpacing));
+        boolean[] placed = new boolean[nodes.size()];
+        for (Node node : nodes) {
+            if (node.fixed) {
+                grid.add(node.x, node.y, node.width, node.height);
+                placed[node.index] = true;
+            }
+        }
+
+        // Nodes with more placed neighbors go first
+        int[] placedNeighbors = new int[nodes.size()];
+        for (Node node : newNodes) {
+            for (int k = adjacentStart[node.index]; k < adjacentStart[node.index + 1]; k++) {
+                if (placed[adjacent[k]]) {
+                    placedNeighbors[node.index]++;
+                }
+            }
+        }
+        newNodes.sort((o1, o2) -> placedNeighbors[o2.index] - placedNeighbors[o1.index]);
+
+        monitor.beginTask("Place new diagram nodes", newNodes.size());
+        try {
+            int freeX = maxX + layerSpacing;
+            for (Node node : newNodes) {
+                if (monitor.isCanceled()) {
+                    return false;
+                }
+                long sumX = 0, sumY = 0;
+                int count = 0;
+                for (int k = adjacentStart[node.index]; k < adjacentStart[node.index + 1]; k++) {
+                    if (placed[adjacent[k]]) {
+                        Node neighbor = nodes.get(adjacent[k]);
+                        sumX += neighbor.x + neighbor.width / 2;
+                        sumY += neighbor.y + neighbor.height / 2;
+                        count++;
+                    }
+                }
+                int targetX, targetY;
+                if (count > 0) {
+                    targetX = (int) (sumX / count) - node.width / 2;
+                    targetY = (int) (sumY / count) - node.height / 2;
+                } else {
+                    // Unrelated nodes go to the right of the existing diagram
+                    targetX = freeX;
+                    targetY = minY;
+                }
+                placeNear(node, targetX, targetY, grid);
+                grid.add(node.x, node.y, node.width, node.height);
+                placed[node.index] = true;
+                monitor.worked(1);
+            }
+        } finally {
+            monitor.done();
+        }
+        return true;
+    }
+
+    /**
+     * Searches free position in rings around the target point
+     */
+    private void placeNear(Node node, int targetX, int targetY, OccupancyGrid grid) {
+        int stepX = (node.width + nodeSpacing) / 2 + 1;
+        int stepY = (node.height + nodeSpacing) / 2 + 1;
+        for (int ring = 0; ring < MAX_SEARCH_RING; ring++) {
+            int bestX = 0, bestY = 0;
+            long bestDistance = Long.MAX_VALUE;
+            for (int i = -ring; i <= ring; i++) {
+                for (int j = -ring; j <= ring; j++) {
+                    if (Math.abs(i) != ring && Math.abs(j) != ring) {
+                        continue;
+                    }
+                    int x = targetX + i * stepX, y = targetY + j * stepY;
+                    if (x < 0 || y < 0) {
+                        continue;
+                    }
+                    long distance = (long) (x - targetX) * (x - targetX) + (long) (y - targetY) * (y - targetY);
+                    if (distance < bestDistance &&
+                        !grid.intersects(x - nodeSpacing, y - nodeSpacing, node.width + nodeSpacing * 2, node.height + nodeSpacing * 2))
+                    {
+                        bestX = x;
+                        bestY = y;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            if (bestDistance != Long.MAX_VALUE) {
+                node.x = bestX;
+                node.y = bestY;
+                return;
+            }
+        }
+        // Should never happen
+        node.x = Math.max(0, targetX);
+        node.y = Math.max(0, targetY);
+    }
+
+    /**
+     * Uniform grid of occupied rectangles
+     */
+    private static class OccupancyGrid {
+        private final int cellWidth;
+        private final int cellHeight;
+        private final Map<Long, List<int[]>> cells = new HashMap<>();
+
+        OccupancyGrid(int cellWidth, int cellHeight) {
+            this.cellWidth = cellWidth;
+            this.cellHeight = cellHeight;
+        }
+
+        void add(int x, int y, int width, int height) {
+            int[] rect = { x, y, width, height };
+            for (int cx = Math.floorDiv(x, cellWidth); cx <= Math.floorDiv(x + width, cellWidth); cx++) {
+                for (int cy = Math.floorDiv(y, cellHeight); cy <= Math.floorDiv(y + height, cellHeight); cy++) {
+                    cells.computeIfAbsent(cellKey(cx, cy), k -> new ArrayList<>(2)).add(rect);
+                }
+            }
+        }
+
+        boolean intersects(int x, int y, int width, int height) {
+            for (int cx = Math.floorDiv(x, cellWidth); cx <= Math.floorDiv(x + width, cellWidth); cx++) {
+                for (int cy = Math.floorDiv(y, cellHeight); cy <= Math.floorDiv(y + height, cellHeight); cy++) {
+                    List<int[]> rects = cells.get(cellKey(cx, cy));
+                    if (rects != null) {
+                        for (int[] rect : rects) {
+                            if (x < rect[0] + rect[2] && rect[0] < x + width && y < rect[1] + rect[3] && rect[1] < y + height) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static long cellKey(int cx, int cy) {
+            return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+        }
+    }
+
+}
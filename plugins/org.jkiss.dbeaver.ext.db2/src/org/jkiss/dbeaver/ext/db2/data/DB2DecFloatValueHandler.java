@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.ext.db2.data;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.data.DBDFormatSettings;
 import org.jkiss.dbeaver.model.exec.DBCException;
@@ -23,6 +24,7 @@ import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCRowBuffer;
 import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 
@@ -40,6 +42,12 @@ public class DB2DecFloatValueHandler extends JDBCNumberValueHandler {
         super(type, formatSettings);
     }
 
+    @NotNull
+    @Override
+    public JDBCRowBuffer.ValueKind getFetchValueKind(@NotNull DBSTypedObject type) {
+        return JDBCRowBuffer.ValueKind.OBJECT;
+    }
+
     @Nullable
     @Override
     protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index) throws DBCException, SQLException {
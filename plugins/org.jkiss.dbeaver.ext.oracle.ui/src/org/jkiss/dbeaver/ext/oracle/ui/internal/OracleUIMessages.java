@@ -125,6 +125,8 @@ public final class OracleUIMessages extends NLS {
     public static String edit_create_checkbox_group_use_metadata_optimizer_tip;
     public static String pref_page_oracle_checkbox_disable_escape_processing;
     public static String pref_page_oracle_checkbox_enable_dbms_output;
+    public static String pref_page_oracle_label_dbms_output_chunk_size;
+    public static String pref_page_oracle_label_dbms_output_chunk_size_tip;
     public static String pref_page_oracle_checkbox_use_rowid_to_identify_rows;
     public static String pref_page_oracle_checkbox_read_all_synonyms;
     public static String pref_page_oracle_label_by_default_plan_table;
@@ -40,6 +40,7 @@ public class PrefPageOracle extends TargetPrefPage
     private Text explainTableText;
     private Button rowidSupportCheck;
     private Button enableDbmsOuputCheck;
+    private Spinner dbmsOutputChunkSizeSpinner;
     private Button readAllSynonymsCheck;
     private Button disableScriptEscapeProcessingCheck;
     private Button useRuleHint;
@@ -62,6 +63,7 @@ public class PrefPageOracle extends TargetPrefPage
             store.contains(OracleConstants.PREF_EXPLAIN_TABLE_NAME) ||
             store.contains(OracleConstants.PREF_SUPPORT_ROWID) ||
             store.contains(OracleConstants.PREF_DBMS_OUTPUT) ||
+            store.contains(OracleConstants.PREF_DBMS_OUTPUT_CHUNK_SIZE) ||
             store.contains(OracleConstants.PREF_DBMS_READ_ALL_SYNONYMS) ||
             store.contains(OracleConstants.PREF_DISABLE_SCRIPT_ESCAPE_PROCESSING) ||
             store.contains(OracleConstants.PROP_USE_RULE_HINT) ||
@@ -99,6 +101,14 @@ public class PrefPageOracle extends TargetPrefPage
             Group miscGroup = UIUtils.createControlGroup(composite, OracleUIMessages.pref_page_oracle_legend_misc, 1, GridData.FILL_HORIZONTAL, 0);
             rowidSupportCheck = UIUtils.createCheckbox(miscGroup, OracleUIMessages.pref_page_oracle_checkbox_use_rowid_to_identify_rows, true);
             enableDbmsOuputCheck = UIUtils.createCheckbox(miscGroup, OracleUIMessages.pref_page_oracle_checkbox_enable_dbms_output, true);
+            Composite dbmsOutputComposite = UIUtils.createPlaceholder(miscGroup, 2);
+            dbmsOutputChunkSizeSpinner = UIUtils.createLabelSpinner(
+                dbmsOutputComposite,
+                OracleUIMessages.pref_page_oracle_label_dbms_output_chunk_size,
+                OracleUIMessages.pref_page_oracle_label_dbms_output_chunk_size_tip,
+                OracleConstants.DEFAULT_DBMS_OUTPUT_CHUNK_SIZE,
+                1,
+                Short.MAX_VALUE);
             readAllSynonymsCheck = UIUtils.createCheckbox(miscGroup, OracleUIMessages.pref_page_oracle_checkbox_read_all_synonyms, OracleUIMessages.pref_page_oracle_label_if_unchecked_java_classes, true, 1);
             disableScriptEscapeProcessingCheck = UIUtils.createCheckbox(miscGroup, OracleUIMessages.pref_page_oracle_checkbox_disable_escape_processing, OracleUIMessages.pref_page_oracle_label_disable_client_side_parser, true, 1);
         }
@@ -160,6 +170,7 @@ public class PrefPageOracle extends TargetPrefPage
         explainTableText.setText(store.getString(OracleConstants.PREF_EXPLAIN_TABLE_NAME));
         rowidSupportCheck.setSelection(store.getBoolean(OracleConstants.PREF_SUPPORT_ROWID));
         enableDbmsOuputCheck.setSelection(store.getBoolean(OracleConstants.PREF_DBMS_OUTPUT));
+        dbmsOutputChunkSizeSpinner.setSelection(store.getInt(OracleConstants.PREF_DBMS_OUTPUT_CHUNK_SIZE));
         readAllSynonymsCheck.setSelection(store.getBoolean(OracleConstants.PREF_DBMS_READ_ALL_SYNONYMS));
         disableScriptEscapeProcessingCheck.setSelection(store.getBoolean(OracleConstants.PREF_DISABLE_SCRIPT_ESCAPE_PROCESSING));
 
@@ -176,6 +187,7 @@ public class PrefPageOracle extends TargetPrefPage
         store.setValue(OracleConstants.PREF_EXPLAIN_TABLE_NAME, explainTableText.getText());
         store.setValue(OracleConstants.PREF_SUPPORT_ROWID, rowidSupportCheck.getSelection());
         store.setValue(OracleConstants.PREF_DBMS_OUTPUT, enableDbmsOuputCheck.getSelection());
+        store.setValue(OracleConstants.PREF_DBMS_OUTPUT_CHUNK_SIZE, dbmsOutputChunkSizeSpinner.getSelection());
         store.setValue(OracleConstants.PREF_DBMS_READ_ALL_SYNONYMS, readAllSynonymsCheck.getSelection());
         store.setValue(OracleConstants.PREF_DISABLE_SCRIPT_ESCAPE_PROCESSING, disableScriptEscapeProcessingCheck.getSelection());
 
@@ -194,6 +206,7 @@ public class PrefPageOracle extends TargetPrefPage
         store.setToDefault(OracleConstants.PREF_EXPLAIN_TABLE_NAME);
         store.setToDefault(OracleConstants.PREF_SUPPORT_ROWID);
         store.setToDefault(OracleConstants.PREF_DBMS_OUTPUT);
+        store.setToDefault(OracleConstants.PREF_DBMS_OUTPUT_CHUNK_SIZE);
         store.setToDefault(OracleConstants.PREF_DBMS_READ_ALL_SYNONYMS);
         store.setToDefault(OracleConstants.PREF_DISABLE_SCRIPT_ESCAPE_PROCESSING);
 
@@ -53,6 +53,8 @@ public class OracleActivator extends Plugin {
             DBWorkbench.getPlatform().getPreferenceStore(), OracleConstants.PREF_SUPPORT_ROWID, true);
         PrefUtils.setDefaultPreferenceValue(
             DBWorkbench.getPlatform().getPreferenceStore(), OracleConstants.PREF_DBMS_OUTPUT, true);
+        PrefUtils.setDefaultPreferenceValue(
+            DBWorkbench.getPlatform().getPreferenceStore(), OracleConstants.PREF_DBMS_OUTPUT_CHUNK_SIZE, OracleConstants.DEFAULT_DBMS_OUTPUT_CHUNK_SIZE);
         PrefUtils.setDefaultPreferenceValue(
             DBWorkbench.getPlatform().getPreferenceStore(), OracleConstants.PREF_DBMS_READ_ALL_SYNONYMS, true);
         PrefUtils.setDefaultPreferenceValue(
@@ -146,12 +146,14 @@ public class OracleConstants {
     public static final String PREF_EXPLAIN_TABLE_NAME = "oracle.explain.table";
     public static final String PREF_SUPPORT_ROWID = "oracle.support.rowid";
     public static final String PREF_DBMS_OUTPUT = "oracle.dbms.output";
+    public static final String PREF_DBMS_OUTPUT_CHUNK_SIZE = "oracle.dbms.output.chunk.size";
     public static final String PREF_DBMS_READ_ALL_SYNONYMS = "oracle.read.all.synonyms";
     public static final String PREF_DISABLE_SCRIPT_ESCAPE_PROCESSING = "oracle.disable.script.escape";
 
     public static final String NLS_DEFAULT_VALUE = "Default";
     public static final String PREF_KEY_DDL_FORMAT = "oracle.ddl.format";
     public static final int MAXIMUM_DBMS_OUTPUT_SIZE = 1000000;
+    public static final int DEFAULT_DBMS_OUTPUT_CHUNK_SIZE = 1000;
 
     public static final String VAR_ORA_HOME = "ORA_HOME";
     public static final String VAR_ORACLE_HOME = "ORACLE_HOME";
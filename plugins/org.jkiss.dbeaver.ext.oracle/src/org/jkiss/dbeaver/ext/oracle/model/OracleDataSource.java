@@ -788,6 +788,9 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
     }
 
     private class OracleOutputReader implements DBCServerOutputReader {
+        // DBMS_OUTPUT.GET_LINES requires DBMSOUTPUT_LINESARRAY type which is missing in old Oracle versions
+        private volatile boolean getLinesSupported = true;
+
         @Override
         public boolean isServerOutputEnabled() {
             return getContainer().getPreferenceStore().getBoolean(OracleConstants.PREF_DBMS_OUTPUT);
@@ -795,6 +798,8 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
 
         @Override
         public boolean isAsyncOutputReadSupported() {
+            // DBMS_OUTPUT buffer belongs to the session and is filled only when PL/SQL call ends.
+            // It can't be read from another session or during statement execution.
             return false;
         }
 
@@ -812,6 +817,18 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
         @Override
         public void readServerOutput(@NotNull DBRProgressMonitor monitor, @NotNull DBCExecutionContext context, @Nullable DBCExecutionResult executionResult, @Nullable DBCStatement statement, @NotNull PrintWriter output) throws DBCException {
             try (JDBCSession session = (JDBCSession) context.openSession(monitor, DBCExecutionPurpose.UTIL, "Read DBMS output")) {
+                if (getLinesSupported) {
+                    try {
+                        readOutputLines(session, output);
+                        return;
+                    } catch (SQLException e) {
+                        if (!isMissingLinesArrayType(e)) {
+                            throw new DBCException(e, context);
+                        }
+                        log.debug("DBMS_OUTPUT.GET_LINES is not supported, read output by lines: " + e.getMessage());
+                        getLinesSupported = false;
+                    }
+                }
                 try (CallableStatement getLineProc = session.getOriginal().prepareCall("{CALL DBMS_OUTPUT.GET_LINE(?, ?)}")) {
                     getLineProc.registerOutParameter(1, java.sql.Types.VARCHAR);
                     getLineProc.registerOutParameter(2, java.sql.Types.INTEGER);
@@ -832,6 +849,47 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
                 }
             }
         }
+
+        /**
+         * Reads output by chunks of lines. Each chunk is a single round trip.
+         */
+        private void readOutputLines(@NotNull JDBCSession session, @NotNull PrintWriter output) throws SQLException {
+            int chunkSize = getContainer().getPreferenceStore().getInt(OracleConstants.PREF_DBMS_OUTPUT_CHUNK_SIZE);
+            if (chunkSize <= 0) {
+                chunkSize = OracleConstants.DEFAULT_DBMS_OUTPUT_CHUNK_SIZE;
+            }
+            try (CallableStatement getLinesProc = session.getOriginal().prepareCall("{CALL DBMS_OUTPUT.GET_LINES(?, ?)}")) {
+                getLinesProc.registerOutParameter(1, Types.ARRAY, "DBMSOUTPUT_LINESARRAY");
+                getLinesProc.registerOutParameter(2, Types.INTEGER);
+                int lineCount = chunkSize;
+                // Less lines than requested means that buffer is empty
+                while (lineCount >= chunkSize) {
+                    getLinesProc.setInt(2, chunkSize);
+                    getLinesProc.execute();
+                    lineCount = getLinesProc.getInt(2);
+                    Array lines = getLinesProc.getArray(1);
+                    if (lines == null) {
+                        break;
+                    }
+                    try {
+                        Object[] lineValues = (Object[]) lines.getArray();
+                        for (int i = 0; i < lineCount && i < lineValues.length; i++) {
+                            if (lineValues[i] != null) {
+                                output.write(lineValues[i].toString());
+                            }
+                            output.write('\n');
+                        }
+                    } finally {
+                        lines.free();
+                    }
+                }
+            }
+        }
+
+        private boolean isMissingLinesArrayType(@NotNull SQLException e) {
+            // ORA-06550 (PL/SQL compilation error) or invalid type name
+            return e.getErrorCode() == 6550 || e.getErrorCode() == 17074 || e.getErrorCode() == 17060;
+        }
     }
 
     static class SchemaCache extends JDBCObjectCache<OracleDataSource, OracleSchema> {
@@ -44,6 +44,8 @@ public class PostgreDataTypeCache extends JDBCObjectCache<PostgreSchema, Postgre
 {
     private static final Log log = Log.getLog(PostgreDataTypeCache.class);
 
+    private static final int RESOLVE_CHUNK_SIZE = 1000;
+
     private final LongKeyMap<PostgreDataType> dataTypeMap = new LongKeyMap<>();
 
     PostgreDataTypeCache() {
@@ -248,6 +250,44 @@ public class PostgreDataTypeCache extends JDBCObjectCache<PostgreSchema, Postgre
         }
     }
 
+    /**
+     * Reads data types by OIDs. Types are read by chunks, with a single query per chunk.
+     * Types which weren't found are skipped.
+     */
+    @NotNull
+    static List<PostgreDataType> resolveDataTypes(@NotNull DBRProgressMonitor monitor, @NotNull PostgreDatabase database, @NotNull Collection<Long> oids) throws SQLException, DBException {
+        List<PostgreDataType> dataTypes = new ArrayList<>();
+        List<Long> oidList = new ArrayList<>(oids);
+        try (JDBCSession session = database.getDefaultContext(monitor, true).openSession(monitor, DBCExecutionPurpose.META, "Resolve data types by OID")) {
+            for (int chunkStart = 0; chunkStart < oidList.size(); chunkStart += RESOLVE_CHUNK_SIZE) {
+                List<Long> chunk = oidList.subList(chunkStart, Math.min(chunkStart + RESOLVE_CHUNK_SIZE, oidList.size()));
+                StringBuilder sql = new StringBuilder(256);
+                sql.append("SELECT t.oid,t.*,c.relkind,").append(getBaseTypeNameClause(database.getDataSource())).append(" FROM pg_catalog.pg_type t")
+                    .append("\nLEFT OUTER JOIN pg_class c ON c.oid=t.typrelid")
+                    .append("\nWHERE t.oid IN (");
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (i > 0) sql.append(",");
+                    sql.append("?");
+                }
+                sql.append(")");
+                try (final JDBCPreparedStatement dbStat = session.prepareStatement(sql.toString())) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        dbStat.setLong(i + 1, chunk.get(i));
+                    }
+                    try (JDBCResultSet dbResult = dbStat.executeQuery()) {
+                        while (dbResult.next()) {
+                            PostgreDataType dataType = PostgreDataType.readDataType(session, database, dbResult, false);
+                            if (dataType != null) {
+                                dataTypes.add(dataType);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return dataTypes;
+    }
+
     @NotNull
     static PostgreDataType resolveDataType(@NotNull DBRProgressMonitor monitor, @NotNull PostgreDatabase database, String name) throws SQLException, DBException {
         // Initially cache only base types (everything but composite and arrays)
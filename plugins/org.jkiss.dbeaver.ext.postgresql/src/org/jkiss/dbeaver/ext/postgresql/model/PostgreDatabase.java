@@ -802,17 +802,10 @@ public class PostgreDatabase extends JDBCRemoteInstance
         if (typeId <= 0) {
             return null;
         }
-        PostgreDataType dataType = dataTypeCache.get(typeId);
+        PostgreDataType dataType = getCachedDataType(typeId);
         if (dataType != null) {
             return dataType;
         }
-        for (PostgreSchema schema : schemaCache.getCachedObjects()) {
-            dataType = schema.getDataTypeCache().getDataType(typeId);
-            if (dataType != null) {
-                dataTypeCache.put(typeId, dataType);
-                return dataType;
-            }
-        }
         // Type not found. Let's resolve it
         try {
             dataType = PostgreDataTypeCache.resolveDataType(monitor, this, typeId);
@@ -825,6 +818,49 @@ public class PostgreDatabase extends JDBCRemoteInstance
         }
     }
 
+    /**
+     * Resolves all data types which are not cached yet. Types are read at once instead of a query per type.
+     */
+    public void resolveDataTypes(@NotNull DBRProgressMonitor monitor, @NotNull Collection<Long> typeIds) {
+        if (dataTypeCache.isEmpty()) {
+            // Data types weren't read yet
+            return;
+        }
+        Set<Long> unresolvedIds = new LinkedHashSet<>();
+        for (Long typeId : typeIds) {
+            if (typeId != null && typeId > 0 && getCachedDataType(typeId) == null) {
+                unresolvedIds.add(typeId);
+            }
+        }
+        if (unresolvedIds.isEmpty()) {
+            return;
+        }
+        try {
+            for (PostgreDataType dataType : PostgreDataTypeCache.resolveDataTypes(monitor, this, unresolvedIds)) {
+                dataType.getParentObject().getDataTypeCache().cacheObject(dataType);
+                dataTypeCache.put(dataType.getObjectId(), dataType);
+            }
+        } catch (Exception e) {
+            log.debug("Can't resolve data types " + unresolvedIds, e);
+        }
+    }
+
+    @Nullable
+    private PostgreDataType getCachedDataType(long typeId) {
+        PostgreDataType dataType = dataTypeCache.get(typeId);
+        if (dataType != null) {
+            return dataType;
+        }
+        for (PostgreSchema schema : schemaCache.getCachedObjects()) {
+            dataType = schema.getDataTypeCache().getDataType(typeId);
+            if (dataType != null) {
+                dataTypeCache.put(typeId, dataType);
+                return dataType;
+            }
+        }
+        return null;
+    }
+
     public PostgreDataType getDataType(@Nullable DBRProgressMonitor monitor, String typeName) {
         if (typeName.endsWith("[]")) {
             // In some cases ResultSetMetadata returns it as []
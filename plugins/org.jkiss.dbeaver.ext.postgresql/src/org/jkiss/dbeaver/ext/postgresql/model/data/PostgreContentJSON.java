@@ -61,6 +61,7 @@ public class PostgreContentJSON extends JDBCContentChars {
         throws DBCException
     {
         try {
+            String data = getData();
             if (data != null) {
                 preparedStatement.setObject(paramIndex, data, Types.OTHER);
             } else {
@@ -74,6 +75,7 @@ public class PostgreContentJSON extends JDBCContentChars {
 
     @Override
     public String getDisplayString(DBDDisplayFormat format) {
+        String data = getData();
         return data == null ? null :
             (format == DBDDisplayFormat.EDIT ? data : CommonUtils.compactWhiteSpaces(data));
     }
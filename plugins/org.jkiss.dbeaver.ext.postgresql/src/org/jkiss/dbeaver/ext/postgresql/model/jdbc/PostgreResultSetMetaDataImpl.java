@@ -16,23 +16,85 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model.jdbc;
 
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.model.PostgreDatabase;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCColumnMetaData;
 import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetMetaDataImpl;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * PostgreResultSetMetaDataImpl
  */
 public class PostgreResultSetMetaDataImpl extends JDBCResultSetMetaDataImpl
 {
+    private static final Log log = Log.getLog(PostgreResultSetMetaDataImpl.class);
 
     public PostgreResultSetMetaDataImpl(JDBCResultSet resultSet) throws SQLException {
         super(resultSet);
     }
 
+    @Override
+    protected JDBCColumnMetaData createColumnMetaDataImpl(int index) throws SQLException {
+        if (index == 0) {
+            // Column metadata looks for data types in cache, so they must be resolved first
+            resolveColumnTypes();
+        }
+        return super.createColumnMetaDataImpl(index);
+    }
+
+    /**
+     * Reads unknown data types of all columns at once. Otherwise each of them is read by a separate query.
+     */
+    private void resolveColumnTypes() {
+        DBSInstance ownerInstance = resultSet.getSession().getExecutionContext().getOwnerInstance();
+        if (!(ownerInstance instanceof PostgreDatabase)) {
+            return;
+        }
+        List<Long> typeIds;
+        try {
+            // Type OIDs are available only in driver's fields
+            Method getFieldMethod = findMethod(original.getClass(), "getField");
+            if (getFieldMethod == null) {
+                return;
+            }
+            getFieldMethod.setAccessible(true);
+            int columnCount = original.getColumnCount();
+            typeIds = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                Object field = getFieldMethod.invoke(original, i);
+                if (field != null) {
+                    Object typeId = field.getClass().getMethod("getOID").invoke(field);
+                    if (typeId instanceof Number) {
+                        typeIds.add(((Number) typeId).longValue());
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            log.debug("Can't read column type OIDs: " + e.getMessage());
+            return;
+        }
+        ((PostgreDatabase) ownerInstance).resolveDataTypes(resultSet.getSession().getProgressMonitor(), typeIds);
+    }
+
+    private static Method findMethod(Class<?> theClass, String name) {
+        for (Class<?> cls = theClass; cls != null; cls = cls.getSuperclass()) {
+            try {
+                return cls.getDeclaredMethod(name, Integer.TYPE);
+            } catch (NoSuchMethodException e) {
+                // Check superclass
+            }
+        }
+        return null;
+    }
+
     /**
      * Always return current instance as catalog name
      */
@@ -17,11 +17,18 @@
 package org.jkiss.dbeaver.headless;
 
 import org.eclipse.equinox.app.IApplicationContext;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.app.DBPApplication;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.task.DBTScheduler;
 import org.jkiss.dbeaver.registry.BaseApplicationImpl;
+import org.jkiss.dbeaver.registry.task.LocalTaskScheduler;
+import org.jkiss.dbeaver.registry.task.TaskRegistry;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 
+import java.util.concurrent.CountDownLatch;
+
 /**
  * Headless application
  */
@@ -29,20 +36,50 @@ public class DBeaverHeadlessApplication extends BaseApplicationImpl {
 
     private static final Log log = Log.getLog(DBeaverHeadlessApplication.class);
 
+    private final CountDownLatch stopLatch = new CountDownLatch(1);
+
     @Override
     public Object start(IApplicationContext context) {
         DBPApplication application = DBWorkbench.getPlatform().getApplication();
         System.out.println("Starting headless test application " + application.getClass().getName());
 
+        runTaskScheduler();
+
         return null;
     }
 
     @Override
     public void stop() {
         System.out.println("Starting headless test application");
+        stopLatch.countDown();
         super.stop();
     }
 
+    /**
+     * Starts scheduler and waits for application stop if there are scheduled tasks
+     */
+    private void runTaskScheduler() {
+        DBTScheduler scheduler = TaskRegistry.getInstance().getActiveSchedulerInstance();
+        if (scheduler == null) {
+            return;
+        }
+        try {
+            scheduler.refreshScheduledTasks(new VoidProgressMonitor());
+        } catch (DBException e) {
+            log.error("Error starting task scheduler", e);
+            return;
+        }
+        if (scheduler instanceof LocalTaskScheduler && ((LocalTaskScheduler) scheduler).hasScheduledTasks()) {
+            System.out.println("Task scheduler started");
+            try {
+                stopLatch.await();
+            } catch (InterruptedException e) {
+                // Stop scheduler
+            }
+            ((LocalTaskScheduler) scheduler).shutdown();
+        }
+    }
+
     @Override
     public String getDefaultProjectName() {
         return "DBeaverTests";
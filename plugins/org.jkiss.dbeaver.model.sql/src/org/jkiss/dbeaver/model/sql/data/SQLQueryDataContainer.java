@@ -146,6 +146,7 @@ public class SQLQueryDataContainer implements DBSDataContainer, SQLQueryContaine
                             fetchProgress.monitorRowFetch();
                         }
                         statistics.addFetchTime(System.currentTimeMillis() - fetchStartTime);
+                        DBExecUtils.addFetchSizeStatistics(resultSet, statistics);
                     }
                     finally {
                         try {
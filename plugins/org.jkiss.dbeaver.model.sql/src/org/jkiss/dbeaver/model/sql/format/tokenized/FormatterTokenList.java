@@ -0,0 +1,131 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.format.tokenized;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Token list backed by a gap buffer.
+ *
+ * Formatter passes walk over tokens forward or backward and insert/remove tokens near the current position.
+ * With ArrayList each such edit shifts the whole tail of the list, which makes formatting of large scripts quadratic.
+ * Gap buffer keeps free space at the last edit position, so edits made by a sequential pass cost O(1) amortized.
+ * Random reads don't move the gap.
+ */
+class FormatterTokenList extends AbstractList<FormatterToken> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private FormatterToken[] buffer;
+    private int gapStart;
+    private int gapEnd;
+
+    FormatterTokenList() {
+        buffer = new FormatterToken[DEFAULT_CAPACITY];
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+
+    @Override
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public FormatterToken get(int index) {
+        checkIndex(index, size());
+        return buffer[index < gapStart ? index : index + (gapEnd - gapStart)];
+    }
+
+    @Override
+    public FormatterToken set(int index, FormatterToken token) {
+        checkIndex(index, size());
+        int pos = index < gapStart ? index : index + (gapEnd - gapStart);
+        FormatterToken old = buffer[pos];
+        buffer[pos] = token;
+        return old;
+    }
+
+    @Override
+    public boolean add(FormatterToken token) {
+        add(size(), token);
+        return true;
+    }
+
+    @Override
+    public void add(int index, FormatterToken token) {
+        checkIndex(index, size() + 1);
+        if (gapStart == gapEnd) {
+            grow();
+        }
+        moveGap(index);
+        buffer[gapStart++] = token;
+        modCount++;
+    }
+
+    @Override
+    public FormatterToken remove(int index) {
+        checkIndex(index, size());
+        moveGap(index);
+        FormatterToken token = buffer[gapEnd];
+        buffer[gapEnd++] = null;
+        modCount++;
+        return token;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(buffer, null);
+        gapStart = 0;
+        gapEnd = buffer.length;
+        modCount++;
+    }
+
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - count, count);
+            Arrays.fill(buffer, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart = index;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            Arrays.fill(buffer, Math.max(gapEnd, index), gapEnd + count, null);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    private void grow() {
+        FormatterToken[] newBuffer = new FormatterToken[buffer.length * 2];
+        int tailLength = buffer.length - gapEnd;
+        System.arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, newBuffer, newBuffer.length - tailLength, tailLength);
+        gapEnd = newBuffer.length - tailLength;
+        buffer = newBuffer;
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+    }
+
+}
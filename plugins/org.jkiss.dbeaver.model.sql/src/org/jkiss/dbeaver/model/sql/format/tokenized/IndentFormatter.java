@@ -47,12 +47,28 @@ class IndentFormatter {
     private List<Boolean> functionBracket = new ArrayList<>();
     private List<Boolean> conditionBracket = new ArrayList<>();
     private final String[] blockHeaderStrings;
+    private final String indentString;
+    private final boolean breakBeforeCloseBracket;
+    private final boolean lfBeforeComma;
     private boolean isFirstConditionInBrackets;
+    private final PrevKeywordCache prevKeywordCache = new PrevKeywordCache();
+    private final PrevKeywordCache prevConditionKeywordCache = new PrevKeywordCache();
+    private final PrevKeywordCache prevDMLKeywordCache = new PrevKeywordCache();
 
     private static final String[] JOIN_BEGIN = {"LEFT", "RIGHT", "INNER", "OUTER", "FULL", "CROSS", "JOIN"};
     private static final String[] DML_KEYWORD = { "SELECT", "UPDATE", "INSERT", "DELETE" };
     private static final String[] CONDITION_KEYWORDS = {"WHERE", "ON", "HAVING"};
 
+    /**
+     * Result of the last backward keyword search.
+     * Formatter inserts only spaces, so the nearest keyword before an already scanned token never changes
+     * and the next search may stop at that token. Otherwise each search may scan the whole script.
+     */
+    private static class PrevKeywordCache {
+        private FormatterToken anchor;
+        private FormatterToken keyword;
+    }
+
     IndentFormatter(SQLFormatterConfiguration formatterCfg, boolean isCompact) {
         this.formatterCfg = formatterCfg;
         delimiterRedefiner = formatterCfg.getSyntaxManager().getDialect().getScriptDelimiterRedefiner();
@@ -67,6 +83,9 @@ class IndentFormatter {
         this.isCompact = isCompact;
         dialect = formatterCfg.getSyntaxManager().getDialect();
         blockHeaderStrings = dialect.getBlockHeaderStrings();
+        indentString = formatterCfg.getIndentString();
+        breakBeforeCloseBracket = formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_BREAK_BEFORE_CLOSE_BRACKET);
+        lfBeforeComma = formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_LF_BEFORE_COMMA);
     }
 
     private int formatSymbol(String tokenString, List<Integer> bracketIndent, List<FormatterToken> argList, Integer index, FormatterToken prev) {
@@ -80,7 +99,7 @@ class IndentFormatter {
                 bracketIndent.add(indent);
                 bracketsDepth++;
                 // Adding indent after ( makes result too verbose and too multiline
-                if (!isCompact && formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_BREAK_BEFORE_CLOSE_BRACKET)) {
+                if (!isCompact && breakBeforeCloseBracket) {
                     indent++;
                     index += insertReturnAndIndent(argList, index + 1, indent);
                 }
@@ -88,7 +107,7 @@ class IndentFormatter {
             case ")":
                 if (!bracketIndent.isEmpty() && !functionBracket.isEmpty() && !conditionBracket.isEmpty()) {
                     indent = bracketIndent.remove(bracketIndent.size() - 1);
-                    if (!isCompact && formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_BREAK_BEFORE_CLOSE_BRACKET)) {
+                    if (!isCompact && breakBeforeCloseBracket) {
                         result += insertReturnAndIndent(argList, index, indent);
                     }
                     functionBracket.remove(functionBracket.size() - 1);
@@ -103,7 +122,6 @@ class IndentFormatter {
                     boolean isAfterInKeyword = bracketsDepth > 0 && SQLConstants.KEYWORD_IN.equalsIgnoreCase(getPrevKeyword(argList, index));
                     if (!isInsideAFunction && !isAfterInKeyword)
                     {
-                        boolean lfBeforeComma = formatterCfg.getPreferenceStore().getBoolean(ModelPreferences.SQL_FORMAT_LF_BEFORE_COMMA);
                         result += insertReturnAndIndent(
                             argList,
                             lfBeforeComma ? index : index + 1,
@@ -336,7 +354,7 @@ class IndentFormatter {
         int indexAfterLastSeparator = indexOfLastSeparator + System.lineSeparator().length();
         StringBuilder stringBuilder = new StringBuilder();
         for (int i = 0; i < indent; i++) {
-            stringBuilder.append(formatterCfg.getIndentString());
+            stringBuilder.append(indentString);
         }
         String indentation = stringBuilder.toString();
         String afterLastSeparator = tokenString.substring(indexAfterLastSeparator);
@@ -370,7 +388,7 @@ class IndentFormatter {
 
     private int formatComment(List<FormatterToken> argList, int index, FormatterToken token) {
         boolean isComment = false;
-        String[] slComments = formatterCfg.getSyntaxManager().getDialect().getSingleLineComments();
+        String[] slComments = dialect.getSingleLineComments();
         if (slComments != null) {
             for (String slc : slComments) {
                 if (token.getString().startsWith(slc)) {
@@ -381,7 +399,7 @@ class IndentFormatter {
             }
         }
         if (!isComment) {
-            Pair<String, String> mlComments = formatterCfg.getSyntaxManager().getDialect().getMultiLineComments();
+            Pair<String, String> mlComments = dialect.getMultiLineComments();
             if (mlComments != null) {
                 if (token.getString().startsWith(mlComments.getFirst())) {
                     index += insertReturnAndIndent(argList, index + 1, indent);
@@ -402,12 +420,12 @@ class IndentFormatter {
             if (argIndex > 0) {
                 final FormatterToken prevToken = argList.get(argIndex - 1);
                 if (prevToken.getType() == TokenType.COMMENT &&
-                    SQLUtils.isCommentLine(formatterCfg.getSyntaxManager().getDialect(), prevToken.getString())) {
+                    SQLUtils.isCommentLine(dialect, prevToken.getString())) {
                     s = ""; //$NON-NLS-1$
                 }
             }
             for (int index = 0; index < argIndent; index++) {
-                s += formatterCfg.getIndentString();
+                s += indentString;
             }
 
             FormatterToken token = argList.get(argIndex);
@@ -486,13 +504,20 @@ class IndentFormatter {
     }
 
     private String getPrevKeyword(List<FormatterToken> argList, int index) {
+        FormatterToken keyword = null;
         for (int i = index - 1; i >= 0; i--) {
             FormatterToken token = argList.get(i);
+            if (token == prevKeywordCache.anchor) {
+                keyword = prevKeywordCache.keyword;
+                break;
+            }
             if (token.getType() == TokenType.KEYWORD) {
-                return token.getString();
+                keyword = token;
+                break;
             }
         }
-        return null;
+        cachePrevKeyword(prevKeywordCache, argList, index, keyword);
+        return keyword == null ? null : keyword.getString();
     }
 
     private static int getNextKeywordIndex(List<FormatterToken> argList, int index) {
@@ -513,17 +538,32 @@ class IndentFormatter {
     }
 
     private String getPrevSpecialKeyword(List<FormatterToken> argList, int index, boolean isCondition) {
+        PrevKeywordCache cache = isCondition ? prevConditionKeywordCache : prevDMLKeywordCache;
+        FormatterToken keyword = null;
         for (int i = index - 1; i >= 0; i--) {
             FormatterToken token = argList.get(i);
+            if (token == cache.anchor) {
+                keyword = cache.keyword;
+                break;
+            }
             if (token.getType() == TokenType.KEYWORD) {
                 String upperCaseToken = token.getString().toUpperCase(Locale.ENGLISH);
                 if ((isCondition && ArrayUtils.contains(CONDITION_KEYWORDS, upperCaseToken)) ||
                         (!isCondition && ArrayUtils.contains(DML_KEYWORD, upperCaseToken))) {
-                    return token.getString();
+                    keyword = token;
+                    break;
                 }
             }
         }
-        return null;
+        cachePrevKeyword(cache, argList, index, keyword);
+        return keyword == null ? null : keyword.getString();
+    }
+
+    private static void cachePrevKeyword(PrevKeywordCache cache, List<FormatterToken> argList, int index, FormatterToken keyword) {
+        if (index > 0) {
+            cache.anchor = argList.get(index - 1);
+            cache.keyword = keyword;
+        }
     }
 
 
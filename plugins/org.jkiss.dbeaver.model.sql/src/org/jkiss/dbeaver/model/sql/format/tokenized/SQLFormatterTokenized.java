@@ -131,7 +131,7 @@ public class SQLFormatterTokenized implements SQLFormatter {
                 if (curString.equals(",") || statementDelimiters.contains(curString)) { //$NON-NLS-1$
                     continue;
                 }
-                if (formatterCfg.isFunction(prevString) && curString.equals("(")) { //$NON-NLS-1$
+                if (curString.equals("(") && formatterCfg.isFunction(prevString)) { //$NON-NLS-1$
                     continue;
                 }
                 if (token.getType() == TokenType.VALUE && prev.getType() == TokenType.NAME) {
@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.model.sql.format.tokenized;
 
 import org.jkiss.dbeaver.model.DBPKeywordType;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.format.SQLFormatterConfiguration;
 import org.jkiss.dbeaver.model.text.parser.rules.NumberRule;
 import org.jkiss.utils.ArrayUtils;
@@ -35,6 +36,7 @@ class SQLTokensParser {
     private static final String[] twoCharacterSymbol = { "<>", "<=", ">=", "||", "()", "!=", ":=", ".*" };
 
     private final SQLFormatterConfiguration configuration;
+    private final SQLDialect dialect;
     private final String[][] quoteStrings;
     private String fBefore;
     private int fPos;
@@ -46,6 +48,7 @@ class SQLTokensParser {
 
     public SQLTokensParser(SQLFormatterConfiguration configuration) {
         this.configuration = configuration;
+        this.dialect = configuration.getSyntaxManager().getDialect();
         this.structSeparator = configuration.getSyntaxManager().getStructSeparator();
         this.catalogSeparator = configuration.getSyntaxManager().getCatalogSeparator();
         this.quoteStrings = configuration.getSyntaxManager().getIdentifierQuoteStrings();
@@ -169,7 +172,7 @@ class SQLTokensParser {
             fPos += commentString.length() - 1;
             while (fPos < fBefore.length()) {
                 fPos++;
-                if (fBefore.substring(fPos).startsWith(System.lineSeparator())) {
+                if (fBefore.startsWith(System.lineSeparator(), fPos)) {
                     break;
                 }
             }
@@ -200,7 +203,7 @@ class SQLTokensParser {
                 }
                 return new FormatterToken(TokenType.COMMAND, word + s.toString(), start_pos);
             }
-            if (configuration.getSyntaxManager().getDialect().getKeywordType(word) == DBPKeywordType.KEYWORD) {
+            if (dialect.getKeywordType(word) == DBPKeywordType.KEYWORD) {
                 return new FormatterToken(TokenType.KEYWORD, word, start_pos);
             }
             return new FormatterToken(TokenType.NAME, word, start_pos);
@@ -297,7 +300,7 @@ class SQLTokensParser {
         fPos = 0;
         fBefore = argSql;
 
-        final List<FormatterToken> list = new ArrayList<>();
+        final List<FormatterToken> list = new FormatterTokenList();
         for (;;) {
             final FormatterToken token = nextToken();
             if (token.getType() == TokenType.END) {
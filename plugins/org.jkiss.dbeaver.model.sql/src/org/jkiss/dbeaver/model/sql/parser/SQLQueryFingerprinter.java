@@ -0,0 +1,229 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.eclipse.jface.text.Document;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.parser.tokens.SQLTokenType;
+import org.jkiss.dbeaver.model.text.parser.TPRuleBasedScanner;
+import org.jkiss.dbeaver.model.text.parser.TPToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Query fingerprint builder.
+ *
+ * Fingerprint is the query text with all literals and parameters replaced with {@code ?}
+ * and lists of literals in IN clause collapsed into {@code IN (...)}.
+ * Comments, trailing delimiter and formatting are removed, keywords are upper-cased.
+ * Queries which differ only in literal values have the same fingerprint.
+ *
+ * Instances are not thread safe (scanner rules keep parse state).
+ */
+public class SQLQueryFingerprinter {
+
+    public static final String LITERAL_MARK = "?";
+    public static final String LITERAL_LIST_MARK = "(...)";
+
+    private static final String OPERATOR_CHARS = "<>=!|&+-*/%^~:@#";
+
+    private enum TokenKind {
+        KEYWORD,
+        FUNCTION,
+        NAME,
+        LITERAL,
+        SYMBOL,
+        DELIMITER
+    }
+
+    private static class FingerprintToken {
+        final TokenKind kind;
+        String text;
+
+        FingerprintToken(TokenKind kind, String text) {
+            this.kind = kind;
+            this.text = text;
+        }
+
+        boolean is(String text) {
+            return this.text.equals(text);
+        }
+    }
+
+    private final TPRuleBasedScanner scanner;
+
+    public SQLQueryFingerprinter(@NotNull SQLDialect dialect, @NotNull DBPPreferenceStore preferenceStore) {
+        SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
+        syntaxManager.init(dialect, preferenceStore);
+        SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
+        ruleManager.loadRules(null, false);
+        scanner = new TPRuleBasedScanner();
+        scanner.setRules(ruleManager.getAllRules());
+    }
+
+    @NotNull
+    public String getFingerprint(@NotNull String query) {
+        List<FingerprintToken> tokens = readTokens(query);
+        // Trailing delimiters
+        while (!tokens.isEmpty() && tokens.get(tokens.size() - 1).kind == TokenKind.DELIMITER) {
+            tokens.remove(tokens.size() - 1);
+        }
+        collapseLiteralLists(tokens);
+
+        StringBuilder fingerprint = new StringBuilder(query.length());
+        FingerprintToken prevToken = null;
+        for (FingerprintToken token : tokens) {
+            if (prevToken != null && needsSpace(prevToken, token)) {
+                fingerprint.append(' ');
+            }
+            fingerprint.append(token.text);
+            prevToken = token;
+        }
+        return fingerprint.toString();
+    }
+
+    private List<FingerprintToken> readTokens(@NotNull String query) {
+        Document document = new Document(query);
+        scanner.setRange(document, 0, query.length());
+
+        List<FingerprintToken> tokens = new ArrayList<>();
+        boolean spaceBefore = false;
+        for (TPToken token = scanner.nextToken(); !token.isEOF(); token = scanner.nextToken()) {
+            if (token.isWhitespace()) {
+                spaceBefore = true;
+                continue;
+            }
+            Object tokenType = token.getData();
+            if (tokenType == SQLTokenType.T_COMMENT) {
+                spaceBefore = true;
+                continue;
+            }
+            String text = query.substring(scanner.getTokenOffset(), scanner.getTokenOffset() + scanner.getTokenLength());
+            FingerprintToken lastToken = tokens.isEmpty() ? null : tokens.get(tokens.size() - 1);
+            if (tokenType == SQLTokenType.T_STRING || tokenType == SQLTokenType.T_NUMBER ||
+                tokenType == SQLTokenType.T_PARAMETER || tokenType == SQLTokenType.T_VARIABLE)
+            {
+                if (tokenType == SQLTokenType.T_NUMBER && !spaceBefore && lastToken != null && isUnarySign(tokens)) {
+                    // Sign is a part of number literal
+                    tokens.remove(tokens.size() - 1);
+                }
+                tokens.add(new FingerprintToken(TokenKind.LITERAL, LITERAL_MARK));
+            } else if (tokenType == SQLTokenType.T_TYPE) {
+                // Functions and data types
+                tokens.add(new FingerprintToken(TokenKind.FUNCTION, text.toUpperCase(Locale.ENGLISH)));
+            } else if (tokenType == SQLTokenType.T_KEYWORD ||
+                tokenType == SQLTokenType.T_BLOCK_BEGIN || tokenType == SQLTokenType.T_BLOCK_END ||
+                tokenType == SQLTokenType.T_BLOCK_HEADER || tokenType == SQLTokenType.T_BLOCK_TOGGLE)
+            {
+                tokens.add(new FingerprintToken(TokenKind.KEYWORD, text.toUpperCase(Locale.ENGLISH)));
+            } else if (tokenType == SQLTokenType.T_DELIMITER) {
+                tokens.add(new FingerprintToken(TokenKind.DELIMITER, text));
+            } else if (tokenType instanceof SQLTokenType || token.isOther()) {
+                tokens.add(new FingerprintToken(TokenKind.NAME, text));
+            } else if (text.equals(LITERAL_MARK)) {
+                // Anonymous parameter
+                tokens.add(new FingerprintToken(TokenKind.LITERAL, LITERAL_MARK));
+            } else if (isOperator(text) && lastToken != null && !spaceBefore &&
+                lastToken.kind == TokenKind.SYMBOL && isOperator(lastToken.text) && !text.equals("-") && !text.equals("+"))
+            {
+                // Multi-char operator. Signs stay separate to be merged with numbers.
+                lastToken.text += text;
+            } else {
+                tokens.add(new FingerprintToken(TokenKind.SYMBOL, text));
+            }
+            spaceBefore = false;
+        }
+        return tokens;
+    }
+
+    /**
+     * Checks whether the last token is a sign of number literal and not a binary operator
+     */
+    private static boolean isUnarySign(List<FingerprintToken> tokens) {
+        FingerprintToken sign = tokens.get(tokens.size() - 1);
+        if (sign.kind != TokenKind.SYMBOL || !(sign.is("-") || sign.is("+"))) {
+            return false;
+        }
+        if (tokens.size() == 1) {
+            return true;
+        }
+        FingerprintToken operand = tokens.get(tokens.size() - 2);
+        switch (operand.kind) {
+            case KEYWORD:
+            case DELIMITER:
+                return true;
+            case SYMBOL:
+                return !operand.is(")");
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Replaces IN (?, ?, ...) with IN (...)
+     */
+    private static void collapseLiteralLists(List<FingerprintToken> tokens) {
+        for (int i = 0; i < tokens.size() - 2; i++) {
+            FingerprintToken token = tokens.get(i);
+            if (token.kind != TokenKind.KEYWORD || !token.is("IN") || !tokens.get(i + 1).is("(")) {
+                continue;
+            }
+            int listEnd = -1;
+            for (int k = i + 2; k < tokens.size(); k += 2) {
+                if (tokens.get(k).kind != TokenKind.LITERAL || k + 1 >= tokens.size()) {
+                    break;
+                }
+                FingerprintToken next = tokens.get(k + 1);
+                if (next.is(")")) {
+                    listEnd = k + 1;
+                    break;
+                } else if (!next.is(",")) {
+                    break;
+                }
+            }
+            if (listEnd > 0) {
+                tokens.subList(i + 2, listEnd + 1).clear();
+                tokens.set(i + 1, new FingerprintToken(TokenKind.LITERAL, LITERAL_LIST_MARK));
+            }
+        }
+    }
+
+    private static boolean needsSpace(FingerprintToken prevToken, FingerprintToken token) {
+        if (token.is(",") || token.is(")") || token.is(".") || token.kind == TokenKind.DELIMITER ||
+            prevToken.is("(") || prevToken.is("."))
+        {
+            return false;
+        }
+        // Function call, type size or column list
+        return !token.is("(") || (prevToken.kind != TokenKind.NAME && prevToken.kind != TokenKind.FUNCTION);
+    }
+
+    private static boolean isOperator(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (OPERATOR_CHARS.indexOf(text.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.qm;
+
+import org.jkiss.code.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram (HDR histogram layout).
+ *
+ * Values below 2^SUB_BUCKET_BITS are counted exactly. Each next power of two range is split
+ * into 2^(SUB_BUCKET_BITS-1) equal buckets, so relative error of percentile is about 3%.
+ * Memory doesn't depend on the number of recorded values, counts array grows up to the max recorded value.
+ */
+public class SQLQueryLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << SUB_BUCKET_HALF_BITS;
+    private static final long SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    private long[] counts = new long[SUB_BUCKET_COUNT];
+    private long totalCount;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    public SQLQueryLatencyHistogram() {
+    }
+
+    public SQLQueryLatencyHistogram(@NotNull SQLQueryLatencyHistogram source) {
+        this.counts = Arrays.copyOf(source.counts, source.counts.length);
+        this.totalCount = source.totalCount;
+        this.minValue = source.minValue;
+        this.maxValue = source.maxValue;
+    }
+
+    public void recordValue(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int index = getCountsIndex(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+        counts[index]++;
+        totalCount++;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMinValue() {
+        return totalCount == 0 ? 0 : minValue;
+    }
+
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Returns value at the specified percentile (0..100).
+     * Result is the highest value equivalent to the value at the percentile, but not greater than the max recorded value.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        double requestedPercentile = Math.min(Math.max(percentile, 0.0), 100.0);
+        long countAtPercentile = Math.max(1, (long) Math.ceil(requestedPercentile / 100.0 * totalCount));
+        long count = 0;
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            if (count >= countAtPercentile) {
+                return Math.min(getHighestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public void reset() {
+        counts = new long[SUB_BUCKET_COUNT];
+        totalCount = 0;
+        minValue = Long.MAX_VALUE;
+        maxValue = 0;
+    }
+
+    private static int getCountsIndex(long value) {
+        int bucketIndex = (64 - SUB_BUCKET_BITS) - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK);
+        int subBucketIndex = (int) (value >>> bucketIndex);
+        return ((bucketIndex + 1) << SUB_BUCKET_HALF_BITS) + (subBucketIndex - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private static long getHighestEquivalentValue(int index) {
+        int bucketIndex = (index >> SUB_BUCKET_HALF_BITS) - 1;
+        int subBucketIndex = (index & (SUB_BUCKET_HALF_COUNT - 1)) + SUB_BUCKET_HALF_COUNT;
+        if (bucketIndex < 0) {
+            subBucketIndex -= SUB_BUCKET_HALF_COUNT;
+            bucketIndex = 0;
+        }
+        long lowestValue = (long) subBucketIndex << bucketIndex;
+        return lowestValue + (1L << bucketIndex) - 1;
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+/**
+ * Execution statistics of all queries with the same fingerprint.
+ * Latency is the statement execution time (without result set fetch) in milliseconds.
+ */
+public class SQLQueryStatistics {
+
+    @NotNull
+    private final String fingerprint;
+    @NotNull
+    private String lastQueryText;
+    @Nullable
+    private String lastDataSourceName;
+    private long executeCount;
+    private long errorCount;
+    private long totalTime;
+    private long fetchCount;
+    private long fetchTime;
+    private long rowsFetched;
+    private long rowsUpdated;
+    private long lastExecuteTime;
+    @NotNull
+    private final SQLQueryLatencyHistogram latencyHistogram;
+
+    SQLQueryStatistics(@NotNull String fingerprint, @NotNull String queryText) {
+        this.fingerprint = fingerprint;
+        this.lastQueryText = queryText;
+        this.latencyHistogram = new SQLQueryLatencyHistogram();
+    }
+
+    SQLQueryStatistics(@NotNull SQLQueryStatistics source) {
+        this.fingerprint = source.fingerprint;
+        this.lastQueryText = source.lastQueryText;
+        this.lastDataSourceName = source.lastDataSourceName;
+        this.executeCount = source.executeCount;
+        this.errorCount = source.errorCount;
+        this.totalTime = source.totalTime;
+        this.fetchCount = source.fetchCount;
+        this.fetchTime = source.fetchTime;
+        this.rowsFetched = source.rowsFetched;
+        this.rowsUpdated = source.rowsUpdated;
+        this.lastExecuteTime = source.lastExecuteTime;
+        this.latencyHistogram = new SQLQueryLatencyHistogram(source.latencyHistogram);
+    }
+
+    void addExecution(@NotNull String queryText, @Nullable String dataSourceName, long startTime, long duration, long updateRowCount, boolean error) {
+        this.lastQueryText = queryText;
+        this.lastDataSourceName = dataSourceName;
+        this.lastExecuteTime = startTime;
+        this.executeCount++;
+        if (error) {
+            this.errorCount++;
+        }
+        if (updateRowCount > 0) {
+            this.rowsUpdated += updateRowCount;
+        }
+        this.totalTime += duration;
+        this.latencyHistogram.recordValue(duration);
+    }
+
+    void addFetch(long duration, long rowCount) {
+        this.fetchCount++;
+        this.fetchTime += duration;
+        this.rowsFetched += rowCount;
+    }
+
+    @NotNull
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Text of the last executed query with this fingerprint
+     */
+    @NotNull
+    public String getLastQueryText() {
+        return lastQueryText;
+    }
+
+    @Nullable
+    public String getLastDataSourceName() {
+        return lastDataSourceName;
+    }
+
+    public long getExecuteCount() {
+        return executeCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public long getAverageTime() {
+        return executeCount == 0 ? 0 : totalTime / executeCount;
+    }
+
+    public long getMaxTime() {
+        return latencyHistogram.getMaxValue();
+    }
+
+    public long getTimeAtPercentile(double percentile) {
+        return latencyHistogram.getValueAtPercentile(percentile);
+    }
+
+    public long getFetchCount() {
+        return fetchCount;
+    }
+
+    public long getFetchTime() {
+        return fetchTime;
+    }
+
+    public long getRowsFetched() {
+        return rowsFetched;
+    }
+
+    public long getRowsUpdated() {
+        return rowsUpdated;
+    }
+
+    public long getLastExecuteTime() {
+        return lastExecuteTime;
+    }
+
+    @Override
+    public String toString() {
+        return fingerprint + " (" + executeCount + " executions, " + totalTime + "ms)";
+    }
+
+}
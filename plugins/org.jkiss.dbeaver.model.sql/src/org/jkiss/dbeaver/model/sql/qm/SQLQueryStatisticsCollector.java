@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.qm;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.qm.QMMetaEvent;
+import org.jkiss.dbeaver.model.qm.QMMetaListener;
+import org.jkiss.dbeaver.model.qm.meta.QMMSessionInfo;
+import org.jkiss.dbeaver.model.qm.meta.QMMStatementExecuteInfo;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.sql.parser.SQLQueryFingerprinter;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.*;
+
+/**
+ * Collects execution statistics of queries grouped by query fingerprint.
+ * Fed by query manager meta events.
+ */
+public class SQLQueryStatisticsCollector implements QMMetaListener {
+
+    private static final Log log = Log.getLog(SQLQueryStatisticsCollector.class);
+
+    // Least recently executed queries are dropped when limit is reached
+    private static final int MAX_FINGERPRINTS = 1000;
+    // Different data sources may have different dialect instances
+    private static final int MAX_CACHED_FINGERPRINTERS = 10;
+    // Long scripts and bulk inserts are fingerprinted by their beginning
+    private static final int MAX_QUERY_LENGTH = 10000;
+
+    private final Map<String, SQLQueryStatistics> statistics = new LinkedHashMap<String, SQLQueryStatistics>(100, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SQLQueryStatistics> eldest) {
+            return size() > MAX_FINGERPRINTS;
+        }
+    };
+    private final Map<SQLDialect, SQLQueryFingerprinter> fingerprinters = new LinkedHashMap<SQLDialect, SQLQueryFingerprinter>(MAX_CACHED_FINGERPRINTERS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SQLDialect, SQLQueryFingerprinter> eldest) {
+            return size() > MAX_CACHED_FINGERPRINTERS;
+        }
+    };
+    // The same execution comes in several events (begin, end, fetch)
+    private final Map<QMMStatementExecuteInfo, SQLQueryStatistics> countedExecutions = new WeakHashMap<>();
+    private final Set<QMMStatementExecuteInfo> countedFetches = Collections.newSetFromMap(new WeakHashMap<>());
+
+    @Override
+    public synchronized void metaInfoChanged(@NotNull DBRProgressMonitor monitor, @NotNull List<QMMetaEvent> events) {
+        for (QMMetaEvent event : events) {
+            if (event.getObject() instanceof QMMStatementExecuteInfo) {
+                QMMStatementExecuteInfo execution = (QMMStatementExecuteInfo) event.getObject();
+                SQLQueryStatistics queryStatistics = countedExecutions.get(execution);
+                if (queryStatistics == null) {
+                    if (!execution.isClosed() || CommonUtils.isEmptyTrimmed(execution.getQueryString())) {
+                        continue;
+                    }
+                    queryStatistics = addExecution(execution);
+                    countedExecutions.put(execution, queryStatistics);
+                }
+                if (execution.getFetchEndTime() > 0 && countedFetches.add(execution)) {
+                    queryStatistics.addFetch(
+                        execution.getFetchEndTime() - execution.getFetchBeginTime(),
+                        execution.getFetchRowCount());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns copy of statistics of all queries
+     */
+    @NotNull
+    public synchronized List<SQLQueryStatistics> getStatistics() {
+        List<SQLQueryStatistics> result = new ArrayList<>(statistics.size());
+        for (SQLQueryStatistics queryStatistics : statistics.values()) {
+            result.add(new SQLQueryStatistics(queryStatistics));
+        }
+        return result;
+    }
+
+    /**
+     * Returns queries with the highest total execution time
+     */
+    @NotNull
+    public List<SQLQueryStatistics> getTopQueries(int maxCount) {
+        List<SQLQueryStatistics> result = getStatistics();
+        result.sort(Comparator.comparingLong(SQLQueryStatistics::getTotalTime).reversed());
+        return result.size() > maxCount ? new ArrayList<>(result.subList(0, maxCount)) : result;
+    }
+
+    public synchronized void resetStatistics() {
+        statistics.clear();
+        countedExecutions.clear();
+        countedFetches.clear();
+    }
+
+    @NotNull
+    private SQLQueryStatistics addExecution(@NotNull QMMStatementExecuteInfo execution) {
+        String queryText = execution.getQueryString().trim();
+        QMMSessionInfo session = execution.getStatement().getSession();
+        String fingerprint = getFingerprint(session.getSQLDialect(), queryText);
+        SQLQueryStatistics queryStatistics = statistics.get(fingerprint);
+        if (queryStatistics == null) {
+            queryStatistics = new SQLQueryStatistics(fingerprint, queryText);
+            statistics.put(fingerprint, queryStatistics);
+        }
+        queryStatistics.addExecution(
+            queryText,
+            session.getContainerName(),
+            execution.getOpenTime(),
+            execution.getCloseTime() - execution.getOpenTime(),
+            execution.getUpdateRowCount(),
+            execution.hasError());
+        return queryStatistics;
+    }
+
+    @NotNull
+    private String getFingerprint(@Nullable SQLDialect dialect, @NotNull String queryText) {
+        if (dialect == null) {
+            dialect = BasicSQLDialect.INSTANCE;
+        }
+        if (queryText.length() > MAX_QUERY_LENGTH) {
+            queryText = queryText.substring(0, MAX_QUERY_LENGTH);
+        }
+        try {
+            SQLQueryFingerprinter fingerprinter = fingerprinters.get(dialect);
+            if (fingerprinter == null) {
+                fingerprinter = new SQLQueryFingerprinter(dialect, DBWorkbench.getPlatform().getPreferenceStore());
+                fingerprinters.put(dialect, fingerprinter);
+            }
+            return fingerprinter.getFingerprint(queryText);
+        } catch (Exception e) {
+            log.debug("Error building query fingerprint: " + e.getMessage());
+            return queryText;
+        }
+    }
+
+}
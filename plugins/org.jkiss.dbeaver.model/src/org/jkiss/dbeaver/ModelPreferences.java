@@ -63,6 +63,8 @@ public final class ModelPreferences
     public static final String CONTENT_CACHE_CLOB = "content.cache.clob"; //$NON-NLS-1$
     public static final String CONTENT_CACHE_BLOB = "content.cache.blob"; //$NON-NLS-1$
     public static final String CONTENT_CACHE_MAX_SIZE = "content.cache.maxsize"; //$NON-NLS-1$
+    public static final String CONTENT_PAGED_MIN_SIZE = "content.paged.minsize"; //$NON-NLS-1$
+    public static final String CONTENT_CACHE_MEMORY_LIMIT = "content.cache.memory.limit"; //$NON-NLS-1$
     public static final String META_SEPARATE_CONNECTION = "database.meta.separate.connection"; //$NON-NLS-1$
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
     public static final String META_USE_SERVER_SIDE_FILTERS = "database.meta.server.side.filters"; //$NON-NLS-1$
@@ -84,6 +86,9 @@ public final class ModelPreferences
 
     // ResultSet
     public static final String RESULT_SET_USE_FETCH_SIZE = "resultset.fetch.size"; //$NON-NLS-1$
+    public static final String RESULT_SET_ADAPTIVE_FETCH_SIZE = "resultset.fetch.size.adaptive"; //$NON-NLS-1$
+    // Max size of one fetched batch of rows in megabytes
+    public static final String RESULT_SET_ADAPTIVE_FETCH_MEMORY_LIMIT = "resultset.fetch.size.adaptive.memory"; //$NON-NLS-1$
     public static final String RESULT_SET_MAX_ROWS_USE_SQL = "resultset.maxrows.sql"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_PRESENTATION = "resultset.binary.representation"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_STRING_MAX_LEN = "resultset.binary.stringMaxLength"; //$NON-NLS-1$
@@ -141,6 +146,11 @@ public final class ModelPreferences
 
     public static final String DICTIONARY_COLUMN_DIVIDER = "resultset.dictionary.columnDivider"; //$NON-NLS-1$
 
+    public static final String TASK_RUN_HISTORY_MAX_RUNS = "task.run.history.max.runs"; //$NON-NLS-1$
+    public static final String TASK_RUN_HISTORY_MAX_DAYS = "task.run.history.max.days"; //$NON-NLS-1$
+    public static final String TASK_SCHEDULER_MAX_PARALLEL_TASKS = "task.scheduler.max.parallel.tasks"; //$NON-NLS-1$
+    public static final String TASK_SCHEDULER_MAX_DATASOURCE_TASKS = "task.scheduler.max.datasource.tasks"; //$NON-NLS-1$
+
     private static Bundle mainBundle;
     private static DBPPreferenceStore preferences;
 
@@ -207,6 +217,9 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_CLOB, true);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_BLOB, false);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_MAX_SIZE, 1000000);
+        PrefUtils.setDefaultPreferenceValue(store, CONTENT_PAGED_MIN_SIZE, 10 * 1024 * 1024);
+        // In megabytes. Zero means a quarter of maximum heap size.
+        PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_MEMORY_LIMIT, 0);
 
         // Network
         PrefUtils.setDefaultPreferenceValue(store, NET_TUNNEL_PORT_MIN, 10000);
@@ -217,6 +230,8 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_PRESENTATION, DBConstants.BINARY_FORMATS[0].getId());
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_STRING_MAX_LEN, 32);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_USE_FETCH_SIZE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_ADAPTIVE_FETCH_SIZE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_ADAPTIVE_FETCH_MEMORY_LIMIT, 32);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_IGNORE_COLUMN_LABEL, false);
 
         // QM
@@ -269,6 +284,13 @@ public final class ModelPreferences
 
         PrefUtils.setDefaultPreferenceValue(store, ModelPreferences.DICTIONARY_COLUMN_DIVIDER, " ");
 
+        // Task run history retention. Zero means unlimited.
+        PrefUtils.setDefaultPreferenceValue(store, TASK_RUN_HISTORY_MAX_RUNS, 100);
+        PrefUtils.setDefaultPreferenceValue(store, TASK_RUN_HISTORY_MAX_DAYS, 0);
+        // Scheduled tasks concurrency. Tasks over the limit are queued.
+        PrefUtils.setDefaultPreferenceValue(store, TASK_SCHEDULER_MAX_PARALLEL_TASKS, 4);
+        PrefUtils.setDefaultPreferenceValue(store, TASK_SCHEDULER_MAX_DATASOURCE_TASKS, 1);
+
         // Data formats
         DataFormatterProfile.initDefaultPreferences(store, Locale.getDefault());
     }
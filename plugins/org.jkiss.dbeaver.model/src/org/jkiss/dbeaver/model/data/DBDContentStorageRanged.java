@@ -0,0 +1,45 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.data;
+
+import java.io.IOException;
+
+/**
+ * Content storage which reads content ranges on demand.
+ * Content is not copied anywhere - each range is read from the original source (e.g. database LOB).
+ */
+public interface DBDContentStorageRanged extends DBDContentStorage {
+
+    /**
+     * Character content consists of chars (content length is a number of chars), otherwise of bytes
+     */
+    boolean isCharacterContent();
+
+    /**
+     * Reads bytes of binary content.
+     * @return number of read bytes or -1 if position is beyond the content end
+     */
+    int readBytes(long position, byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Reads chars of character content.
+     * @return number of read chars or -1 if position is beyond the content end
+     */
+    int readChars(long position, char[] buffer, int offset, int length) throws IOException;
+
+}
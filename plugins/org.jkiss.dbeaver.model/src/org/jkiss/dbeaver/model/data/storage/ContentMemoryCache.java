@@ -0,0 +1,335 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Process-wide memory budget for in-memory content values.
+ *
+ * Content values register their in-memory data here. When total size of registered data exceeds the memory limit
+ * least recently used values are asked to spill their data into temporary files.
+ * Spilled values read their data back on the next access.
+ *
+ * Cache doesn't keep content values alive: values which were garbage collected are removed from the cache
+ * and their spill files are deleted.
+ */
+public class ContentMemoryCache {
+
+    private static final Log log = Log.getLog(ContentMemoryCache.class);
+
+    // Values smaller than this are not worth tracking
+    public static final long MIN_CACHED_SIZE = 8 * 1024;
+
+    // After eviction memory usage is reduced to this part of the limit
+    private static final double EVICTION_LOW_WATERMARK = 0.9;
+
+    private static ContentMemoryCache instance;
+
+    /**
+     * Content which can move its data out of memory
+     */
+    public interface Spillable {
+
+        /**
+         * Writes in-memory data to a temporary storage (see {@link Entry#setSpillStorage(DBDContentStorage)})
+         * and frees memory.
+         *
+         * @return false if content can't be spilled (e.g. it was modified)
+         */
+        boolean spillContent() throws Exception;
+    }
+
+    /**
+     * Cache entry of a content value
+     */
+    public final class Entry extends WeakReference<Spillable> {
+        private long size;
+        private boolean removed;
+        @Nullable
+        private volatile DBDContentStorage spillStorage;
+
+        private Entry(@NotNull Spillable owner, long size) {
+            super(owner, staleEntries);
+            this.size = size;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * Marks entry as recently used
+         */
+        public void touch() {
+            ContentMemoryCache.this.touch(this);
+        }
+
+        public boolean isSpilled() {
+            return spillStorage != null;
+        }
+
+        @Nullable
+        public DBDContentStorage getSpillStorage() {
+            return spillStorage;
+        }
+
+        /**
+         * Sets storage which holds spilled content data. Must be called by {@link Spillable#spillContent()}.
+         */
+        public void setSpillStorage(@NotNull DBDContentStorage spillStorage) {
+            this.spillStorage = spillStorage;
+        }
+
+        /**
+         * Content was read back into memory. Spill storage is released.
+         * May spill other contents, so it must be called outside of the content lock.
+         */
+        public void reloaded(long newSize) {
+            ContentMemoryCache.this.reloaded(this, newSize);
+        }
+
+        /**
+         * Removes content from the cache. Spill storage is released.
+         */
+        public void remove() {
+            ContentMemoryCache.this.remove(this);
+        }
+
+        private void releaseSpillStorage() {
+            DBDContentStorage storage = spillStorage;
+            if (storage != null) {
+                spillStorage = null;
+                storage.release();
+            }
+        }
+    }
+
+    private final ReferenceQueue<Spillable> staleEntries = new ReferenceQueue<>();
+    // Resident entries in access order
+    private final LinkedHashMap<Entry, Entry> residentEntries = new LinkedHashMap<>(64, 0.75f, true);
+    // Spilled entries are kept to release their storages when content is garbage collected
+    private final Set<Entry> spilledEntries = new HashSet<>();
+
+    private volatile long memoryLimit;
+    private long usedMemory;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long spilledBytes;
+
+    public static synchronized ContentMemoryCache getInstance() {
+        if (instance == null) {
+            instance = new ContentMemoryCache(
+                ModelPreferences.getPreferences().getLong(ModelPreferences.CONTENT_CACHE_MEMORY_LIMIT) * 1024 * 1024);
+        }
+        return instance;
+    }
+
+    /**
+     * @param memoryLimit memory limit in bytes. Zero or negative value means a quarter of maximum heap size.
+     */
+    public ContentMemoryCache(long memoryLimit) {
+        setMemoryLimit(memoryLimit);
+    }
+
+    public long getMemoryLimit() {
+        return memoryLimit;
+    }
+
+    public void setMemoryLimit(long memoryLimit) {
+        this.memoryLimit = memoryLimit > 0 ? memoryLimit : Runtime.getRuntime().maxMemory() / 4;
+        evictEntries(null);
+    }
+
+    /**
+     * Registers in-memory content. May evict other contents.
+     *
+     * @return cache entry or null if content is too small to be tracked
+     */
+    @Nullable
+    public Entry register(@NotNull Spillable content, long size) {
+        if (size < MIN_CACHED_SIZE) {
+            return null;
+        }
+        Entry entry = new Entry(content, size);
+        synchronized (this) {
+            expungeStaleEntries();
+            residentEntries.put(entry, entry);
+            usedMemory += size;
+        }
+        evictEntries(entry);
+        return entry;
+    }
+
+    public synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    public synchronized int getResidentCount() {
+        return residentEntries.size();
+    }
+
+    public synchronized int getSpilledCount() {
+        return spilledEntries.size();
+    }
+
+    /**
+     * Number of accesses to resident content
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Number of spilled contents which were read back into memory
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Total size of spilled content data
+     */
+    public synchronized long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Content cache: " + usedMemory + " of " + memoryLimit + " bytes in " + residentEntries.size() + " values" +
+            ", spilled " + spilledEntries.size() + " values" +
+            ", hits " + hitCount + ", misses " + missCount + ", evictions " + evictionCount;
+    }
+
+    private synchronized void touch(@NotNull Entry entry) {
+        if (residentEntries.get(entry) != null) {
+            hitCount++;
+        }
+    }
+
+    private void reloaded(@NotNull Entry entry, long newSize) {
+        DBDContentStorage spillStorage;
+        synchronized (this) {
+            if (spilledEntries.remove(entry)) {
+                missCount++;
+            } else if (residentEntries.remove(entry) != null) {
+                usedMemory -= entry.size;
+            }
+            entry.size = newSize;
+            residentEntries.put(entry, entry);
+            usedMemory += newSize;
+            // Detach storage under the cache lock. Once entry is resident it may be spilled again into a new storage.
+            spillStorage = entry.spillStorage;
+            entry.spillStorage = null;
+        }
+        if (spillStorage != null) {
+            spillStorage.release();
+        }
+        evictEntries(entry);
+    }
+
+    private void remove(@NotNull Entry entry) {
+        synchronized (this) {
+            entry.removed = true;
+            if (residentEntries.remove(entry) != null) {
+                usedMemory -= entry.size;
+            }
+            spilledEntries.remove(entry);
+        }
+        entry.releaseSpillStorage();
+    }
+
+    /**
+     * Spills least recently used contents until memory usage drops below the low watermark.
+     * Contents are spilled outside of cache lock because they lock themselves.
+     * Callers must not hold a content lock: spilling locks other contents.
+     */
+    private void evictEntries(@Nullable Entry keepEntry) {
+        List<Entry> victims;
+        synchronized (this) {
+            expungeStaleEntries();
+            if (usedMemory <= memoryLimit) {
+                return;
+            }
+            long targetMemory = (long) (memoryLimit * EVICTION_LOW_WATERMARK);
+            victims = new ArrayList<>();
+            for (Iterator<Entry> iter = residentEntries.keySet().iterator(); iter.hasNext() && usedMemory > targetMemory; ) {
+                Entry entry = iter.next();
+                if (entry == keepEntry) {
+                    continue;
+                }
+                iter.remove();
+                usedMemory -= entry.size;
+                victims.add(entry);
+            }
+        }
+        for (Entry entry : victims) {
+            Spillable content = entry.get();
+            boolean spilled = false;
+            if (content != null) {
+                try {
+                    spilled = content.spillContent();
+                } catch (Throwable e) {
+                    log.debug("Error spilling content: " + e.getMessage());
+                }
+            }
+            synchronized (this) {
+                if (spilled) {
+                    evictionCount++;
+                    spilledBytes += entry.size;
+                    if (entry.isSpilled() && !entry.removed) {
+                        spilledEntries.add(entry);
+                    }
+                } else if (content != null && !entry.removed && !residentEntries.containsKey(entry)) {
+                    // Content stays in memory. It will be a victim again if it is not used.
+                    residentEntries.put(entry, entry);
+                    usedMemory += entry.size;
+                }
+            }
+        }
+        if (!victims.isEmpty() && log.isDebugEnabled()) {
+            log.debug(this.toString());
+        }
+    }
+
+    private void expungeStaleEntries() {
+        for (Object ref; (ref = staleEntries.poll()) != null; ) {
+            Entry entry = (Entry) ref;
+            if (residentEntries.remove(entry) != null) {
+                usedMemory -= entry.size;
+            }
+            if (spilledEntries.remove(entry)) {
+                entry.releaseSpillStorage();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.*;
+
+/**
+ * Read-through binary content storage
+ */
+public abstract class PagedBinaryContentStorage extends PagedContentStorage<byte[]> {
+
+    protected PagedBinaryContentStorage(DBPPlatform platform, long contentLength, String charset) {
+        super(platform, contentLength, DEFAULT_PAGE_SIZE, charset);
+    }
+
+    @Override
+    public boolean isCharacterContent() {
+        return false;
+    }
+
+    @Override
+    public int readBytes(long position, byte[] buffer, int offset, int length) throws IOException {
+        if (position >= contentLength) {
+            return -1;
+        }
+        int total = 0;
+        while (total < length && position < contentLength) {
+            byte[] page = getPage(position / pageSize);
+            int pageOffset = (int) (position % pageSize);
+            int count = Math.min(length - total, page.length - pageOffset);
+            if (count <= 0) {
+                // Source returned less than declared
+                break;
+            }
+            System.arraycopy(page, pageOffset, buffer, offset + total, count);
+            total += count;
+            position += count;
+        }
+        return total;
+    }
+
+    @Override
+    public int readChars(long position, char[] buffer, int offset, int length) throws IOException {
+        throw new IOException("Binary content can't be read as characters");
+    }
+
+    @Override
+    public InputStream getContentStream() {
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int read() throws IOException {
+                byte[] buffer = new byte[1];
+                return read(buffer, 0, 1) <= 0 ? -1 : buffer[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                int count = readBytes(position, b, off, len);
+                if (count > 0) {
+                    position += count;
+                }
+                return count <= 0 ? -1 : count;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = Math.max(0, Math.min(n, contentLength - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, contentLength - position);
+            }
+        };
+    }
+
+    @Override
+    public Reader getContentReader() throws IOException {
+        return new InputStreamReader(getContentStream(), getCharset());
+    }
+
+    @Override
+    public DBDContentStorage cloneStorage(DBRProgressMonitor monitor) throws IOException {
+        File tempFile = ContentUtils.createTempContentFile(monitor, platform, "copy" + this.hashCode());
+        try (InputStream is = getContentStream()) {
+            try (OutputStream os = new FileOutputStream(tempFile)) {
+                ContentUtils.copyStreams(is, contentLength, os, monitor);
+            }
+        } catch (IOException e) {
+            ContentUtils.deleteTempFile(tempFile);
+            throw e;
+        }
+        return new TemporaryContentStorage(platform, tempFile, getCharset());
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRanged;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Read-through content storage.
+ * Content is read by pages on demand. A few recently used pages are cached.
+ */
+public abstract class PagedContentStorage<PAGE> implements DBDContentStorageRanged {
+
+    public static final int DEFAULT_PAGE_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_PAGES = 16;
+
+    protected final DBPPlatform platform;
+    protected final long contentLength;
+    protected final int pageSize;
+    private final String charset;
+    private final Map<Long, PAGE> pages = new LinkedHashMap<Long, PAGE>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, PAGE> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private boolean released;
+    // Error of the first failed page read. LOB locators don't become valid again, so the source isn't read after it.
+    private IOException sourceError;
+
+    protected PagedContentStorage(DBPPlatform platform, long contentLength, int pageSize, String charset) {
+        this.platform = platform;
+        this.contentLength = contentLength;
+        this.pageSize = pageSize;
+        this.charset = CommonUtils.toString(charset, GeneralUtils.DEFAULT_ENCODING);
+    }
+
+    /**
+     * Reads page from the content source
+     */
+    protected abstract PAGE readPage(long position, int length) throws IOException;
+
+    /**
+     * Releases content source
+     */
+    protected abstract void releaseSource();
+
+    protected synchronized PAGE getPage(long pageIndex) throws IOException {
+        if (released) {
+            throw new IOException("Content storage was released");
+        }
+        PAGE page = pages.get(pageIndex);
+        if (page == null) {
+            if (sourceError != null) {
+                throw new IOException("Content source is not available anymore", sourceError);
+            }
+            long position = pageIndex * pageSize;
+            try {
+                page = readPage(position, (int) Math.min(pageSize, contentLength - position));
+            } catch (IOException e) {
+                sourceError = e;
+                throw e;
+            }
+            pages.put(pageIndex, page);
+        }
+        return page;
+    }
+
+    @Override
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public String getCharset() {
+        return charset;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (!released) {
+            released = true;
+            pages.clear();
+            releaseSource();
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+
+import java.io.*;
+
+/**
+ * Read-through character content storage.
+ * Content length is a number of characters.
+ */
+public abstract class PagedTextContentStorage extends PagedContentStorage<char[]> {
+
+    protected PagedTextContentStorage(DBPPlatform platform, long contentLength, String charset) {
+        super(platform, contentLength, DEFAULT_PAGE_SIZE, charset);
+    }
+
+    @Override
+    public boolean isCharacterContent() {
+        return true;
+    }
+
+    @Override
+    public int readBytes(long position, byte[] buffer, int offset, int length) throws IOException {
+        throw new IOException("Character content can't be read as bytes");
+    }
+
+    @Override
+    public int readChars(long position, char[] buffer, int offset, int length) throws IOException {
+        if (position >= contentLength) {
+            return -1;
+        }
+        int total = 0;
+        while (total < length && position < contentLength) {
+            char[] page = getPage(position / pageSize);
+            int pageOffset = (int) (position % pageSize);
+            int count = Math.min(length - total, page.length - pageOffset);
+            if (count <= 0) {
+                // Source returned less than declared
+                break;
+            }
+            System.arraycopy(page, pageOffset, buffer, offset + total, count);
+            total += count;
+            position += count;
+        }
+        return total;
+    }
+
+    @Override
+    public Reader getContentReader() {
+        return new Reader() {
+            private long position;
+
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                int count = readChars(position, cbuf, off, len);
+                if (count > 0) {
+                    position += count;
+                }
+                return count <= 0 ? -1 : count;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = Math.max(0, Math.min(n, contentLength - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public void close() {
+                // Nothing to close
+            }
+        };
+    }
+
+    @Override
+    public InputStream getContentStream() throws IOException {
+        // Encode text by chunks. Chunks never end with a half of surrogate pair.
+        String charset = getCharset();
+        Reader reader = getContentReader();
+        return new InputStream() {
+            private final char[] chars = new char[8192];
+            private int charsCount;
+            private byte[] bytes = new byte[0];
+            private int bytesPos;
+            private boolean eof;
+
+            @Override
+            public int read() throws IOException {
+                return fillBytes() ? bytes[bytesPos++] & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!fillBytes()) {
+                    return -1;
+                }
+                int count = Math.min(len, bytes.length - bytesPos);
+                System.arraycopy(bytes, bytesPos, b, off, count);
+                bytesPos += count;
+                return count;
+            }
+
+            private boolean fillBytes() throws IOException {
+                while (bytesPos >= bytes.length) {
+                    if (eof && charsCount == 0) {
+                        return false;
+                    }
+                    if (!eof) {
+                        int count = reader.read(chars, charsCount, chars.length - charsCount);
+                        if (count < 0) {
+                            eof = true;
+                        } else {
+                            charsCount += count;
+                        }
+                    }
+                    int encodeCount = charsCount;
+                    if (!eof && encodeCount > 0 && Character.isHighSurrogate(chars[encodeCount - 1])) {
+                        encodeCount--;
+                    }
+                    bytes = new String(chars, 0, encodeCount).getBytes(charset);
+                    bytesPos = 0;
+                    System.arraycopy(chars, encodeCount, chars, 0, charsCount - encodeCount);
+                    charsCount -= encodeCount;
+                }
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public DBDContentStorage cloneStorage(DBRProgressMonitor monitor) throws IOException {
+        File tempFile = ContentUtils.createTempContentFile(monitor, platform, "copy" + this.hashCode());
+        try (Reader reader = getContentReader()) {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), getCharset())) {
+                ContentUtils.copyStreams(reader, contentLength, writer, monitor);
+            }
+        } catch (IOException e) {
+            ContentUtils.deleteTempFile(tempFile);
+            throw e;
+        }
+        return new TemporaryContentStorage(platform, tempFile, getCharset());
+    }
+
+}
@@ -0,0 +1,258 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Adaptive result set fetch size.
+ *
+ * Initial fetch size is limited by the row width estimated from result set metadata.
+ * Then the fetch size is adjusted after each fetched batch of rows:
+ * it is doubled if the batch fetch took long (network round trip dominates) and
+ * it is decreased if the observed row size doesn't fit into the memory limit.
+ * Row size is observed by sampling values which consumer reads from one row per batch.
+ * Values are never read again by the tuner, so streams and LOBs are safe to sample.
+ */
+public class DBCAdaptiveFetchSize {
+
+    public static final int MIN_FETCH_SIZE = 10;
+    public static final int MAX_FETCH_SIZE = 100000;
+
+    // Batch which is fetched longer than this is limited by network round trip
+    private static final long SLOW_BATCH_FETCH_TIME = 20 * 1000 * 1000L;
+    // Overhead of value holder
+    private static final int VALUE_OVERHEAD = 16;
+    private static final int DEFAULT_VALUE_SIZE = 32;
+    private static final int UNKNOWN_STRING_LENGTH = 256;
+    // Drivers usually prefetch LOB content up to several KBs
+    private static final int LOB_VALUE_SIZE = 8192;
+    private static final int MAX_ESTIMATED_STRING_LENGTH = 4000;
+    // Size of primitive value (int, double, etc)
+    public static final int PRIMITIVE_VALUE_SIZE = VALUE_OVERHEAD + 8;
+
+    private final int maxFetchSize;
+    private final long memoryLimit;
+    private final int initialFetchSize;
+
+    private boolean enabled = true;
+    private int fetchSize;
+    private long rowSize;
+    private int batchRows;
+    private long batchFetchTime;
+    private boolean batchSampled;
+    private boolean sampling;
+    private long sampleSize;
+    private int sampleValues;
+    // Statistics
+    private int minUsedFetchSize;
+    private int maxUsedFetchSize;
+    private int adjustCount;
+
+    /**
+     * @param initialFetchSize fetch size of statement
+     * @param maxFetchSize     fetch size can't be greater than this (e.g. page size)
+     * @param memoryLimit      max size of rows in one fetched batch (in bytes)
+     */
+    public DBCAdaptiveFetchSize(int initialFetchSize, int maxFetchSize, long memoryLimit) {
+        this.maxFetchSize = Math.max(MIN_FETCH_SIZE, Math.min(maxFetchSize, MAX_FETCH_SIZE));
+        this.memoryLimit = memoryLimit;
+        this.initialFetchSize = initialFetchSize;
+        this.fetchSize = initialFetchSize;
+        this.minUsedFetchSize = initialFetchSize;
+        this.maxUsedFetchSize = initialFetchSize;
+    }
+
+    /**
+     * Copies settings of tuner. Used to start new result set.
+     */
+    public DBCAdaptiveFetchSize(@NotNull DBCAdaptiveFetchSize source) {
+        this(source.initialFetchSize, source.maxFetchSize, source.memoryLimit);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Disables fetch size adjustment (e.g. if driver doesn't support fetch size changes)
+     */
+    public void disable() {
+        this.enabled = false;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public long getRowSize() {
+        return rowSize;
+    }
+
+    /**
+     * Estimates row size by result set metadata. Returns new fetch size or -1 if it wasn't changed.
+     */
+    public int startResultSet(@NotNull DBCResultSetMetaData metaData) {
+        long estimatedSize = 0;
+        for (DBCAttributeMetaData attribute : metaData.getAttributes()) {
+            estimatedSize += estimateValueSize(attribute);
+        }
+        this.rowSize = Math.max(1, estimatedSize);
+        return changeFetchSize(Math.min(fetchSize, getMaxFetchSizeByMemory()));
+    }
+
+    /**
+     * Current row is sampled. Values read by consumer must be passed to {@link #addSampleValue(Object)}.
+     */
+    public boolean isSampling() {
+        return sampling;
+    }
+
+    /**
+     * Adds value of the current row which was read by consumer
+     */
+    public void addSampleValue(@Nullable Object value) {
+        addSampleValueSize(getValueSize(value));
+    }
+
+    public void addSampleValueSize(long size) {
+        sampleSize += size;
+        sampleValues++;
+    }
+
+    /**
+     * Called after each row fetch. Returns new fetch size or -1 if it wasn't changed.
+     * @param fetchTime row fetch time in nanoseconds
+     */
+    public int rowFetched(long fetchTime) {
+        if (!enabled) {
+            return -1;
+        }
+        finishSample();
+        batchRows++;
+        batchFetchTime += fetchTime;
+        if (!batchSampled) {
+            // Sample the first row of each batch
+            batchSampled = true;
+            sampling = true;
+        }
+        if (batchRows < fetchSize) {
+            return -1;
+        }
+        long batchTime = batchFetchTime;
+        batchRows = 0;
+        batchFetchTime = 0;
+        batchSampled = false;
+
+        int maxByMemory = getMaxFetchSizeByMemory();
+        if (fetchSize > maxByMemory) {
+            return changeFetchSize(maxByMemory);
+        } else if (batchTime >= SLOW_BATCH_FETCH_TIME) {
+            return changeFetchSize(Math.min(fetchSize * 2, maxByMemory));
+        }
+        return -1;
+    }
+
+    /**
+     * Human readable description of used fetch sizes
+     */
+    @NotNull
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append(initialFetchSize);
+        if (adjustCount > 0) {
+            summary.append(" -> ").append(fetchSize)
+                .append(" (").append(minUsedFetchSize).append("..").append(maxUsedFetchSize)
+                .append(", ").append(adjustCount).append(" change(s))");
+        }
+        if (rowSize > 0) {
+            summary.append(", ~").append(rowSize).append(" bytes per row");
+        }
+        return summary.toString();
+    }
+
+    private void finishSample() {
+        if (sampling && sampleValues > 0) {
+            // Smooth the row size to avoid jumps on single wide rows
+            rowSize = Math.max(1, (rowSize * 3 + sampleSize) / 4);
+        }
+        sampling = false;
+        sampleSize = 0;
+        sampleValues = 0;
+    }
+
+    private int getMaxFetchSizeByMemory() {
+        long maxRows = rowSize <= 0 ? maxFetchSize : memoryLimit / rowSize;
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(maxRows, maxFetchSize));
+    }
+
+    private int changeFetchSize(int newFetchSize) {
+        if (newFetchSize == fetchSize) {
+            return -1;
+        }
+        fetchSize = newFetchSize;
+        adjustCount++;
+        minUsedFetchSize = Math.min(minUsedFetchSize, newFetchSize);
+        maxUsedFetchSize = Math.max(maxUsedFetchSize, newFetchSize);
+        return newFetchSize;
+    }
+
+    public static long estimateValueSize(@NotNull DBCAttributeMetaData attribute) {
+        long maxLength = attribute.getMaxLength();
+        switch (attribute.getDataKind()) {
+            case BOOLEAN:
+                return VALUE_OVERHEAD + 1;
+            case NUMERIC:
+            case DATETIME:
+                return VALUE_OVERHEAD + 16;
+            case STRING:
+                return VALUE_OVERHEAD + 2 * (maxLength > 0 ? Math.min(maxLength, MAX_ESTIMATED_STRING_LENGTH) : UNKNOWN_STRING_LENGTH);
+            case BINARY:
+                return VALUE_OVERHEAD + (maxLength > 0 ? Math.min(maxLength, MAX_ESTIMATED_STRING_LENGTH) : UNKNOWN_STRING_LENGTH);
+            case CONTENT:
+                return VALUE_OVERHEAD + LOB_VALUE_SIZE;
+            default:
+                return VALUE_OVERHEAD + DEFAULT_VALUE_SIZE;
+        }
+    }
+
+    public static long getValueSize(@Nullable Object value) {
+        if (value == null) {
+            return VALUE_OVERHEAD;
+        } else if (value instanceof CharSequence) {
+            return VALUE_OVERHEAD + 2L * ((CharSequence) value).length();
+        } else if (value instanceof byte[]) {
+            return VALUE_OVERHEAD + ((byte[]) value).length;
+        } else if (value instanceof java.sql.Blob || value instanceof java.sql.Clob || value instanceof java.sql.SQLXML ||
+            value instanceof InputStream || value instanceof Reader)
+        {
+            // Content length is unknown until it is read
+            return VALUE_OVERHEAD + LOB_VALUE_SIZE;
+        } else if (value instanceof Boolean) {
+            return VALUE_OVERHEAD + 1;
+        } else if (value instanceof Number || value instanceof java.util.Date || value instanceof java.time.temporal.Temporal) {
+            return VALUE_OVERHEAD + 16;
+        } else {
+            return VALUE_OVERHEAD + DEFAULT_VALUE_SIZE;
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.code.Nullable;
+
+/**
+ * Statement which adjusts fetch size of its result sets while they are fetched.
+ */
+public interface DBCAdaptiveFetchStatement extends DBCStatement
+{
+
+    /**
+     * Sets adaptive fetch size settings. Each result set of this statement gets its own copy.
+     */
+    void setAdaptiveFetchSize(@Nullable DBCAdaptiveFetchSize adaptiveFetchSize);
+
+}
@@ -31,6 +31,8 @@ public interface DBCResultSet extends DBPObject, DBPCloseableObject
     String FEATURE_NAME_JDBC            = "jdbc";
     String FEATURE_NAME_DOCUMENT        = "document";
     String FEATURE_NAME_LOCAL           = "local";
+    // Returns DBCAdaptiveFetchSize if adaptive fetch size is enabled
+    String FEATURE_NAME_ADAPTIVE_FETCH_SIZE = "adaptiveFetchSize";
 
     DBCSession getSession();
 
@@ -70,6 +70,8 @@ import java.util.*;
 public class DBExecUtils {
 
     public static final int DEFAULT_READ_FETCH_SIZE = 10000;
+    // Adaptive fetch size starts from this and grows if network round trips are slow
+    public static final int DEFAULT_ADAPTIVE_FETCH_SIZE = 1000;
 
     private static final Log log = Log.getLog(DBExecUtils.class);
 
@@ -234,20 +236,47 @@ public class DBExecUtils {
     }
 
     public static void setStatementFetchSize(DBCStatement dbStat, long firstRow, long maxRows, int fetchSize) {
-        boolean useFetchSize = fetchSize > 0 || dbStat.getSession().getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
+        DBPPreferenceStore preferenceStore = dbStat.getSession().getDataSource().getContainer().getPreferenceStore();
+        boolean adaptiveFetchSize = dbStat instanceof DBCAdaptiveFetchStatement && isAdaptiveFetchSizeEnabled(preferenceStore);
+        boolean useFetchSize = fetchSize > 0 || adaptiveFetchSize || preferenceStore.getBoolean(ModelPreferences.RESULT_SET_USE_FETCH_SIZE);
         if (useFetchSize) {
             if (fetchSize <= 0) {
                 fetchSize = DEFAULT_READ_FETCH_SIZE;
             }
+            int statementFetchSize = firstRow < 0 || maxRows <= 0 ? fetchSize : (int) (firstRow + maxRows);
+            if (adaptiveFetchSize) {
+                // Requested fetch size becomes the upper bound
+                int initialFetchSize = Math.min(statementFetchSize, DEFAULT_ADAPTIVE_FETCH_SIZE);
+                long memoryLimit = preferenceStore.getInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_MEMORY_LIMIT);
+                if (memoryLimit <= 0) {
+                    memoryLimit = preferenceStore.getDefaultInt(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_MEMORY_LIMIT);
+                }
+                ((DBCAdaptiveFetchStatement) dbStat).setAdaptiveFetchSize(
+                    new DBCAdaptiveFetchSize(initialFetchSize, statementFetchSize, memoryLimit * 1024 * 1024));
+                statementFetchSize = initialFetchSize;
+            }
             try {
-                dbStat.setResultsFetchSize(
-                    firstRow < 0 || maxRows <= 0 ? fetchSize : (int) (firstRow + maxRows));
+                dbStat.setResultsFetchSize(statementFetchSize);
             } catch (Exception e) {
                 log.warn(e);
             }
         }
     }
 
+    public static boolean isAdaptiveFetchSizeEnabled(@NotNull DBPPreferenceStore preferenceStore) {
+        return preferenceStore.getBoolean(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_SIZE);
+    }
+
+    /**
+     * Adds fetch sizes used by adaptive fetch size to the statistics
+     */
+    public static void addFetchSizeStatistics(@NotNull DBCResultSet resultSet, @NotNull DBCStatistics statistics) {
+        Object adaptiveFetchSize = resultSet.getFeature(DBCResultSet.FEATURE_NAME_ADAPTIVE_FETCH_SIZE);
+        if (adaptiveFetchSize instanceof DBCAdaptiveFetchSize) {
+            statistics.addInfo("Fetch size", ((DBCAdaptiveFetchSize) adaptiveFetchSize).getSummary());
+        }
+    }
+
     public static void executeScript(DBRProgressMonitor monitor, DBCExecutionContext executionContext, String jobName, List<DBEPersistAction> persistActions) {
         try (DBCSession session = executionContext.openSession(monitor, DBCExecutionPurpose.UTIL, jobName)) {
             executeScript(session, persistActions.toArray(new DBEPersistAction[0]));
@@ -140,20 +140,20 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
                     for (int i = 0; i < rowValues.length; i++) {
                         nulls[i] = DBUtils.isNullValue(rowValues[i]);
                     }
-                    if (!Arrays.equals(prevNulls, nulls) && statementsInBatch > 0) {
-                        reuse = false;
-                    }
-                    System.arraycopy(nulls, 0, prevNulls, 0, nulls.length);
-                    if (!reuse && statementsInBatch > 0) {
-                        // Flush batch
-                        if (actions == null) {
-                            flushBatch(statistics, statement);
+                    if (statement != null && !Arrays.equals(prevNulls, nulls)) {
+                        // Statement text depends on nulls. Prepare new statement even if batches are not used
+                        // (script generation, per-row execution), otherwise previous row query would be reused.
+                        if (statementsInBatch > 0) {
+                            // Flush batch
+                            if (actions == null) {
+                                flushBatch(statistics, statement);
+                            }
+                            statementsInBatch = 0;
                         }
                         statement.close();
                         statement = null;
-                        statementsInBatch = 0;
-                        reuse = true;
                     }
+                    System.arraycopy(nulls, 0, prevNulls, 0, nulls.length);
                 }
                 if (statement == null || !reuse) {
                     statement = prepareStatement(session, handlers, rowValues, options);
@@ -26,6 +26,8 @@ import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
+import org.jkiss.dbeaver.model.data.storage.PagedBinaryContentStorage;
+import org.jkiss.dbeaver.model.data.storage.PagedContentStorage;
 import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
@@ -87,16 +89,22 @@ public class JDBCContentBLOB extends JDBCContentLOB {
             if (contentLength < platform.getPreferenceStore().getInt(ModelPreferences.MEMORY_CONTENT_MAX_SIZE)) {
                 try {
                     try (InputStream bs = blob.getBinaryStream()) {
-                        storage = BytesContentStorage.createFromStream(
+                        // Bytes content is managed by the global content cache
+                        BytesContentStorage bytesStorage = BytesContentStorage.createFromStream(
                             bs,
                             contentLength,
                             getDefaultEncoding());
+                        storage = new JDBCContentBytes(executionContext, (byte[]) bytesStorage.getCachedValue());
                     }
                 } catch (IOException e) {
                     throw new DBCException("IO error while reading content", e);
                 } catch (Throwable e) {
                     throw new DBCException(e, executionContext);
                 }
+            } else if (contentLength >= platform.getPreferenceStore().getLong(ModelPreferences.CONTENT_PAGED_MIN_SIZE) &&
+                (storage = openPagedStorage(platform, contentLength)) != null)
+            {
+                // Content will be read on demand
             } else {
                 // Create new local storage
                 File tempFile;
@@ -119,12 +127,47 @@ public class JDBCContentBLOB extends JDBCContentLOB {
                 }
                 this.storage = new TemporaryContentStorage(platform, tempFile, getDefaultEncoding());
             }
-            // Free blob - we don't need it anymore
-            releaseBlob();
+            if (!(storage instanceof PagedContentStorage)) {
+                // Free blob - we don't need it anymore
+                releaseBlob();
+            }
         }
         return storage;
     }
 
+    /**
+     * Creates storage which reads BLOB ranges on demand.
+     * Returns null if BLOB doesn't support random access.
+     */
+    private DBDContentStorage openPagedStorage(DBPPlatform platform, long contentLength) {
+        PagedBinaryContentStorage pagedStorage = new PagedBinaryContentStorage(platform, contentLength, getDefaultEncoding()) {
+            @Override
+            protected byte[] readPage(long position, int length) throws IOException {
+                Blob source = blob;
+                if (source == null) {
+                    throw new IOException("BLOB was released");
+                }
+                try {
+                    return source.getBytes(position + 1, length);
+                } catch (Throwable e) {
+                    throw new IOException("Error reading BLOB bytes", e);
+                }
+            }
+
+            @Override
+            protected void releaseSource() {
+                // BLOB is freed by its content
+            }
+        };
+        try {
+            pagedStorage.readBytes(0, new byte[1], 0, 1);
+            return pagedStorage;
+        } catch (IOException e) {
+            log.debug("BLOB doesn't support random access: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public void release()
     {
@@ -20,17 +20,22 @@ import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBValueFormatting;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
 import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.storage.ContentMemoryCache;
+import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.MimeTypes;
+import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.sql.SQLException;
@@ -39,14 +44,21 @@ import java.util.Arrays;
 /**
  * JDBCContentBytes
  *
+ * Original data is registered in the {@link ContentMemoryCache}. It may be spilled to a temporary file
+ * and then read back on demand.
+ *
  * @author Serge Rider
  */
-public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentStorage, DBDContentCached {
+public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentStorage, DBDContentCached, ContentMemoryCache.Spillable {
 
     private static final Log log = Log.getLog(JDBCContentBytes.class);
 
     private byte[] originalData;
     private byte[] data;
+    // Null if data is too small to be tracked
+    private ContentMemoryCache.Entry cacheEntry;
+    // Length of spilled data
+    private long spilledLength;
 
     public JDBCContentBytes(DBCExecutionContext executionContext) {
         super(executionContext);
@@ -56,23 +68,112 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
     public JDBCContentBytes(DBCExecutionContext executionContext, byte[] data) {
         super(executionContext);
         this.data = this.originalData = data;
+        registerData();
     }
 
     public JDBCContentBytes(DBCExecutionContext executionContext, String data) {
         super(executionContext);
         this.data = this.originalData = DBValueFormatting.getBinaryPresentation(executionContext.getDataSource()).toBytes(data);
+        registerData();
     }
 
     private JDBCContentBytes(JDBCContentBytes copyFrom) {
         super(copyFrom);
-        this.originalData = copyFrom.originalData;
-        this.data = copyFrom.data;
+        // Data arrays are shared with the source. Copy registers them too: they stay in memory while copy is alive.
+        // Source may be spilled again right after reload, then it is reloaded once more.
+        for (;;) {
+            copyFrom.getData();
+            synchronized (copyFrom) {
+                if (!copyFrom.isDataSpilled()) {
+                    this.originalData = copyFrom.originalData;
+                    this.data = copyFrom.data;
+                    break;
+                }
+            }
+        }
+        registerData();
+    }
+
+    private void registerData() {
+        if (originalData != null) {
+            cacheEntry = ContentMemoryCache.getInstance().register(this, originalData.length);
+        }
+    }
+
+    private synchronized boolean isDataSpilled() {
+        // Spill storage is released after data was read back, so check data as well
+        return originalData == null && cacheEntry != null && cacheEntry.isSpilled();
+    }
+
+    /**
+     * Opens stream of current data. Spilled data is read from spill storage, it is not read back into memory.
+     */
+    private synchronized InputStream openDataStream() throws IOException {
+        if (isDataSpilled()) {
+            return cacheEntry.getSpillStorage().getContentStream();
+        }
+        return new ByteArrayInputStream(data == null ? new byte[0] : data);
+    }
+
+    /**
+     * Returns current data. Spilled data is read back into memory.
+     * Cache is notified outside of this content lock because it may spill other contents.
+     */
+    private byte[] getData() {
+        if (cacheEntry == null) {
+            synchronized (this) {
+                return data;
+            }
+        }
+        boolean reloaded = false;
+        byte[] result;
+        synchronized (this) {
+            if (isDataSpilled()) {
+                DBDContentStorage spillStorage = cacheEntry.getSpillStorage();
+                try (InputStream is = spillStorage.getContentStream()) {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) spilledLength);
+                    IOUtils.copyStream(is, buffer);
+                    this.data = this.originalData = buffer.toByteArray();
+                    reloaded = true;
+                } catch (IOException e) {
+                    log.error("Error reading spilled content", e);
+                }
+            }
+            result = data;
+        }
+        if (reloaded) {
+            cacheEntry.reloaded(result.length);
+        } else {
+            cacheEntry.touch();
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized boolean spillContent() throws IOException {
+        if (cacheEntry == null || data == null || data != originalData) {
+            // Modified data is never spilled
+            return false;
+        }
+        DBPPlatform platform = executionContext.getDataSource().getContainer().getPlatform();
+        File tempFile = ContentUtils.createTempContentFile(new VoidProgressMonitor(), platform, "bytes" + System.identityHashCode(this));
+        try (OutputStream os = new FileOutputStream(tempFile)) {
+            os.write(data);
+        } catch (IOException e) {
+            ContentUtils.deleteTempFile(tempFile);
+            throw e;
+        }
+        cacheEntry.setSpillStorage(new TemporaryContentStorage(platform, tempFile, getCharset()));
+        this.spilledLength = data.length;
+        this.data = this.originalData = null;
+        return true;
     }
 
     @Override
     public InputStream getContentStream()
         throws IOException
     {
+        byte[] data = getData();
         if (data == null) {
             return new ByteArrayInputStream(new byte[0]);
         } else {
@@ -89,7 +190,10 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
     }
 
     @Override
-    public long getContentLength() {
+    public synchronized long getContentLength() {
+        if (isDataSpilled()) {
+            return spilledLength;
+        }
         if (data == null) {
             return 0;
         }
@@ -129,8 +233,10 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
         DBDContentStorage storage)
         throws DBException
     {
+        // Modified content can't be spilled, so read original data back
+        byte[] data = getData();
         if (storage == null) {
-            data = null;
+            this.data = null;
         } else {
             try {
                 InputStream is = storage.getContentStream();
@@ -143,7 +249,7 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
                     if (data != null && Arrays.equals(data, newData)) {
                         return false;
                     }
-                    data = newData;
+                    this.data = newData;
                 }
                 finally {
                     ContentUtils.close(is);
@@ -158,7 +264,7 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
     }
 
     @Override
-    public void resetContents()
+    public synchronized void resetContents()
     {
         this.data = this.originalData;
         this.modified = false;
@@ -173,6 +279,7 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
         throws DBCException
     {
         try {
+            byte[] data = getData();
             if (data != null) {
                 preparedStatement.setBytes(paramIndex, data);
             } else {
@@ -186,25 +293,38 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
 
     @Override
     public byte[] getRawValue() {
-        return data;
+        return getData();
     }
 
     @Override
-    public boolean isNull()
+    public synchronized boolean isNull()
     {
-        return data == null;
+        return data == null && !isDataSpilled();
     }
 
+    /**
+     * Removes content from memory cache. Spilled data is deleted, so released content is empty.
+     */
     @Override
     public void release()
     {
-        // Return original data
-        this.data = this.originalData;
+        ContentMemoryCache.Entry entry;
+        synchronized (this) {
+            // Return original data
+            this.data = this.originalData;
+            entry = this.cacheEntry;
+            this.cacheEntry = null;
+            this.spilledLength = 0;
+        }
+        if (entry != null) {
+            entry.remove();
+        }
     }
 
     @Override
     public String getDisplayString(DBDDisplayFormat format)
     {
+        byte[] data = getData();
         if (data == null) {
             return null;
         }
@@ -220,24 +340,40 @@ public class JDBCContentBytes extends JDBCContentAbstract implements DBDContentS
     @Override
     public Object getCachedValue()
     {
-        return data;
+        return getData();
     }
 
+    /**
+     * Spilled data is compared in spill storage, it is not read back into memory
+     */
     @Override
     public boolean equals(Object obj)
     {
         if (this == obj) return true;
-        if (obj instanceof JDBCContentBytes) {
-            byte[] data2 = ((JDBCContentBytes) obj).data;
-            if (data == null) return data2 == null;
-            if (data2 != null) return Arrays.equals(data, data2);
+        if (!(obj instanceof JDBCContentBytes)) {
+            return false;
+        }
+        JDBCContentBytes content2 = (JDBCContentBytes) obj;
+        if (isNull() || content2.isNull()) {
+            return isNull() && content2.isNull();
+        }
+        if (getContentLength() != content2.getContentLength()) {
+            return false;
+        }
+        try (InputStream is1 = openDataStream(); InputStream is2 = content2.openDataStream()) {
+            return ContentUtils.equalStreams(is1, is2);
+        } catch (IOException e) {
+            log.debug("Error comparing contents: " + e.getMessage());
+            return false;
         }
-        return false;
     }
 
+    /**
+     * Depends only on content length, so spilled data is not read back
+     */
     @Override
     public int hashCode() {
-        return data == null ? 0 : Arrays.hashCode(data);
+        return isNull() ? 0 : Long.hashCode(getContentLength());
     }
 
 }
\ No newline at end of file
@@ -25,6 +25,8 @@ import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.storage.ExternalContentStorage;
+import org.jkiss.dbeaver.model.data.storage.PagedContentStorage;
+import org.jkiss.dbeaver.model.data.storage.PagedTextContentStorage;
 import org.jkiss.dbeaver.model.data.storage.StringContentStorage;
 import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
@@ -99,6 +101,10 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
                         throw new DBCException(e, executionContext);
                     }
                 }
+            } else if (contentLength >= platform.getPreferenceStore().getLong(ModelPreferences.CONTENT_PAGED_MIN_SIZE) &&
+                (storage = openPagedStorage(platform, contentLength)) != null)
+            {
+                // Content will be read on demand
             } else {
                 // Create new local storage
                 File tempFile;
@@ -119,12 +125,47 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
                 }
                 this.storage = new TemporaryContentStorage(platform, tempFile, getDefaultEncoding());
             }
-            // Free lob - we don't need it anymore
-            releaseClob();
+            if (!(storage instanceof PagedContentStorage)) {
+                // Free lob - we don't need it anymore
+                releaseClob();
+            }
         }
         return storage;
     }
 
+    /**
+     * Creates storage which reads CLOB ranges on demand.
+     * Returns null if CLOB doesn't support random access.
+     */
+    private DBDContentStorage openPagedStorage(DBPPlatform platform, long contentLength) {
+        PagedTextContentStorage pagedStorage = new PagedTextContentStorage(platform, contentLength, getDefaultEncoding()) {
+            @Override
+            protected char[] readPage(long position, int length) throws IOException {
+                Clob source = clob;
+                if (source == null) {
+                    throw new IOException("CLOB was released");
+                }
+                try {
+                    return source.getSubString(position + 1, length).toCharArray();
+                } catch (Throwable e) {
+                    throw new IOException("Error reading CLOB substring", e);
+                }
+            }
+
+            @Override
+            protected void releaseSource() {
+                // CLOB is freed by its content
+            }
+        };
+        try {
+            pagedStorage.readChars(0, new char[1], 0, 1);
+            return pagedStorage;
+        } catch (IOException e) {
+            log.debug("CLOB doesn't support random access: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public void release()
     {
@@ -18,19 +18,25 @@ package org.jkiss.dbeaver.model.impl.jdbc.data;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBValueFormatting;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
 import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.storage.ContentMemoryCache;
+import org.jkiss.dbeaver.model.data.storage.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.MimeTypes;
-import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.sql.SQLException;
@@ -38,28 +44,127 @@ import java.sql.SQLException;
 /**
  * JDBCContentChars
  *
+ * Original data is registered in the {@link ContentMemoryCache}. It may be spilled to a temporary file
+ * and then read back on demand.
+ *
  * @author Serge Rider
  */
-public class JDBCContentChars extends JDBCContentAbstract implements DBDContentStorage, DBDContentCached {
+public class JDBCContentChars extends JDBCContentAbstract implements DBDContentStorage, DBDContentCached, ContentMemoryCache.Spillable {
+
+    private static final Log log = Log.getLog(JDBCContentChars.class);
 
     private String originalData;
+    // Use getData() to read it, data may be spilled
     protected String data;
+    // Null if data is too small to be tracked
+    private ContentMemoryCache.Entry cacheEntry;
+    // Length of spilled data (in chars)
+    private long spilledLength;
 
     public JDBCContentChars(DBCExecutionContext executionContext, String data) {
         super(executionContext);
         this.data = this.originalData = data;
+        registerData();
     }
 
     public JDBCContentChars(JDBCContentChars copyFrom) {
         super(copyFrom);
-        this.originalData = copyFrom.originalData;
-        this.data = copyFrom.data;
+        // Data is shared with the source. Copy registers it too: it stays in memory while copy is alive.
+        // Source may be spilled again right after reload, then it is reloaded once more.
+        for (;;) {
+            copyFrom.getData();
+            synchronized (copyFrom) {
+                if (!copyFrom.isDataSpilled()) {
+                    this.originalData = copyFrom.originalData;
+                    this.data = copyFrom.data;
+                    break;
+                }
+            }
+        }
+        registerData();
+    }
+
+    private void registerData() {
+        if (originalData != null) {
+            // Java strings take two bytes per char
+            cacheEntry = ContentMemoryCache.getInstance().register(this, originalData.length() * 2L);
+        }
+    }
+
+    private synchronized boolean isDataSpilled() {
+        // Spill storage is released after data was read back, so check data as well
+        return originalData == null && cacheEntry != null && cacheEntry.isSpilled();
+    }
+
+    /**
+     * Opens reader of current data. Spilled data is read from spill storage, it is not read back into memory.
+     */
+    private synchronized Reader openDataReader() throws IOException {
+        if (isDataSpilled()) {
+            return cacheEntry.getSpillStorage().getContentReader();
+        }
+        return new StringReader(data == null ? "" : data);
+    }
+
+    /**
+     * Returns current data. Spilled data is read back into memory.
+     * Cache is notified outside of this content lock because it may spill other contents.
+     */
+    protected String getData() {
+        if (cacheEntry == null) {
+            synchronized (this) {
+                return data;
+            }
+        }
+        boolean reloaded = false;
+        String result;
+        synchronized (this) {
+            if (isDataSpilled()) {
+                DBDContentStorage spillStorage = cacheEntry.getSpillStorage();
+                try (Reader reader = spillStorage.getContentReader()) {
+                    StringWriter buffer = new StringWriter((int) spilledLength);
+                    IOUtils.copyText(reader, buffer);
+                    this.data = this.originalData = buffer.toString();
+                    reloaded = true;
+                } catch (IOException e) {
+                    log.error("Error reading spilled content", e);
+                }
+            }
+            result = data;
+        }
+        if (reloaded) {
+            cacheEntry.reloaded(result.length() * 2L);
+        } else {
+            cacheEntry.touch();
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized boolean spillContent() throws IOException {
+        if (cacheEntry == null || data == null || data != originalData) {
+            // Modified data is never spilled
+            return false;
+        }
+        DBPPlatform platform = executionContext.getDataSource().getContainer().getPlatform();
+        File tempFile = ContentUtils.createTempContentFile(new VoidProgressMonitor(), platform, "chars" + System.identityHashCode(this));
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), GeneralUtils.UTF8_CHARSET)) {
+            writer.write(data);
+        } catch (IOException e) {
+            ContentUtils.deleteTempFile(tempFile);
+            throw e;
+        }
+        cacheEntry.setSpillStorage(new TemporaryContentStorage(platform, tempFile, GeneralUtils.UTF8_ENCODING));
+        this.spilledLength = data.length();
+        this.data = this.originalData = null;
+        return true;
     }
 
     @Override
     public InputStream getContentStream()
         throws IOException
     {
+        String data = getData();
         if (data == null) {
             // Empty content
             return new ByteArrayInputStream(new byte[0]);
@@ -72,6 +177,7 @@ public class JDBCContentChars extends JDBCContentAbstract implements DBDContentS
     public Reader getContentReader()
         throws IOException
     {
+        String data = getData();
         if (data == null) {
             // Empty content
             return new StringReader(""); //$NON-NLS-1$
@@ -81,7 +187,11 @@ public class JDBCContentChars extends JDBCContentAbstract implements DBDContentS
     }
 
     @Override
-    public long getContentLength() {
+    public synchronized long getContentLength() {
+        if (isDataSpilled()) {
+            // Do not read spilled data back just to get its length
+            return spilledLength;
+        }
         if (data == null) {
             return 0;
         }
@@ -108,6 +218,8 @@ public class JDBCContentChars extends JDBCContentAbstract implements DBDContentS
         DBDContentStorage storage)
         throws DBException
     {
+        // Modified content can't be spilled, so read original data back
+        getData();
         if (storage == null) {
             data = null;
         } else {
@@ -131,7 +243,7 @@ public class JDBCContentChars extends JDBCContentAbstract implements DBDContentS
     }
 
     @Override
-    public void resetContents()
+    public synchronized void resetContents()
     {
         this.data = this.originalData;
         this.modified = false;
@@ -155,6 +267,7 @@ public class JDBCContentChars extends JDBCContentAbstract implements DBDContentS
         throws DBCException
     {
         try {
+            String data = getData();
             if (data != null) {
                 preparedStatement.setString(paramIndex, data);
             } else {
@@ -168,49 +281,81 @@ public class JDBCContentChars extends JDBCContentAbstract implements DBDContentS
 
     @Override
     public Object getRawValue() {
-        return data;
+        return getData();
     }
 
     @Override
-    public boolean isNull()
+    public synchronized boolean isNull()
     {
-        return data == null;
+        return data == null && !isDataSpilled();
     }
 
+    /**
+     * Removes content from memory cache. Spilled data is deleted, so released content is empty.
+     */
     @Override
     public void release()
     {
-        this.data = this.originalData;
+        ContentMemoryCache.Entry entry;
+        synchronized (this) {
+            this.data = this.originalData;
+            entry = this.cacheEntry;
+            this.cacheEntry = null;
+            this.spilledLength = 0;
+        }
+        if (entry != null) {
+            entry.remove();
+        }
     }
 
+    /**
+     * Spilled data is compared in spill storage, it is not read back into memory
+     */
     @Override
     public boolean equals(Object obj)
     {
-        return
-            obj instanceof JDBCContentChars &&
-            CommonUtils.equalObjects(data, ((JDBCContentChars) obj).data);
+        if (this == obj) return true;
+        if (!(obj instanceof JDBCContentChars)) {
+            return false;
+        }
+        JDBCContentChars content2 = (JDBCContentChars) obj;
+        if (isNull() || content2.isNull()) {
+            return isNull() && content2.isNull();
+        }
+        if (getContentLength() != content2.getContentLength()) {
+            return false;
+        }
+        try (Reader reader1 = openDataReader(); Reader reader2 = content2.openDataReader()) {
+            return ContentUtils.equalReaders(reader1, reader2);
+        } catch (IOException e) {
+            log.debug("Error comparing contents: " + e.getMessage());
+            return false;
+        }
     }
 
+    /**
+     * Depends only on content length, so spilled data is not read back
+     */
     @Override
     public int hashCode() {
-        return data == null ? 0 : data.hashCode();
+        return isNull() ? 0 : Long.hashCode(getContentLength());
     }
 
     @Override
     public String getDisplayString(DBDDisplayFormat format) {
-        return data;
+        return getData();
     }
 
     @Override
     public JDBCContentChars cloneValue(DBRProgressMonitor monitor)
     {
-        return new JDBCContentChars(executionContext, data);
+        return new JDBCContentChars(executionContext, getData());
     }
 
     @Override
     public Object getCachedValue()
     {
-        return data;
+        return getData();
     }
 
 }
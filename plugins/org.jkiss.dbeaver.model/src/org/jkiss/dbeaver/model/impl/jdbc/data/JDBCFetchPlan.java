@@ -0,0 +1,131 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCAbstractValueHandler;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+
+import java.sql.SQLException;
+
+/**
+ * Result set fetch plan.
+ * Built once per result set from attribute bindings. Columns which value handlers read with primitive
+ * JDBC getters are read directly into {@link JDBCRowBuffer} without boxing. Other columns are read by value handlers.
+ *
+ * Plan is bound to a single result set and is not thread safe.
+ */
+public class JDBCFetchPlan {
+
+    private final DBDValueHandler[] valueHandlers;
+    private final DBSAttributeBase[] metaAttributes;
+    private final int[] ordinalPositions;
+    // null for attributes which are not in result set
+    private final JDBCRowBuffer.ValueKind[] valueKinds;
+
+    /**
+     * @param attributes  result set attribute bindings
+     * @param columnCount number of result set columns (without virtual attributes)
+     */
+    public JDBCFetchPlan(@NotNull DBDAttributeBinding[] attributes, int columnCount) {
+        this.valueHandlers = new DBDValueHandler[columnCount];
+        this.metaAttributes = new DBSAttributeBase[columnCount];
+        this.ordinalPositions = new int[columnCount];
+        this.valueKinds = new JDBCRowBuffer.ValueKind[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            DBDAttributeBinding attribute = attributes[i];
+            DBSAttributeBase metaAttribute = attribute.getMetaAttribute();
+            if (metaAttribute == null) {
+                continue;
+            }
+            DBDValueHandler valueHandler = attribute.getValueHandler();
+            valueHandlers[i] = valueHandler;
+            metaAttributes[i] = metaAttribute;
+            ordinalPositions[i] = attribute.getOrdinalPosition();
+            if (valueHandler instanceof JDBCAbstractValueHandler) {
+                valueKinds[i] = ((JDBCAbstractValueHandler) valueHandler).getFetchValueKind(metaAttribute);
+            } else {
+                valueKinds[i] = JDBCRowBuffer.ValueKind.OBJECT;
+            }
+        }
+    }
+
+    public int getColumnCount() {
+        return valueKinds.length;
+    }
+
+    @NotNull
+    public JDBCRowBuffer createBuffer() {
+        return new JDBCRowBuffer(valueKinds.length);
+    }
+
+    /**
+     * Reads all values of the current row
+     */
+    public void readRow(@NotNull DBCSession session, @NotNull JDBCResultSet resultSet, @NotNull JDBCRowBuffer buffer) throws DBCException {
+        for (int i = 0; i < valueKinds.length; i++) {
+            readValue(session, resultSet, buffer, i);
+        }
+    }
+
+    /**
+     * Reads value of the specified column of the current row
+     */
+    public void readValue(@NotNull DBCSession session, @NotNull JDBCResultSet resultSet, @NotNull JDBCRowBuffer buffer, int index) throws DBCException {
+        JDBCRowBuffer.ValueKind valueKind = valueKinds[index];
+        if (valueKind == null) {
+            buffer.setNull(index);
+            return;
+        }
+        if (valueKind != JDBCRowBuffer.ValueKind.OBJECT) {
+            // JDBC uses 1-based indexes
+            int columnIndex = ordinalPositions[index] + 1;
+            try {
+                switch (valueKind) {
+                    case BOOLEAN: {
+                        boolean value = resultSet.getBoolean(columnIndex);
+                        buffer.setLong(index, valueKind, value ? 1 : 0, resultSet.wasNull());
+                        return;
+                    }
+                    case SHORT:
+                    case INT:
+                    case LONG: {
+                        long value = valueKind == JDBCRowBuffer.ValueKind.LONG ? resultSet.getLong(columnIndex) :
+                            valueKind == JDBCRowBuffer.ValueKind.INT ? resultSet.getInt(columnIndex) : resultSet.getShort(columnIndex);
+                        buffer.setLong(index, valueKind, value, resultSet.wasNull());
+                        return;
+                    }
+                    case DOUBLE: {
+                        double value = resultSet.getDouble(columnIndex);
+                        buffer.setDouble(index, value, resultSet.wasNull());
+                        return;
+                    }
+                }
+            } catch (SQLException | ClassCastException | NumberFormatException e) {
+                // Driver can't read this column as primitive. Let value handler read it from now on.
+                valueKinds[index] = JDBCRowBuffer.ValueKind.OBJECT;
+            }
+        }
+        buffer.setObject(index, valueHandlers[index].fetchValueObject(session, resultSet, metaAttributes[index], ordinalPositions[index]));
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+/**
+ * Reusable buffer for values of one result set row.
+ * Primitive values are kept unboxed. They are boxed only when requested as objects.
+ * Filled by {@link JDBCFetchPlan}.
+ */
+public class JDBCRowBuffer {
+
+    /**
+     * Kind of value stored in buffer
+     */
+    public enum ValueKind {
+        OBJECT,
+        BOOLEAN,
+        SHORT,
+        INT,
+        LONG,
+        DOUBLE
+    }
+
+    private final ValueKind[] valueKinds;
+    private final boolean[] nulls;
+    private final long[] longValues;
+    private final double[] doubleValues;
+    private final Object[] objectValues;
+
+    public JDBCRowBuffer(int columnCount) {
+        this.valueKinds = new ValueKind[columnCount];
+        this.nulls = new boolean[columnCount];
+        this.longValues = new long[columnCount];
+        this.doubleValues = new double[columnCount];
+        this.objectValues = new Object[columnCount];
+    }
+
+    public int getColumnCount() {
+        return valueKinds.length;
+    }
+
+    @NotNull
+    public ValueKind getValueKind(int index) {
+        ValueKind valueKind = valueKinds[index];
+        return valueKind == null ? ValueKind.OBJECT : valueKind;
+    }
+
+    public boolean isNull(int index) {
+        return nulls[index];
+    }
+
+    public boolean getBoolean(int index) {
+        switch (getValueKind(index)) {
+            case OBJECT:
+                Object value = objectValues[index];
+                return value instanceof Boolean ? (Boolean) value : value instanceof Number && ((Number) value).longValue() != 0;
+            case DOUBLE:
+                return doubleValues[index] != 0;
+            default:
+                return longValues[index] != 0;
+        }
+    }
+
+    public long getLong(int index) {
+        switch (getValueKind(index)) {
+            case OBJECT:
+                Object value = objectValues[index];
+                return value instanceof Number ? ((Number) value).longValue() : 0;
+            case DOUBLE:
+                return (long) doubleValues[index];
+            default:
+                return longValues[index];
+        }
+    }
+
+    public double getDouble(int index) {
+        switch (getValueKind(index)) {
+            case OBJECT:
+                Object value = objectValues[index];
+                return value instanceof Number ? ((Number) value).doubleValue() : 0;
+            case DOUBLE:
+                return doubleValues[index];
+            default:
+                return longValues[index];
+        }
+    }
+
+    /**
+     * Returns value as object. Boxes primitive values.
+     * Boxed value type is the same as value handler returns for this column.
+     */
+    @Nullable
+    public Object getObject(int index) {
+        if (nulls[index]) {
+            return null;
+        }
+        switch (getValueKind(index)) {
+            case BOOLEAN:
+                return longValues[index] != 0;
+            case SHORT:
+                return (short) longValues[index];
+            case INT:
+                return (int) longValues[index];
+            case LONG:
+                return longValues[index];
+            case DOUBLE:
+                return doubleValues[index];
+            default:
+                return objectValues[index];
+        }
+    }
+
+    /**
+     * Copies all values into the target array (primitive values are boxed)
+     */
+    @NotNull
+    public Object[] getValues(@Nullable Object[] target) {
+        if (target == null || target.length < valueKinds.length) {
+            target = new Object[valueKinds.length];
+        }
+        for (int i = 0; i < valueKinds.length; i++) {
+            target[i] = getObject(i);
+        }
+        return target;
+    }
+
+    public void setNull(int index) {
+        valueKinds[index] = ValueKind.OBJECT;
+        nulls[index] = true;
+        objectValues[index] = null;
+    }
+
+    public void setObject(int index, @Nullable Object value) {
+        valueKinds[index] = ValueKind.OBJECT;
+        nulls[index] = value == null;
+        objectValues[index] = value;
+    }
+
+    void setLong(int index, @NotNull ValueKind valueKind, long value, boolean isNull) {
+        valueKinds[index] = valueKind;
+        nulls[index] = isNull;
+        longValues[index] = value;
+        objectValues[index] = null;
+    }
+
+    void setDouble(int index, double value, boolean isNull) {
+        valueKinds[index] = ValueKind.DOUBLE;
+        nulls[index] = isNull;
+        doubleValues[index] = value;
+        objectValues[index] = null;
+    }
+
+}
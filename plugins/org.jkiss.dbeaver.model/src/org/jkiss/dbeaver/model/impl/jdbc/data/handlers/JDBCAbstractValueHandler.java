@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.data.BaseValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCRowBuffer;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 
@@ -68,6 +69,17 @@ public abstract class JDBCAbstractValueHandler extends BaseValueHandler {
         }
     }
 
+    /**
+     * Returns kind of value which this handler reads with primitive JDBC getter for the specified column.
+     * Such values are fetched by {@link org.jkiss.dbeaver.model.impl.jdbc.data.JDBCFetchPlan} without boxing.
+     * Boxed value must be the same as {@link #fetchColumnValue} returns.
+     * Handlers which read values in some other way must return {@link JDBCRowBuffer.ValueKind#OBJECT}.
+     */
+    @NotNull
+    public JDBCRowBuffer.ValueKind getFetchValueKind(@NotNull DBSTypedObject type) {
+        return JDBCRowBuffer.ValueKind.OBJECT;
+    }
+
     @Nullable
     protected abstract Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index)
         throws DBCException, SQLException;
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCRowBuffer;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 
 import java.sql.SQLException;
@@ -37,6 +38,12 @@ public class JDBCBooleanValueHandler extends JDBCAbstractValueHandler implements
 
     private static final Log log = Log.getLog(JDBCBooleanValueHandler.class);
 
+    @NotNull
+    @Override
+    public JDBCRowBuffer.ValueKind getFetchValueKind(@NotNull DBSTypedObject type) {
+        return JDBCRowBuffer.ValueKind.BOOLEAN;
+    }
+
     @Override
     protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index)
         throws SQLException
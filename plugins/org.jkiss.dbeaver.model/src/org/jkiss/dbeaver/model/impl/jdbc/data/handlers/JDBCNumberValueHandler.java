@@ -27,6 +27,7 @@ import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.impl.data.formatters.DefaultDataFormatter;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCRowBuffer;
 import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.utils.CommonUtils;
 
@@ -105,6 +106,26 @@ public class JDBCNumberValueHandler extends JDBCAbstractValueHandler implements
         return formatter;
     }
 
+    @NotNull
+    @Override
+    public JDBCRowBuffer.ValueKind getFetchValueKind(@NotNull DBSTypedObject type) {
+        // The same getters as in fetchColumnValue
+        switch (type.getTypeID()) {
+            case Types.INTEGER:
+                return JDBCRowBuffer.ValueKind.LONG;
+            case Types.SMALLINT:
+                return JDBCRowBuffer.ValueKind.INT;
+            case Types.TINYINT:
+                return JDBCRowBuffer.ValueKind.SHORT;
+            case Types.DOUBLE:
+            case Types.REAL:
+            case Types.FLOAT:
+                return isReadDecimalsAsDouble() ? JDBCRowBuffer.ValueKind.DOUBLE : JDBCRowBuffer.ValueKind.OBJECT;
+            default:
+                return JDBCRowBuffer.ValueKind.OBJECT;
+        }
+    }
+
     @Nullable
     @Override
     protected Object fetchColumnValue(
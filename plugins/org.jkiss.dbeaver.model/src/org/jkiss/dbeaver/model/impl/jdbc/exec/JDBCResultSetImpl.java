@@ -19,6 +19,7 @@ package org.jkiss.dbeaver.model.impl.jdbc.exec;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCAdaptiveFetchSize;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSetMetaData;
@@ -50,6 +51,8 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     private long maxRows = -1;
     private boolean fake;
     private boolean disableLogging;
+    @Nullable
+    private DBCAdaptiveFetchSize adaptiveFetchSize;
 
     public static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original, String description, boolean disableLogging)
         throws SQLException
@@ -144,7 +147,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         checkNotEmpty();
         try {
             // JDBC uses 1-based indexes
-            return original.getObject(index + 1);
+            return sampleValue(original.getObject(index + 1));
         }
         catch (SQLException e) {
             throw new DBCException(e, session.getExecutionContext());
@@ -232,6 +235,9 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         if (FEATURE_NAME_JDBC.equals(name)) {
             return true;
         }
+        if (FEATURE_NAME_ADAPTIVE_FETCH_SIZE.equals(name)) {
+            return adaptiveFetchSize;
+        }
         return super.getFeature(name);
     }
 
@@ -254,6 +260,47 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         this.maxRows = maxRows;
     }
 
+    /**
+     * Enables adaptive fetch size. Initial fetch size is estimated from result set metadata.
+     */
+    public void setAdaptiveFetchSize(@NotNull DBCAdaptiveFetchSize adaptiveFetchSize) {
+        this.adaptiveFetchSize = adaptiveFetchSize;
+        try {
+            applyAdaptiveFetchSize(adaptiveFetchSize.startResultSet(getMeta()));
+        } catch (DBCException e) {
+            log.debug("Can't estimate result set row size: " + e.getMessage());
+        }
+    }
+
+    private void applyAdaptiveFetchSize(int fetchSize) {
+        if (fetchSize <= 0 || original == null) {
+            return;
+        }
+        try {
+            original.setFetchSize(fetchSize);
+        } catch (Throwable e) {
+            // Driver doesn't support fetch size change on open result set
+            log.debug("Can't change result set fetch size: " + e.getMessage());
+            adaptiveFetchSize.disable();
+        }
+    }
+
+    /**
+     * Row size is sampled from values read by consumer. Values can't be read again (e.g. streams).
+     */
+    private <T> T sampleValue(T value) {
+        if (adaptiveFetchSize != null && adaptiveFetchSize.isSampling()) {
+            adaptiveFetchSize.addSampleValue(value);
+        }
+        return value;
+    }
+
+    private void samplePrimitiveValue() {
+        if (adaptiveFetchSize != null && adaptiveFetchSize.isSampling()) {
+            adaptiveFetchSize.addSampleValueSize(DBCAdaptiveFetchSize.PRIMITIVE_VALUE_SIZE);
+        }
+    }
+
     @Override
     public boolean next()
         throws SQLException
@@ -269,9 +316,13 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         this.beforeFetch();
         try {
             // Fetch next row
+            long fetchStartTime = adaptiveFetchSize == null ? 0 : System.nanoTime();
             boolean fetched = original.next();
             if (fetched) {
                 rowsFetched++;
+                if (adaptiveFetchSize != null) {
+                    applyAdaptiveFetchSize(adaptiveFetchSize.rowFetched(System.nanoTime() - fetchStartTime));
+                }
             }
             if (fetched && JDBCTrace.isApiTraceEnabled()) {
                 JDBCTrace.dumpResultSetRow(this.original);
@@ -331,7 +382,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getString(columnIndex);
+        return sampleValue(original.getString(columnIndex));
     }
 
     private static void traceGetValue(int columnIndex, String value) {
@@ -343,6 +394,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getBoolean(columnIndex);
     }
 
@@ -351,6 +403,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getByte(columnIndex);
     }
 
@@ -359,6 +412,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getShort(columnIndex);
     }
 
@@ -367,6 +421,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getInt(columnIndex);
     }
 
@@ -375,6 +430,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getLong(columnIndex);
     }
 
@@ -383,6 +439,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getFloat(columnIndex);
     }
 
@@ -391,6 +448,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
+        samplePrimitiveValue();
         return original.getDouble(columnIndex);
     }
 
@@ -400,7 +458,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getBigDecimal(columnIndex, scale);
+        return sampleValue(original.getBigDecimal(columnIndex, scale));
     }
 
     @Override
@@ -408,7 +466,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getBytes(columnIndex);
+        return sampleValue(original.getBytes(columnIndex));
     }
 
     @Override
@@ -416,7 +474,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getDate(columnIndex);
+        return sampleValue(original.getDate(columnIndex));
     }
 
     @Override
@@ -424,7 +482,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getTime(columnIndex);
+        return sampleValue(original.getTime(columnIndex));
     }
 
     @Override
@@ -432,7 +490,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getTimestamp(columnIndex);
+        return sampleValue(original.getTimestamp(columnIndex));
     }
 
     @Override
@@ -440,7 +498,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getAsciiStream(columnIndex);
+        return sampleValue(original.getAsciiStream(columnIndex));
     }
 
     @Override
@@ -449,7 +507,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getUnicodeStream(columnIndex);
+        return sampleValue(original.getUnicodeStream(columnIndex));
     }
 
     @Override
@@ -457,7 +515,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getBinaryStream(columnIndex);
+        return sampleValue(original.getBinaryStream(columnIndex));
     }
 
     @Override
@@ -624,7 +682,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
         throws SQLException
     {
         checkNotEmpty();
-        return original.getObject(columnIndex);
+        return sampleValue(original.getObject(columnIndex));
     }
 
     @Override
@@ -646,7 +704,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Reader getCharacterStream(int columnIndex)
         throws SQLException
     {
-        return original.getCharacterStream(columnIndex);
+        return sampleValue(original.getCharacterStream(columnIndex));
     }
 
     @Override
@@ -660,7 +718,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public BigDecimal getBigDecimal(int columnIndex)
         throws SQLException
     {
-        return original.getBigDecimal(columnIndex);
+        return sampleValue(original.getBigDecimal(columnIndex));
     }
 
     @Override
@@ -1136,7 +1194,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Object getObject(int columnIndex, Map<String, Class<?>> map)
         throws SQLException
     {
-        return original.getObject(columnIndex, map);
+        return sampleValue(original.getObject(columnIndex, map));
     }
 
     @Override
@@ -1150,21 +1208,21 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Blob getBlob(int columnIndex)
         throws SQLException
     {
-        return original.getBlob(columnIndex);
+        return sampleValue(original.getBlob(columnIndex));
     }
 
     @Override
     public Clob getClob(int columnIndex)
         throws SQLException
     {
-        return original.getClob(columnIndex);
+        return sampleValue(original.getClob(columnIndex));
     }
 
     @Override
     public Array getArray(int columnIndex)
         throws SQLException
     {
-        return original.getArray(columnIndex);
+        return sampleValue(original.getArray(columnIndex));
     }
 
     @Override
@@ -1206,7 +1264,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Date getDate(int columnIndex, Calendar cal)
         throws SQLException
     {
-        return original.getDate(columnIndex, cal);
+        return sampleValue(original.getDate(columnIndex, cal));
     }
 
     @Override
@@ -1220,7 +1278,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Time getTime(int columnIndex, Calendar cal)
         throws SQLException
     {
-        return original.getTime(columnIndex, cal);
+        return sampleValue(original.getTime(columnIndex, cal));
     }
 
     @Override
@@ -1234,7 +1292,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Timestamp getTimestamp(int columnIndex, Calendar cal)
         throws SQLException
     {
-        return original.getTimestamp(columnIndex, cal);
+        return sampleValue(original.getTimestamp(columnIndex, cal));
     }
 
     @Override
@@ -1388,7 +1446,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public NClob getNClob(int columnIndex)
         throws SQLException
     {
-        return original.getNClob(columnIndex);
+        return sampleValue(original.getNClob(columnIndex));
     }
 
     @Override
@@ -1402,7 +1460,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public SQLXML getSQLXML(int columnIndex)
         throws SQLException
     {
-        return original.getSQLXML(columnIndex);
+        return sampleValue(original.getSQLXML(columnIndex));
     }
 
     @Override
@@ -1430,7 +1488,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public String getNString(int columnIndex)
         throws SQLException
     {
-        return original.getNString(columnIndex);
+        return sampleValue(original.getNString(columnIndex));
     }
 
     @Override
@@ -1444,7 +1502,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     public Reader getNCharacterStream(int columnIndex)
         throws SQLException
     {
-        return original.getNCharacterStream(columnIndex);
+        return sampleValue(original.getNCharacterStream(columnIndex));
     }
 
     @Override
@@ -1653,7 +1711,7 @@ public class JDBCResultSetImpl extends AbstractResultSet<JDBCSession, JDBCStatem
     @Nullable
     @Override
     public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
-        return original.getObject(columnIndex, type);
+        return sampleValue(original.getObject(columnIndex, type));
     }
 
     @Nullable
@@ -21,6 +21,8 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.exec.DBCAdaptiveFetchSize;
+import org.jkiss.dbeaver.model.exec.DBCAdaptiveFetchStatement;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
@@ -45,7 +47,7 @@ import java.util.List;
  * Managable statement.
  * Stores information about execution in query manager and operated progress monitor.
  */
-public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStatement<JDBCSession> implements JDBCStatement {
+public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStatement<JDBCSession> implements JDBCStatement, DBCAdaptiveFetchStatement {
 
     private static final Log log = Log.getLog(JDBCStatementImpl.class);
 
@@ -56,6 +58,8 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
 
     private long rsOffset = -1;
     private long rsMaxRows = -1;
+    @Nullable
+    private DBCAdaptiveFetchSize adaptiveFetchSize;
 
     private long updateCount;
     private Throwable executeError;
@@ -253,6 +257,9 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         if (rsMaxRows > 0 && connection.getDataSource().getInfo().supportsResultSetLimit()) {
             dbResult.setMaxRows(rsMaxRows);
         }
+        if (adaptiveFetchSize != null && dbResult instanceof JDBCResultSetImpl) {
+            ((JDBCResultSetImpl) dbResult).setAdaptiveFetchSize(new DBCAdaptiveFetchSize(adaptiveFetchSize));
+        }
         return dbResult;
     }
 
@@ -640,6 +647,11 @@ public class JDBCStatementImpl<STATEMENT extends Statement> extends AbstractStat
         }
     }
 
+    @Override
+    public void setAdaptiveFetchSize(@Nullable DBCAdaptiveFetchSize adaptiveFetchSize) {
+        this.adaptiveFetchSize = adaptiveFetchSize;
+    }
+
     @Override
     public int getUpdateCount() throws SQLException
     {
@@ -23,6 +23,8 @@ import org.jkiss.dbeaver.model.DBPObjectWithDescription;
 import org.jkiss.dbeaver.model.app.DBPProject;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Map;
 
@@ -59,6 +61,17 @@ public interface DBTTask extends DBPNamedObject, DBPObjectWithDescription {
     @NotNull
     DBTTaskRun[] getRunStatistics();
 
+    /**
+     * Returns page of task runs. Runs are ordered from the newest to the oldest.
+     */
+    @NotNull
+    default DBTTaskRun[] getRunStatistics(int offset, int maxCount) {
+        DBTTaskRun[] runs = getRunStatistics();
+        Arrays.sort(runs, Comparator.comparing(DBTTaskRun::getStartTime).reversed());
+        int fromIndex = Math.min(offset, runs.length);
+        return Arrays.copyOfRange(runs, fromIndex, Math.min(runs.length, fromIndex + maxCount));
+    }
+
     @NotNull
     File getRunLogFolder();
 
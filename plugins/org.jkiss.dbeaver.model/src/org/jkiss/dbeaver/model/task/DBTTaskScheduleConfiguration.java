@@ -61,4 +61,7 @@ public class DBTTaskScheduleConfiguration {
     public int maxDuration;
 
     public int executionMinute;
+
+    // Cron expression (minute hour day-of-month month day-of-week). Used by schedulers with Cron recurrence type.
+    public String cronExpression;
 }
@@ -325,6 +325,40 @@ public class ContentUtils {
         return IOUtils.readToString(new UnicodeReader(is, charset));
     }
 
+    /**
+     * Compares contents of two streams. Streams are not closed.
+     */
+    public static boolean equalStreams(InputStream is1, InputStream is2) throws IOException
+    {
+        InputStream in1 = new BufferedInputStream(is1), in2 = new BufferedInputStream(is2);
+        for (;;) {
+            int b1 = in1.read();
+            if (b1 != in2.read()) {
+                return false;
+            }
+            if (b1 < 0) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Compares contents of two readers. Readers are not closed.
+     */
+    public static boolean equalReaders(Reader reader1, Reader reader2) throws IOException
+    {
+        Reader in1 = new BufferedReader(reader1), in2 = new BufferedReader(reader2);
+        for (;;) {
+            int c1 = in1.read();
+            if (c1 != in2.read()) {
+                return false;
+            }
+            if (c1 < 0) {
+                return true;
+            }
+        }
+    }
+
     @Nullable
     public static IFile convertPathToWorkspaceFile(IPath path)
     {
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.model.net.ssh;
 
 import com.jcraft.jsch.*;
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
@@ -41,11 +42,55 @@ import java.util.stream.Collectors;
 public class SSHImplementationJsch extends SSHImplementationAbstract {
     private static final Log log = Log.getLog(SSHImplementationJsch.class);
 
+    // Tunnels to the same host share authenticated session
+    private static final SSHSessionPool<Session> sessionPool = new SSHSessionPool<>(new SSHSessionPool.SessionController<Session>() {
+        @Override
+        public boolean isSessionAlive(@NotNull Session session) {
+            return session.isConnected();
+        }
+
+        @Override
+        public void closeSession(@NotNull DBRProgressMonitor monitor, @NotNull Session session) {
+            RuntimeUtils.runTask(monitor1 -> {
+                try {
+                    session.disconnect();
+                } catch (Exception e) {
+                    throw new InvocationTargetException(e);
+                }
+            }, "Close SSH session", 1000);
+        }
+    });
+
     private transient JSch jsch;
     private transient volatile Session session;
+    private transient String forwardedLocalHost;
+    private transient int forwardedLocalPort;
 
     @Override
     protected synchronized void setupTunnel(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout, String sshLocalHost, int sshLocalPort, String sshRemoteHost, int sshRemotePort) throws DBException, IOException {
+        SSHSessionPool.SessionKey sessionKey = new SSHSessionPool.SessionKey(
+            sshHost,
+            sshPortNum,
+            configuration.getUserName(),
+            CommonUtils.toString(configuration.getProperty(SSHConstants.PROP_AUTH_TYPE)),
+            privKeyFile == null ? null : privKeyFile.getAbsolutePath(),
+            configuration.getPassword());
+        session = sessionPool.acquireSession(
+            sessionKey,
+            () -> openSession(monitor, configuration, sshHost, aliveInterval, sshPortNum, privKeyFile, connectTimeout));
+        try {
+            String localHost = CommonUtils.isEmpty(sshLocalHost) ? SSHConstants.LOCALHOST_NAME : sshLocalHost;
+            session.setPortForwardingL(localHost, sshLocalPort, sshRemoteHost, sshRemotePort);
+            forwardedLocalHost = localHost;
+            forwardedLocalPort = sshLocalPort;
+        } catch (JSchException e) {
+            closeTunnel(monitor);
+            throw new DBException("Cannot establish tunnel", e);
+        }
+    }
+
+    @NotNull
+    private Session openSession(DBRProgressMonitor monitor, DBWHandlerConfiguration configuration, String sshHost, int aliveInterval, int sshPortNum, File privKeyFile, int connectTimeout) throws DBException, IOException {
         try {
             if (jsch == null) {
                 jsch = new JSch();
@@ -65,7 +110,7 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             }
 
             log.debug("Instantiate SSH tunnel");
-            session = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
+            Session session = jsch.getSession(configuration.getUserName(), sshHost, sshPortNum);
             session.setConfig("StrictHostKeyChecking", "no");
 
             if (authType == AuthType.PASSWORD) {
@@ -91,16 +136,7 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             }
             log.debug("Connect to tunnel host");
             session.connect(connectTimeout);
-            try {
-                if (CommonUtils.isEmpty(sshLocalHost)) {
-                    session.setPortForwardingL(sshLocalPort, sshRemoteHost, sshRemotePort);
-                } else {
-                    session.setPortForwardingL(sshLocalHost, sshLocalPort, sshRemoteHost, sshRemotePort);
-                }
-            } catch (JSchException e) {
-                closeTunnel(monitor);
-                throw e;
-            }
+            return session;
         } catch (JSchException e) {
             throw new DBException("Cannot establish tunnel", e);
         }
@@ -109,15 +145,16 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
     @Override
     public synchronized void closeTunnel(DBRProgressMonitor monitor) throws DBException, IOException {
         if (session != null) {
-            RuntimeUtils.runTask(monitor1 -> {
-                if (session != null) {
-                    try {
-                        session.disconnect();
-                    } catch (Exception e) {
-                        throw new InvocationTargetException(e);
-                    }
+            if (forwardedLocalHost != null) {
+                // Session may be used by other tunnels, so remove our port forwarding only
+                try {
+                    session.delPortForwardingL(forwardedLocalHost, forwardedLocalPort);
+                } catch (JSchException e) {
+                    log.debug("Error removing port forwarding " + forwardedLocalHost + ":" + forwardedLocalPort, e);
                 }
-            }, "Close SSH session", 1000);
+                forwardedLocalHost = null;
+            }
+            sessionPool.releaseSession(monitor, session);
             session = null;
         }
     }
@@ -144,6 +181,11 @@ public class SSHImplementationJsch extends SSHImplementationAbstract {
             }
         }
         if (!isAlive) {
+            Session oldSession = session;
+            if (oldSession != null) {
+                // Open new session for this tunnel. Other tunnels keep the old one until they are invalidated too.
+                sessionPool.invalidateSession(oldSession);
+            }
             closeTunnel(monitor);
             initTunnel(monitor, DBWorkbench.getPlatform(), savedConfiguration, savedConnectionInfo);
         }
@@ -0,0 +1,208 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Pool of authenticated SSH sessions.
+ *
+ * Tunnels to the same SSH host with the same user and credentials share a single session.
+ * Each tunnel opens its own port forwarding over the shared session, so key exchange and authentication
+ * are performed once per host. Session is closed when the last tunnel releases it.
+ */
+public class SSHSessionPool<SESSION> {
+
+    private static final Log log = Log.getLog(SSHSessionPool.class);
+
+    public interface SessionOpener<SESSION> {
+        /**
+         * Creates new connected and authenticated session
+         */
+        @NotNull
+        SESSION openSession() throws DBException, IOException;
+    }
+
+    public interface SessionController<SESSION> {
+
+        boolean isSessionAlive(@NotNull SESSION session);
+
+        void closeSession(@NotNull DBRProgressMonitor monitor, @NotNull SESSION session) throws DBException, IOException;
+    }
+
+    /**
+     * Identifies SSH session: host, user and authentication
+     */
+    public static class SessionKey {
+        private final String host;
+        private final int port;
+        private final String user;
+        private final String authType;
+        private final String keyPath;
+        private final String password;
+
+        public SessionKey(@NotNull String host, int port, @Nullable String user, @Nullable String authType, @Nullable String keyPath, @Nullable String password) {
+            this.host = host;
+            this.port = port;
+            this.user = CommonUtils.notEmpty(user);
+            this.authType = CommonUtils.notEmpty(authType);
+            this.keyPath = CommonUtils.notEmpty(keyPath);
+            this.password = CommonUtils.notEmpty(password);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SessionKey)) {
+                return false;
+            }
+            SessionKey key = (SessionKey) obj;
+            return port == key.port &&
+                host.equals(key.host) &&
+                user.equals(key.user) &&
+                authType.equals(key.authType) &&
+                keyPath.equals(key.keyPath) &&
+                password.equals(key.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return host.hashCode() + port * 31 + user.hashCode() * 17 + authType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            // No credentials here
+            return user + "@" + host + ":" + port;
+        }
+    }
+
+    private static class PooledSession<SESSION> {
+        final SessionKey key;
+        SESSION session;
+        int refCount;
+
+        PooledSession(SessionKey key) {
+            this.key = key;
+        }
+    }
+
+    private final SessionController<SESSION> controller;
+    // Sessions which can be shared by new tunnels
+    private final Map<SessionKey, PooledSession<SESSION>> sharedSessions = new HashMap<>();
+    // All opened sessions, including invalidated ones which are still used by some tunnels
+    private final Map<SESSION, PooledSession<SESSION>> openSessions = new IdentityHashMap<>();
+
+    public SSHSessionPool(@NotNull SessionController<SESSION> controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Returns shared session for the specified key. Opens new session if there is no alive session yet.
+     * Each acquired session must be released with {@link #releaseSession(DBRProgressMonitor, Object)}.
+     */
+    @NotNull
+    public SESSION acquireSession(@NotNull SessionKey key, @NotNull SessionOpener<SESSION> opener) throws DBException, IOException {
+        PooledSession<SESSION> entry;
+        synchronized (this) {
+            entry = sharedSessions.get(key);
+            if (entry != null && entry.session != null && !controller.isSessionAlive(entry.session)) {
+                // Broken session remains opened until all its tunnels are closed
+                log.debug("SSH session " + key + " is not alive. Open new session.");
+                sharedSessions.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new PooledSession<>(key);
+                sharedSessions.put(key, entry);
+            }
+            entry.refCount++;
+        }
+        try {
+            // Concurrent tunnels to the same host wait while the first one connects
+            synchronized (entry) {
+                if (entry.session == null) {
+                    SESSION session = opener.openSession();
+                    synchronized (this) {
+                        entry.session = session;
+                        openSessions.put(session, entry);
+                    }
+                } else {
+                    log.debug("Reuse SSH session " + key);
+                }
+                return entry.session;
+            }
+        } catch (DBException | IOException | RuntimeException e) {
+            synchronized (this) {
+                entry.refCount--;
+                if (entry.refCount == 0 && entry.session == null && sharedSessions.get(key) == entry) {
+                    sharedSessions.remove(key);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Releases session acquired by tunnel. Closes session if it is not used by other tunnels.
+     */
+    public void releaseSession(@NotNull DBRProgressMonitor monitor, @NotNull SESSION session) throws DBException, IOException {
+        synchronized (this) {
+            PooledSession<SESSION> entry = openSessions.get(session);
+            if (entry != null) {
+                entry.refCount--;
+                if (entry.refCount > 0) {
+                    return;
+                }
+                openSessions.remove(session);
+                if (sharedSessions.get(entry.key) == entry) {
+                    sharedSessions.remove(entry.key);
+                }
+            }
+        }
+        controller.closeSession(monitor, session);
+    }
+
+    /**
+     * Excludes session from sharing. New tunnels will open new session.
+     * Tunnels which use this session keep it until they release it.
+     */
+    public synchronized void invalidateSession(@NotNull SESSION session) {
+        PooledSession<SESSION> entry = openSessions.get(session);
+        if (entry != null && sharedSessions.get(entry.key) == entry) {
+            sharedSessions.remove(entry.key);
+        }
+    }
+
+    /**
+     * Number of tunnels which use the session
+     */
+    public synchronized int getSessionUseCount(@NotNull SESSION session) {
+        PooledSession<SESSION> entry = openSessions.get(session);
+        return entry == null ? 0 : entry.refCount;
+    }
+
+}
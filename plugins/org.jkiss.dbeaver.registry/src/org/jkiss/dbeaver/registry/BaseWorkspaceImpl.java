@@ -129,6 +129,12 @@ public abstract class BaseWorkspaceImpl implements DBPWorkspace, DBPExternalFile
             activeProject = projects.values().iterator().next();
             platform.getPreferenceStore().setValue(PROP_PROJECT_ACTIVE, activeProject.getName());
         }
+        // Read data source configurations of all projects in background. Registries will be created on demand.
+        List<ProjectMetadata> projectList;
+        synchronized (projects) {
+            projectList = new ArrayList<>(projects.values());
+        }
+        DataSourceConfigPreloader.preloadConfigurations(projectList);
     }
 
     public static Properties readWorkspaceInfo(File metadataFolder) {
@@ -176,6 +182,7 @@ public abstract class BaseWorkspaceImpl implements DBPWorkspace, DBPExternalFile
             }
             this.projects.clear();
         }
+        DataSourceConfigPreloader.clearConfigurations();
         DBVModel.checkGlobalCacheIsEmpty();
 
         // Dispose resource handlers
@@ -0,0 +1,182 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Reads data source configuration files of all workspace projects in parallel.
+ *
+ * Data source registries are still created on first access to project. They take preloaded
+ * configuration instead of reading and parsing config files by themselves.
+ * If config file was changed after preload then it is read again by registry.
+ *
+ * Encrypted configurations and credentials are not preloaded: they are decrypted by registry only when needed.
+ * Configurations which weren't taken by registries are dropped some time after preload finish.
+ */
+class DataSourceConfigPreloader {
+
+    private static final Log log = Log.getLog(DataSourceConfigPreloader.class);
+
+    private static final int MAX_PARALLEL_LOADS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    // Configurations which weren't requested by registries are dropped after this time
+    private static final long PRELOAD_EXPIRE_TIME = 10 * 60 * 1000;
+
+    private static class PreloadedConfig {
+        final long lastModified;
+        final long length;
+        final CompletableFuture<Map<String, Object>> content;
+
+        PreloadedConfig(File file, CompletableFuture<Map<String, Object>> content) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.content = content;
+        }
+    }
+
+    private static final Map<String, PreloadedConfig> preloadedConfigs = new ConcurrentHashMap<>();
+
+    /**
+     * Starts parallel loading of data source configurations. Doesn't wait for the end of loading.
+     */
+    static void preloadConfigurations(@NotNull Collection<ProjectMetadata> projects) {
+        long startTime = System.currentTimeMillis();
+        List<CompletableFuture<Map<String, Object>>> loads = new ArrayList<>();
+        Map<String, PreloadedConfig> configs = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_LOADS, r -> {
+            Thread thread = new Thread(r, "Data source configuration loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (ProjectMetadata project : projects) {
+            if (!project.isOpen() || project.isInMemory() || project.isRegistryLoaded() ||
+                CommonUtils.toBoolean(project.getProjectProperty(DBPProject.PROP_SECURE_PROJECT)))
+            {
+                continue;
+            }
+            File[] mdFiles = project.getMetadataFolder(false).listFiles();
+            if (mdFiles == null) {
+                continue;
+            }
+            for (File file : mdFiles) {
+                String fileName = file.getName();
+                if (file.isDirectory() ||
+                    !fileName.startsWith(DBPDataSourceRegistry.MODERN_CONFIG_FILE_PREFIX) ||
+                    !fileName.endsWith(DBPDataSourceRegistry.MODERN_CONFIG_FILE_EXT))
+                {
+                    continue;
+                }
+                CompletableFuture<Map<String, Object>> load = CompletableFuture.supplyAsync(() -> loadConfiguration(file), executor);
+                PreloadedConfig config = new PreloadedConfig(file, load);
+                configs.put(file.getAbsolutePath(), config);
+                preloadedConfigs.put(file.getAbsolutePath(), config);
+                loads.add(load);
+            }
+        }
+        executor.shutdown();
+        CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).whenComplete((result, error) -> {
+            StartupStatistics.addPhaseTime(StartupStatistics.PHASE_CONFIG_PRELOAD, System.currentTimeMillis() - startTime);
+            log.debug("Data source configurations preloaded (" + loads.size() + " files in " + projects.size() + " projects)");
+            // Failed configurations are read by registries again
+            for (Map.Entry<String, PreloadedConfig> config : configs.entrySet()) {
+                CompletableFuture<Map<String, Object>> content = config.getValue().content;
+                if (content.isCompletedExceptionally() || content.getNow(null) == null) {
+                    preloadedConfigs.remove(config.getKey(), config.getValue());
+                }
+            }
+            if (!configs.isEmpty()) {
+                new ExpireJob(configs).schedule(PRELOAD_EXPIRE_TIME);
+            }
+            StartupStatistics.logReportIfFinished();
+        });
+    }
+
+    /**
+     * Returns preloaded configuration and removes it from preload cache.
+     * Returns null if file wasn't preloaded, was changed after preload or wasn't loaded because of error.
+     */
+    @Nullable
+    static Map<String, Object> takeConfiguration(@NotNull File file) {
+        if (preloadedConfigs.isEmpty()) {
+            return null;
+        }
+        PreloadedConfig config = preloadedConfigs.remove(file.getAbsolutePath());
+        if (config == null || config.lastModified != file.lastModified() || config.length != file.length()) {
+            return null;
+        }
+        try {
+            return config.content.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.debug("Error preloading configuration '" + file.getAbsolutePath() + "'", e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Drops configurations of finished preload which weren't taken by registries
+     */
+    private static class ExpireJob extends AbstractJob {
+        private final Map<String, PreloadedConfig> configs;
+
+        ExpireJob(Map<String, PreloadedConfig> configs) {
+            super("Expire preloaded data source configurations");
+            this.configs = configs;
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            configs.forEach(preloadedConfigs::remove);
+            return Status.OK_STATUS;
+        }
+    }
+
+    static void clearConfigurations() {
+        preloadedConfigs.clear();
+    }
+
+    @Nullable
+    private static Map<String, Object> loadConfiguration(@NotNull File file) {
+        long startTime = System.currentTimeMillis();
+        try {
+            return DataSourceSerializerModern.parseConfiguration(DataSourceSerializerModern.loadConfigFile(file, null));
+        } catch (Exception e) {
+            // Registry will read this file again and report the error
+            log.debug("Error preloading configuration '" + file.getAbsolutePath() + "': " + e.getMessage());
+            return null;
+        } finally {
+            StartupStatistics.addPhaseTime(StartupStatistics.PHASE_CONFIG_READ, System.currentTimeMillis() - startTime);
+        }
+    }
+
+}
@@ -72,6 +72,7 @@ import java.net.URLClassLoader;
 import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * DataSourceDescriptor
@@ -163,6 +164,9 @@ public class DataSourceDescriptor
     private DBWTunnel tunnelHandler;
     @NotNull
     private DBVModel virtualModel;
+    // Loads virtual model from configuration on first access
+    @Nullable
+    private volatile Supplier<DBVModel> virtualModelLoader;
     private final DBPExclusiveResource exclusiveLock = new SimpleExclusiveLock();
     private DataSourceNavigatorSettings navigatorSettings;
 
@@ -244,7 +248,7 @@ public class DataSourceDescriptor
             this.formatterProfile = new DataFormatterProfile(source.formatterProfile.getProfileName(), preferenceStore);
         }
 
-        this.virtualModel = new DBVModel(this, source.virtualModel);
+        this.virtualModel = new DBVModel(this, source.getVirtualModel());
     }
 
     public boolean isDisposed()
@@ -261,6 +265,7 @@ public class DataSourceDescriptor
         synchronized (users) {
             users.clear();
         }
+        this.virtualModelLoader = null;
         this.virtualModel.dispose();
         disposed = true;
     }
@@ -587,14 +592,38 @@ public class DataSourceDescriptor
     @NotNull
     public DBVModel getVirtualModel()
     {
+        if (virtualModelLoader != null) {
+            loadVirtualModel();
+        }
         return virtualModel;
     }
 
+    private synchronized void loadVirtualModel() {
+        Supplier<DBVModel> loader = virtualModelLoader;
+        if (loader != null) {
+            applyVirtualModel(loader.get());
+            virtualModelLoader = null;
+        }
+    }
+
     public boolean hasSharedVirtualModel() {
-        return !CommonUtils.equalObjects(virtualModel.getId(), getId());
+        return !CommonUtils.equalObjects(getVirtualModel().getId(), getId());
     }
 
     public void setVirtualModel(@NotNull DBVModel virtualModel) {
+        virtualModelLoader = null;
+        applyVirtualModel(virtualModel);
+    }
+
+    /**
+     * Sets virtual model which will be created on first access.
+     * Virtual models may be big, so they are not parsed until used.
+     */
+    void setVirtualModelLoader(@NotNull Supplier<DBVModel> virtualModelLoader) {
+        this.virtualModelLoader = virtualModelLoader;
+    }
+
+    private void applyVirtualModel(@NotNull DBVModel virtualModel) {
         if (virtualModel.getId().equals(getId())) {
             // DS-specific model
             this.virtualModel = virtualModel;
@@ -769,7 +798,11 @@ public class DataSourceDescriptor
     @Override
     public void persistConfiguration()
     {
-        registry.flushConfig();
+        if (registry instanceof DataSourceRegistry) {
+            ((DataSourceRegistry) registry).flushDataSourceConfig(this);
+        } else {
+            registry.flushConfig();
+        }
     }
 
     @Override
@@ -1416,7 +1449,7 @@ public class DataSourceDescriptor
         for (FilterMapping mapping : descriptor.getObjectFilters()) {
             this.filterMap.put(mapping.typeName, new FilterMapping(mapping));
         }
-        this.virtualModel.copyFrom(descriptor.getVirtualModel());
+        this.getVirtualModel().copyFrom(descriptor.getVirtualModel());
 
         this.description = descriptor.description;
         this.savePassword = descriptor.savePassword;
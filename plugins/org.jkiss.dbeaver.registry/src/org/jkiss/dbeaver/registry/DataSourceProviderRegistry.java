@@ -58,8 +58,10 @@ public class DataSourceProviderRegistry implements DBPDataSourceProviderRegistry
     public synchronized static DataSourceProviderRegistry getInstance()
     {
         if (instance == null) {
+            long startTime = System.currentTimeMillis();
             instance = new DataSourceProviderRegistry();
             instance.loadExtensions(Platform.getExtensionRegistry());
+            StartupStatistics.addPhaseTime(StartupStatistics.PHASE_PROVIDERS, System.currentTimeMillis() - startTime);
         }
         return instance;
     }
@@ -376,6 +378,7 @@ public class DataSourceProviderRegistry implements DBPDataSourceProviderRegistry
     private void loadDrivers(File driversConfig, boolean provided)
     {
         if (driversConfig.exists()) {
+            long startTime = System.currentTimeMillis();
             try {
                 try (InputStream is = new FileInputStream(driversConfig)) {
                     new SAXReader(is).parse(new DriverDescriptorSerializerLegacy.DriversParser(provided));
@@ -385,6 +388,7 @@ public class DataSourceProviderRegistry implements DBPDataSourceProviderRegistry
             } catch (Exception ex) {
                 log.warn("Error loading drivers from " + driversConfig.getPath(), ex);
             }
+            StartupStatistics.addPhaseTime(StartupStatistics.PHASE_DRIVERS, System.currentTimeMillis() - startTime);
         }
     }
 
@@ -77,6 +77,13 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
     private final List<DBWNetworkProfile> networkProfiles = new ArrayList<>();
     private final Map<String, DBAAuthProfile> authProfiles = new LinkedHashMap<>();
     private volatile boolean saveInProgress = false;
+    // Changes which weren't saved yet. Bursts of changes are saved at once by ConfigSaver.
+    // Each change gets a number, so changes made during save are kept for the next save.
+    private final Map<String, Long> changedDataSources = new HashMap<>();
+    // Number of the last change which requires save of all data sources, 0 if there is no such change
+    private long configChangeNumber = 0;
+    private long lastChangeNumber = 0;
+    private final Map<DataSourceStorage, DataSourceSerializerModern.SaveCache> saveCaches = new HashMap<>();
 
     private final DBVModel.ModelChangeListener modelChangeListener = new DBVModel.ModelChangeListener();
     private volatile ConfigSaver configSaver;
@@ -86,7 +93,12 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         this.platform = platform;
         this.project = project;
 
+        long startTime = System.currentTimeMillis();
         loadDataSources(true);
+        long loadTime = System.currentTimeMillis() - startTime;
+        StartupStatistics.addPhaseTime(StartupStatistics.PHASE_DATA_SOURCES, loadTime);
+        StartupStatistics.logReportIfFinished();
+        log.debug("Project '" + project.getName() + "' data sources loaded (" + dataSources.size() + " connections, " + loadTime + "ms)");
         DataSourceProviderRegistry.getInstance().fireRegistryChange(this, true);
 
         addDataSourceListener(modelChangeListener);
@@ -110,6 +122,15 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
 //        if (getProjectNode().isOpen()) {
 //            flushConfig();
 //        }
+        // Only changes which are still waiting for ConfigSaver are saved
+        if (hasPendingChanges()) {
+            if (configSaver != null) {
+                configSaver.cancel();
+            }
+            synchronized (this) {
+                saveDataSources();
+            }
+        }
         // Dispose and clear all descriptors
         synchronized (dataSources) {
             for (DataSourceDescriptor dataSourceDescriptor : this.dataSources.values()) {
@@ -461,7 +482,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         final DataSourceDescriptor descriptor = (DataSourceDescriptor) dataSource;
         addDataSourceToList(descriptor);
         if (!descriptor.isDetached()) {
-            this.saveDataSources();
+            flushDataSourceConfig(descriptor);
         }
         notifyDataSourceListeners(new DBPEvent(DBPEvent.Action.OBJECT_ADD, descriptor, true));
     }
@@ -478,7 +499,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
             this.dataSources.remove(descriptor.getId());
         }
         if (!descriptor.isDetached()) {
-            this.saveDataSources();
+            flushDataSourceConfig(descriptor);
         }
         try {
             this.fireDataSourceEvent(DBPEvent.Action.OBJECT_REMOVE, dataSource);
@@ -495,7 +516,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
             addDataSource(dataSource);
         } else {
             if (!((DataSourceDescriptor) dataSource).isDetached()) {
-                this.saveDataSources();
+                flushDataSourceConfig((DataSourceDescriptor) dataSource);
             }
             this.fireDataSourceEvent(DBPEvent.Action.OBJECT_UPDATE, dataSource);
         }
@@ -506,6 +527,26 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         if (project.isInMemory()) {
             return;
         }
+        synchronized (changedDataSources) {
+            configChangeNumber = ++lastChangeNumber;
+        }
+        scheduleConfigSave();
+    }
+
+    /**
+     * Saves configuration of a single data source. Other data sources are not serialized again.
+     */
+    void flushDataSourceConfig(@NotNull DataSourceDescriptor dataSource) {
+        if (project.isInMemory()) {
+            return;
+        }
+        synchronized (changedDataSources) {
+            changedDataSources.put(dataSource.getId(), ++lastChangeNumber);
+        }
+        scheduleConfigSave();
+    }
+
+    private void scheduleConfigSave() {
         // Use async config saver to avoid too frequent configuration re-save during some massive configuration update
         if (configSaver == null) {
             configSaver = new ConfigSaver();
@@ -513,9 +554,16 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         configSaver.schedule(100);
     }
 
+    private boolean hasPendingChanges() {
+        synchronized (changedDataSources) {
+            return configChangeNumber != 0 || !changedDataSources.isEmpty();
+        }
+    }
+
     @Override
     public void refreshConfig() {
-        if (!saveInProgress) {
+        // Do not reload config with unsaved changes, they would be overwritten
+        if (!saveInProgress && !hasPendingChanges()) {
             this.loadDataSources(true);
         }
     }
@@ -616,6 +664,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
         }
         // Clear filters before reload
         savedFilters.clear();
+        // Config files may be changed externally
+        synchronized (saveCaches) {
+            saveCaches.clear();
+        }
 
         // Parse datasources
         ParseResults parseResults = new ParseResults();
@@ -725,12 +777,28 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
             return;
         }
 
+        Set<String> changedIds;
+        long savedChangeNumber;
+        synchronized (changedDataSources) {
+            // Null means that everything must be saved
+            changedIds = configChangeNumber != 0 ? null : new HashSet<>(changedDataSources.keySet());
+            savedChangeNumber = lastChangeNumber;
+        }
+        boolean saved = true;
+
         updateProjectNature();
         final DBRProgressMonitor monitor = new VoidProgressMonitor();
         saveInProgress = true;
         try {
             for (DataSourceStorage storage : storages.values()) {
                 List<DataSourceDescriptor> localDataSources = getDataSources(storage);
+                DataSourceSerializerModern.SaveCache saveCache;
+                synchronized (saveCaches) {
+                    saveCache = saveCaches.computeIfAbsent(storage, s -> new DataSourceSerializerModern.SaveCache());
+                }
+                if (changedIds != null && !isStorageChanged(saveCache, localDataSources, changedIds)) {
+                    continue;
+                }
 
                 File configFile = storage.getSourceFile();
 
@@ -759,12 +827,13 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
                                 log.error("Error deleting file '" + configFile.getAbsolutePath() + "'");
                             }
                         }
+                        saveCache.clear();
                     } else {
                         DataSourceSerializer serializer;
                         if (!project.isModernProject()) {
                             serializer = new DataSourceSerializerLegacy(this);
                         } else {
-                            serializer = new DataSourceSerializerModern(this);
+                            serializer = new DataSourceSerializerModern(this, saveCache, changedIds);
                         }
                         project.getMetadataFolder(true);
                         serializer.saveDataSources(
@@ -780,11 +849,44 @@ public class DataSourceRegistry implements DBPDataSourceRegistry {
                     }
                 } catch (Exception ex) {
                     log.error("Error saving datasources configuration", ex);
+                    saved = false;
                 }
             }
         } finally {
             saveInProgress = false;
         }
+        if (saved) {
+            // Changes made after the save was started remain pending
+            synchronized (changedDataSources) {
+                changedDataSources.values().removeIf(changeNumber -> changeNumber <= savedChangeNumber);
+                if (configChangeNumber <= savedChangeNumber) {
+                    configChangeNumber = 0;
+                }
+            }
+        }
+    }
+
+    private static boolean isStorageChanged(
+        @NotNull DataSourceSerializerModern.SaveCache saveCache,
+        @NotNull List<DataSourceDescriptor> dataSources,
+        @NotNull Set<String> changedIds)
+    {
+        if (saveCache.isEmpty()) {
+            return true;
+        }
+        for (String id : changedIds) {
+            // Changed or removed data source
+            if (saveCache.containsDataSource(id)) {
+                return true;
+            }
+        }
+        for (DataSourceDescriptor dataSource : dataSources) {
+            // New data source
+            if (changedIds.contains(dataSource.getId())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private List<DataSourceDescriptor> getDataSources(DataSourceStorage storage) {
@@ -18,6 +18,8 @@ package org.jkiss.dbeaver.registry;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonWriter;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -53,8 +55,12 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.IOUtils;
 
+import javax.crypto.SecretKey;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 class DataSourceSerializerModern implements DataSourceSerializer
@@ -88,6 +94,11 @@ class DataSourceSerializerModern implements DataSourceSerializer
     private boolean passwordWriteCanceled = false;
 
     private final DataSourceRegistry registry;
+    @Nullable
+    private final SaveCache saveCache;
+    // IDs of data sources changed since the previous save. Null means that all data sources must be serialized.
+    @Nullable
+    private final Set<String> changedDataSources;
     // Secure props.
     //  0 level: datasource ID
     //  1 level: object type (connection or handler id)
@@ -95,7 +106,13 @@ class DataSourceSerializerModern implements DataSourceSerializer
     private final Map<String, Map<String, Map<String, String>>> secureProperties = new LinkedHashMap<>();
 
     DataSourceSerializerModern(DataSourceRegistry registry) {
+        this(registry, null, null);
+    }
+
+    DataSourceSerializerModern(DataSourceRegistry registry, @Nullable SaveCache saveCache, @Nullable Set<String> changedDataSources) {
         this.registry = registry;
+        this.saveCache = saveCache;
+        this.changedDataSources = changedDataSources;
     }
 
     @Override
@@ -132,7 +149,7 @@ class DataSourceSerializerModern implements DataSourceSerializer
                     for (DataSourceDescriptor dataSource : localDataSources) {
                         // Skip temporary
                         if (!dataSource.isDetached()) {
-                            saveDataSource(jsonWriter, dataSource);
+                            saveDataSourceIncremental(jsonWriter, dataSource);
                             if (dataSource.getVirtualModel().hasValuableData()) {
                                 virtualModels.put(dataSource.getVirtualModel().getId(), dataSource.getVirtualModel());
                             }
@@ -148,6 +165,9 @@ class DataSourceSerializerModern implements DataSourceSerializer
                         }
                     }
                     jsonWriter.endObject();
+                    if (saveCache != null) {
+                        saveCache.removeDeletedDataSources(localDataSources);
+                    }
                 }
 
                 if (configurationStorage.isDefault()) {
@@ -263,7 +283,12 @@ class DataSourceSerializerModern implements DataSourceSerializer
 
         String jsonString = new String(dsConfigBuffer.toByteArray(), StandardCharsets.UTF_8);
         boolean encryptProject = CommonUtils.toBoolean(registry.getProject().getProjectProperty(DBPProject.PROP_SECURE_PROJECT));
-        saveConfigFile(configFile, jsonString, false, encryptProject);
+        if (saveCache == null || !saveCache.isConfigSaved(configFile, jsonString, encryptProject)) {
+            saveConfigFile(configFile, jsonString, false, encryptProject);
+            if (saveCache != null) {
+                saveCache.setConfigSaved(jsonString, encryptProject);
+            }
+        }
 
         {
             saveSecureCredentialsFile(
@@ -274,16 +299,23 @@ class DataSourceSerializerModern implements DataSourceSerializer
     }
 
     private String loadConfigFile(File file, boolean decrypt) throws IOException {
+        return loadConfigFile(file, decrypt ? registry.getProject().getSecureStorage().getLocalSecretKey() : null);
+    }
+
+    /**
+     * Reads config file. Encrypted files are decrypted with specified key.
+     */
+    static String loadConfigFile(File file, @Nullable SecretKey secretKey) throws IOException {
         ByteArrayOutputStream credBuffer = new ByteArrayOutputStream();
         try (InputStream crdStream = new FileInputStream(file)) {
             IOUtils.copyStream(crdStream, credBuffer);
         } catch (Exception e) {
             log.error("Error reading secure credentials file", e);
         }
-        if (!decrypt) {
+        if (secretKey == null) {
             return new String(credBuffer.toByteArray(), StandardCharsets.UTF_8);
         } else {
-            ContentEncrypter encrypter = new ContentEncrypter(registry.getProject().getSecureStorage().getLocalSecretKey());
+            ContentEncrypter encrypter = new ContentEncrypter(secretKey);
             try {
                 return encrypter.decrypt(credBuffer.toByteArray());
             } catch (Exception e) {
@@ -292,7 +324,15 @@ class DataSourceSerializerModern implements DataSourceSerializer
         }
     }
 
-    private void saveConfigFile(File configFile, String contents, boolean teamPrivate, boolean encrypt) {
+    static Map<String, Object> parseConfiguration(String configJson) {
+        return JSONUtils.parseMap(CONFIG_GSON, new StringReader(configJson));
+    }
+
+    /**
+     * Writes config into a temporary file and then replaces the original one.
+     * This way readers (and concurrent writers) never see partially written config.
+     */
+    private void saveConfigFile(File configFile, String contents, boolean teamPrivate, boolean encrypt) throws DBException {
         try {
             byte[] binaryContents;
             if (encrypt) {
@@ -304,14 +344,25 @@ class DataSourceSerializerModern implements DataSourceSerializer
             }
 
             // Save result to file
-
-            IOUtils.writeFileFromBuffer(configFile, binaryContents);
+            File tempFile = new File(configFile.getParentFile(), configFile.getName() + ".tmp");
+            try {
+                IOUtils.writeFileFromBuffer(tempFile, binaryContents);
+                try {
+                    Files.move(tempFile.toPath(), configFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile.toPath(), configFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                if (tempFile.exists() && !tempFile.delete()) {
+                    log.debug("Can't delete temp file " + tempFile.getAbsolutePath());
+                }
+            }
         } catch (Exception e) {
-            log.error("Error saving configuration file " + configFile.getAbsolutePath(), e);
+            throw new DBException("Error saving configuration file " + configFile.getAbsolutePath(), e);
         }
     }
 
-    private void saveSecureCredentialsFile(IProgressMonitor monitor, File parent, DBPDataSourceConfigurationStorage storage) {
+    private void saveSecureCredentialsFile(IProgressMonitor monitor, File parent, DBPDataSourceConfigurationStorage storage) throws DBException {
         File credFile = new File(parent, DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_PREFIX + storage.getConfigurationFileSuffix() + DBPDataSourceRegistry.CREDENTIALS_CONFIG_FILE_EXT);
         try {
             ContentUtils.makeFileBackup(credFile);
@@ -319,13 +370,23 @@ class DataSourceSerializerModern implements DataSourceSerializer
                 if (credFile.exists() && !credFile.delete()) {
                     log.debug("Error deleting file " + credFile.getAbsolutePath());
                 }
+                if (saveCache != null) {
+                    saveCache.credentialsContent = null;
+                }
             } else {
-                // Serialize and encrypt
+                // Serialize and encrypt. Encryption is skipped if credentials weren't changed.
                 String jsonString = SECURE_GSON.toJson(secureProperties, Map.class);
-                saveConfigFile(credFile, jsonString, true, true);
+                if (saveCache == null || !jsonString.equals(saveCache.credentialsContent) || !credFile.exists()) {
+                    saveConfigFile(credFile, jsonString, true, true);
+                    if (saveCache != null) {
+                        saveCache.credentialsContent = jsonString;
+                    }
+                }
             }
+        } catch (DBException e) {
+            throw e;
         } catch (Exception e) {
-            log.error("Error saving secure credentials", e);
+            throw new DBException("Error saving secure credentials", e);
         }
     }
 
@@ -348,11 +409,12 @@ class DataSourceSerializerModern implements DataSourceSerializer
             }
         }
 
-        boolean decryptProject = CommonUtils.toBoolean(registry.getProject().getProjectProperty(DBPProject.PROP_SECURE_PROJECT));
-        String configJson = loadConfigFile(configFile, decryptProject);
+        Map<String, Object> jsonMap = DataSourceConfigPreloader.takeConfiguration(configFile);
+        if (jsonMap == null) {
+            boolean decryptProject = CommonUtils.toBoolean(registry.getProject().getProjectProperty(DBPProject.PROP_SECURE_PROJECT));
+            jsonMap = parseConfiguration(loadConfigFile(configFile, decryptProject));
+        }
         {
-            Map<String, Object> jsonMap = JSONUtils.parseMap(CONFIG_GSON, new StringReader(configJson));
-
             // Folders
             for (Map.Entry<String, Map<String, Object>> folderMap : JSONUtils.getNestedObjects(jsonMap, "folders")) {
                 String name = folderMap.getKey();
@@ -398,12 +460,10 @@ class DataSourceSerializerModern implements DataSourceSerializer
             // Drivers
             // TODO: add drivers deserialization
 
-            // Virtual models
-            Map<String, DBVModel> modelMap = new LinkedHashMap<>();
+            // Virtual models. They are parsed on first access.
+            VirtualModelConfigs modelConfigs = new VirtualModelConfigs();
             for (Map.Entry<String, Map<String, Object>> vmMap : JSONUtils.getNestedObjects(jsonMap, "virtual-models")) {
-                String id = vmMap.getKey();
-                DBVModel model = new DBVModel(id, vmMap.getValue());
-                modelMap.put(id, model);
+                modelConfigs.configs.put(vmMap.getKey(), vmMap.getValue());
             }
 
             // Network profiles
@@ -630,9 +690,8 @@ class DataSourceSerializerModern implements DataSourceSerializer
 
                 // Virtual model
                 String vmID = CommonUtils.toString(conObject.get("virtual-model-id"), id);
-                DBVModel dbvModel = modelMap.get(vmID);
-                if (dbvModel != null) {
-                    dataSource.setVirtualModel(dbvModel);
+                if (modelConfigs.configs.containsKey(vmID)) {
+                    dataSource.setVirtualModelLoader(() -> modelConfigs.getModel(vmID));
                 }
 
                 // Add to the list
@@ -741,6 +800,45 @@ class DataSourceSerializerModern implements DataSourceSerializer
         json.endObject();
     }
 
+    /**
+     * Writes connection config saved previously if the data source wasn't changed.
+     * Otherwise serializes data source and remembers result for the next save.
+     */
+    private void saveDataSourceIncremental(@NotNull JsonWriter json, @NotNull DataSourceDescriptor dataSource)
+        throws IOException
+    {
+        if (saveCache == null) {
+            saveDataSource(json, dataSource);
+            return;
+        }
+        String id = dataSource.getId();
+        JsonElement savedConfig = changedDataSources == null || changedDataSources.contains(id) ? null : saveCache.connections.get(id);
+        if (savedConfig == null) {
+            // Serialize connection separately and keep it as JSON tree
+            StringWriter buffer = new StringWriter();
+            try (JsonWriter connectionWriter = CONFIG_GSON.newJsonWriter(buffer)) {
+                connectionWriter.beginObject();
+                saveDataSource(connectionWriter, dataSource);
+                connectionWriter.endObject();
+            }
+            savedConfig = CONFIG_GSON.fromJson(buffer.toString(), JsonObject.class).get(id);
+            saveCache.connections.put(id, savedConfig);
+            Map<String, Map<String, String>> credentials = secureProperties.get(id);
+            if (credentials == null) {
+                saveCache.connectionCredentials.remove(id);
+            } else {
+                saveCache.connectionCredentials.put(id, credentials);
+            }
+        } else {
+            Map<String, Map<String, String>> credentials = saveCache.connectionCredentials.get(id);
+            if (credentials != null) {
+                secureProperties.put(id, credentials);
+            }
+        }
+        json.name(id);
+        CONFIG_GSON.toJson(savedConfig, json);
+    }
+
     private void saveDataSource(@NotNull JsonWriter json, @NotNull DataSourceDescriptor dataSource)
         throws IOException
     {
@@ -1062,4 +1160,65 @@ class DataSourceSerializerModern implements DataSourceSerializer
         return creds;
     }
 
+    /**
+     * State of config file after the previous save. Allows to skip serialization of unchanged connections
+     * and writing of unchanged files.
+     */
+    static class SaveCache {
+        // Connection ID -> serialized connection
+        private final Map<String, JsonElement> connections = new HashMap<>();
+        // Connection ID -> secured properties of connection
+        private final Map<String, Map<String, Map<String, String>>> connectionCredentials = new HashMap<>();
+        private String configContent;
+        private boolean configEncrypted;
+        private String credentialsContent;
+
+        boolean isEmpty() {
+            return configContent == null;
+        }
+
+        boolean containsDataSource(String id) {
+            return connections.containsKey(id);
+        }
+
+        void clear() {
+            connections.clear();
+            connectionCredentials.clear();
+            configContent = null;
+            credentialsContent = null;
+        }
+
+        private boolean isConfigSaved(File configFile, String content, boolean encrypted) {
+            return content.equals(configContent) && encrypted == configEncrypted && configFile.exists();
+        }
+
+        private void setConfigSaved(String content, boolean encrypted) {
+            this.configContent = content;
+            this.configEncrypted = encrypted;
+        }
+
+        private void removeDeletedDataSources(List<DataSourceDescriptor> dataSources) {
+            Set<String> ids = new HashSet<>();
+            for (DataSourceDescriptor dataSource : dataSources) {
+                if (!dataSource.isDetached()) {
+                    ids.add(dataSource.getId());
+                }
+            }
+            connections.keySet().retainAll(ids);
+            connectionCredentials.keySet().retainAll(ids);
+        }
+    }
+
+    /**
+     * Virtual model configurations of a config file. Models shared between data sources are parsed once.
+     */
+    private static class VirtualModelConfigs {
+        private final Map<String, Map<String, Object>> configs = new LinkedHashMap<>();
+        private final Map<String, DBVModel> models = new HashMap<>();
+
+        synchronized DBVModel getModel(String id) {
+            return models.computeIfAbsent(id, vmId -> new DBVModel(vmId, configs.get(vmId)));
+        }
+    }
+
 }
@@ -0,0 +1,102 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Time spent in startup phases (providers, drivers, data source configurations).
+ * Phases may run in parallel, so total time of phases may exceed the wall time of startup.
+ */
+public class StartupStatistics {
+
+    private static final Log log = Log.getLog(StartupStatistics.class);
+
+    public static final String PHASE_PROVIDERS = "Data source providers";
+    public static final String PHASE_DRIVERS = "Drivers configuration";
+    public static final String PHASE_CONFIG_PRELOAD = "Configuration preload (wall time)";
+    public static final String PHASE_CONFIG_READ = "Configuration files read";
+    public static final String PHASE_DATA_SOURCES = "Data source registries";
+
+    private static class PhaseInfo {
+        long totalTime;
+        int count;
+    }
+
+    private static final Map<String, PhaseInfo> phases = new LinkedHashMap<>();
+    private static boolean reportLogged;
+
+    public static void addPhaseTime(@NotNull String phase, long time) {
+        synchronized (phases) {
+            PhaseInfo info = phases.computeIfAbsent(phase, p -> new PhaseInfo());
+            info.totalTime += time;
+            info.count++;
+        }
+    }
+
+    public static long getPhaseTime(@NotNull String phase) {
+        synchronized (phases) {
+            PhaseInfo info = phases.get(phase);
+            return info == null ? 0 : info.totalTime;
+        }
+    }
+
+    @NotNull
+    public static String getReport() {
+        StringBuilder report = new StringBuilder("Startup time by phase:");
+        synchronized (phases) {
+            for (Map.Entry<String, PhaseInfo> phase : phases.entrySet()) {
+                PhaseInfo info = phase.getValue();
+                report.append("\n\t").append(phase.getKey()).append(": ").append(info.totalTime).append("ms");
+                if (info.count > 1) {
+                    report.append(" (").append(info.count).append(" times)");
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    public static void logReport() {
+        log.debug(getReport());
+    }
+
+    /**
+     * Logs report once, when configuration preload is finished and the first data source registry is loaded.
+     * Registries are loaded on demand, so loading of the first one is the last startup phase.
+     */
+    public static void logReportIfFinished() {
+        synchronized (phases) {
+            if (reportLogged || !phases.containsKey(PHASE_CONFIG_PRELOAD) || !phases.containsKey(PHASE_DATA_SOURCES)) {
+                return;
+            }
+            reportLogged = true;
+        }
+        logReport();
+    }
+
+    public static void reset() {
+        synchronized (phases) {
+            phases.clear();
+            reportLogged = false;
+        }
+    }
+
+}
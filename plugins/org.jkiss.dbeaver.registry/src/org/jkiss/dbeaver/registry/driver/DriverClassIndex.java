@@ -0,0 +1,484 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Index of classes in driver libraries. Used to find driver classes (or any other implementations) in jars.
+ *
+ * Service declarations (META-INF/services) are used first. If libraries have no service declarations then
+ * class hierarchy is built from class file headers (constant pool, super class and interfaces),
+ * method bodies are never read. Class files are scanned in parallel.
+ * Jar indexes are cached by jar checksum, so the same jar is scanned only once.
+ */
+public class DriverClassIndex {
+
+    private static final Log log = Log.getLog(DriverClassIndex.class);
+
+    public static final String SERVICES_FOLDER = "META-INF/services/"; //$NON-NLS-1$
+
+    private static final String CLASS_FILE_EXT = ".class"; //$NON-NLS-1$
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private static final int MAX_PARALLEL_SCANS = Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final int SCAN_CHUNK_SIZE = 1000;
+
+    // Jar indexes by jar checksum
+    private static final Map<String, SoftReference<JarIndex>> jarIndexCache = new ConcurrentHashMap<>();
+    // Jar checksums by file path, size and modification time
+    private static final Map<String, String> jarChecksumCache = new ConcurrentHashMap<>();
+
+    /**
+     * Header of class file
+     */
+    public static class ClassInfo {
+        final int access;
+        @Nullable
+        final String superName;
+        @NotNull
+        final String[] interfaces;
+
+        ClassInfo(int access, @Nullable String superName, @NotNull String[] interfaces) {
+            this.access = access;
+            this.superName = superName;
+            this.interfaces = interfaces;
+        }
+
+        boolean isInstantiable() {
+            return (access & ACC_PUBLIC) != 0 && (access & (ACC_ABSTRACT | ACC_INTERFACE)) == 0;
+        }
+    }
+
+    /**
+     * Classes and service declarations of a single jar
+     */
+    public static class JarIndex {
+        // Service name -> implementation class names
+        private final Map<String, List<String>> services;
+        // Internal class name -> class header. Null if jar wasn't scanned yet.
+        private volatile Map<String, ClassInfo> classes;
+
+        JarIndex(@NotNull Map<String, List<String>> services) {
+            this.services = services;
+        }
+
+        @NotNull
+        public List<String> getServiceProviders(@NotNull String serviceName) {
+            List<String> providers = services.get(serviceName);
+            return providers == null ? Collections.emptyList() : providers;
+        }
+
+        @Nullable
+        public Map<String, ClassInfo> getClasses() {
+            return classes;
+        }
+    }
+
+    /**
+     * Finds classes which implement specified interface (or extend specified class).
+     * @param className      interface or class name
+     * @param isInterface    true if className is an interface
+     * @return names of public non-abstract classes
+     */
+    @NotNull
+    public static List<String> findImplementations(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<File> libFiles,
+        @NotNull String className,
+        boolean isInterface) throws IOException, InterruptedException
+    {
+        List<File> jarFiles = new ArrayList<>();
+        for (File libFile : libFiles) {
+            if (libFile != null && libFile.exists() && !libFile.isDirectory()) {
+                jarFiles.add(libFile);
+            }
+        }
+        List<JarIndex> indexes = new ArrayList<>();
+        monitor.beginTask("Read driver libraries", jarFiles.size());
+        for (File jarFile : jarFiles) {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            monitor.subTask(jarFile.getName());
+            try {
+                indexes.add(getJarIndex(jarFile));
+            } catch (IOException e) {
+                log.debug("Error reading '" + jarFile.getAbsolutePath() + "': " + e.getMessage());
+            }
+            monitor.worked(1);
+        }
+        monitor.done();
+
+        // Declared services
+        Set<String> result = new LinkedHashSet<>();
+        for (JarIndex index : indexes) {
+            result.addAll(index.getServiceProviders(className));
+        }
+        if (!result.isEmpty()) {
+            return new ArrayList<>(result);
+        }
+
+        // Scan class files. Hierarchy may cross jar boundaries, first declaration of class wins (like in class loader).
+        scanClasses(monitor, jarFiles, indexes);
+        Map<String, ClassInfo> allClasses = new HashMap<>();
+        for (JarIndex index : indexes) {
+            Map<String, ClassInfo> classes = index.getClasses();
+            if (classes != null) {
+                for (Map.Entry<String, ClassInfo> entry : classes.entrySet()) {
+                    allClasses.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        String targetName = className.replace('.', '/');
+        Map<String, Boolean> subtypeCache = new HashMap<>();
+        List<String> classNames = new ArrayList<>();
+        for (Map.Entry<String, ClassInfo> entry : allClasses.entrySet()) {
+            String name = entry.getKey();
+            if (name.indexOf('$') == -1 && entry.getValue().isInstantiable() &&
+                isSubtype(name, targetName, isInterface, allClasses, subtypeCache))
+            {
+                classNames.add(name.replace('/', '.'));
+            }
+        }
+        Collections.sort(classNames);
+        return classNames;
+    }
+
+    /**
+     * Returns index of jar file. Class headers are not read, see {@link #scanClasses}.
+     */
+    @NotNull
+    public static JarIndex getJarIndex(@NotNull File jarFile) throws IOException {
+        String checksum = getJarChecksum(jarFile);
+        SoftReference<JarIndex> indexRef = jarIndexCache.get(checksum);
+        JarIndex index = indexRef == null ? null : indexRef.get();
+        if (index == null) {
+            try (JarFile jar = new JarFile(jarFile, false)) {
+                index = new JarIndex(readServices(jar));
+            }
+            jarIndexCache.put(checksum, new SoftReference<>(index));
+        }
+        return index;
+    }
+
+    static void clearCache() {
+        jarIndexCache.clear();
+        jarChecksumCache.clear();
+    }
+
+    /**
+     * Reads class headers of all jars which weren't scanned yet. Big jars are split in chunks.
+     */
+    private static void scanClasses(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull List<File> jarFiles,
+        @NotNull List<JarIndex> indexes) throws IOException, InterruptedException
+    {
+        List<JarFile> openedJars = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_SCANS, r -> {
+            Thread thread = new Thread(r, "Driver classes scanner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<JarIndex, List<Future<Map<String, ClassInfo>>>> jarResults = new LinkedHashMap<>();
+            int chunkCount = 0;
+            for (int i = 0; i < indexes.size(); i++) {
+                JarIndex index = indexes.get(i);
+                if (index.getClasses() != null || jarResults.containsKey(index)) {
+                    continue;
+                }
+                JarFile jar = new JarFile(jarFiles.get(i), false);
+                openedJars.add(jar);
+                List<JarEntry> classEntries = new ArrayList<>();
+                for (Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ) {
+                    JarEntry entry = e.nextElement();
+                    if (!entry.isDirectory() && entry.getName().endsWith(CLASS_FILE_EXT)) {
+                        classEntries.add(entry);
+                    }
+                }
+                List<Future<Map<String, ClassInfo>>> chunkResults = new ArrayList<>();
+                for (int start = 0; start < classEntries.size(); start += SCAN_CHUNK_SIZE) {
+                    List<JarEntry> chunk = classEntries.subList(start, Math.min(start + SCAN_CHUNK_SIZE, classEntries.size()));
+                    chunkResults.add(executor.submit(() -> readClassHeaders(monitor, jar, chunk)));
+                }
+                chunkCount += chunkResults.size();
+                jarResults.put(index, chunkResults);
+            }
+
+            monitor.beginTask("Scan driver classes", chunkCount);
+            for (Map.Entry<JarIndex, List<Future<Map<String, ClassInfo>>>> entry : jarResults.entrySet()) {
+                Map<String, ClassInfo> classes = new HashMap<>();
+                for (Future<Map<String, ClassInfo>> chunkResult : entry.getValue()) {
+                    classes.putAll(waitForResult(monitor, chunkResult));
+                    monitor.worked(1);
+                }
+                entry.getKey().classes = classes;
+            }
+            monitor.done();
+        } finally {
+            executor.shutdownNow();
+            for (JarFile jar : openedJars) {
+                IOUtils.close(jar);
+            }
+        }
+    }
+
+    @NotNull
+    private static <T> T waitForResult(@NotNull DBRProgressMonitor monitor, @NotNull Future<T> result) throws IOException, InterruptedException {
+        while (true) {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            try {
+                return result.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // continue
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof InterruptedException) {
+                    throw (InterruptedException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    @NotNull
+    private static Map<String, ClassInfo> readClassHeaders(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull JarFile jar,
+        @NotNull List<JarEntry> entries) throws InterruptedException
+    {
+        Map<String, ClassInfo> classes = new HashMap<>();
+        for (JarEntry entry : entries) {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            String fileName = entry.getName();
+            if (fileName.startsWith("META-INF/")) {
+                // Multi-release jar versions and module descriptors
+                continue;
+            }
+            try (DataInputStream is = new DataInputStream(new BufferedInputStream(jar.getInputStream(entry)))) {
+                String className = fileName.substring(0, fileName.length() - CLASS_FILE_EXT.length());
+                ClassInfo classInfo = readClassHeader(is, className);
+                if (classInfo != null) {
+                    classes.put(className, classInfo);
+                }
+            } catch (IOException e) {
+                log.debug("Error reading class '" + fileName + "' from '" + jar.getName() + "': " + e.getMessage());
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Reads class file up to the interfaces list. Only class names are decoded from constant pool.
+     * Returns null if class name doesn't match file name.
+     */
+    @Nullable
+    static ClassInfo readClassHeader(@NotNull DataInputStream is, @NotNull String fileClassName) throws IOException {
+        if (is.readInt() != CLASS_FILE_MAGIC) {
+            throw new IOException("Bad class file");
+        }
+        is.readUnsignedShort(); // minor version
+        is.readUnsignedShort(); // major version
+        int poolSize = is.readUnsignedShort();
+        byte[][] utf8Values = new byte[poolSize][];
+        int[] classNameIndexes = new int[poolSize];
+        for (int i = 1; i < poolSize; i++) {
+            int tag = is.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8Values[i] = new byte[is.readUnsignedShort()];
+                    is.readFully(utf8Values[i]);
+                    break;
+                case 7: // Class
+                    classNameIndexes[i] = is.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    skipFully(is, 2);
+                    break;
+                case 15: // MethodHandle
+                    skipFully(is, 3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    skipFully(is, 4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    skipFully(is, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Bad constant pool tag " + tag);
+            }
+        }
+        int access = is.readUnsignedShort();
+        String thisName = getPoolClassName(utf8Values, classNameIndexes, is.readUnsignedShort());
+        if (!fileClassName.equals(thisName)) {
+            return null;
+        }
+        String superName = getPoolClassName(utf8Values, classNameIndexes, is.readUnsignedShort());
+        String[] interfaces = new String[is.readUnsignedShort()];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaces[i] = getPoolClassName(utf8Values, classNameIndexes, is.readUnsignedShort());
+        }
+        return new ClassInfo(access, superName, interfaces);
+    }
+
+    @Nullable
+    private static String getPoolClassName(byte[][] utf8Values, int[] classNameIndexes, int classIndex) throws IOException {
+        if (classIndex == 0) {
+            return null;
+        }
+        if (classIndex >= classNameIndexes.length || classNameIndexes[classIndex] >= utf8Values.length) {
+            throw new IOException("Bad constant pool index " + classIndex);
+        }
+        byte[] nameValue = utf8Values[classNameIndexes[classIndex]];
+        if (nameValue == null) {
+            throw new IOException("Bad class name index " + classIndex);
+        }
+        return new String(nameValue, StandardCharsets.UTF_8);
+    }
+
+    private static void skipFully(@NotNull DataInputStream is, int count) throws IOException {
+        if (is.skipBytes(count) != count) {
+            throw new EOFException();
+        }
+    }
+
+    private static boolean isSubtype(
+        @Nullable String name,
+        @NotNull String targetName,
+        boolean isInterface,
+        @NotNull Map<String, ClassInfo> classes,
+        @NotNull Map<String, Boolean> subtypeCache)
+    {
+        if (name == null) {
+            return false;
+        }
+        if (name.equals(targetName)) {
+            return true;
+        }
+        Boolean cached = subtypeCache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        ClassInfo classInfo = classes.get(name);
+        if (classInfo == null) {
+            // Class from other library or JRE
+            return false;
+        }
+        // Protects from cycles in broken hierarchies
+        subtypeCache.put(name, false);
+        boolean result = isSubtype(classInfo.superName, targetName, isInterface, classes, subtypeCache);
+        if (!result && isInterface) {
+            for (String interfaceName : classInfo.interfaces) {
+                if (isSubtype(interfaceName, targetName, true, classes, subtypeCache)) {
+                    result = true;
+                    break;
+                }
+            }
+        }
+        subtypeCache.put(name, result);
+        return result;
+    }
+
+    @NotNull
+    private static Map<String, List<String>> readServices(@NotNull JarFile jar) throws IOException {
+        Map<String, List<String>> services = new HashMap<>();
+        for (Enumeration<JarEntry> e = jar.entries(); e.hasMoreElements(); ) {
+            JarEntry entry = e.nextElement();
+            String fileName = entry.getName();
+            if (entry.isDirectory() || !fileName.startsWith(SERVICES_FOLDER) || fileName.length() == SERVICES_FOLDER.length()) {
+                continue;
+            }
+            String serviceName = fileName.substring(SERVICES_FOLDER.length());
+            List<String> providers = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(entry), StandardCharsets.UTF_8))) {
+                for (String line; (line = reader.readLine()) != null; ) {
+                    int commentPos = line.indexOf('#');
+                    if (commentPos != -1) {
+                        line = line.substring(0, commentPos);
+                    }
+                    line = line.trim();
+                    if (!line.isEmpty() && !providers.contains(line)) {
+                        providers.add(line);
+                    }
+                }
+            }
+            if (!providers.isEmpty()) {
+                services.put(serviceName, providers);
+            }
+        }
+        return services;
+    }
+
+    @NotNull
+    private static String getJarChecksum(@NotNull File jarFile) throws IOException {
+        String fileKey = jarFile.getAbsolutePath() + ":" + jarFile.length() + ":" + jarFile.lastModified();
+        String checksum = jarChecksumCache.get(fileKey);
+        if (checksum == null) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+            try (InputStream is = new FileInputStream(jarFile)) {
+                for (int count; (count = is.read(buffer)) > 0; ) {
+                    digest.update(buffer, 0, count);
+                }
+            }
+            checksum = CommonUtils.toHexString(digest.digest());
+            jarChecksumCache.put(fileKey, checksum);
+        }
+        return checksum;
+    }
+
+}
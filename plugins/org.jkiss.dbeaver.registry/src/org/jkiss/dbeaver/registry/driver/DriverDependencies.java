@@ -16,25 +16,37 @@
  */
 package org.jkiss.dbeaver.registry.driver;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.connection.DBPDriverDependencies;
 import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * DriverDependencies
+ * DriverDependencies.
+ *
+ * Artifact metadata, POMs and library files are fetched by a bounded pool of parallel workers.
+ * Dependency tree itself is built sequentially (on warmed up caches), so its shape doesn't depend on the order
+ * in which parallel requests complete.
  */
 public class DriverDependencies implements DBPDriverDependencies
 {
     private static final Log log = Log.getLog(DriverDependencies.class);
 
+    // Max number of parallel requests to repositories
+    private static final int MAX_PARALLEL_REQUESTS = 8;
+
     private final List<DBPDriverLibrary> rootLibraries;
     private final List<DependencyNode> rootNodes = new ArrayList<>();
     private final List<DependencyNode> libraryList = new ArrayList<>();
+    // Dependencies loaded by parallel workers
+    private final Map<DBPDriverLibrary, Collection<? extends DBPDriverLibrary>> prefetchedDependencies = new IdentityHashMap<>();
 
     public DriverDependencies(Collection<? extends DBPDriverLibrary> rootLibraries) {
         this.rootLibraries = new ArrayList<>(rootLibraries);
@@ -42,8 +54,14 @@ public class DriverDependencies implements DBPDriverDependencies
 
     @Override
     public void resolveDependencies(DBRProgressMonitor monitor) throws DBException {
+        try {
+            prefetchDependencies(monitor);
+        } catch (InterruptedException e) {
+            prefetchedDependencies.clear();
+            throw new DBException("Dependencies resolve canceled", e);
+        }
         IOException lastError = null;
-        {
+        try {
             rootNodes.clear();
 
             final Map<String, DependencyNode> libMap = new LinkedHashMap<>();
@@ -86,12 +104,125 @@ public class DriverDependencies implements DBPDriverDependencies
                     dumpNode(node, 0);
                 }
 */
+        } finally {
+            prefetchedDependencies.clear();
         }
         if (lastError != null) {
             throw new DBException("Error resolving dependencies", lastError);
         }
     }
 
+    /**
+     * Loads dependencies of all libraries in the tree in parallel. Results are cached by maven registry.
+     * Errors are ignored here, they are reported by the sequential resolve.
+     */
+    private void prefetchDependencies(@NotNull DBRProgressMonitor monitor) throws InterruptedException {
+        ExecutorService executor = createExecutor("Driver dependencies resolver");
+        try {
+            CompletionService<Collection<? extends DBPDriverLibrary>> completionService = new ExecutorCompletionService<>(executor);
+            DBRProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+            Map<Future<Collection<? extends DBPDriverLibrary>>, DBPDriverLibrary> pendingRequests = new HashMap<>();
+            Set<String> processedLibraries = new HashSet<>();
+            for (DBPDriverLibrary library : rootLibraries) {
+                if (processedLibraries.add(library.getId())) {
+                    pendingRequests.put(completionService.submit(() -> library.getDependencies(workerMonitor)), library);
+                }
+            }
+            monitor.beginTask("Resolve dependencies", pendingRequests.size());
+            while (!pendingRequests.isEmpty()) {
+                if (monitor.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                Future<Collection<? extends DBPDriverLibrary>> result = completionService.poll(100, TimeUnit.MILLISECONDS);
+                if (result == null) {
+                    continue;
+                }
+                DBPDriverLibrary library = pendingRequests.remove(result);
+                monitor.worked(1);
+                Collection<? extends DBPDriverLibrary> dependencies;
+                try {
+                    dependencies = result.get();
+                } catch (ExecutionException e) {
+                    continue;
+                }
+                prefetchedDependencies.put(library, dependencies);
+                if (dependencies == null) {
+                    continue;
+                }
+                for (DBPDriverLibrary dependency : dependencies) {
+                    if (processedLibraries.add(dependency.getId())) {
+                        monitor.subTask("Resolve " + dependency.getDisplayName());
+                        pendingRequests.put(completionService.submit(() -> dependency.getDependencies(workerMonitor)), dependency);
+                    }
+                }
+            }
+            monitor.done();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Downloads files of resolved libraries in parallel.
+     * Only libraries from secure repositories are downloaded, downloads from insecure locations must be confirmed
+     * by the caller. Failed downloads are skipped, the caller may retry them and report errors.
+     * @return libraries which were downloaded successfully
+     */
+    @NotNull
+    public Set<DBPDriverLibrary> downloadLibraryFiles(@NotNull DBRProgressMonitor monitor, boolean forceUpdate) throws InterruptedException {
+        Set<DBPDriverLibrary> downloaded = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = createExecutor("Driver files downloader");
+        try {
+            DBRProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+            List<Future<?>> results = new ArrayList<>();
+            for (DependencyNode node : libraryList) {
+                DBPDriverLibrary library = node.library;
+                results.add(executor.submit(() -> {
+                    if (!library.isSecureDownload(workerMonitor)) {
+                        return null;
+                    }
+                    try {
+                        library.downloadLibraryFile(workerMonitor, forceUpdate, "Download " + library.getDisplayName());
+                        downloaded.add(library);
+                    } catch (IOException e) {
+                        log.debug("Error downloading '" + library.getDisplayName() + "': " + e.getMessage());
+                    }
+                    return null;
+                }));
+            }
+            monitor.beginTask("Download driver files", results.size());
+            for (Future<?> result : results) {
+                while (true) {
+                    if (monitor.isCanceled()) {
+                        throw new InterruptedException();
+                    }
+                    try {
+                        result.get(100, TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException e) {
+                        continue;
+                    } catch (ExecutionException e) {
+                        log.debug(e.getCause());
+                    }
+                    break;
+                }
+                monitor.worked(1);
+                monitor.subTask("Downloaded " + downloaded.size() + " of " + results.size() + " files");
+            }
+            monitor.done();
+        } finally {
+            executor.shutdownNow();
+        }
+        return downloaded;
+    }
+
+    private static ExecutorService createExecutor(String threadName) {
+        return Executors.newFixedThreadPool(MAX_PARALLEL_REQUESTS, r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private void dumpNode(DependencyNode node, int level) {
         if (node.duplicate) {
             return;
@@ -104,7 +235,9 @@ public class DriverDependencies implements DBPDriverDependencies
     }
 
     private void resolveDependencies(DBRProgressMonitor monitor, DependencyNode ownerNode, Map<String, DependencyNode> libMap) throws IOException {
-        Collection<? extends DBPDriverLibrary> dependencies = ownerNode.library.getDependencies(monitor);
+        Collection<? extends DBPDriverLibrary> dependencies = prefetchedDependencies.containsKey(ownerNode.library) ?
+            prefetchedDependencies.get(ownerNode.library) :
+            ownerNode.library.getDependencies(monitor);
         if (dependencies != null && !dependencies.isEmpty()) {
             for (DBPDriverLibrary dep : dependencies) {
                 DependencyNode node = new DependencyNode(ownerNode, dep);
@@ -140,6 +273,23 @@ public class DriverDependencies implements DBPDriverDependencies
         return rootNodes;
     }
 
+    /**
+     * Monitor for worker threads. Progress of parallel workers is reported by the calling thread,
+     * workers only check for cancellation.
+     */
+    private static class WorkerProgressMonitor extends VoidProgressMonitor {
+        private final DBRProgressMonitor parent;
+
+        WorkerProgressMonitor(DBRProgressMonitor parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return parent.isCanceled();
+        }
+    }
+
     public void changeLibrary(DBPDriverLibrary oldLibrary, DBPDriverLibrary newLibrary) {
         int index = rootLibraries.indexOf(oldLibrary);
         if (index == -1) {
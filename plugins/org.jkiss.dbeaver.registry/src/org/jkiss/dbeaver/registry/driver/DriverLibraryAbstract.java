@@ -31,6 +31,8 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -225,7 +227,23 @@ public abstract class DriverLibraryAbstract implements DBPDriverLibrary
             throw new IOException("Unresolved file reference: " + getPath());
         }
 
-        WebUtils.downloadRemoteFile(monitor, taskName, externalURL, localFile, getAuthInfo(monitor));
+        // Download into temp file, so interrupted download doesn't leave broken library file
+        File tempFile = new File(localDir, localFile.getName() + ".download");
+        try {
+            WebUtils.downloadRemoteFile(monitor, taskName, externalURL, tempFile, getAuthInfo(monitor));
+            verifyDownloadedFile(externalURL, tempFile);
+            Files.move(tempFile.toPath(), localFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.debug("Can't delete temp file '" + tempFile.getAbsolutePath() + "'");
+            }
+        }
+    }
+
+    /**
+     * Checks downloaded file before it replaces the library file
+     */
+    protected void verifyDownloadedFile(@NotNull String externalURL, @NotNull File file) throws IOException {
     }
 
     @Nullable
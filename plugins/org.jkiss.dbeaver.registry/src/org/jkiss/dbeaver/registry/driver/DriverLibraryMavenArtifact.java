@@ -293,6 +293,13 @@ public class DriverLibraryMavenArtifact extends DriverLibraryAbstract
         super.downloadLibraryFile(monitor, forceUpdate, taskName);
     }
 
+    @Override
+    protected void verifyDownloadedFile(@NotNull String externalURL, @NotNull File file) throws IOException {
+        if (localVersion != null) {
+            localVersion.getArtifact().getRepository().getFileCache().verifyDownloadedFile(externalURL, file);
+        }
+    }
+
     @Nullable
     @Override
     protected DBPAuthInfo getAuthInfo(DBRProgressMonitor monitor) {
@@ -31,15 +31,14 @@ import org.jkiss.utils.xml.SAXReader;
 import org.jkiss.utils.xml.XMLException;
 import org.xml.sax.Attributes;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Maven artifact descriptor
+ * Maven artifact descriptor.
+ * Version resolution is synchronized per artifact, so different artifacts may be resolved in parallel.
  */
 public class MavenArtifact implements IMavenIdentifier
 {
@@ -51,6 +50,9 @@ public class MavenArtifact implements IMavenIdentifier
     public static final String FILE_POM = "pom";
     public static final String PACKAGING_BUNDLE = "bundle";
 
+    // Metadata lists available versions, so it is refreshed periodically
+    private static final long METADATA_CACHE_TTL = 24 * 60 * 60 * 1000L;
+
     @NotNull
     private final MavenRepository repository;
     @NotNull
@@ -76,7 +78,7 @@ public class MavenArtifact implements IMavenIdentifier
         this.classifier = CommonUtils.trim(classifier);
     }
 
-    public void loadMetadata(DBRProgressMonitor monitor) throws IOException {
+    public synchronized void loadMetadata(DBRProgressMonitor monitor) throws IOException {
         latestVersion = null;
         releaseVersion = null;
         versions.clear();
@@ -85,7 +87,7 @@ public class MavenArtifact implements IMavenIdentifier
         String metadataPath = getBaseArtifactURL() + MAVEN_METADATA_XML;
         monitor.subTask("Load metadata " + this + "");
 
-        try (InputStream mdStream = WebUtils.openConnection(metadataPath, getRepository().getAuthInfo(), null).getInputStream()) {
+        try (InputStream mdStream = openMetadata(metadataPath)) {
             parseMetadata(mdStream);
         } catch (XMLException e) {
             log.warn("Error parsing artifact metadata", e);
@@ -103,6 +105,22 @@ public class MavenArtifact implements IMavenIdentifier
         metadataLoaded = true;
     }
 
+    private InputStream openMetadata(String metadataPath) throws IOException {
+        if (repository.getType() == MavenRepository.RepositoryType.LOCAL) {
+            return WebUtils.openConnection(metadataPath, getRepository().getAuthInfo(), null).getInputStream();
+        }
+        File metadataFile = repository.getFileCache().getFile(
+            metadataPath,
+            getLocalMetadataFile(repository, groupId, artifactId),
+            METADATA_CACHE_TTL);
+        return new FileInputStream(metadataFile);
+    }
+
+    @NotNull
+    static File getLocalMetadataFile(@NotNull MavenRepository repository, @NotNull String groupId, @NotNull String artifactId) {
+        return new File(repository.getLocalCacheDir(), groupId + "/" + artifactId + "-" + MAVEN_METADATA_XML);
+    }
+
     private void removeIgnoredVersions() {
         for (Iterator<String> iter = versions.iterator(); iter.hasNext(); ) {
             String version = iter.next();
@@ -201,7 +219,7 @@ public class MavenArtifact implements IMavenIdentifier
     }
 
     @Nullable
-    public Collection<String> getAvailableVersions(DBRProgressMonitor monitor, String versionSpec) throws IOException {
+    public synchronized Collection<String> getAvailableVersions(DBRProgressMonitor monitor, String versionSpec) throws IOException {
         if (CommonUtils.isEmpty(versions) && !metadataLoaded) {
             loadMetadata(monitor);
         }
@@ -278,7 +296,7 @@ public class MavenArtifact implements IMavenIdentifier
 //    }
 
     @Nullable
-    public MavenArtifactVersion getVersion(String versionStr) {
+    public synchronized MavenArtifactVersion getVersion(String versionStr) {
         for (MavenArtifactVersion version : localVersions) {
             if (CommonUtils.equalObjects(version.getVersion(), versionStr)) {
                 return version;
@@ -296,7 +314,7 @@ public class MavenArtifact implements IMavenIdentifier
         return version;
     }
 
-    public MavenArtifactVersion resolveVersion(DBRProgressMonitor monitor, String versionRef) throws IOException {
+    public synchronized MavenArtifactVersion resolveVersion(DBRProgressMonitor monitor, String versionRef) throws IOException {
         if (CommonUtils.isEmpty(versionRef)) {
             throw new IOException("Empty artifact " + this + " version");
         }
@@ -21,11 +21,9 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.IVariableResolver;
-import org.jkiss.dbeaver.runtime.WebUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.StandardConstants;
 import org.jkiss.utils.xml.XMLException;
 import org.jkiss.utils.xml.XMLUtils;
@@ -233,29 +231,13 @@ public class MavenArtifactVersion implements IMavenIdentifier {
         return artifact.getFileURL(version, MavenArtifact.FILE_POM);
     }
 
-    private void cachePOM(File localPOM) throws IOException {
-        if (artifact.getRepository().getType() == MavenRepository.RepositoryType.LOCAL) {
-            return;
-        }
-        String pomURL = getRemotePOMLocation();
-        try (InputStream is = WebUtils.openConnection(pomURL, artifact.getRepository().getAuthInfo(), null).getInputStream()) {
-            File folder = localPOM.getParentFile();
-            if (!folder.exists() && !folder.mkdirs()) {
-                throw new IOException("Can't create cache folder '" + folder.getAbsolutePath() + "'");
-            }
-
-            try (OutputStream os = new FileOutputStream(localPOM)) {
-                IOUtils.fastCopy(is, os);
-            }
-        }
-    }
-
     private void loadPOM(DBRProgressMonitor monitor) throws IOException {
         monitor.subTask("Load POM " + this);
 
         File localPOM = getLocalPOM();
-        if (!localPOM.exists()) {
-            cachePOM(localPOM);
+        if (artifact.getRepository().getType() != MavenRepository.RepositoryType.LOCAL) {
+            // Released POMs never change, cached copy is only verified
+            artifact.getRepository().getFileCache().getFile(getRemotePOMLocation(), localPOM, 0);
         }
 
 
@@ -0,0 +1,249 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.maven;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local cache of remote repository files (POMs, metadata, artifacts).
+ *
+ * Each cached file has a SHA-1 checksum file next to it. Checksum is taken from the repository
+ * (Maven repositories publish .sha1 files) and the downloaded content is verified against it.
+ * Cached files which don't match their checksum (e.g. partially written) are downloaded again.
+ * Files are downloaded into a temporary file and then moved, so readers never see incomplete content.
+ * Cache may be used from multiple threads.
+ */
+public class MavenFileCache {
+
+    private static final Log log = Log.getLog(MavenFileCache.class);
+
+    public static final String CHECKSUM_EXTENSION = ".sha1"; //$NON-NLS-1$
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-1"; //$NON-NLS-1$
+
+    /**
+     * Opens remote files. Allows to use the cache with any kind of repository (remote or file-based).
+     */
+    public interface RemoteFileProvider {
+        @NotNull
+        InputStream openStream(@NotNull String url) throws IOException;
+    }
+
+    // Per-file locks. The same file may be requested by parallel resolvers.
+    private static final Map<String, Object> fileLocks = new ConcurrentHashMap<>();
+
+    private final RemoteFileProvider fileProvider;
+
+    public MavenFileCache(@NotNull RemoteFileProvider fileProvider) {
+        this.fileProvider = fileProvider;
+    }
+
+    /**
+     * Returns local copy of remote file. Downloads it if it is missing, corrupted or older than maxAge.
+     * @param maxAge max age of cached file in ms. Zero means that cached file never expires.
+     */
+    @NotNull
+    public File getFile(@NotNull String remoteURL, @NotNull File localFile, long maxAge) throws IOException {
+        synchronized (getFileLock(localFile)) {
+            if (localFile.exists()) {
+                boolean expired = maxAge > 0 && System.currentTimeMillis() - localFile.lastModified() > maxAge;
+                if (!expired && verifyChecksum(localFile)) {
+                    return localFile;
+                }
+                log.debug("Cached file '" + localFile.getAbsolutePath() + "' is " + (expired ? "expired" : "corrupted") + ". Download it again.");
+            }
+            downloadFile(remoteURL, localFile);
+            return localFile;
+        }
+    }
+
+    /**
+     * Downloads remote file, verifies its checksum and saves it in the cache
+     */
+    public void downloadFile(@NotNull String remoteURL, @NotNull File localFile) throws IOException {
+        synchronized (getFileLock(localFile)) {
+            File folder = localFile.getParentFile();
+            if (!folder.exists() && !folder.mkdirs()) {
+                throw new IOException("Can't create cache folder '" + folder.getAbsolutePath() + "'");
+            }
+            String remoteChecksum = readRemoteChecksum(remoteURL);
+            File tempFile = new File(folder, localFile.getName() + ".tmp");
+            try {
+                String checksum;
+                try (InputStream is = fileProvider.openStream(remoteURL)) {
+                    checksum = copyWithChecksum(is, tempFile);
+                }
+                if (remoteChecksum != null && !remoteChecksum.equalsIgnoreCase(checksum)) {
+                    throw new IOException("Checksum mismatch for '" + remoteURL + "': expected " + remoteChecksum + ", actual " + checksum);
+                }
+                moveFile(tempFile, localFile);
+                writeChecksum(localFile, checksum);
+            } finally {
+                if (tempFile.exists() && !tempFile.delete()) {
+                    log.debug("Can't delete temp file '" + tempFile.getAbsolutePath() + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes file and its checksum from the cache
+     */
+    public void invalidateFile(@NotNull File localFile) {
+        synchronized (getFileLock(localFile)) {
+            if (localFile.exists() && !localFile.delete()) {
+                log.debug("Can't delete cached file '" + localFile.getAbsolutePath() + "'");
+            }
+            File checksumFile = getChecksumFile(localFile);
+            if (checksumFile.exists() && !checksumFile.delete()) {
+                log.debug("Can't delete checksum file '" + checksumFile.getAbsolutePath() + "'");
+            }
+        }
+    }
+
+    /**
+     * Checks file content against its saved checksum.
+     * Files cached before checksums were introduced have no checksum file. They are considered valid
+     * (unless empty) and get a checksum file.
+     */
+    public static boolean verifyChecksum(@NotNull File localFile) throws IOException {
+        File checksumFile = getChecksumFile(localFile);
+        String actualChecksum;
+        try (InputStream is = new FileInputStream(localFile)) {
+            actualChecksum = copyWithChecksum(is, null);
+        }
+        if (!checksumFile.exists()) {
+            if (localFile.length() == 0) {
+                return false;
+            }
+            writeChecksum(localFile, actualChecksum);
+            return true;
+        }
+        String savedChecksum = parseChecksum(new String(Files.readAllBytes(checksumFile.toPath()), StandardCharsets.UTF_8));
+        return actualChecksum.equalsIgnoreCase(savedChecksum);
+    }
+
+    /**
+     * Verifies file downloaded by other means (e.g. with progress reporting) against checksum published by repository.
+     */
+    public void verifyDownloadedFile(@NotNull String remoteURL, @NotNull File localFile) throws IOException {
+        String remoteChecksum = readRemoteChecksum(remoteURL);
+        String checksum;
+        try (InputStream is = new FileInputStream(localFile)) {
+            checksum = copyWithChecksum(is, null);
+        }
+        if (remoteChecksum != null && !remoteChecksum.equalsIgnoreCase(checksum)) {
+            throw new IOException("Checksum mismatch for '" + remoteURL + "': expected " + remoteChecksum + ", actual " + checksum);
+        }
+    }
+
+    @NotNull
+    public static File getChecksumFile(@NotNull File localFile) {
+        return new File(localFile.getParentFile(), localFile.getName() + CHECKSUM_EXTENSION);
+    }
+
+    /**
+     * Reads checksum published by repository. Returns null if repository doesn't provide checksums.
+     */
+    @Nullable
+    private String readRemoteChecksum(@NotNull String remoteURL) {
+        try (InputStream is = fileProvider.openStream(remoteURL + CHECKSUM_EXTENSION)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            IOUtils.copyStream(is, buffer);
+            String checksum = parseChecksum(buffer.toString(StandardCharsets.US_ASCII.name()));
+            if (checksum == null) {
+                log.debug("Bad checksum file format: " + remoteURL + CHECKSUM_EXTENSION);
+            }
+            return checksum;
+        } catch (IOException e) {
+            log.debug("Checksum of '" + remoteURL + "' is not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checksum file may contain file name after the checksum
+     */
+    @Nullable
+    private static String parseChecksum(@NotNull String text) {
+        String checksum = text.trim();
+        int spacePos = checksum.indexOf(' ');
+        if (spacePos != -1) {
+            checksum = checksum.substring(0, spacePos);
+        }
+        if (checksum.length() != 40) {
+            return null;
+        }
+        return checksum.toLowerCase(Locale.ENGLISH);
+    }
+
+    @NotNull
+    private static String copyWithChecksum(@NotNull InputStream is, @Nullable File target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        try (OutputStream os = target == null ? null : new FileOutputStream(target)) {
+            for (int count; (count = is.read(buffer)) > 0; ) {
+                digest.update(buffer, 0, count);
+                if (os != null) {
+                    os.write(buffer, 0, count);
+                }
+            }
+        }
+        return CommonUtils.toHexString(digest.digest()).toLowerCase(Locale.ENGLISH);
+    }
+
+    private static void writeChecksum(@NotNull File localFile, @NotNull String checksum) throws IOException {
+        File checksumFile = getChecksumFile(localFile);
+        File tempFile = new File(checksumFile.getParentFile(), checksumFile.getName() + ".tmp");
+        Files.write(tempFile.toPath(), checksum.getBytes(StandardCharsets.US_ASCII));
+        moveFile(tempFile, checksumFile);
+    }
+
+    private static void moveFile(@NotNull File source, @NotNull File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @NotNull
+    private static Object getFileLock(@NotNull File file) {
+        return fileLocks.computeIfAbsent(file.getAbsolutePath(), path -> new Object());
+    }
+
+}
@@ -38,6 +38,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MavenRegistry
 {
@@ -62,7 +63,7 @@ public class MavenRegistry
     private final List<MavenRepository> repositories = new ArrayList<>();
     private MavenRepository localRepository;
     // Cache for not found artifact ids. Avoid multiple remote metadata reading
-    private final Set<String> notFoundArtifacts = new HashSet<>();
+    private final Set<String> notFoundArtifacts = ConcurrentHashMap.newKeySet();
 
     private static final PasswordEncrypter ENCRYPTOR = new SimpleStringEncrypter();
 
@@ -24,6 +24,7 @@ import org.jkiss.dbeaver.model.connection.DBPAuthInfo;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.registry.RegistryConstants;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.runtime.WebUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
@@ -31,9 +32,9 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Maven repository manager.
@@ -64,7 +65,9 @@ public class MavenRepository
     private String description;
     private final DBPAuthInfo authInfo = new DBPAuthInfo();
 
-    private Map<String, MavenArtifact> cachedArtifacts = new LinkedHashMap<>();
+    // Artifacts are resolved by parallel dependency resolvers
+    private final Map<String, MavenArtifact> cachedArtifacts = new ConcurrentHashMap<>();
+    private volatile MavenFileCache fileCache;
 
     public MavenRepository(IConfigurationElement config)
     {
@@ -181,29 +184,44 @@ public class MavenRepository
         return url.startsWith("https");
     }
 
+    /**
+     * Finds artifact version. May be called from multiple threads, artifacts are resolved under their own locks.
+     */
     @Nullable
-    public synchronized MavenArtifactVersion findArtifact(DBRProgressMonitor monitor, @NotNull MavenArtifactReference ref) {
-        boolean newArtifact = false;
-        MavenArtifact artifact = cachedArtifacts.get(ref.getId());
+    public MavenArtifactVersion findArtifact(DBRProgressMonitor monitor, @NotNull MavenArtifactReference ref) {
+        MavenArtifact newArtifact = new MavenArtifact(this, ref.getGroupId(), ref.getArtifactId(), ref.getClassifier());
+        MavenArtifact artifact = cachedArtifacts.putIfAbsent(ref.getId(), newArtifact);
         if (artifact == null) {
-            artifact = new MavenArtifact(this, ref.getGroupId(), ref.getArtifactId(), ref.getClassifier());
-            newArtifact = true;
+            artifact = newArtifact;
         }
         try {
-            MavenArtifactVersion version = artifact.resolveVersion(monitor, ref.getVersion());
-            if (newArtifact) {
-                cachedArtifacts.put(ref.getId(), artifact);
-            }
-            return version;
+            return artifact.resolveVersion(monitor, ref.getVersion());
         } catch (IOException e) {
             // Generally it is ok. Artifact not present in this repository
             log.debug("Maven artifact '" + ref + "' not found in repository '" + this + "': " + e.getMessage());
+            if (artifact == newArtifact) {
+                cachedArtifacts.remove(ref.getId(), newArtifact);
+            }
             return null;
         }
     }
 
-    synchronized void resetArtifactCache(@NotNull MavenArtifactReference artifactReference) {
+    void resetArtifactCache(@NotNull MavenArtifactReference artifactReference) {
         cachedArtifacts.remove(artifactReference.getId());
+        if (type != RepositoryType.LOCAL) {
+            getFileCache().invalidateFile(MavenArtifact.getLocalMetadataFile(this, artifactReference.getGroupId(), artifactReference.getArtifactId()));
+        }
+    }
+
+    /**
+     * Local cache of repository files
+     */
+    @NotNull
+    public MavenFileCache getFileCache() {
+        if (fileCache == null) {
+            fileCache = new MavenFileCache(fileURL -> WebUtils.openConnection(fileURL, authInfo, null).getInputStream());
+        }
+        return fileCache;
     }
 
     File getLocalCacheDir()
@@ -0,0 +1,549 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.task.*;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process task scheduler.
+ *
+ * Schedules are saved in the workspace metadata folder, so they are shared by all projects and
+ * by all application instances which use the same workspace (e.g. desktop UI and headless server).
+ * Only one instance fires scheduled tasks: it holds the lock on {@link #LOCK_FILE} in the workspace metadata folder.
+ * Scheduled runs pass through {@link TaskConcurrencyLimiter}: number of parallel runs is limited globally
+ * and per data source. Runs which overlap on the same data source are queued.
+ */
+public class LocalTaskScheduler implements DBTScheduler {
+
+    private static final Log log = Log.getLog(LocalTaskScheduler.class);
+
+    public static final String SCHEDULE_FILE = "task-schedule.json"; //$NON-NLS-1$
+    public static final String LOCK_FILE = "task-schedule.lock"; //$NON-NLS-1$
+
+    private static final long TICK_INTERVAL_SECONDS = 15;
+    private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss"; //$NON-NLS-1$
+
+    private static final Set<String> SUPPORTED_FEATURES = new HashSet<>(Arrays.asList(
+        FEATURE_FREQUENCY_MINUTELY,
+        FEATURE_FREQUENCY_MINUTELY_START_DATETIME,
+        FEATURE_FREQUENCY_MINUTELY_RECURRENCE_GREATER_THAN_59,
+        FEATURE_FREQUENCY_HOURLY,
+        FEATURE_FREQUENCY_HOURLY_EXECUTION_MINUTE,
+        FEATURE_FREQUENCY_HOURLY_START_DATETIME,
+        FEATURE_FREQUENCY_HOURLY_RECURRENCE_GREATER_THAN_23,
+        FEATURE_FREQUENCY_DAILY,
+        FEATURE_FREQUENCY_DAILY_START_DATE,
+        FEATURE_FREQUENCY_DAILY_RECURRENCE,
+        FEATURE_FREQUENCY_DAILY_RECURRENCE_GREATER_THAN_31,
+        FEATURE_FREQUENCY_WEEKLY,
+        FEATURE_FREQUENCY_WEEKLY_START_DATE,
+        FEATURE_FREQUENCY_WEEKLY_RECURRENCE,
+        FEATURE_FREQUENCY_MONTHLY,
+        FEATURE_FREQUENCY_MONTHLY_START_DATE,
+        FEATURE_FREQUENCY_MONTHLY_LAST_DAY,
+        FEATURE_FREQUENCY_ONETIME,
+        FEATURE_FREQUENCY_ONETIME_START_DATETIME
+    ));
+
+    private static class ScheduleEntry {
+        private String project;
+        private String task;
+        private DBTTaskScheduleConfiguration configuration;
+        // Recurrence of schedules without start time is counted from this time
+        private Date createTime;
+
+        private transient TaskScheduleTrigger trigger;
+        private transient Date nextFireTime;
+
+        String getKey() {
+            return makeKey(project, task);
+        }
+    }
+
+    private final Gson gson = new GsonBuilder()
+        .setDateFormat(DATE_FORMAT)
+        .setPrettyPrinting()
+        .create();
+    private final Map<String, ScheduleEntry> entries = new LinkedHashMap<>();
+    private final TaskConcurrencyLimiter limiter;
+    private boolean loaded;
+    private long loadedTimestamp;
+    private ScheduledExecutorService timer;
+    private TaskSchedulerLock timerLock;
+
+    public LocalTaskScheduler() {
+        limiter = new TaskConcurrencyLimiter(getMaxParallelTasks(), getMaxDataSourceTasks());
+    }
+
+    @NotNull
+    @Override
+    public String getSchedulerName() {
+        return "Local scheduler";
+    }
+
+    @Override
+    public boolean supportsFeature(String feature) {
+        return SUPPORTED_FEATURES.contains(feature);
+    }
+
+    @Override
+    public RecurrenceType getRecurrenceType() {
+        return RecurrenceType.Interval;
+    }
+
+    @NotNull
+    @Override
+    public synchronized List<DBTTaskScheduleInfo> getAllScheduledTasks() {
+        ensureLoaded();
+        List<DBTTaskScheduleInfo> result = new ArrayList<>(entries.size());
+        for (ScheduleEntry entry : entries.values()) {
+            result.add(makeScheduleInfo(entry));
+        }
+        return result;
+    }
+
+    @Nullable
+    @Override
+    public synchronized DBTTaskScheduleInfo getScheduledTaskInfo(@NotNull DBTTask task) {
+        ensureLoaded();
+        ScheduleEntry entry = entries.get(makeKey(task));
+        return entry == null ? null : makeScheduleInfo(entry);
+    }
+
+    @Nullable
+    @Override
+    public synchronized DBTTaskScheduleConfiguration getScheduledTaskConfiguration(@NotNull DBTTask task) {
+        ensureLoaded();
+        ScheduleEntry entry = entries.get(makeKey(task));
+        return entry == null ? null : entry.configuration;
+    }
+
+    @Override
+    public void setTaskSchedule(@NotNull DBTTask task, @NotNull DBTTaskScheduleConfiguration scheduleConfiguration) throws DBException {
+        Date createTime = new Date();
+        TaskScheduleTrigger trigger = new TaskScheduleTrigger(scheduleConfiguration, ZoneId.systemDefault(), createTime);
+        synchronized (this) {
+            ensureLoaded();
+            ScheduleEntry entry = new ScheduleEntry();
+            entry.project = task.getProject().getName();
+            entry.task = task.getId();
+            entry.configuration = scheduleConfiguration;
+            entry.createTime = createTime;
+            entry.trigger = trigger;
+            entry.nextFireTime = trigger.getNextFireTime(new Date());
+            entries.put(entry.getKey(), entry);
+            saveSchedule();
+            startTimer();
+        }
+        TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(task, DBTTaskEvent.Action.TASK_UPDATE));
+    }
+
+    @Override
+    public void removeTaskSchedule(@NotNull DBTTask task, DBTTaskScheduleInfo scheduleInfo) throws DBException {
+        synchronized (this) {
+            ensureLoaded();
+            if (entries.remove(makeKey(task)) == null) {
+                return;
+            }
+            saveSchedule();
+        }
+        TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(task, DBTTaskEvent.Action.TASK_UPDATE));
+    }
+
+    /**
+     * Reloads schedule and starts the scheduler timer
+     */
+    @Override
+    public synchronized void refreshScheduledTasks(@NotNull DBRProgressMonitor monitor) throws DBException {
+        loadSchedule();
+        limiter.setLimits(getMaxParallelTasks(), getMaxDataSourceTasks());
+        startTimer();
+    }
+
+    @Nullable
+    @Override
+    public DBTSchedulerExternalSettings openSchedulerSettings() {
+        return null;
+    }
+
+    /**
+     * Stops the timer. Runs which are already started are not interrupted.
+     */
+    public synchronized void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+        if (timerLock != null) {
+            timerLock.release();
+            timerLock = null;
+        }
+    }
+
+    public synchronized boolean hasScheduledTasks() {
+        ensureLoaded();
+        return !entries.isEmpty();
+    }
+
+    private void startTimer() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Task scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::checkSchedule, 0, TICK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void checkSchedule() {
+        List<ScheduleEntry> dueEntries = new ArrayList<>();
+        try {
+            synchronized (this) {
+                File scheduleFile = getScheduleFile();
+                if (scheduleFile.lastModified() != loadedTimestamp) {
+                    // Schedule was changed by another application instance
+                    loadSchedule();
+                }
+                Date now = new Date();
+                for (ScheduleEntry entry : entries.values()) {
+                    if (entry.nextFireTime != null && !entry.nextFireTime.after(now)) {
+                        dueEntries.add(entry);
+                        entry.nextFireTime = entry.trigger.getNextFireTime(now);
+                    }
+                }
+                if (!dueEntries.isEmpty() && !acquireTimerLock()) {
+                    // Tasks are fired by another application instance which uses the same workspace
+                    dueEntries.clear();
+                }
+            }
+            for (ScheduleEntry entry : dueEntries) {
+                fireTask(entry);
+            }
+        } catch (Throwable e) {
+            // Exception would cancel all further executions of the timer
+            log.error("Error checking task schedule", e);
+        }
+    }
+
+    private void fireTask(@NotNull ScheduleEntry entry) {
+        DBPProject project = DBWorkbench.getPlatform().getWorkspace().getProject(entry.project);
+        if (project == null) {
+            log.warn("Project '" + entry.project + "' of scheduled task '" + entry.task + "' not found");
+            return;
+        }
+        DBTTask task = project.getTaskManager().getTaskById(entry.task);
+        if (task == null) {
+            log.warn("Scheduled task '" + entry.task + "' not found in project '" + entry.project + "'");
+            return;
+        }
+        ScheduledRun run = new ScheduledRun(entry, task, getTaskDataSources(task));
+        if (!limiter.submit(run)) {
+            log.debug("Task '" + task.getName() + "' is already waiting in queue. Skip scheduled run.");
+        } else if (limiter.isQueued(run.getKey())) {
+            log.debug("Task '" + task.getName() + "' is queued: concurrency limit reached");
+        }
+    }
+
+    /**
+     * Collects ids of data sources used by the task.
+     * Task handlers store data source ids and object ids (which start from data source id) in task properties.
+     */
+    @NotNull
+    private static Set<String> getTaskDataSources(@NotNull DBTTask task) {
+        Set<String> result = new LinkedHashSet<>();
+        collectDataSources(task.getProject().getDataSourceRegistry(), task.getProperties(), result);
+        return result;
+    }
+
+    private static void collectDataSources(@NotNull DBPDataSourceRegistry registry, @Nullable Object value, @NotNull Set<String> result) {
+        if (value instanceof String) {
+            String id = (String) value;
+            int divPos = id.indexOf('/');
+            if (divPos != -1) {
+                id = id.substring(0, divPos);
+            }
+            if (!id.isEmpty() && registry.getDataSource(id) != null) {
+                result.add(id);
+            }
+        } else if (value instanceof Map) {
+            for (Object item : ((Map<?, ?>) value).values()) {
+                collectDataSources(registry, item, result);
+            }
+        } else if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                collectDataSources(registry, item, result);
+            }
+        }
+    }
+
+    private boolean acquireTimerLock() {
+        if (timerLock == null) {
+            timerLock = new TaskSchedulerLock(
+                new File(DBWorkbench.getPlatform().getWorkspace().getMetadataFolder(), LOCK_FILE));
+        }
+        return timerLock.tryAcquire();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            loadSchedule();
+        }
+    }
+
+    private void loadSchedule() {
+        loaded = true;
+        File scheduleFile = getScheduleFile();
+        loadedTimestamp = scheduleFile.lastModified();
+        if (!scheduleFile.exists()) {
+            entries.clear();
+            return;
+        }
+        List<ScheduleEntry> loadedEntries;
+        try (Reader reader = new InputStreamReader(new FileInputStream(scheduleFile), StandardCharsets.UTF_8)) {
+            Type listType = new TypeToken<List<ScheduleEntry>>() {}.getType();
+            loadedEntries = gson.fromJson(reader, listType);
+        } catch (Exception e) {
+            log.error("Error loading task schedule from " + scheduleFile.getAbsolutePath(), e);
+            return;
+        }
+        Map<String, ScheduleEntry> oldEntries = new HashMap<>(entries);
+        entries.clear();
+        if (loadedEntries == null) {
+            return;
+        }
+        Date now = new Date();
+        for (ScheduleEntry entry : loadedEntries) {
+            if (entry == null || entry.project == null || entry.task == null || entry.configuration == null) {
+                continue;
+            }
+            ScheduleEntry oldEntry = oldEntries.get(entry.getKey());
+            if (entry.createTime == null) {
+                entry.createTime = oldEntry != null && oldEntry.createTime != null ? oldEntry.createTime : now;
+            }
+            try {
+                entry.trigger = new TaskScheduleTrigger(entry.configuration, ZoneId.systemDefault(), entry.createTime);
+            } catch (DBException e) {
+                log.warn("Bad schedule of task '" + entry.task + "': " + e.getMessage());
+                continue;
+            }
+            if (oldEntry != null && gson.toJson(oldEntry.configuration).equals(gson.toJson(entry.configuration))) {
+                // Keep fire time of unchanged schedule. Otherwise reload would skip runs due right now.
+                entry.nextFireTime = oldEntry.nextFireTime;
+            } else {
+                entry.nextFireTime = entry.trigger.getNextFireTime(now);
+            }
+            entries.put(entry.getKey(), entry);
+        }
+    }
+
+    private void saveSchedule() throws DBException {
+        File scheduleFile = getScheduleFile();
+        File tempFile = new File(scheduleFile.getParentFile(), scheduleFile.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)) {
+            gson.toJson(new ArrayList<>(entries.values()), writer);
+        } catch (IOException e) {
+            throw new DBException("Error writing task schedule", e);
+        }
+        try {
+            try {
+                Files.move(tempFile.toPath(), scheduleFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), scheduleFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new DBException("Error saving task schedule to " + scheduleFile.getAbsolutePath(), e);
+        }
+        loadedTimestamp = scheduleFile.lastModified();
+    }
+
+    @NotNull
+    private File getScheduleFile() {
+        return new File(DBWorkbench.getPlatform().getWorkspace().getMetadataFolder(), SCHEDULE_FILE);
+    }
+
+    @NotNull
+    private DBTTaskScheduleInfo makeScheduleInfo(@NotNull ScheduleEntry entry) {
+        String key = entry.getKey();
+        String status;
+        if (limiter.isRunning(key)) {
+            status = "Running";
+        } else if (limiter.isQueued(key)) {
+            status = "Queued";
+        } else if (entry.nextFireTime == null) {
+            status = "Finished";
+        } else {
+            status = "Scheduled";
+        }
+        String nextRunInfo = entry.nextFireTime == null ? "" : new SimpleDateFormat(DATE_FORMAT).format(entry.nextFireTime);
+        return new ScheduleInfo(entry.task, nextRunInfo, status);
+    }
+
+    private static String makeKey(@NotNull DBTTask task) {
+        return makeKey(task.getProject().getName(), task.getId());
+    }
+
+    private static String makeKey(String projectName, String taskId) {
+        return projectName + "/" + taskId;
+    }
+
+    private static int getMaxParallelTasks() {
+        return DBWorkbench.getPlatform().getPreferenceStore().getInt(ModelPreferences.TASK_SCHEDULER_MAX_PARALLEL_TASKS);
+    }
+
+    private static int getMaxDataSourceTasks() {
+        return DBWorkbench.getPlatform().getPreferenceStore().getInt(ModelPreferences.TASK_SCHEDULER_MAX_DATASOURCE_TASKS);
+    }
+
+    private static class ScheduleInfo implements DBTTaskScheduleInfo {
+        private final String taskId;
+        private final String nextRunInfo;
+        private final String status;
+
+        ScheduleInfo(String taskId, String nextRunInfo, String status) {
+            this.taskId = taskId;
+            this.nextRunInfo = nextRunInfo;
+            this.status = status;
+        }
+
+        @Override
+        public String getTaskId() {
+            return taskId;
+        }
+
+        @Override
+        public String getNextRunInfo() {
+            return nextRunInfo;
+        }
+
+        @Override
+        public String getStatus() {
+            return status;
+        }
+    }
+
+    private class ScheduledRun implements TaskConcurrencyLimiter.Request, DBTTaskExecutionListener {
+        private final ScheduleEntry entry;
+        private final DBTTask task;
+        private final Set<String> dataSources;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private ScheduledFuture<?> timeoutFuture;
+
+        ScheduledRun(ScheduleEntry entry, DBTTask task, Set<String> dataSources) {
+            this.entry = entry;
+            this.task = task;
+            this.dataSources = dataSources;
+        }
+
+        @NotNull
+        @Override
+        public String getKey() {
+            return entry.getKey();
+        }
+
+        @NotNull
+        @Override
+        public Collection<String> getResources() {
+            return dataSources;
+        }
+
+        @Override
+        public void start() throws DBException {
+            log.debug("Run scheduled task '" + task.getName() + "'");
+            Job job = task.getProject().getTaskManager().runTask(task, this, Collections.emptyMap());
+            int maxDuration = entry.configuration.maxDuration;
+            if (maxDuration > 0) {
+                synchronized (LocalTaskScheduler.this) {
+                    if (timer != null) {
+                        timeoutFuture = timer.schedule(() -> {
+                            log.warn("Scheduled task '" + task.getName() + "' exceeded max duration (" + maxDuration + "s). Cancel it.");
+                            job.cancel();
+                        }, maxDuration, TimeUnit.SECONDS);
+                    }
+                }
+            }
+            job.addJobChangeListener(new JobChangeAdapter() {
+                @Override
+                public void done(IJobChangeEvent event) {
+                    finish();
+                }
+            });
+            if (job.getState() == Job.NONE && job.getResult() != null) {
+                // Job has finished before the listener was added
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
+            }
+            limiter.release(this);
+            TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(task, DBTTaskEvent.Action.TASK_EXECUTE));
+        }
+
+        @Override
+        public void taskStarted(@NotNull Object task) {
+        }
+
+        @Override
+        public void taskFinished(@NotNull Object task, @Nullable Object result, @Nullable Throwable error) {
+            if (error != null) {
+                log.error("Scheduled task '" + this.task.getName() + "' failed", error);
+            }
+        }
+
+        @Override
+        public void subTaskFinished(@Nullable Throwable error) {
+        }
+    }
+
+}
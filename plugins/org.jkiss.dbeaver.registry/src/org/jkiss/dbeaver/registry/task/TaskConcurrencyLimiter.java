@@ -0,0 +1,183 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+
+import java.util.*;
+
+/**
+ * Admission queue of task runs.
+ *
+ * Limits number of runs executed at once globally and per resource (data source).
+ * The same task never runs in parallel with itself. Runs which exceed the limits wait in the queue.
+ * Queue is FIFO per resource: a waiting run blocks later runs which use the same resources,
+ * runs on other resources may proceed.
+ */
+public class TaskConcurrencyLimiter {
+
+    private static final Log log = Log.getLog(TaskConcurrencyLimiter.class);
+
+    public interface Request {
+
+        /**
+         * Task key. Runs with the same key are executed one by one.
+         */
+        @NotNull
+        String getKey();
+
+        /**
+         * Resources used by the run (e.g. data source ids)
+         */
+        @NotNull
+        Collection<String> getResources();
+
+        /**
+         * Starts the run. Limiter must be notified with {@link #release(Request)} when run finishes.
+         */
+        void start() throws Exception;
+    }
+
+    private final List<Request> queue = new ArrayList<>();
+    private final List<Request> running = new ArrayList<>();
+    private final Set<String> runningKeys = new HashSet<>();
+    private final Map<String, Integer> resourceUsage = new HashMap<>();
+    // Zero means unlimited
+    private int maxTasks;
+    private int maxResourceTasks;
+
+    public TaskConcurrencyLimiter(int maxTasks, int maxResourceTasks) {
+        this.maxTasks = maxTasks;
+        this.maxResourceTasks = maxResourceTasks;
+    }
+
+    public void setLimits(int maxTasks, int maxResourceTasks) {
+        synchronized (this) {
+            this.maxTasks = maxTasks;
+            this.maxResourceTasks = maxResourceTasks;
+        }
+        startPending();
+    }
+
+    /**
+     * Adds run to the queue and starts it if limits allow.
+     * @return false if run of the same task is already waiting in the queue
+     */
+    public boolean submit(@NotNull Request request) {
+        synchronized (this) {
+            for (Request queued : queue) {
+                if (queued.getKey().equals(request.getKey())) {
+                    return false;
+                }
+            }
+            queue.add(request);
+        }
+        startPending();
+        return true;
+    }
+
+    public void release(@NotNull Request request) {
+        synchronized (this) {
+            if (!running.remove(request)) {
+                return;
+            }
+            runningKeys.remove(request.getKey());
+            for (String resource : request.getResources()) {
+                Integer usage = resourceUsage.get(resource);
+                if (usage == null || usage <= 1) {
+                    resourceUsage.remove(resource);
+                } else {
+                    resourceUsage.put(resource, usage - 1);
+                }
+            }
+        }
+        startPending();
+    }
+
+    public synchronized boolean isQueued(@NotNull String key) {
+        for (Request queued : queue) {
+            if (queued.getKey().equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized boolean isRunning(@NotNull String key) {
+        return runningKeys.contains(key);
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    public synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    private void startPending() {
+        List<Request> toStart = new ArrayList<>();
+        synchronized (this) {
+            Set<String> blockedResources = new HashSet<>();
+            Set<String> blockedKeys = new HashSet<>();
+            for (Iterator<Request> iter = queue.iterator(); iter.hasNext(); ) {
+                if (maxTasks > 0 && running.size() >= maxTasks) {
+                    break;
+                }
+                Request request = iter.next();
+                if (!canStart(request, blockedResources, blockedKeys)) {
+                    // Keep the order of runs which wait for the same resources
+                    blockedResources.addAll(request.getResources());
+                    blockedKeys.add(request.getKey());
+                    continue;
+                }
+                iter.remove();
+                running.add(request);
+                runningKeys.add(request.getKey());
+                for (String resource : request.getResources()) {
+                    resourceUsage.merge(resource, 1, Integer::sum);
+                }
+                toStart.add(request);
+            }
+        }
+        for (Request request : toStart) {
+            try {
+                request.start();
+            } catch (Throwable e) {
+                log.error("Error starting task '" + request.getKey() + "'", e);
+                release(request);
+            }
+        }
+    }
+
+    private boolean canStart(@NotNull Request request, @NotNull Set<String> blockedResources, @NotNull Set<String> blockedKeys) {
+        if (runningKeys.contains(request.getKey()) || blockedKeys.contains(request.getKey())) {
+            return false;
+        }
+        for (String resource : request.getResources()) {
+            if (blockedResources.contains(resource)) {
+                return false;
+            }
+            if (maxResourceTasks > 0 && resourceUsage.getOrDefault(resource, 0) >= maxResourceTasks) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
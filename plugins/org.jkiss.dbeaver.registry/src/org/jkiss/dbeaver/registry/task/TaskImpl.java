@@ -21,6 +21,7 @@ import com.google.gson.GsonBuilder;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPNamedObject2;
 import org.jkiss.dbeaver.model.app.DBPProject;
 import org.jkiss.dbeaver.model.task.DBTTask;
@@ -32,9 +33,6 @@ import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.util.*;
 
 /**
@@ -43,9 +41,6 @@ import java.util.*;
 public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private static final Log log = Log.getLog(TaskImpl.class);
 
-    private static final String META_FILE_NAME = "meta.json";
-
-    private static final int MAX_RUNS_IN_STATS = 100;
     private static final TaskRunImpl VOID_RUN = new TaskRunImpl();
     private static final Gson gson = new GsonBuilder()
         .setLenient()
@@ -61,10 +56,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     private DBTTaskType type;
     private Map<String, Object> properties;
     private TaskRunImpl lastRun;
-
-    private static class RunStatistics {
-        private final List<TaskRunImpl> runs = new ArrayList<>();
-    }
+    private TaskRunJournal runJournal;
 
     public TaskImpl(@NotNull DBPProject project, @NotNull DBTTaskType type, @NotNull String id, @NotNull String label, @Nullable String description, @NotNull Date createTime, @Nullable Date updateTime) {
         this.project = project;
@@ -152,7 +144,13 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     @NotNull
     @Override
     public DBTTaskRun[] getRunStatistics() {
-        return loadRunStatistics().runs.toArray(new DBTTaskRun[0]);
+        return getRunJournal().getRuns().toArray(new DBTTaskRun[0]);
+    }
+
+    @NotNull
+    @Override
+    public DBTTaskRun[] getRunStatistics(int offset, int maxCount) {
+        return getRunJournal().getRuns(offset, maxCount).toArray(new DBTTaskRun[0]);
     }
 
     @NotNull
@@ -168,9 +166,7 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
         if (runLog.exists() && !runLog.delete()) {
             log.error("Can't delete log file '" + runLog.getAbsolutePath() + "'");
         }
-        RunStatistics runStatistics = loadRunStatistics();
-        runStatistics.runs.remove(taskRun);
-        flushRunStatistics(runStatistics);
+        getRunJournal().removeRun(taskRun.getId());
         if (CommonUtils.equalObjects(lastRun, taskRun)) {
             lastRun = null;
         }
@@ -179,8 +175,10 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
 
     @Override
     public void cleanRunStatistics() {
+        getRunJournal().clear();
         File statsFolder = getTaskStatsFolder(false);
-        if (statsFolder.exists()) {
+        // Folder may also contain files of previous versions and task-specific files
+        if (statsFolder.exists() && !statsFolder.delete()) {
             for (File file : ArrayUtils.safeArray(statsFolder.listFiles())) {
                 if (!file.delete()) {
                     log.error("Can't delete log item '" + file.getAbsolutePath() + "'");
@@ -190,8 +188,6 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
                 log.error("Can't delete logs folder '" + statsFolder.getAbsolutePath() + "'");
             }
         }
-        RunStatistics runStatistics = new RunStatistics();
-        flushRunStatistics(runStatistics);
         lastRun = null;
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
@@ -200,8 +196,10 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
     public void refreshRunStatistics() {
         try {
             synchronized (this) {
-                List<TaskRunImpl> runs = loadRunStatistics().runs;
-                lastRun = runs.isEmpty() ? VOID_RUN : runs.get(runs.size() - 1);
+                TaskRunJournal journal = getRunJournal();
+                journal.refresh();
+                TaskRunImpl journalLastRun = journal.getLastRun();
+                lastRun = journalLastRun == null ? VOID_RUN : journalLastRun;
             }
         } catch (Throwable e) {
             log.debug("Error loading task runs", e); //$NON-NLS-1$
@@ -232,60 +230,27 @@ public class TaskImpl implements DBTTask, DBPNamedObject2 {
         return taskStatsFolder;
     }
 
-    private RunStatistics loadRunStatistics() {
-        File metaFile = new File(getTaskStatsFolder(false), META_FILE_NAME);
-        if (!metaFile.exists()) {
-            return new RunStatistics();
-        }
-        try (FileReader reader = new FileReader(metaFile)) {
-            RunStatistics statistics = gson.fromJson(reader, RunStatistics.class);
-            if (statistics == null) {
-                log.error("Null task run statistics returned");
-                return new RunStatistics();
-            }
-            return statistics;
-        } catch (Exception e) {
-            log.error("Error reading task run statistics", e);
-            return new RunStatistics();
-        }
-    }
-
-    private void flushRunStatistics(RunStatistics stats) {
-        File metaFile = new File(getTaskStatsFolder(true), META_FILE_NAME);
-        try (FileWriter writer = new FileWriter(metaFile)) {
-            String metaContent = gson.toJson(stats);
-            writer.write(metaContent);
-        } catch (IOException e) {
-            log.error("Error writing task run statistics", e);
+    private synchronized TaskRunJournal getRunJournal() {
+        if (runJournal == null) {
+            runJournal = new TaskRunJournal(
+                getTaskStatsFolder(false),
+                gson,
+                ModelPreferences.getPreferences().getInt(ModelPreferences.TASK_RUN_HISTORY_MAX_RUNS),
+                ModelPreferences.getPreferences().getInt(ModelPreferences.TASK_RUN_HISTORY_MAX_DAYS));
         }
+        return runJournal;
     }
 
     void addNewRun(TaskRunImpl taskRun) {
         synchronized (this) {
             lastRun = taskRun;
-            RunStatistics stats = loadRunStatistics();
-            stats.runs.add(taskRun);
-            while (stats.runs.size() > MAX_RUNS_IN_STATS) {
-                stats.runs.remove(0);
-            }
-            flushRunStatistics(stats);
+            getRunJournal().addRun(taskRun);
         }
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
     void updateRun(TaskRunImpl taskRun) {
-        synchronized (this) {
-            RunStatistics stats = loadRunStatistics();
-            List<TaskRunImpl> runs = stats.runs;
-            for (int i = 0; i < runs.size(); i++) {
-                TaskRunImpl run = runs.get(i);
-                if (CommonUtils.equalObjects(run.getId(), taskRun.getId())) {
-                    runs.set(i, taskRun);
-                    break;
-                }
-            }
-            flushRunStatistics(stats);
-        }
+        getRunJournal().updateRun(taskRun);
         TaskRegistry.getInstance().notifyTaskListeners(new DBTTaskEvent(this, DBTTaskEvent.Action.TASK_UPDATE));
     }
 
@@ -0,0 +1,444 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Append-only journal of task runs.
+ * Runs are indexed by id and kept in start order.
+ *
+ * Each run change (new run, run update, run removal) is appended as a single JSON line to the current journal segment.
+ * Segments are rotated after {@link #SEGMENT_MAX_RECORDS} records. Old segments are deleted when all their runs
+ * are out of retention (max run count and max run age) or were removed.
+ *
+ * Journal is read lazily. Subsequent reads only parse records appended since the last read (e.g. by a task
+ * executed in another process), so the cost of each run doesn't depend on the history size.
+ */
+class TaskRunJournal {
+
+    private static final Log log = Log.getLog(TaskRunJournal.class);
+
+    static final String LEGACY_META_FILE_NAME = "meta.json";
+
+    static final String SEGMENT_PREFIX = "runs-";
+    static final String SEGMENT_EXT = ".jsonl";
+    static final int SEGMENT_MAX_RECORDS = 100;
+
+    /**
+     * Journal line
+     */
+    private static class JournalRecord {
+        // New or updated run
+        private TaskRunImpl run;
+        private boolean update;
+        // Id of removed run
+        private String removedRun;
+    }
+
+    private static class LegacyRunStatistics {
+        private final List<TaskRunImpl> runs = new ArrayList<>();
+    }
+
+    private static class Segment {
+        private final int number;
+        private final File file;
+        private long loadedLength;
+        private int recordCount;
+        // Number of runs added in this segment and still present in the journal
+        private int liveRuns;
+
+        Segment(int number, File file) {
+            this.number = number;
+            this.file = file;
+        }
+    }
+
+    private final File folder;
+    private final Gson gson;
+    private int maxRuns;
+    private long maxAge;
+
+    private boolean loaded;
+    private final LinkedList<Segment> segments = new LinkedList<>();
+    // Runs in start order. Index by run id.
+    private final LinkedHashMap<String, TaskRunImpl> runs = new LinkedHashMap<>();
+    // Segment of the record which added the run
+    private final Map<String, Segment> runSegments = new HashMap<>();
+
+    TaskRunJournal(@NotNull File folder, @NotNull Gson gson, int maxRuns, int maxAgeDays) {
+        this.folder = folder;
+        this.gson = gson;
+        setRetention(maxRuns, maxAgeDays);
+    }
+
+    /**
+     * @param maxRuns    maximum number of kept runs. Zero or negative means unlimited.
+     * @param maxAgeDays maximum age of kept runs in days. Zero or negative means unlimited.
+     */
+    synchronized void setRetention(int maxRuns, int maxAgeDays) {
+        this.maxRuns = maxRuns;
+        this.maxAge = maxAgeDays <= 0 ? 0 : maxAgeDays * 24L * 60 * 60 * 1000;
+    }
+
+    /**
+     * Reads records appended since the last read
+     */
+    synchronized void refresh() {
+        if (!loaded) {
+            load();
+            return;
+        }
+        readNewRecords();
+        applyRetention();
+    }
+
+    private void readNewRecords() {
+        if (!segments.isEmpty() && !segments.getFirst().file.exists()) {
+            // Journal was cleaned or truncated by somebody else
+            reload();
+            return;
+        }
+        Segment segment = segments.isEmpty() ? null : segments.getLast();
+        if (segment != null) {
+            readSegment(segment);
+        }
+        for (;;) {
+            int nextNumber = segment == null ? 1 : segment.number + 1;
+            File nextFile = getSegmentFile(nextNumber);
+            if (!nextFile.exists()) {
+                break;
+            }
+            segment = new Segment(nextNumber, nextFile);
+            segments.add(segment);
+            readSegment(segment);
+        }
+    }
+
+    @Nullable
+    synchronized TaskRunImpl getLastRun() {
+        ensureLoaded();
+        TaskRunImpl lastRun = null;
+        for (TaskRunImpl run : runs.values()) {
+            lastRun = run;
+        }
+        return lastRun;
+    }
+
+    /**
+     * Returns runs in start order
+     */
+    @NotNull
+    synchronized List<TaskRunImpl> getRuns() {
+        ensureLoaded();
+        return new ArrayList<>(runs.values());
+    }
+
+    /**
+     * Returns page of runs. Runs are ordered from the newest to the oldest.
+     */
+    @NotNull
+    synchronized List<TaskRunImpl> getRuns(int offset, int maxCount) {
+        ensureLoaded();
+        List<TaskRunImpl> allRuns = new ArrayList<>(runs.values());
+        List<TaskRunImpl> page = new ArrayList<>();
+        for (int i = allRuns.size() - 1 - offset; i >= 0 && page.size() < maxCount; i--) {
+            page.add(allRuns.get(i));
+        }
+        return page;
+    }
+
+    synchronized void addRun(@NotNull TaskRunImpl run) {
+        ensureLoaded();
+        JournalRecord record = new JournalRecord();
+        record.run = run;
+        Segment segment = appendRecord(record);
+        if (segment != null) {
+            applyRecord(segment, record);
+        }
+        applyRetention();
+    }
+
+    synchronized void updateRun(@NotNull TaskRunImpl run) {
+        ensureLoaded();
+        if (!runs.containsKey(run.getId())) {
+            return;
+        }
+        JournalRecord record = new JournalRecord();
+        record.run = run;
+        record.update = true;
+        Segment segment = appendRecord(record);
+        if (segment != null) {
+            applyRecord(segment, record);
+        }
+    }
+
+    synchronized void removeRun(@NotNull String runId) {
+        ensureLoaded();
+        if (!runs.containsKey(runId)) {
+            return;
+        }
+        JournalRecord record = new JournalRecord();
+        record.removedRun = runId;
+        Segment segment = appendRecord(record);
+        if (segment != null) {
+            applyRecord(segment, record);
+        }
+        deleteObsoleteSegments();
+    }
+
+    /**
+     * Deletes all journal segments and logs of journal runs
+     */
+    synchronized void clear() {
+        ensureLoaded();
+        for (TaskRunImpl run : runs.values()) {
+            deleteRunLog(run.getId());
+        }
+        for (Segment segment : segments) {
+            deleteFile(segment.file);
+        }
+        runs.clear();
+        runSegments.clear();
+        segments.clear();
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private void reload() {
+        runs.clear();
+        runSegments.clear();
+        segments.clear();
+        load();
+    }
+
+    private void load() {
+        loaded = true;
+        if (!folder.exists()) {
+            return;
+        }
+        List<Segment> foundSegments = new ArrayList<>();
+        for (File file : ArrayUtils.safeArray(folder.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXT)))) {
+            String name = file.getName();
+            int number = CommonUtils.toInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXT.length()), -1);
+            if (number > 0) {
+                foundSegments.add(new Segment(number, file));
+            }
+        }
+        foundSegments.sort(Comparator.comparingInt(o -> o.number));
+        segments.addAll(foundSegments);
+        for (Segment segment : segments) {
+            readSegment(segment);
+        }
+        if (segments.isEmpty()) {
+            migrateLegacyStatistics();
+        }
+        applyRetention();
+    }
+
+    /**
+     * Reads run statistics of previous versions. They were kept in a single JSON file rewritten on each run.
+     */
+    private void migrateLegacyStatistics() {
+        File metaFile = new File(folder, LEGACY_META_FILE_NAME);
+        if (!metaFile.exists()) {
+            return;
+        }
+        LegacyRunStatistics statistics = null;
+        try (Reader reader = new FileReader(metaFile)) {
+            statistics = gson.fromJson(reader, LegacyRunStatistics.class);
+        } catch (Exception e) {
+            log.error("Error reading task run statistics", e);
+        }
+        if (statistics != null) {
+            for (TaskRunImpl run : statistics.runs) {
+                if (run == null || run.getId() == null) {
+                    continue;
+                }
+                JournalRecord record = new JournalRecord();
+                record.run = run;
+                Segment segment = appendRecord(record);
+                if (segment == null) {
+                    // Keep legacy file, journal can't be written
+                    return;
+                }
+                applyRecord(segment, record);
+            }
+        }
+        deleteFile(metaFile);
+    }
+
+    private void readSegment(@NotNull Segment segment) {
+        long length = segment.file.length();
+        if (length <= segment.loadedLength) {
+            return;
+        }
+        byte[] data;
+        try (RandomAccessFile file = new RandomAccessFile(segment.file, "r")) {
+            file.seek(segment.loadedLength);
+            data = new byte[(int) (length - segment.loadedLength)];
+            file.readFully(data);
+        } catch (IOException e) {
+            log.error("Error reading task run journal '" + segment.file.getAbsolutePath() + "'", e);
+            return;
+        }
+        int lineStart = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != '\n') {
+                continue;
+            }
+            String line = new String(data, lineStart, i - lineStart, StandardCharsets.UTF_8).trim();
+            lineStart = i + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                JournalRecord record = gson.fromJson(line, JournalRecord.class);
+                if (record != null) {
+                    applyRecord(segment, record);
+                }
+            } catch (Exception e) {
+                log.debug("Bad task run journal record in '" + segment.file.getName() + "': " + e.getMessage());
+            }
+        }
+        // Incomplete last line (it is being written right now) will be read next time
+        segment.loadedLength += lineStart;
+    }
+
+    private void applyRecord(@NotNull Segment segment, @NotNull JournalRecord record) {
+        segment.recordCount++;
+        if (record.run != null && record.run.getId() != null) {
+            String runId = record.run.getId();
+            if (record.update) {
+                // Updates of removed runs are ignored
+                if (runs.containsKey(runId)) {
+                    runs.put(runId, record.run);
+                }
+            } else {
+                Segment oldSegment = runSegments.put(runId, segment);
+                if (oldSegment != null) {
+                    oldSegment.liveRuns--;
+                }
+                runs.put(runId, record.run);
+                segment.liveRuns++;
+            }
+        } else if (record.removedRun != null) {
+            forgetRun(record.removedRun);
+        }
+    }
+
+    private void forgetRun(@NotNull String runId) {
+        runs.remove(runId);
+        Segment segment = runSegments.remove(runId);
+        if (segment != null) {
+            segment.liveRuns--;
+        }
+    }
+
+    @Nullable
+    private Segment appendRecord(@NotNull JournalRecord record) {
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.error("Can't create task log folder '" + folder.getAbsolutePath() + "'");
+            return null;
+        }
+        // Records written by other processes must be applied before ours
+        readNewRecords();
+        Segment segment = segments.isEmpty() ? null : segments.getLast();
+        if (segment == null || segment.recordCount >= SEGMENT_MAX_RECORDS) {
+            int number = segment == null ? 1 : segment.number + 1;
+            segment = new Segment(number, getSegmentFile(number));
+            segments.add(segment);
+        }
+        byte[] line = (gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = new FileOutputStream(segment.file, true)) {
+            out.write(line);
+        } catch (IOException e) {
+            log.error("Error writing task run journal '" + segment.file.getAbsolutePath() + "'", e);
+            return null;
+        }
+        segment.loadedLength += line.length;
+        return segment;
+    }
+
+    /**
+     * Removes oldest runs which are out of retention. Their logs are deleted as well.
+     */
+    private void applyRetention() {
+        long minStartTime = maxAge > 0 ? System.currentTimeMillis() - maxAge : 0;
+        boolean changed = false;
+        for (Iterator<TaskRunImpl> iter = runs.values().iterator(); iter.hasNext(); ) {
+            TaskRunImpl run = iter.next();
+            boolean tooMany = maxRuns > 0 && runs.size() > maxRuns;
+            boolean tooOld = minStartTime > 0 && run.getStartTime() != null && run.getStartTime().getTime() < minStartTime;
+            if (!tooMany && !tooOld) {
+                break;
+            }
+            iter.remove();
+            Segment segment = runSegments.remove(run.getId());
+            if (segment != null) {
+                segment.liveRuns--;
+            }
+            deleteRunLog(run.getId());
+            changed = true;
+        }
+        if (changed) {
+            deleteObsoleteSegments();
+        }
+    }
+
+    /**
+     * Deletes oldest segments without live runs. Current segment is never deleted.
+     */
+    private void deleteObsoleteSegments() {
+        while (segments.size() > 1 && segments.getFirst().liveRuns <= 0) {
+            Segment segment = segments.removeFirst();
+            deleteFile(segment.file);
+        }
+    }
+
+    private void deleteRunLog(@NotNull String runId) {
+        File runLog = new File(folder, TaskRunImpl.RUN_LOG_PREFIX + runId + "." + TaskRunImpl.RUN_LOG_EXT);
+        if (runLog.exists()) {
+            deleteFile(runLog);
+        }
+    }
+
+    private static void deleteFile(@NotNull File file) {
+        if (file.exists() && !file.delete()) {
+            log.error("Can't delete file '" + file.getAbsolutePath() + "'");
+        }
+    }
+
+    @NotNull
+    private File getSegmentFile(int number) {
+        return new File(folder, SEGMENT_PREFIX + String.format("%06d", number) + SEGMENT_EXT);
+    }
+
+}
@@ -0,0 +1,327 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.task.DBTTaskScheduleConfiguration;
+import org.jkiss.utils.CommonUtils;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * Computes fire times of a task schedule.
+ *
+ * Schedule is defined either by cron expression or by frequency fields of the configuration:
+ * <ul>
+ *     <li>MINUTELY, HOURLY - every {@code recurrence} minutes/hours starting from the start time.
+ *     If start time is not set then MINUTELY schedule starts from the anchor time
+ *     and HOURLY schedule fires at {@code executionMinute} of the hour</li>
+ *     <li>DAILY - every {@code recurrence} days at the start time of day (or at midnight
+ *     starting from the anchor day if start time is not set)</li>
+ *     <li>WEEKLY - every {@code recurrence} weeks on the specified {@code days} (1 - Monday ... 7 - Sunday)</li>
+ *     <li>MONTHLY - on the specified {@code days} (1..31, DAYS_LAST, ALL_DAYS) of the specified {@code months} (1..12)</li>
+ *     <li>ONE_TIME - once at the start time</li>
+ * </ul>
+ * Fire times have minute precision.
+ */
+public class TaskScheduleTrigger {
+
+    // Eight years is enough to find Feb 29 of a leap year
+    private static final int MAX_SEARCH_DAYS = 366 * 8;
+
+    private final DBTTaskScheduleConfiguration configuration;
+    private final ZoneId zone;
+    private final Date anchorTime;
+    @Nullable
+    private final CronExpression cron;
+
+    /**
+     * @param anchorTime time from which recurrence is counted if schedule has no start time (e.g. time when schedule was created).
+     *                   It must not change between calls, otherwise recurrence period is counted from the last check.
+     */
+    public TaskScheduleTrigger(@NotNull DBTTaskScheduleConfiguration configuration, @NotNull ZoneId zone, @NotNull Date anchorTime) throws DBException {
+        this.configuration = configuration;
+        this.zone = zone;
+        this.anchorTime = anchorTime;
+        if (!CommonUtils.isEmpty(configuration.cronExpression)) {
+            this.cron = new CronExpression(configuration.cronExpression);
+        } else if (configuration.frequency == null) {
+            throw new DBException("Schedule frequency is not specified");
+        } else if (configuration.frequency == DBTTaskScheduleConfiguration.Frequency.EVENT) {
+            throw new DBException("Event-based schedules are not supported");
+        } else if (configuration.frequency == DBTTaskScheduleConfiguration.Frequency.ONE_TIME && configuration.startTime == null) {
+            throw new DBException("Start time of one-time schedule is not specified");
+        } else {
+            this.cron = null;
+        }
+    }
+
+    /**
+     * Returns first fire time after the specified time or null if schedule is over
+     */
+    @Nullable
+    public Date getNextFireTime(@NotNull Date after) {
+        ZonedDateTime from = ZonedDateTime.ofInstant(after.toInstant(), zone).truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        ZonedDateTime start = configuration.startTime == null ?
+            null : ZonedDateTime.ofInstant(configuration.startTime.toInstant(), zone).truncatedTo(ChronoUnit.MINUTES);
+        ZonedDateTime anchor = ZonedDateTime.ofInstant(anchorTime.toInstant(), zone).truncatedTo(ChronoUnit.MINUTES);
+        ZonedDateTime next;
+        if (cron != null) {
+            if (start != null && start.isAfter(from)) {
+                from = start;
+            }
+            next = getNextCronTime(from);
+        } else {
+            next = getNextFrequencyTime(from, start, anchor);
+        }
+        if (next == null) {
+            return null;
+        }
+        if (configuration.endTime != null && next.toInstant().isAfter(configuration.endTime.toInstant())) {
+            return null;
+        }
+        return Date.from(next.toInstant());
+    }
+
+    @Nullable
+    private ZonedDateTime getNextFrequencyTime(@NotNull ZonedDateTime from, @Nullable ZonedDateTime start, @NotNull ZonedDateTime anchor) {
+        int recurrence = Math.max(1, configuration.recurrence);
+        switch (configuration.frequency) {
+            case ONE_TIME:
+                return start == null || start.isBefore(from) ? null : start;
+            case MINUTELY:
+                return getNextPeriodTime(from, start == null ? anchor : start, Duration.ofMinutes(recurrence));
+            case HOURLY: {
+                ZonedDateTime hourAnchor = start;
+                if (hourAnchor == null) {
+                    hourAnchor = anchor.truncatedTo(ChronoUnit.HOURS).withMinute(Math.min(59, Math.max(0, configuration.executionMinute)));
+                }
+                return getNextPeriodTime(from, hourAnchor, Duration.ofHours(recurrence));
+            }
+            case DAILY:
+            case WEEKLY:
+            case MONTHLY: {
+                LocalDate anchorDate = start == null ? anchor.toLocalDate() : start.toLocalDate();
+                LocalTime timeOfDay = start == null ? LocalTime.MIDNIGHT : start.toLocalTime();
+                LocalDate day = from.toLocalDate();
+                if (day.isBefore(anchorDate)) {
+                    day = anchorDate;
+                }
+                for (int i = 0; i < MAX_SEARCH_DAYS; i++, day = day.plusDays(1)) {
+                    if (!matchesDay(day, anchorDate, recurrence)) {
+                        continue;
+                    }
+                    ZonedDateTime candidate = day.atTime(timeOfDay).atZone(zone);
+                    if (!candidate.isBefore(from)) {
+                        return candidate;
+                    }
+                }
+                return null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static ZonedDateTime getNextPeriodTime(@NotNull ZonedDateTime from, @NotNull ZonedDateTime anchor, @NotNull Duration period) {
+        if (!anchor.isBefore(from)) {
+            return anchor;
+        }
+        long periodMinutes = period.toMinutes();
+        long elapsedMinutes = ChronoUnit.MINUTES.between(anchor, from);
+        long periods = (elapsedMinutes + periodMinutes - 1) / periodMinutes;
+        return anchor.plusMinutes(periods * periodMinutes);
+    }
+
+    private boolean matchesDay(@NotNull LocalDate day, @NotNull LocalDate anchorDate, int recurrence) {
+        List<Short> days = configuration.days;
+        switch (configuration.frequency) {
+            case DAILY:
+                return ChronoUnit.DAYS.between(anchorDate, day) % recurrence == 0;
+            case WEEKLY: {
+                LocalDate anchorWeek = anchorDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                LocalDate week = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                if (ChronoUnit.WEEKS.between(anchorWeek, week) % recurrence != 0) {
+                    return false;
+                }
+                if (CommonUtils.isEmpty(days)) {
+                    return day.getDayOfWeek() == anchorDate.getDayOfWeek();
+                }
+                return days.contains((short) day.getDayOfWeek().getValue());
+            }
+            case MONTHLY: {
+                if (!CommonUtils.isEmpty(configuration.months) && !configuration.months.contains((short) day.getMonthValue())) {
+                    return false;
+                }
+                if (CommonUtils.isEmpty(days)) {
+                    return day.getDayOfMonth() == Math.min(anchorDate.getDayOfMonth(), day.lengthOfMonth());
+                }
+                return days.contains((short) DBTTaskScheduleConfiguration.ALL_DAYS) ||
+                    days.contains((short) day.getDayOfMonth()) ||
+                    (days.contains((short) DBTTaskScheduleConfiguration.DAYS_LAST) && day.getDayOfMonth() == day.lengthOfMonth());
+            }
+            default:
+                return false;
+        }
+    }
+
+    @Nullable
+    private ZonedDateTime getNextCronTime(@NotNull ZonedDateTime from) {
+        CronExpression cron = this.cron;
+        assert cron != null;
+        LocalDate day = from.toLocalDate();
+        for (int i = 0; i < MAX_SEARCH_DAYS; i++, day = day.plusDays(1)) {
+            if (!cron.matchesDay(day)) {
+                continue;
+            }
+            for (int hour = cron.hours.nextSetBit(0); hour >= 0; hour = cron.hours.nextSetBit(hour + 1)) {
+                for (int minute = cron.minutes.nextSetBit(0); minute >= 0; minute = cron.minutes.nextSetBit(minute + 1)) {
+                    ZonedDateTime candidate = day.atTime(hour, minute).atZone(zone);
+                    if (!candidate.isBefore(from)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Standard five-field cron expression: minute hour day-of-month month day-of-week.
+     * Fields support lists, ranges, steps and month/day names. Day of week is 0..7 (both 0 and 7 are Sunday).
+     * If both day-of-month and day-of-week are restricted then day matches either of them.
+     */
+    private static class CronExpression {
+
+        private static final Map<String, String> MACROS = new HashMap<>();
+        private static final String[] MONTH_NAMES = {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+        private static final String[] DAY_NAMES = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+        static {
+            MACROS.put("@yearly", "0 0 1 1 *");
+            MACROS.put("@annually", "0 0 1 1 *");
+            MACROS.put("@monthly", "0 0 1 * *");
+            MACROS.put("@weekly", "0 0 * * 0");
+            MACROS.put("@daily", "0 0 * * *");
+            MACROS.put("@midnight", "0 0 * * *");
+            MACROS.put("@hourly", "0 * * * *");
+        }
+
+        final BitSet minutes;
+        final BitSet hours;
+        final BitSet daysOfMonth;
+        final BitSet months;
+        final BitSet daysOfWeek;
+        final boolean daysOfMonthRestricted;
+        final boolean daysOfWeekRestricted;
+
+        CronExpression(@NotNull String expression) throws DBException {
+            String text = expression.trim();
+            String macro = MACROS.get(text.toLowerCase(Locale.ENGLISH));
+            if (macro != null) {
+                text = macro;
+            }
+            String[] fields = text.split("\\s+");
+            if (fields.length != 5) {
+                throw new DBException("Bad cron expression '" + expression + "': five fields expected");
+            }
+            minutes = parseField(expression, fields[0], 0, 59, null);
+            hours = parseField(expression, fields[1], 0, 23, null);
+            daysOfMonth = parseField(expression, fields[2], 1, 31, null);
+            months = parseField(expression, fields[3], 1, 12, MONTH_NAMES);
+            daysOfWeek = parseField(expression, fields[4], 0, 7, DAY_NAMES);
+            if (daysOfWeek.get(7)) {
+                daysOfWeek.clear(7);
+                daysOfWeek.set(0);
+            }
+            daysOfMonthRestricted = !fields[2].startsWith("*");
+            daysOfWeekRestricted = !fields[4].startsWith("*");
+        }
+
+        boolean matchesDay(@NotNull LocalDate day) {
+            if (!months.get(day.getMonthValue())) {
+                return false;
+            }
+            boolean domMatch = daysOfMonth.get(day.getDayOfMonth());
+            boolean dowMatch = daysOfWeek.get(day.getDayOfWeek().getValue() % 7);
+            if (daysOfMonthRestricted && daysOfWeekRestricted) {
+                return domMatch || dowMatch;
+            }
+            return domMatch && dowMatch;
+        }
+
+        private static BitSet parseField(String expression, String field, int min, int max, @Nullable String[] names) throws DBException {
+            BitSet result = new BitSet(max + 1);
+            for (String part : field.split(",")) {
+                int step = 1;
+                int slashPos = part.indexOf('/');
+                if (slashPos != -1) {
+                    step = parseValue(expression, part.substring(slashPos + 1), 1, max, null);
+                    part = part.substring(0, slashPos);
+                }
+                int from, to;
+                if (part.equals("*")) {
+                    from = min;
+                    to = max;
+                } else {
+                    int dashPos = part.indexOf('-');
+                    if (dashPos != -1) {
+                        from = parseValue(expression, part.substring(0, dashPos), min, max, names);
+                        to = parseValue(expression, part.substring(dashPos + 1), min, max, names);
+                    } else {
+                        from = parseValue(expression, part, min, max, names);
+                        to = slashPos == -1 ? from : max;
+                    }
+                    if (from > to) {
+                        throw new DBException("Bad cron expression '" + expression + "': bad range '" + part + "'");
+                    }
+                }
+                for (int i = from; i <= to; i += step) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+
+        private static int parseValue(String expression, String value, int min, int max, @Nullable String[] names) throws DBException {
+            if (names != null) {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equalsIgnoreCase(value)) {
+                        // Month names start from 1, day names from 0
+                        return i + min;
+                    }
+                }
+            }
+            int result;
+            try {
+                result = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new DBException("Bad cron expression '" + expression + "': bad value '" + value + "'");
+            }
+            if (result < min || result > max) {
+                throw new DBException("Bad cron expression '" + expression + "': value " + result + " is out of range " + min + ".." + max);
+            }
+            return result;
+        }
+    }
+
+}
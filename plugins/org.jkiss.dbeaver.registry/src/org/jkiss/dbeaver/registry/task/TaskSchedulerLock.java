@@ -0,0 +1,84 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exclusive lock on the workspace file.
+ * Only application instance which holds the lock fires scheduled tasks.
+ * Lock is released by the OS if the application crashes.
+ */
+public class TaskSchedulerLock {
+
+    private static final Log log = Log.getLog(TaskSchedulerLock.class);
+
+    private final File lockFile;
+    private FileChannel channel;
+    private FileLock lock;
+
+    public TaskSchedulerLock(@NotNull File lockFile) {
+        this.lockFile = lockFile;
+    }
+
+    /**
+     * Acquires the lock if it is not held by another instance.
+     * Returns true if the lock is held by this instance.
+     */
+    public synchronized boolean tryAcquire() {
+        if (lock != null && lock.isValid()) {
+            return true;
+        }
+        try {
+            if (channel == null || !channel.isOpen()) {
+                channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Locked by another scheduler in the same process
+            lock = null;
+        } catch (IOException e) {
+            log.debug("Can't lock " + lockFile.getAbsolutePath() + ": " + e.getMessage());
+            lock = null;
+        }
+        return lock != null;
+    }
+
+    public synchronized void release() {
+        try {
+            if (lock != null) {
+                lock.release();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.debug("Error releasing " + lockFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+        lock = null;
+        channel = null;
+    }
+
+}
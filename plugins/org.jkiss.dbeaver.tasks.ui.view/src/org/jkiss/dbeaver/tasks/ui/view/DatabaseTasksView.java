@@ -72,11 +72,16 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
     public static final String GROUP_TASK_CMD_ID = "org.jkiss.dbeaver.task.group";
 
     private static final ArrayList<Object> EMPTY_TASK_RUN_LIST = new ArrayList<>();
+    private static final int TASK_RUN_PAGE_SIZE = 100;
 
     private DatabaseTasksTree tasksTree;
 
     private TreeViewer taskRunViewer;
     private ViewerColumnController taskRunColumnController;
+    // Runs are read by pages, newest first
+    private DBTTask taskRunsTask;
+    private int taskRunsMaxCount = TASK_RUN_PAGE_SIZE;
+    private boolean hasMoreTaskRuns;
 
     public DatabaseTasksView() {
     }
@@ -221,6 +226,9 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
                 manager.add(new ClearRunLogAction());
                 manager.add(new OpenRunLogFolderAction());
             }
+            if (task != null && hasMoreTaskRuns) {
+                manager.add(new ShowMoreRunsAction());
+            }
             manager.add(new Separator(IWorkbenchActionConstants.MB_ADDITIONS));
             manager.add(new Separator());
             taskRunColumnController.fillConfigMenu(manager);
@@ -314,15 +322,21 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
 
     private void loadTaskRuns() {
         DBTTask selectedTask = tasksTree.getSelectedTask();
+        if (selectedTask != taskRunsTask) {
+            taskRunsTask = selectedTask;
+            taskRunsMaxCount = TASK_RUN_PAGE_SIZE;
+        }
+        hasMoreTaskRuns = false;
         if (selectedTask == null) {
             taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
         } else {
-            DBTTaskRun[] runs = selectedTask.getRunStatistics();
+            // Read one extra run to find out whether there are more runs
+            DBTTaskRun[] runs = selectedTask.getRunStatistics(0, taskRunsMaxCount + 1);
             if (ArrayUtils.isEmpty(runs)) {
                 taskRunViewer.setInput(EMPTY_TASK_RUN_LIST);
             } else {
-                Arrays.sort(runs, Comparator.comparing(DBTTaskRun::getStartTime).reversed());
-                taskRunViewer.setInput(Arrays.asList(runs));
+                hasMoreTaskRuns = runs.length > taskRunsMaxCount;
+                taskRunViewer.setInput(Arrays.asList(hasMoreTaskRuns ? Arrays.copyOf(runs, taskRunsMaxCount) : runs));
             }
         }
     }
@@ -487,6 +501,19 @@ public class DatabaseTasksView extends ViewPart implements DBTTaskListener {
         }
     }
 
+    private class ShowMoreRunsAction extends Action {
+
+        ShowMoreRunsAction() {
+            super(TaskUIViewMessages.db_tasks_view_run_log_show_more);
+        }
+
+        @Override
+        public void run() {
+            taskRunsMaxCount += TASK_RUN_PAGE_SIZE;
+            loadTaskRuns();
+        }
+    }
+
     private class OpenRunLogFolderAction extends Action {
 
         OpenRunLogFolderAction() {
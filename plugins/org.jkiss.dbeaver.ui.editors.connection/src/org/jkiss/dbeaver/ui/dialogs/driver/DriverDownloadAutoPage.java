@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.connection.DBPDriverDependencies;
 import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
+import org.jkiss.dbeaver.registry.driver.DriverDependencies;
 import org.jkiss.dbeaver.registry.driver.DriverDescriptor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.RunnableContextDelegate;
@@ -44,7 +45,9 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 class DriverDownloadAutoPage extends DriverDownloadPage {
 
@@ -156,10 +159,20 @@ class DriverDownloadAutoPage extends DriverDownloadPage {
             return;
         }
 
+        // Download files from secure repositories in parallel. Other files are processed one by one below.
+        Set<DBPDriverLibrary> downloadedLibraries = Collections.emptySet();
+        if (getWizard().getDependencies() instanceof DriverDependencies) {
+            downloadedLibraries = ((DriverDependencies) getWizard().getDependencies()).downloadLibraryFiles(monitor, getWizard().isForceDownload());
+        }
+
         boolean processUnsecure = false;
         List<DBPDriverDependencies.DependencyNode> nodes = getWizard().getDependencies().getLibraryList();
         for (int i = 0, filesSize = nodes.size(); i < filesSize; ) {
             final DBPDriverLibrary lib = nodes.get(i).library;
+            if (downloadedLibraries.contains(lib)) {
+                i++;
+                continue;
+            }
             if (!processUnsecure && !lib.isSecureDownload(monitor)) {
                 boolean process = new UIConfirmation() {
                     @Override
@@ -134,6 +134,11 @@ public interface IResultSetController extends IDataController, DBPContextProvide
      */
     void readNextSegment();
 
+    /**
+     * Reads next segment of data in background. Doesn't block viewer while data is being read.
+     */
+    void prefetchNextSegment();
+
     /**
      * Reads all rows from data container.
      * Note: in case of huge resultset this function may eventually throw {@link java.lang.OutOfMemoryError}
@@ -45,6 +45,7 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
     private Throwable error;
     private DBCStatistics statistics;
     private boolean refresh;
+    private boolean background;
 
     ResultSetJobDataRead(DBSDataContainer dataContainer, DBDDataFilter dataFilter, ResultSetViewer controller, DBCExecutionContext executionContext, Composite progressControl) {
         super(ResultSetMessages.controls_rs_pump_job_name + " [" + dataContainer + "]", dataContainer, controller, executionContext);
@@ -66,6 +67,17 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
         this.refresh = refresh;
     }
 
+    boolean isBackground() {
+        return background;
+    }
+
+    /**
+     * Background read doesn't show progress over the viewer
+     */
+    void setBackground(boolean background) {
+        this.background = background;
+    }
+
     public Throwable getError() {
         return error;
     }
@@ -85,7 +97,9 @@ abstract class ResultSetJobDataRead extends ResultSetJobAbstract implements ILoa
         final ProgressLoaderVisualizer<Object> visualizer = new ProgressLoaderVisualizer<>(this, progressControl);
         DBRProgressMonitor progressMonitor = visualizer.overwriteMonitor(monitor);
 
-        new PumpVisualizer(visualizer).schedule(PROGRESS_VISUALIZE_PERIOD * 2);
+        if (!background) {
+            new PumpVisualizer(visualizer).schedule(PROGRESS_VISUALIZE_PERIOD * 2);
+        }
 
         long fetchFlags = DBSDataContainer.FLAG_READ_PSEUDO;
         if (offset > 0) {
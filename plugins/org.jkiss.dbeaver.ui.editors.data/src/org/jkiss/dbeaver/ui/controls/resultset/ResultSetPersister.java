@@ -52,6 +52,9 @@ class ResultSetPersister {
 
     private static final Log log = Log.getLog(ResultSetPersister.class);
 
+    // Maximum number of rows in a single batch
+    private static final int MAX_BATCH_SIZE = 1000;
+
     /**
      * Data update listener
      */
@@ -485,31 +488,24 @@ class ResultSetPersister {
     // Changes affects only rows which statements executed successfully
     private boolean reflectChanges() {
         boolean rowsChanged = false;
-        for (ResultSetRow row : changedRows) {
-            for (DataStatementInfo stat : updateStatements) {
-                if (stat.executed && stat.row == row) {
-                    reflectKeysUpdate(stat);
-                    row.changes = null;
-                    break;
-                }
+        // Each row is processed by its first executed statement (there are many delete statements per row in cascade delete)
+        Set<ResultSetRow> processedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DataStatementInfo stat : updateStatements) {
+            if (stat.executed && processedRows.add(stat.row)) {
+                reflectKeysUpdate(stat);
+                stat.row.changes = null;
             }
         }
-        for (ResultSetRow row : addedRows) {
-            for (DataStatementInfo stat : insertStatements) {
-                if (stat.executed && stat.row == row) {
-                    reflectKeysUpdate(stat);
-                    row.setState(ResultSetRow.STATE_NORMAL);
-                    break;
-                }
+        for (DataStatementInfo stat : insertStatements) {
+            if (stat.executed && processedRows.add(stat.row)) {
+                reflectKeysUpdate(stat);
+                stat.row.setState(ResultSetRow.STATE_NORMAL);
             }
         }
-        for (ResultSetRow row : deletedRows) {
-            for (DataStatementInfo stat : deleteStatements) {
-                if (stat.executed && stat.row == row) {
-                    model.cleanupRow(row);
-                    rowsChanged = true;
-                    break;
-                }
+        for (DataStatementInfo stat : deleteStatements) {
+            if (stat.executed && processedRows.add(stat.row)) {
+                model.cleanupRow(stat.row);
+                rowsChanged = true;
             }
         }
         model.refreshChangeCount();
@@ -527,6 +523,54 @@ class ResultSetPersister {
         }
     }
 
+    @NotNull
+    private static Object[] getStatementValues(@NotNull DataStatementInfo statement) {
+        if (statement.type != DBSManipulationType.UPDATE) {
+            return DBDAttributeValue.getValues(statement.keyAttributes);
+        }
+        // Make single array of values
+        Object[] values = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
+        for (int i = 0; i < statement.updateAttributes.size(); i++) {
+            values[i] = statement.updateAttributes.get(i).getValue();
+        }
+        for (int i = 0; i < statement.keyAttributes.size(); i++) {
+            values[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
+        }
+        return values;
+    }
+
+    /**
+     * Statements of the same shape have the same target and attributes, so they can be executed in a single batch.
+     * Inserts which read generated keys are always executed separately.
+     */
+    private static boolean isSameStatementShape(@NotNull DataStatementInfo stat1, @NotNull DataStatementInfo stat2) {
+        if (stat1.type != stat2.type || stat1.entity != stat2.entity) {
+            return false;
+        }
+        if (stat1.type == DBSManipulationType.INSERT && (stat1.needKeys() || stat2.needKeys())) {
+            return false;
+        }
+        // NULL keys are compared with IS NULL, so they change the statement text
+        return isSameAttributes(stat1.keyAttributes, stat2.keyAttributes, true) &&
+            isSameAttributes(stat1.updateAttributes, stat2.updateAttributes, false);
+    }
+
+    private static boolean isSameAttributes(@NotNull List<DBDAttributeValue> values1, @NotNull List<DBDAttributeValue> values2, boolean compareNulls) {
+        if (values1.size() != values2.size()) {
+            return false;
+        }
+        for (int i = 0; i < values1.size(); i++) {
+            DBDAttributeValue value1 = values1.get(i), value2 = values2.get(i);
+            if (value1.getAttribute() != value2.getAttribute()) {
+                return false;
+            }
+            if (compareNulls && DBUtils.isNullValue(value1.getValue()) != DBUtils.isNullValue(value2.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @NotNull
     private DBSDataManipulator getDataManipulator(DBSEntity entity) throws DBCException {
         if (entity instanceof DBSDataManipulator) {
@@ -732,95 +776,19 @@ class ResultSetPersister {
                 }
             }
             try {
-                for (DataStatementInfo statement : ResultSetPersister.this.deleteStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.deleteData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                deleteStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                // In auto-commit mode (or without transactions) each row is executed separately,
+                // so the rows saved before error are reflected in viewer.
+                // Otherwise all changes are rolled back on error and similar statements can be executed in batches.
+                boolean useBatches = generateScript || (txnManager != null && !this.autocommit);
+                Throwable error = executeStatementBatches(session, ResultSetPersister.this.deleteStatements, useBatches, options, deleteStats);
+                if (error == null) {
+                    error = executeStatementBatches(session, ResultSetPersister.this.insertStatements, useBatches, options, insertStats);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.insertStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.insertData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            statement.needKeys() ? new KeyDataReceiver(statement) : null,
-                            new ExecutionSource(dataContainer))) {
-                            batch.add(DBDAttributeValue.getValues(statement.keyAttributes));
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                insertStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                if (error == null) {
+                    error = executeStatementBatches(session, ResultSetPersister.this.updateStatements, useBatches, options, updateStats);
                 }
-                for (DataStatementInfo statement : ResultSetPersister.this.updateStatements) {
-                    if (monitor.isCanceled()) break;
-                    try {
-                        DBSDataManipulator dataContainer = getDataManipulator(statement.entity);
-                        try (DBSDataManipulator.ExecuteBatch batch = dataContainer.updateData(
-                            session,
-                            DBDAttributeValue.getAttributes(statement.updateAttributes),
-                            DBDAttributeValue.getAttributes(statement.keyAttributes),
-                            null,
-                            new ExecutionSource(dataContainer))) {
-                            // Make single array of values
-                            Object[] attributes = new Object[statement.updateAttributes.size() + statement.keyAttributes.size()];
-                            for (int i = 0; i < statement.updateAttributes.size(); i++) {
-                                attributes[i] = statement.updateAttributes.get(i).getValue();
-                            }
-                            for (int i = 0; i < statement.keyAttributes.size(); i++) {
-                                attributes[statement.updateAttributes.size() + i] = statement.keyAttributes.get(i).getValue();
-                            }
-                            // Execute
-                            batch.add(attributes);
-                            if (generateScript) {
-                                batch.generatePersistActions(session, script, options);
-                            } else {
-                                DBCStatistics bs = batch.execute(session, options);
-                                // Notify rsv container about statement execute
-                                this.notifyContainer(bs);
-
-                                updateStats.accumulate(bs);
-                            }
-                        }
-                        processStatementChanges(statement);
-                    } catch (DBException e) {
-                        processStatementError(statement, session);
-                        return e;
-                    }
-                    monitor.worked(1);
+                if (error != null) {
+                    return error;
                 }
 
                 return null;
@@ -836,12 +804,115 @@ class ResultSetPersister {
             }
         }
 
+        /**
+         * Executes statements. Subsequent statements of the same shape are grouped in a single batch.
+         * Returns error of the first failed batch.
+         */
+        @Nullable
+        private Throwable executeStatementBatches(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> statements,
+            boolean useBatches,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics)
+        {
+            DBRProgressMonitor monitor = session.getProgressMonitor();
+            int batchStart = 0;
+            while (batchStart < statements.size()) {
+                if (monitor.isCanceled()) break;
+                int batchEnd = batchStart + 1;
+                if (useBatches) {
+                    while (batchEnd < statements.size() &&
+                        batchEnd - batchStart < MAX_BATCH_SIZE &&
+                        isSameStatementShape(statements.get(batchStart), statements.get(batchEnd)))
+                    {
+                        batchEnd++;
+                    }
+                }
+                List<DataStatementInfo> batchStatements = statements.subList(batchStart, batchEnd);
+                try {
+                    executeBatch(session, batchStatements, options, statistics);
+                    for (DataStatementInfo statement : batchStatements) {
+                        processStatementChanges(statement);
+                    }
+                } catch (DBException e) {
+                    processStatementError(batchStatements, session);
+                    if (batchStatements.size() == 1) {
+                        return e;
+                    }
+                    DataStatementInfo firstStatement = batchStatements.get(0);
+                    return new DBException(
+                        "Error saving " + batchStatements.size() + " row(s) of '" + DBUtils.getObjectFullName(firstStatement.entity, DBPEvaluationContext.UI) + "'" +
+                            " (" + firstStatement.type.getName() + " rows " + (firstStatement.row.getVisualNumber() + 1) +
+                            "-" + (batchStatements.get(batchStatements.size() - 1).row.getVisualNumber() + 1) + "): " + e.getMessage(), e);
+                }
+                monitor.worked(batchStatements.size());
+                batchStart = batchEnd;
+            }
+            return null;
+        }
+
+        private void executeBatch(
+            @NotNull DBCSession session,
+            @NotNull List<DataStatementInfo> statements,
+            @NotNull Map<String, Object> options,
+            @NotNull DBCStatistics statistics) throws DBException
+        {
+            DataStatementInfo firstStatement = statements.get(0);
+            DBSDataManipulator dataContainer = getDataManipulator(firstStatement.entity);
+            try (DBSDataManipulator.ExecuteBatch batch = createBatch(session, dataContainer, firstStatement)) {
+                for (DataStatementInfo statement : statements) {
+                    batch.add(getStatementValues(statement));
+                }
+                if (generateScript) {
+                    batch.generatePersistActions(session, script, options);
+                } else {
+                    DBCStatistics bs = batch.execute(session, options);
+                    // Notify rsv container about statement execute
+                    this.notifyContainer(bs);
+
+                    statistics.accumulate(bs);
+                }
+            }
+        }
+
+        @NotNull
+        private DBSDataManipulator.ExecuteBatch createBatch(
+            @NotNull DBCSession session,
+            @NotNull DBSDataManipulator dataContainer,
+            @NotNull DataStatementInfo statement) throws DBCException
+        {
+            if (statement.type == DBSManipulationType.DELETE) {
+                return dataContainer.deleteData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    new ExecutionSource(dataContainer));
+            } else if (statement.type == DBSManipulationType.INSERT) {
+                return dataContainer.insertData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    statement.needKeys() ? new KeyDataReceiver(statement) : null,
+                    new ExecutionSource(dataContainer));
+            } else if (statement.type == DBSManipulationType.UPDATE) {
+                return dataContainer.updateData(
+                    session,
+                    DBDAttributeValue.getAttributes(statement.updateAttributes),
+                    DBDAttributeValue.getAttributes(statement.keyAttributes),
+                    null,
+                    new ExecutionSource(dataContainer));
+            } else {
+                throw new DBCException("Unsupported statement type: " + statement.type);
+            }
+        }
+
         private void processStatementChanges(DataStatementInfo statement) {
             statement.executed = true;
         }
 
-        private void processStatementError(DataStatementInfo statement, DBCSession session) {
-            statement.executed = false;
+        private void processStatementError(List<DataStatementInfo> statements, DBCSession session) {
+            for (DataStatementInfo statement : statements) {
+                statement.executed = false;
+            }
             if (!generateScript) {
                 DBCTransactionManager txnManager = DBUtils.getTransactionManager(getExecutionContext());
                 if (txnManager != null) {
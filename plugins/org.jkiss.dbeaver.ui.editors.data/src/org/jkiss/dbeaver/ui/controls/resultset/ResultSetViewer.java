@@ -3646,6 +3646,22 @@ public class ResultSetViewer extends Viewer
     }
 
     public void readNextSegment()
+    {
+        readNextSegment(false);
+    }
+
+    @Override
+    public void prefetchNextSegment()
+    {
+        DBPDataSource dataSource = getDataSource();
+        if (dataSource != null && dataSource.getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_REREAD_ON_SCROLLING)) {
+            // All rows are replaced after reread so it can't be done silently
+            return;
+        }
+        readNextSegment(true);
+    }
+
+    private void readNextSegment(boolean background)
     {
         if (!dataReceiver.isHasMoreData()) {
             return;
@@ -3664,7 +3680,8 @@ public class ResultSetViewer extends Viewer
                 false,
                 true,
                 true,
-                null);
+                null,
+                background);
         }
     }
 
@@ -3793,6 +3810,21 @@ public class ResultSetViewer extends Viewer
         final boolean scroll, // Scroll operation
         final boolean refresh, // Refresh. Nothing was changed but refresh from server or scroll happened
         @Nullable final Runnable finalizer)
+    {
+        return runDataPump(dataContainer, dataFilter, offset, maxRows, focusRow, saveHistory, scroll, refresh, finalizer, false);
+    }
+
+    private boolean runDataPump(
+        @NotNull final DBSDataContainer dataContainer,
+        @Nullable final DBDDataFilter dataFilter,
+        final int offset,
+        final int maxRows,
+        final int focusRow,
+        final boolean saveHistory,
+        final boolean scroll,
+        final boolean refresh,
+        @Nullable final Runnable finalizer,
+        final boolean background) // Read in background. Viewer remains accessible while data is being read
     {
         if (viewerPanel.isDisposed()) {
             return false;
@@ -3830,6 +3862,7 @@ public class ResultSetViewer extends Viewer
         dataPumpJob.setOffset(offset);
         dataPumpJob.setMaxRows(maxRows);
         dataPumpJob.setRefresh(refresh);
+        dataPumpJob.setBackground(background);
 
         queueDataPump(dataPumpJob);
 
@@ -4705,6 +4738,7 @@ public class ResultSetViewer extends Viewer
             // Set explicit target container
             dataReceiver.setTargetDataContainer(dataContainer);
 
+            // Viewer is read-only during background read too, only progress isn't shown
             model.setUpdateInProgress(this);
             model.setStatistics(null);
             model.releaseAllData();
@@ -4747,7 +4781,10 @@ public class ResultSetViewer extends Viewer
                             sqlText = getActiveQueryText();
                         }
 
-                        if (getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG)) {
+                        if (isBackground()) {
+                            // Do not replace fetched rows with error for prefetch failure
+                            log.error("Error reading next segment in background", error);
+                        } else if (getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_SHOW_ERRORS_IN_DIALOG)) {
                             DBWorkbench.getPlatformUI().showError("Error executing query", "Query execution failed", error);
                         } else {
                             if (CommonUtils.isEmpty(errorMessage)) {
@@ -4761,7 +4798,7 @@ public class ResultSetViewer extends Viewer
                             log.error(errorMessage, error);
                         }
                     } else {
-                        if (!metadataChanged) {
+                        if (!metadataChanged && !isBackground()) {
                             // Seems to be refresh
                             // Restore original position
                             restorePresentationState(presentationState);
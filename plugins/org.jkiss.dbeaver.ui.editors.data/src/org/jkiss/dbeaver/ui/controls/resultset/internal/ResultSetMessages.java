@@ -267,6 +267,8 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_binary_strings_max_length;
     public static String pref_page_database_resultsets_label_auto_fetch_segment;
     public static String pref_page_database_resultsets_label_auto_fetch_segment_tip;
+    public static String pref_page_database_resultsets_label_prefetch_distance;
+    public static String pref_page_database_resultsets_label_prefetch_distance_tip;
     public static String pref_page_database_resultsets_label_reread_on_scrolling;
     public static String pref_page_database_resultsets_label_reread_on_scrolling_tip;
     public static String pref_page_database_resultsets_label_use_sql;
@@ -277,6 +279,7 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_order_mode_always_client;
     public static String pref_page_database_resultsets_label_order_mode_always_server;
     public static String pref_page_database_resultsets_label_fetch_size;
+    public static String pref_page_database_resultsets_label_adaptive_fetch_size;
     public static String pref_page_database_resultsets_label_read_metadata;
     public static String pref_page_database_resultsets_label_read_references;
     public static String pref_page_database_resultsets_group_string;
@@ -286,6 +289,7 @@ public class ResultSetMessages extends NLS {
     public static String pref_page_database_resultsets_label_read_metadata_tip;
     public static String pref_page_database_resultsets_label_read_references_tip;
     public static String pref_page_database_resultsets_label_fetch_size_tip;
+    public static String pref_page_database_resultsets_label_adaptive_fetch_size_tip;
 
     public static String pref_page_content_cache_clob;
     public static String pref_page_content_cache_blob;
@@ -0,0 +1,255 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.ui.controls.resultset.plaintext;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.TextChangeListener;
+import org.eclipse.swt.custom.TextChangedEvent;
+import org.jkiss.code.NotNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Virtual content of plain text presentation.
+ * Only header and footer lines are kept in memory. Row lines are rendered on demand, when StyledText
+ * paints or reads them. All grid lines have the same length, so line offsets are calculated, not scanned.
+ * Regular text (record mode) is kept as is.
+ */
+class PlainTextGridContent implements StyledTextContent {
+
+    private static final String LINE_DELIMITER = "\n";
+    // Rendered rows. Enough for several screens of text.
+    private static final int MAX_CACHED_LINES = 1000;
+
+    interface RowRenderer {
+        void renderRow(int rowIndex, @NotNull StringBuilder line);
+    }
+
+    private final List<TextChangeListener> listeners = new ArrayList<>();
+    private final Map<Integer, String> lineCache = new LinkedHashMap<Integer, String>(MAX_CACHED_LINES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > MAX_CACHED_LINES;
+        }
+    };
+    private final StringBuilder lineBuffer = new StringBuilder();
+
+    private boolean gridMode;
+    // Grid
+    private String[] headerLines = new String[0];
+    private String[] footerLines = new String[0];
+    private int rowCount;
+    private int lineWidth;
+    private RowRenderer rowRenderer;
+    // Regular text
+    private String text = "";
+    private int[] lineOffsets = {0};
+
+    /**
+     * Sets grid content. Header and footer lines must have length {@code lineWidth}.
+     */
+    void setGrid(@NotNull List<String> headerLines, @NotNull List<String> footerLines, int lineWidth, int rowCount, @NotNull RowRenderer rowRenderer) {
+        this.gridMode = true;
+        this.headerLines = headerLines.toArray(new String[0]);
+        this.footerLines = footerLines.toArray(new String[0]);
+        this.lineWidth = lineWidth;
+        this.rowCount = rowCount;
+        this.rowRenderer = rowRenderer;
+        this.text = "";
+        this.lineOffsets = new int[] {0};
+        this.lineCache.clear();
+        fireTextSet();
+    }
+
+    @Override
+    public void setText(String text) {
+        this.gridMode = false;
+        this.headerLines = new String[0];
+        this.footerLines = new String[0];
+        this.rowCount = 0;
+        this.rowRenderer = null;
+        this.lineCache.clear();
+        this.text = text;
+        List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                offsets.add(i + 1);
+            } else if (c == '\n') {
+                offsets.add(i + 1);
+            }
+        }
+        this.lineOffsets = new int[offsets.size()];
+        for (int i = 0; i < lineOffsets.length; i++) {
+            lineOffsets[i] = offsets.get(i);
+        }
+        fireTextSet();
+    }
+
+    @Override
+    public void replaceTextRange(int start, int replaceLength, String text) {
+        // Presentation is read-only. Keep content consistent if somebody modifies it anyway.
+        String newText = getTextRange(0, start) + text + getTextRange(start + replaceLength, getCharCount() - start - replaceLength);
+        setText(newText);
+    }
+
+    @Override
+    public int getCharCount() {
+        if (!gridMode) {
+            return text.length();
+        }
+        int lineCount = getLineCount();
+        return lineCount == 0 ? 0 : lineCount * (lineWidth + LINE_DELIMITER.length()) - LINE_DELIMITER.length();
+    }
+
+    @Override
+    public int getLineCount() {
+        if (!gridMode) {
+            return lineOffsets.length;
+        }
+        return headerLines.length + rowCount + footerLines.length;
+    }
+
+    @Override
+    public String getLineDelimiter() {
+        return LINE_DELIMITER;
+    }
+
+    @Override
+    public String getLine(int lineIndex) {
+        checkLineIndex(lineIndex);
+        if (!gridMode) {
+            int end = lineIndex + 1 < lineOffsets.length ? lineOffsets[lineIndex + 1] : text.length();
+            while (end > lineOffsets[lineIndex] && (text.charAt(end - 1) == '\n' || text.charAt(end - 1) == '\r')) {
+                end--;
+            }
+            return text.substring(lineOffsets[lineIndex], end);
+        }
+        if (lineIndex < headerLines.length) {
+            return headerLines[lineIndex];
+        }
+        int rowIndex = lineIndex - headerLines.length;
+        if (rowIndex >= rowCount) {
+            return footerLines[rowIndex - rowCount];
+        }
+        String line = lineCache.get(rowIndex);
+        if (line == null) {
+            lineBuffer.setLength(0);
+            rowRenderer.renderRow(rowIndex, lineBuffer);
+            // Offsets rely on the fixed line width
+            if (lineBuffer.length() > lineWidth) {
+                lineBuffer.setLength(lineWidth);
+            }
+            while (lineBuffer.length() < lineWidth) {
+                lineBuffer.append(' ');
+            }
+            line = lineBuffer.toString();
+            lineCache.put(rowIndex, line);
+        }
+        return line;
+    }
+
+    @Override
+    public int getLineAtOffset(int offset) {
+        if (offset < 0 || offset > getCharCount()) {
+            SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+        }
+        if (!gridMode) {
+            int low = 0, high = lineOffsets.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (lineOffsets[mid] <= offset) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+        int lineCount = getLineCount();
+        if (lineCount == 0) {
+            return 0;
+        }
+        return Math.min(offset / (lineWidth + LINE_DELIMITER.length()), lineCount - 1);
+    }
+
+    @Override
+    public int getOffsetAtLine(int lineIndex) {
+        if (lineIndex == 0) {
+            return 0;
+        }
+        checkLineIndex(lineIndex);
+        if (!gridMode) {
+            return lineOffsets[lineIndex];
+        }
+        return lineIndex * (lineWidth + LINE_DELIMITER.length());
+    }
+
+    @Override
+    public String getTextRange(int start, int length) {
+        if (start < 0 || length < 0 || start + length > getCharCount()) {
+            SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+        }
+        if (!gridMode) {
+            return text.substring(start, start + length);
+        }
+        StringBuilder result = new StringBuilder(length);
+        int end = start + length;
+        for (int lineIndex = getLineAtOffset(start); result.length() < length; lineIndex++) {
+            int lineOffset = getOffsetAtLine(lineIndex);
+            String line = getLine(lineIndex) + (lineIndex < getLineCount() - 1 ? LINE_DELIMITER : "");
+            result.append(line, Math.max(start - lineOffset, 0), Math.min(end - lineOffset, line.length()));
+        }
+        return result.toString();
+    }
+
+    @Override
+    public void addTextChangeListener(TextChangeListener listener) {
+        if (listener == null) {
+            SWT.error(SWT.ERROR_NULL_ARGUMENT);
+        }
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeTextChangeListener(TextChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void checkLineIndex(int lineIndex) {
+        if (lineIndex < 0 || lineIndex >= getLineCount()) {
+            SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+        }
+    }
+
+    private void fireTextSet() {
+        TextChangedEvent event = new TextChangedEvent(this);
+        for (TextChangeListener listener : listeners.toArray(new TextChangeListener[0])) {
+            listener.textSet(event);
+        }
+    }
+
+}
@@ -58,6 +58,7 @@ import org.jkiss.dbeaver.ui.controls.resultset.*;
 import org.jkiss.dbeaver.ui.editors.TextEditorUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -70,8 +71,11 @@ import java.util.Map;
 public class PlainTextPresentation extends AbstractPresentation implements IAdaptable {
 
     public static final int FIRST_ROW_LINE = 2;
+    // Column widths are calculated by this number of rows. Longer values of following rows are truncated.
+    private static final int WIDTH_SAMPLE_SIZE = 1000;
 
     private StyledText text;
+    private PlainTextGridContent textContent;
     private DBDAttributeBinding curAttribute;
     private StyledTextFindReplaceTarget findReplaceTarget;
     public boolean activated;
@@ -92,6 +96,8 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
 
         UIUtils.createHorizontalLine(parent);
         text = new StyledText(parent, SWT.READ_ONLY | SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+        textContent = new PlainTextGridContent();
+        text.setContent(textContent);
         text.setBlockSelection(true);
         text.setCursor(parent.getDisplay().getSystemCursor(SWT.CURSOR_IBEAM));
         text.setMargins(4, 4, 4, 4);
@@ -234,7 +240,9 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
 
     @Override
     public void refreshData(boolean refreshMetadata, boolean append, boolean keepState) {
-        colWidths = null;
+        if (!append) {
+            colWidths = null;
+        }
 
         DBPPreferenceStore prefs = getController().getPreferenceStore();
         rightJustifyNumbers = prefs.getBoolean(ResultSetPreferences.RESULT_SET_RIGHT_JUSTIFY_NUMBERS);
@@ -259,113 +267,135 @@ public class PlainTextPresentation extends AbstractPresentation implements IAdap
 
         DBDDisplayFormat displayFormat = DBDDisplayFormat.safeValueOf(prefs.getString(ResultSetPreferences.RESULT_TEXT_VALUE_FORMAT));
 
-        StringBuilder grid = new StringBuilder(512);
         ResultSetModel model = controller.getModel();
         List<DBDAttributeBinding> attrs = model.getVisibleAttributes();
 
         List<ResultSetRow> allRows = model.getAllRows();
         int extraSpacesNum = extraSpaces ? 2 : 0;
-        if (colWidths == null) {
+        int firstSampleRow = totalRows;
+        if (colWidths == null || colWidths.length != attrs.size() || firstSampleRow > allRows.size()) {
             // Calculate column widths
             colWidths = new int[attrs.size()];
-
             for (int i = 0; i < attrs.size(); i++) {
                 DBDAttributeBinding attr = attrs.get(i);
                 colWidths[i] = getAttributeName(attr).length() + extraSpacesNum;
                 if (showNulls && !attr.isRequired()) {
                     colWidths[i] = Math.max(colWidths[i], DBConstants.NULL_VALUE_LABEL.length());
                 }
-                for (ResultSetRow row : allRows) {
-                    String displayString = getCellString(model, attr, row, displayFormat);
-                    colWidths[i] = Math.max(colWidths[i], getStringWidth(displayString) + extraSpacesNum);
-                }
             }
-            for (int i = 0; i < colWidths.length; i++) {
-                if (colWidths[i] > maxColumnSize) {
-                    colWidths[i] = maxColumnSize;
-                }
+            firstSampleRow = 0;
+        }
+        // Only a sample of rows is formatted. On append widths are extended by the new rows.
+        int lastSampleRow = Math.min(allRows.size(), firstSampleRow + WIDTH_SAMPLE_SIZE);
+        for (int i = 0; i < attrs.size(); i++) {
+            DBDAttributeBinding attr = attrs.get(i);
+            for (int k = firstSampleRow; k < lastSampleRow; k++) {
+                String displayString = getCellString(model, attr, allRows.get(k), displayFormat);
+                colWidths[i] = Math.max(colWidths[i], getStringWidth(displayString) + extraSpacesNum);
+            }
+        }
+        for (int i = 0; i < colWidths.length; i++) {
+            if (colWidths[i] > maxColumnSize) {
+                colWidths[i] = maxColumnSize;
             }
         }
+        final int[] widths = colWidths;
 
+        StringBuilder grid = new StringBuilder(512);
+        List<String> headerLines = new ArrayList<>();
         if (delimTop) {
             // Print divider before header
-            printSeparator(delimLeading, delimTrailing, colWidths, grid);
+            printSeparator(delimLeading, delimTrailing, widths, grid);
+            headerLines.add(takeLine(grid));
         }
         // Print header
         if (delimLeading) grid.append("|");
         for (int i = 0; i < attrs.size(); i++) {
             if (i > 0) grid.append("|");
-            if (extraSpaces) grid.append(" ");
             DBDAttributeBinding attr = attrs.get(i);
-            String attrName = getAttributeName(attr);
-            grid.append(attrName);
-            for (int k = colWidths[i] - attrName.length() - extraSpacesNum; k > 0; k--) {
-                grid.append(" ");
-            }
-            if (extraSpaces) grid.append(" ");
+            printCell(grid, getAttributeName(attr), widths[i], extraSpaces, false);
         }
         if (delimTrailing) grid.append("|");
-        grid.append("\n");
+        headerLines.add(takeLine(grid));
 
         // Print divider
-        printSeparator(delimLeading, delimTrailing, colWidths, grid);
-
-        // Print rows
-        for (ResultSetRow row : allRows) {
-            if (delimLeading) grid.append("|");
-            for (int k = 0; k < attrs.size(); k++) {
-                if (k > 0) grid.append("|");
-                DBDAttributeBinding attr = attrs.get(k);
-                String displayString = getCellString(model, attr, row, displayFormat);
-                if (displayString.length() >= colWidths[k]) {
-                    displayString = CommonUtils.truncateString(displayString, colWidths[k]);
-                }
+        printSeparator(delimLeading, delimTrailing, widths, grid);
+        headerLines.add(takeLine(grid));
 
-                int stringWidth = getStringWidth(displayString);
-
-                if (extraSpaces) grid.append(" ");
-                DBPDataKind dataKind = attr.getDataKind();
-                if ((dataKind == DBPDataKind.NUMERIC && rightJustifyNumbers) ||
-                    (dataKind == DBPDataKind.DATETIME && rightJustifyDateTime))
-                {
-                    // Right justify value
-                    for (int j = colWidths[k] - stringWidth - extraSpacesNum; j > 0; j--) {
-                        grid.append(" ");
-                    }
-                    grid.append(displayString);
-                } else {
-                    grid.append(displayString);
-                    for (int j = colWidths[k] - stringWidth - extraSpacesNum; j > 0; j--) {
-                        grid.append(" ");
-                    }
-                }
-                if (extraSpaces) grid.append(" ");
-            }
-            if (delimTrailing) grid.append("|");
-            grid.append("\n");
-        }
+        List<String> footerLines = new ArrayList<>();
         if (delimBottom) {
             // Print divider after rows
-            printSeparator(delimLeading, delimTrailing, colWidths, grid);
+            printSeparator(delimLeading, delimTrailing, widths, grid);
+            footerLines.add(takeLine(grid));
         }
-        grid.setLength(grid.length() - 1); // cut last line feed
 
         final int topIndex = text.getTopIndex();
         final int horizontalIndex = text.getHorizontalIndex();
         final int caretOffset = text.getCaretOffset();
 
-        text.setText(grid.toString());
+        // Rows are printed when they become visible
+        textContent.setGrid(headerLines, footerLines, headerLines.get(0).length(), allRows.size(), (rowIndex, line) -> {
+            if (rowIndex >= allRows.size()) {
+                // Model was changed but not refreshed yet
+                return;
+            }
+            ResultSetRow row = allRows.get(rowIndex);
+            if (delimLeading) line.append("|");
+            for (int k = 0; k < attrs.size(); k++) {
+                if (k > 0) line.append("|");
+                DBDAttributeBinding attr = attrs.get(k);
+                DBPDataKind dataKind = attr.getDataKind();
+                printCell(
+                    line,
+                    getCellString(model, attr, row, displayFormat),
+                    widths[k],
+                    extraSpaces,
+                    (dataKind == DBPDataKind.NUMERIC && rightJustifyNumbers) || (dataKind == DBPDataKind.DATETIME && rightJustifyDateTime));
+            }
+            if (delimTrailing) line.append("|");
+        });
 
         if (append) {
             // Restore scroll and caret position
             text.setTopIndex(topIndex);
             text.setHorizontalIndex(horizontalIndex);
-            text.setCaretOffset(caretOffset);
+            text.setCaretOffset(Math.min(caretOffset, text.getCharCount()));
         }
 
         totalRows = allRows.size();
     }
 
+    private void printCell(StringBuilder line, String value, int colWidth, boolean extraSpaces, boolean rightJustify) {
+        int extraSpacesNum = extraSpaces ? 2 : 0;
+        int valueWidth = colWidth - extraSpacesNum;
+        // Cell must fit column width, otherwise grid lines have different length
+        if (value.length() > valueWidth) {
+            value = CommonUtils.truncateString(value, valueWidth);
+        }
+        int stringWidth = getStringWidth(value);
+
+        if (extraSpaces) line.append(" ");
+        if (rightJustify) {
+            // Right justify value
+            for (int j = valueWidth - stringWidth; j > 0; j--) {
+                line.append(" ");
+            }
+            line.append(value);
+        } else {
+            line.append(value);
+            for (int j = valueWidth - stringWidth; j > 0; j--) {
+                line.append(" ");
+            }
+        }
+        if (extraSpaces) line.append(" ");
+    }
+
+    private static String takeLine(StringBuilder grid) {
+        String line = grid.substring(0, grid.length() - 1); // cut line feed
+        grid.setLength(0);
+        return line;
+    }
+
     private int getStringWidth(String str) {
         int width = 0;
         if (str != null && str.length() > 0) {
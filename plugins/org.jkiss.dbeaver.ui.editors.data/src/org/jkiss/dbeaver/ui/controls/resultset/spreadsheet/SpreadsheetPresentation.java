@@ -148,6 +148,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
     private boolean showAttrOrdering;
     private boolean supportsAttributeFilter;
     private boolean autoFetchSegments;
+    private int prefetchDistance;
     private boolean showAttributeIcons;
     private boolean showAttributeDescription;
     private boolean calcColumnWidthByValue;
@@ -848,6 +849,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             (controller.getDataContainer().getSupportedFeatures() & DBSDataContainer.DATA_FILTER) != 0 &&
             controller.getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_SHOW_ATTR_FILTERS);
         autoFetchSegments = controller.getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_AUTO_FETCH_NEXT_SEGMENT);
+        prefetchDistance = controller.getPreferenceStore().getInt(ResultSetPreferences.RESULT_SET_PREFETCH_DISTANCE);
         calcColumnWidthByValue = getPreferenceStore().getBoolean(ResultSetPreferences.RESULT_SET_CALC_COLUMN_WIDTH_BY_VALUES);
         showBooleanAsCheckbox = preferenceStore.getBoolean(ResultSetPreferences.RESULT_SET_SHOW_BOOLEAN_AS_CHECKBOX);
         booleanViewStyle = BooleanRenderer.getDefaultStyle();
@@ -1920,13 +1922,19 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             }
 
             boolean recordMode = controller.isRecordMode();
+            int lastRowNum = controller.getModel().getRowCount() - 1;
             if (!lockData &&
                 rowNum > 0 &&
-                rowNum == controller.getModel().getRowCount() - 1 &&
+                rowNum >= lastRowNum - prefetchDistance &&
                 autoFetchSegments &&
                 (recordMode || spreadsheet.isRowVisible(rowNum)) && controller.isHasMoreData())
             {
-                controller.readNextSegment();
+                if (rowNum == lastRowNum) {
+                    controller.readNextSegment();
+                } else {
+                    // Read next segment before user scrolls to the end
+                    controller.prefetchNextSegment();
+                }
             }
 
             if (value instanceof DBDValueError) {
@@ -34,6 +34,7 @@ import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDContentStorageLocal;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRanged;
 import org.jkiss.dbeaver.model.data.storage.BytesContentStorage;
 import org.jkiss.dbeaver.model.data.storage.ExternalContentStorage;
 import org.jkiss.dbeaver.model.data.storage.StringContentStorage;
@@ -42,6 +43,7 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.LocalFileStorage;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
@@ -73,6 +75,9 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
     private File contentFile;
     private String fileCharset;
     private StringEditorInput.StringStorage stringStorage;
+    // Content which is read on demand. Content file remains empty until some editor saves content into it.
+    private DBDContentStorageRanged rangedStorage;
+    private long contentFileTimestamp;
 
     public ContentEditorInput(
         IValueController valueController,
@@ -156,8 +161,19 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
             if (stringStorage != null) {
                 return adapter.cast(stringStorage);
             } else {
+                if (rangedStorage != null) {
+                    // Text editors load and save the whole content, so it must be copied to the content file
+                    try {
+                        materializeContentFile(new VoidProgressMonitor());
+                    } catch (DBException e) {
+                        log.error("Error copying content to file", e);
+                        return null;
+                    }
+                }
                 return adapter.cast(new LocalFileStorage(contentFile, fileCharset));
             }
+        } else if (adapter == DBDContentStorageRanged.class) {
+            return adapter.cast(rangedStorage);
         }
         return null;
     }
@@ -169,6 +185,8 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
     public long getContentLength() {
         if (stringStorage != null) {
             return stringStorage.getLength();
+        } else if (rangedStorage != null) {
+            return rangedStorage.getContentLength();
         } else if (contentFile != null) {
             return contentFile.length();
         } else {
@@ -194,6 +212,7 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
             release();
             contentDetached = false;
         }
+        rangedStorage = null;
         if (storage instanceof DBDContentStorageLocal) {
             // User content's storage directly
             contentFile = ((DBDContentStorageLocal)storage).getDataFile();
@@ -213,8 +232,16 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
                     contentFile = ContentUtils.createTempContentFile(monitor, DBWorkbench.getPlatform(), valueId);
                 }
 
-                // Write value to file
-                copyContentToFile(content, monitor);
+                if (storage instanceof DBDContentStorageRanged && !content.isNull()) {
+                    // Do not copy content - editors read it on demand
+                    markReadOnly(false);
+                    new FileOutputStream(contentFile).close();
+                    contentFileTimestamp = contentFile.lastModified();
+                    rangedStorage = (DBDContentStorageRanged) storage;
+                } else {
+                    // Write value to file
+                    copyContentToFile(content, monitor);
+                }
             }
             catch (IOException e) {
                 // Delete temp file
@@ -249,6 +276,28 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
             contentDetached = true;
         }
         stringStorage = null;
+        rangedStorage = null;
+    }
+
+    /**
+     * Copies content which is read on demand into the content file.
+     * Must be called before opening editors which edit the content file directly,
+     * otherwise they start from the empty file and overwrite content on save.
+     */
+    public void materializeContentFile(DBRProgressMonitor monitor) throws DBException {
+        if (rangedStorage == null) {
+            return;
+        }
+        Object value = getValue();
+        if (!(value instanceof DBDContent)) {
+            return;
+        }
+        try {
+            copyContentToFile((DBDContent) value, monitor);
+        } catch (IOException e) {
+            throw new DBException("Error copying content to file", e);
+        }
+        rangedStorage = null;
     }
 
     @Nullable
@@ -277,7 +326,20 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
     }
 
     private InputStream openContents() throws Exception {
-        return stringStorage == null ? new FileInputStream(contentFile) : stringStorage.getContents();
+        if (stringStorage != null) {
+            return stringStorage.getContents();
+        } else if (rangedStorage != null && !isContentFileWritten()) {
+            return rangedStorage.getContentStream();
+        } else {
+            return new FileInputStream(contentFile);
+        }
+    }
+
+    /**
+     * Checks whether some editor saved content into the content file (which is initially empty for ranged storage)
+     */
+    private boolean isContentFileWritten() {
+        return contentFile.length() > 0 || contentFile.lastModified() != contentFileTimestamp;
     }
 
     void loadFromExternalFile(File extFile, IProgressMonitor monitor)
@@ -355,6 +417,13 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
 
         if (value instanceof DBDContent) {
             DBDContent content = (DBDContent) value;
+            if (rangedStorage != null) {
+                if (!isContentFileWritten()) {
+                    // Content wasn't changed
+                    return;
+                }
+                rangedStorage = null;
+            }
             DBDContentStorage storage = content.getContents(monitor);
             if (storage instanceof DBDContentStorageLocal) {
                 // Nothing to update - we use content's storage
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.ui.editors.binary;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRanged;
 import org.jkiss.dbeaver.utils.ContentUtils;
 
 import java.io.Closeable;
@@ -35,6 +36,7 @@ import java.util.*;
  * modified.
  * Keeps track of the positions where changes have been done. Files that back this content must not be
  * modified while the content is still in use.
+ * Content backed by ranged storage reads only the displayed parts of the storage.
  *
  * @author Jordi
  */
@@ -53,7 +55,7 @@ public class BinaryContent {
 
 
     /**
-     * A subset of data contained in a ByteBuffer or a File
+     * A subset of data contained in a ByteBuffer, a File or a ranged content storage
      */
     final static class Range implements Comparable<Range>, Cloneable {
         long position = -1L;
@@ -86,6 +88,13 @@ public class BinaryContent {
             dirty = isDirty;
         }
 
+        Range(long aPosition, DBDContentStorageRanged aStorage, boolean isDirty)
+        {
+            this(aPosition, aStorage.getContentLength());
+            data = aStorage;
+            dirty = isDirty;
+        }
+
         @Override
         public Object clone()
         {
@@ -161,6 +170,20 @@ public class BinaryContent {
         ranges.add(new Range(0L, aFile, false));
     }
 
+    /**
+     * Create new content from a ranged storage. Storage is not released by this content.
+     *
+     * @param aStorage the backing content provider
+     */
+    BinaryContent(DBDContentStorageRanged aStorage)
+    {
+        this();
+        if (aStorage.getContentLength() < 1L)
+            return;
+
+        ranges.add(new Range(0L, aStorage, false));
+    }
+
 
     void actionsOn(boolean on)
     {
@@ -411,6 +434,16 @@ public class BinaryContent {
             src.getChannel().read(dst, start);
             if (limit > 0)
                 dst.limit(limit);
+        } else if (sourceRange.data instanceof DBDContentStorageRanged) {
+            DBDContentStorageRanged src = (DBDContentStorageRanged) sourceRange.data;
+            long start = sourceRange.dataOffset + overlapBytes;
+            int length = (int) Math.min(Math.min(sourceRange.length - overlapBytes, maxCopyLength), dst.remaining());
+            if (length > 0) {
+                byte[] buffer = new byte[length];
+                int count = src.readBytes(start, buffer, 0, length);
+                if (count > 0)
+                    dst.put(buffer, 0, count);
+            }
         }
 
         return dst.position() - dstInitialPosition;
@@ -616,6 +649,10 @@ public class BinaryContent {
                 RandomAccessFile randomFile = (RandomAccessFile) value;
                 randomFile.seek(position);
                 result = randomFile.read();
+            } else if (value instanceof DBDContentStorageRanged) {
+                byte[] buffer = new byte[1];
+                if (((DBDContentStorageRanged) value).readBytes(range.dataOffset + position - range.position, buffer, 0, 1) > 0)
+                    result = buffer[0] & 0x0ff;
             }
         }
 
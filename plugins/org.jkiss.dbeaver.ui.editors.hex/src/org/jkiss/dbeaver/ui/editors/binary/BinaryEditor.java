@@ -36,7 +36,9 @@ import org.eclipse.ui.part.EditorPart;
 import org.eclipse.ui.part.WorkbenchPart;
 import org.eclipse.ui.texteditor.ITextEditorActionConstants;
 import org.eclipse.ui.texteditor.ITextEditorActionDefinitionIds;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRanged;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
@@ -44,12 +46,14 @@ import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.editors.EditorUtils;
 import org.jkiss.dbeaver.ui.editors.binary.internal.BinaryEditorMessages;
 import org.jkiss.dbeaver.ui.editors.binary.pref.HexPreferencesPage;
+import org.jkiss.dbeaver.ui.editors.content.ContentEditorInput;
 import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -210,6 +214,33 @@ public class BinaryEditor extends EditorPart implements ISelectionProvider, IMen
         if (editorInput instanceof IEncodingSupport) {
             charset = ((IEncodingSupport) editorInput).getEncoding();
         }
+        DBDContentStorageRanged rangedStorage = editorInput.getAdapter(DBDContentStorageRanged.class);
+        if (rangedStorage != null) {
+            if (!rangedStorage.isCharacterContent()) {
+                // Read content on demand
+                manager.openContent(rangedStorage, charset);
+                setPartName(editorInput.getName());
+                return;
+            }
+            if (editorInput instanceof ContentEditorInput) {
+                // Bytes of character content are edited in the content file, so it must contain the whole content
+                ContentEditorInput contentInput = (ContentEditorInput) editorInput;
+                try {
+                    UIUtils.runInProgressService(monitor -> {
+                        try {
+                            contentInput.materializeContentFile(monitor);
+                        } catch (DBException e) {
+                            throw new InvocationTargetException(e);
+                        }
+                    });
+                } catch (InvocationTargetException e) {
+                    log.error("Can't copy content to file", e.getTargetException());
+                    return;
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
         File systemFile = null;
         if (editorInput instanceof IPathEditorInput) {
             systemFile = ((IPathEditorInput) editorInput).getPath().toFile();
@@ -27,6 +27,7 @@ import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.*;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRanged;
 import org.jkiss.dbeaver.ui.editors.binary.dialogs.FindReplaceDialog;
 import org.jkiss.dbeaver.ui.editors.binary.dialogs.GoToDialog;
 
@@ -450,6 +451,22 @@ public class HexManager {
         hexEditControl.setContentProvider(content, true);
     }
 
+    /**
+     * Open ranged content storage for editing. Only displayed parts of the storage are read.
+     *
+     * @param storage the storage to be edited
+     */
+    public void openContent(DBDContentStorageRanged storage, String charset)
+    {
+        if (content != null) {
+            content.dispose();
+            content = null;
+        }
+        content = new BinaryContent(storage);
+        hexEditControl.setCharset(charset);
+        hexEditControl.setContentProvider(content, true);
+    }
+
     /**
      * Causes the text areas to have the keyboard focus
      */
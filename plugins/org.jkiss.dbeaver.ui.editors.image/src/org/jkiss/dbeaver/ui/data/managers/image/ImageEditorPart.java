@@ -28,6 +28,7 @@ import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.part.EditorPart;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBIcon;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRanged;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
 import org.jkiss.dbeaver.ui.IRefreshablePart;
 import org.jkiss.dbeaver.ui.UIUtils;
@@ -90,6 +91,17 @@ public class ImageEditorPart extends EditorPart implements IRefreshablePart {
         if (imageViewer == null || imageViewer.isDisposed()) {
             return;
         }
+        DBDContentStorageRanged rangedStorage = getEditorInput().getAdapter(DBDContentStorageRanged.class);
+        if (rangedStorage != null && !rangedStorage.isCharacterContent()) {
+            // Content is not copied to local file
+            try (InputStream inputStream = rangedStorage.getContentStream()) {
+                imageViewer.loadImage(inputStream);
+                imageViewer.update();
+            } catch (Exception e) {
+                log.error("Can't load image contents", e);
+            }
+            return;
+        }
         if (getEditorInput() instanceof IPathEditorInput) {
             try {
                 final IPath absolutePath = ((IPathEditorInput)getEditorInput()).getPath();
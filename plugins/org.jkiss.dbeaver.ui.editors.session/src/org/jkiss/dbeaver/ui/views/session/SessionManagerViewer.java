@@ -385,6 +385,12 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
     }
 
     public void refreshSessions() {
+        if (sessionTable.isLoading()) {
+            // Previous refresh is still running (e.g. auto-refresh interval is shorter than sessions query). Skip this one.
+            log.debug("Sessions are still loading. Skip refresh.");
+            refreshControl.scheduleAutoRefresh(false);
+            return;
+        }
         sessionTable.loadData();
         refreshControl.scheduleAutoRefresh(false);
     }
@@ -18,7 +18,10 @@ package org.jkiss.dbeaver.ui.views.session;
 
 import org.eclipse.jface.viewers.IStructuredContentProvider;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.osgi.util.NLS;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.ui.IWorkbenchSite;
 import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.Log;
@@ -30,12 +33,13 @@ import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.load.DatabaseLoadService;
 import org.jkiss.dbeaver.ui.LoadingJob;
+import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.navigator.itemlist.DatabaseObjectListControl;
+import org.jkiss.dbeaver.ui.views.session.internal.SessionEditorMessages;
+import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Session table
@@ -45,14 +49,24 @@ class SessionTable<SESSION_TYPE extends DBAServerSession> extends DatabaseObject
     private static final Log log = Log.getLog(SessionTable.class);
 
     private DBAServerSessionManager<SESSION_TYPE> sessionManager;
+    // Duration of the last sessions read (ms)
+    private volatile long lastQueryTime;
 
     SessionTable(Composite parent, int style, IWorkbenchSite site, DBAServerSessionManager<SESSION_TYPE> sessionManager)
     {
         super(parent, style, site, CONTENT_PROVIDER);
         this.sessionManager = sessionManager;
+        // Sessions are updated by their keys (equals/hashCode)
+        getItemsViewer().setUseHashlookup(true);
         //setFitWidth(true);
     }
 
+    @Override
+    protected int getDefaultListStyle() {
+        // There may be thousands of sessions. Render only visible rows.
+        return super.getDefaultListStyle() | SWT.VIRTUAL;
+    }
+
     public DBAServerSessionManager<SESSION_TYPE> getSessionManager() {
         return sessionManager;
     }
@@ -87,6 +101,82 @@ class SessionTable<SESSION_TYPE extends DBAServerSession> extends DatabaseObject
         return null;
     }
 
+    @Override
+    protected void setListData(Collection<SESSION_TYPE> items, boolean append, boolean forUpdate) {
+        long startTime = System.currentTimeMillis();
+        Collection<SESSION_TYPE> oldItems = getListData();
+        boolean reload = CommonUtils.isEmpty(oldItems) || columnController == null;
+        if (append || reload || items == null || !updateListData(oldItems, items)) {
+            super.setListData(items, append, forUpdate);
+            if (reload) {
+                // Rows of virtual table are created when they are shown, so columns are packed after the first paint
+                UIUtils.asyncExec(() -> {
+                    if (!isDisposed()) {
+                        repackColumns();
+                    }
+                });
+            }
+        }
+        Collection<SESSION_TYPE> listData = getListData();
+        setInfo(getItemsLoadMessage(listData == null ? 0 : listData.size()) + ". " +
+            NLS.bind(SessionEditorMessages.viewer_status_refresh_time,
+                lastQueryTime + System.currentTimeMillis() - startTime,
+                lastQueryTime));
+    }
+
+    /**
+     * Merges new sessions into the current list by session keys.
+     * Still opened sessions keep their positions and get fresh values, closed sessions are removed
+     * and new sessions are added to the end. Only visible rows are rendered again.
+     *
+     * @return false if sessions can't be merged and list must be reloaded
+     */
+    private boolean updateListData(@NotNull Collection<SESSION_TYPE> oldItems, @NotNull Collection<SESSION_TYPE> items) {
+        if (!(oldItems instanceof List)) {
+            return false;
+        }
+        Set<Class<?>> oldTypes = new HashSet<>();
+        for (SESSION_TYPE session : oldItems) {
+            oldTypes.add(session.getClass());
+        }
+        Map<SESSION_TYPE, SESSION_TYPE> newSessions = new LinkedHashMap<>();
+        for (SESSION_TYPE session : items) {
+            if (!oldTypes.contains(session.getClass())) {
+                // New columns may be needed
+                return false;
+            }
+            newSessions.put(session, session);
+        }
+        if (newSessions.size() != items.size()) {
+            // Sessions with the same key. Can't match them
+            return false;
+        }
+        List<SESSION_TYPE> mergedList = new ArrayList<>(items.size());
+        for (SESSION_TYPE oldSession : oldItems) {
+            SESSION_TYPE newSession = newSessions.remove(oldSession);
+            if (newSession != null) {
+                mergedList.add(newSession);
+            }
+        }
+        mergedList.addAll(newSessions.values());
+
+        Control itemsControl = getItemsViewer().getControl();
+        if (itemsControl.isDisposed()) {
+            return true;
+        }
+        // Object list is the viewer input
+        List<SESSION_TYPE> objectList = (List<SESSION_TYPE>) oldItems;
+        objectList.clear();
+        objectList.addAll(mergedList);
+        itemsControl.setRedraw(false);
+        try {
+            getItemsViewer().refresh();
+        } finally {
+            itemsControl.setRedraw(true);
+        }
+        return true;
+    }
+
     private static IStructuredContentProvider CONTENT_PROVIDER = new IStructuredContentProvider() {
         @Override
         public Object[] getElements(Object inputElement)
@@ -120,6 +210,7 @@ class SessionTable<SESSION_TYPE extends DBAServerSession> extends DatabaseObject
         public Collection<SESSION_TYPE> evaluate(DBRProgressMonitor monitor)
             throws InvocationTargetException, InterruptedException
         {
+            long startTime = System.currentTimeMillis();
             try {
                 try (DBCExecutionContext isolatedContext = sessionManager.getDataSource().getDefaultInstance().openIsolatedContext(monitor, "View sessions", null)) {
                     try (DBCSession session = isolatedContext.openSession(monitor, DBCExecutionPurpose.UTIL, "Retrieve server sessions")) {
@@ -128,6 +219,8 @@ class SessionTable<SESSION_TYPE extends DBAServerSession> extends DatabaseObject
                 }
             } catch (Throwable ex) {
                 throw new InvocationTargetException(ex);
+            } finally {
+                lastQueryTime = System.currentTimeMillis() - startTime;
             }
         }
     }
@@ -26,6 +26,7 @@ public class SessionEditorMessages extends NLS {
     public static String viewer_details_item_details;
     public static String viewer_details_item_session_details;
     public static String viewer_sql_plan_item_execution_plan;
+    public static String viewer_status_refresh_time;
     public static String viewer_view_item_sql;
 
     static {
@@ -84,7 +84,8 @@ import java.util.ResourceBundle;
 public abstract class SQLEditorBase extends BaseTextEditor implements DBPContextProvider, IErrorVisualizer, DBPPreferenceListener {
 
     static protected final Log log = Log.getLog(SQLEditorBase.class);
-    private static final long MAX_FILE_LENGTH_FOR_RULES = 2000000;
+    // Occurrences marking is disabled for bigger scripts
+    private static final long MAX_FILE_LENGTH_FOR_OCCURRENCES = 2000000;
 
     static final String STATS_CATEGORY_SELECTION_STATE = "SelectionState";
 
@@ -174,7 +175,7 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
     static boolean isBigScript(@Nullable IEditorInput editorInput) {
         if (editorInput != null) {
             File file = EditorUtils.getLocalFileFromInput(editorInput);
-            return file != null && file.length() > MAX_FILE_LENGTH_FOR_RULES;
+            return file != null && file.length() > MAX_FILE_LENGTH_FOR_OCCURRENCES;
         }
         return false;
     }
@@ -603,7 +604,9 @@ public abstract class SQLEditorBase extends BaseTextEditor implements DBPContext
         IDocument document = getDocument();
         syntaxManager.init(dialect, getActivePreferenceStore());
         SQLRuleManager ruleManager = new SQLRuleManager(syntaxManager);
-        ruleManager.loadRules(getDataSource(), SQLEditorBase.isBigScript(getEditorInput()));
+        // Full rules are used for scripts of any size: large scripts are highlighted only around the visible area
+        // (see SQLPresentationReconciler)
+        ruleManager.loadRules(getDataSource(), false);
         ruleScanner.refreshRules(getDataSource(), ruleManager);
         parserContext = new SQLParserContext(SQLEditorBase.this, syntaxManager, ruleManager, document != null ? document : new Document());
 
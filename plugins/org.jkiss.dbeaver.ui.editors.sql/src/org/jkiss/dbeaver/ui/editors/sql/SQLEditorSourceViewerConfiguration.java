@@ -282,7 +282,7 @@ public class SQLEditorSourceViewerConfiguration extends TextSourceViewerConfigur
     @Override
     public IPresentationReconciler getPresentationReconciler(ISourceViewer sourceViewer) {
         // Create a presentation reconciler to handle handle document changes.
-        PresentationReconciler reconciler = new PresentationReconciler();
+        PresentationReconciler reconciler = new SQLPresentationReconciler();
         String docPartitioning = getConfiguredDocumentPartitioning(sourceViewer);
         reconciler.setDocumentPartitioning(docPartitioning);
 
@@ -402,6 +402,7 @@ public class SQLEditorSourceViewerConfiguration extends TextSourceViewerConfigur
         if (reconcilingStrategy == null) {
             return null;
         }
-        return new MonoReconciler(reconcilingStrategy, false);
+        // Incremental reconciler passes dirty regions to the strategy, so only affected queries are parsed again
+        return new MonoReconciler(reconcilingStrategy, true);
     }
 }
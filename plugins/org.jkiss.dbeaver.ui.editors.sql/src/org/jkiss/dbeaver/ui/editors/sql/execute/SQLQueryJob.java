@@ -723,6 +723,7 @@ public class SQLQueryJob extends DataSourceJob
             }
             if (updateStatistics) {
                 statistics.addFetchTime(System.currentTimeMillis() - fetchStartTime);
+                DBExecUtils.addFetchSizeStatistics(resultSet, statistics);
             }
         }
         finally {
@@ -0,0 +1,219 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.syntax;
+
+import org.eclipse.jface.text.*;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Presentation reconciler for large SQL scripts.
+ *
+ * Regular reconciler highlights the whole damaged region. For large documents it means that the whole document
+ * is tokenized on open and after each edit which changes partitioning (e.g. opening quote or comment).
+ * This reconciler highlights only the visible area (with some margin). Other parts of the damaged region are
+ * highlighted when they are scrolled into the view.
+ * Partitions (comments, strings) are tracked by the document partitioner, so highlighting of any area
+ * starts from the correct state.
+ */
+public class SQLPresentationReconciler extends PresentationReconciler {
+
+    private static final Log log = Log.getLog(SQLPresentationReconciler.class);
+
+    // Documents larger than this are highlighted lazily
+    public static final int LARGE_DOCUMENT_LENGTH = 1000000;
+    // Number of lines highlighted above and below the visible area
+    private static final int VISIBLE_AREA_MARGIN_LINES = 200;
+
+    private static final String HIGHLIGHTED_CATEGORY = "__sql_highlighted_regions"; //$NON-NLS-1$
+
+    @Nullable
+    private ITextViewer viewer;
+    @Nullable
+    private IDocument trackedDocument;
+    private IPositionUpdater positionUpdater;
+    private final IViewportListener viewportListener = verticalOffset -> highlightVisibleArea();
+
+    @Override
+    public void install(ITextViewer viewer) {
+        super.install(viewer);
+        this.viewer = viewer;
+        viewer.addViewportListener(viewportListener);
+    }
+
+    @Override
+    public void uninstall() {
+        if (viewer != null) {
+            viewer.removeViewportListener(viewportListener);
+            viewer = null;
+        }
+        untrackDocument();
+        super.uninstall();
+    }
+
+    @Override
+    protected TextPresentation createPresentation(IRegion damage, IDocument document) {
+        if (viewer == null || document.getLength() < LARGE_DOCUMENT_LENGTH) {
+            return super.createPresentation(damage, document);
+        }
+        trackDocument(document);
+        IRegion visibleArea = getVisibleArea(document);
+        int damageEnd = damage.getOffset() + damage.getLength();
+        int start = Math.max(damage.getOffset(), visibleArea.getOffset());
+        int end = Math.min(damageEnd, visibleArea.getOffset() + visibleArea.getLength());
+        // Whole damaged region is out of date now. Its visible part is highlighted right now.
+        updateHighlightedRegions(document, damage.getOffset(), damageEnd, start, end);
+        if (start >= end) {
+            return null;
+        }
+        return super.createPresentation(new Region(start, end - start), document);
+    }
+
+    /**
+     * Highlights parts of the visible area which weren't highlighted yet
+     */
+    private void highlightVisibleArea() {
+        ITextViewer viewer = this.viewer;
+        if (viewer == null) {
+            return;
+        }
+        IDocument document = viewer.getDocument();
+        if (document == null || document != trackedDocument || !(viewer instanceof ITextViewerExtension2)) {
+            return;
+        }
+        IRegion visibleArea = getVisibleArea(document);
+        int offset = visibleArea.getOffset();
+        int end = offset + visibleArea.getLength();
+        try {
+            List<IRegion> gaps = new ArrayList<>();
+            for (Position position : document.getPositions(HIGHLIGHTED_CATEGORY)) {
+                if (position.getOffset() + position.getLength() <= offset) {
+                    continue;
+                }
+                if (position.getOffset() >= end) {
+                    break;
+                }
+                if (position.getOffset() > offset) {
+                    gaps.add(new Region(offset, position.getOffset() - offset));
+                }
+                offset = position.getOffset() + position.getLength();
+            }
+            if (offset < end) {
+                gaps.add(new Region(offset, end - offset));
+            }
+            for (IRegion gap : gaps) {
+                ((ITextViewerExtension2) viewer).invalidateTextPresentation(gap.getOffset(), gap.getLength());
+            }
+        } catch (BadPositionCategoryException e) {
+            log.debug(e);
+        }
+    }
+
+    @NotNull
+    private IRegion getVisibleArea(@NotNull IDocument document) {
+        ITextViewer viewer = this.viewer;
+        if (viewer == null) {
+            return new Region(0, document.getLength());
+        }
+        try {
+            int topOffset = Math.max(0, Math.min(viewer.getTopIndexStartOffset(), document.getLength()));
+            int bottomOffset = Math.max(topOffset, Math.min(viewer.getBottomIndexEndOffset(), document.getLength()));
+            int firstLine = Math.max(0, document.getLineOfOffset(topOffset) - VISIBLE_AREA_MARGIN_LINES);
+            int lastLine = Math.min(document.getNumberOfLines() - 1, document.getLineOfOffset(bottomOffset) + VISIBLE_AREA_MARGIN_LINES);
+            int start = document.getLineOffset(firstLine);
+            IRegion lastLineInfo = document.getLineInformation(lastLine);
+            return new Region(start, lastLineInfo.getOffset() + lastLineInfo.getLength() - start);
+        } catch (BadLocationException e) {
+            return new Region(0, document.getLength());
+        }
+    }
+
+    /**
+     * Removes damaged range from highlighted regions and adds highlighted range.
+     * Regions are kept as document positions so they are shifted by document edits.
+     */
+    private void updateHighlightedRegions(@NotNull IDocument document, int damageStart, int damageEnd, int highlightStart, int highlightEnd) {
+        try {
+            List<int[]> regions = new ArrayList<>();
+            for (Position position : document.getPositions(HIGHLIGHTED_CATEGORY)) {
+                int start = position.getOffset(), end = start + position.getLength();
+                if (end <= damageStart || start >= damageEnd) {
+                    regions.add(new int[]{start, end});
+                } else {
+                    if (start < damageStart) {
+                        regions.add(new int[]{start, damageStart});
+                    }
+                    if (end > damageEnd) {
+                        regions.add(new int[]{damageEnd, end});
+                    }
+                }
+            }
+            if (highlightStart < highlightEnd) {
+                regions.add(new int[]{highlightStart, highlightEnd});
+                regions.sort((o1, o2) -> Integer.compare(o1[0], o2[0]));
+            }
+            document.removePositionCategory(HIGHLIGHTED_CATEGORY);
+            document.addPositionCategory(HIGHLIGHTED_CATEGORY);
+            int[] last = null;
+            for (int[] region : regions) {
+                if (last != null && region[0] <= last[1]) {
+                    last[1] = Math.max(last[1], region[1]);
+                    continue;
+                }
+                if (last != null) {
+                    document.addPosition(HIGHLIGHTED_CATEGORY, new Position(last[0], last[1] - last[0]));
+                }
+                last = region;
+            }
+            if (last != null) {
+                document.addPosition(HIGHLIGHTED_CATEGORY, new Position(last[0], last[1] - last[0]));
+            }
+        } catch (BadPositionCategoryException | BadLocationException e) {
+            log.debug(e);
+        }
+    }
+
+    private void trackDocument(@NotNull IDocument document) {
+        if (trackedDocument == document) {
+            return;
+        }
+        untrackDocument();
+        trackedDocument = document;
+        positionUpdater = new DefaultPositionUpdater(HIGHLIGHTED_CATEGORY);
+        document.addPositionCategory(HIGHLIGHTED_CATEGORY);
+        document.addPositionUpdater(positionUpdater);
+    }
+
+    private void untrackDocument() {
+        if (trackedDocument != null) {
+            try {
+                trackedDocument.removePositionUpdater(positionUpdater);
+                trackedDocument.removePositionCategory(HIGHLIGHTED_CATEGORY);
+            } catch (BadPositionCategoryException e) {
+                // ignore
+            }
+            trackedDocument = null;
+            positionUpdater = null;
+        }
+    }
+
+}
@@ -80,7 +80,7 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
 
     @Override
     public void reconcile(IRegion partition) {
-        reconcile(0, document.getLength(), false);
+        reconcile(partition.getOffset(), partition.getLength(), false);
     }
 
     @Override
@@ -187,14 +187,22 @@ public class SQLReconcilingStrategy implements IReconcilingStrategy, IReconcilin
             return;
         }
 
-        if (rightBound != null && !parsedQueries.isEmpty()) {
+        while (rightBound != null && !parsedQueries.isEmpty()) {
             SQLScriptElement rightmostParsedQuery = parsedQueries.get(parsedQueries.size() - 1);
-            if (!rightBound.equals(getExpandedScriptElement(rightmostParsedQuery))) {
-                parsedQueries = extractQueries(damagedRegionOffset, document.getLength());
-                if (parsedQueries == null) {
-                    return;
-                }
-                rightBound = null;
+            if (rightBound.equals(getExpandedScriptElement(rightmostParsedQuery))) {
+                break;
+            }
+            // Changes affect queries after the right bound (e.g. unclosed quote or comment).
+            // Extend damaged region twice until parsed queries match cached ones again.
+            rightBound = cache.ceiling(new SQLScriptElementImpl(damagedRegionOffset + damagedRegionLength * 2 + 1, 0));
+            if (rightBound == null) {
+                damagedRegionLength = document.getLength() - damagedRegionOffset;
+            } else {
+                damagedRegionLength = rightBound.getOffset() + rightBound.getLength() - damagedRegionOffset;
+            }
+            parsedQueries = extractQueries(damagedRegionOffset, damagedRegionLength);
+            if (parsedQueries == null) {
+                return;
             }
         }
 
@@ -0,0 +1,97 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.dbeaver.erd.ui.layout.algorithm.layered.LayeredGraphLayout;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+
+import java.util.List;
+
+/**
+ * Measures ER diagram layout time on schemas produced by {@link HugeSchemaGenerator}.
+ * Full layout is measured for different diagram sizes, then incremental layout after adding 1% of tables.
+ */
+public class ERDLayoutBenchmark {
+
+    private static final int[] DIAGRAM_SIZES = { 100, 500, 2000, HugeSchemaGenerator.TABLE_COUNT };
+    private static final int ITERATIONS = 5;
+
+    public static void main(String[] args) {
+        // Warm up
+        for (int i = 0; i < ITERATIONS; i++) {
+            runFullLayout(1000);
+        }
+        for (int size : DIAGRAM_SIZES) {
+            long fullTime = Long.MAX_VALUE, incrementalTime = Long.MAX_VALUE;
+            LayeredGraphLayout layout = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long startTime = System.nanoTime();
+                layout = runFullLayout(size);
+                fullTime = Math.min(fullTime, System.nanoTime() - startTime);
+
+                LayeredGraphLayout incrementalLayout = createIncrementalLayout(layout, size / 100 + 1);
+                startTime = System.nanoTime();
+                incrementalLayout.layout(new VoidProgressMonitor());
+                incrementalTime = Math.min(incrementalTime, System.nanoTime() - startTime);
+            }
+            int width = 0, height = 0;
+            for (LayeredGraphLayout.Node node : layout.getNodes()) {
+                width = Math.max(width, node.getX() + node.getWidth());
+                height = Math.max(height, node.getY() + node.getHeight());
+            }
+            System.out.println(size + " tables, " + layout.getEdgeCount() + " references: " +
+                "full layout " + (fullTime / 1000000) + "ms, " +
+                "incremental layout " + (incrementalTime / 1000000) + "ms, " +
+                "diagram size " + width + "x" + height);
+        }
+    }
+
+    private static LayeredGraphLayout runFullLayout(int tableCount) {
+        LayeredGraphLayout layout = createLayout(tableCount, null);
+        layout.layout(new VoidProgressMonitor());
+        return layout;
+    }
+
+    /**
+     * Creates layout with nodes of previous layout fixed and several new tables added
+     */
+    private static LayeredGraphLayout createIncrementalLayout(LayeredGraphLayout previous, int newTableCount) {
+        return createLayout(previous.getNodes().size() + newTableCount, previous.getNodes());
+    }
+
+    private static LayeredGraphLayout createLayout(int tableCount, List<LayeredGraphLayout.Node> placedNodes) {
+        LayeredGraphLayout layout = new LayeredGraphLayout();
+        LayeredGraphLayout.Node[] nodes = new LayeredGraphLayout.Node[tableCount];
+        for (int i = 0; i < tableCount; i++) {
+            // Tables have ID, VAL and REF columns
+            int height = 40 + 18 * (2 + HugeSchemaGenerator.getTableReferences(i).length);
+            if (placedNodes != null && i < placedNodes.size()) {
+                LayeredGraphLayout.Node placed = placedNodes.get(i);
+                nodes[i] = layout.addFixedNode(i, placed.getX(), placed.getY(), placed.getWidth(), placed.getHeight());
+            } else {
+                nodes[i] = layout.addNode(i, 160, height);
+            }
+        }
+        for (int i = 0; i < tableCount; i++) {
+            for (int ref : HugeSchemaGenerator.getTableReferences(i)) {
+                layout.addEdge(nodes[i], nodes[ref]);
+            }
+        }
+        return layout;
+    }
+
+}
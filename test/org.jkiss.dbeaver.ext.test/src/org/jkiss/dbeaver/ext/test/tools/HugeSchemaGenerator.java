@@ -21,9 +21,32 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.Random;
 
 public class HugeSchemaGenerator {
 
+    public static final int TABLE_COUNT = 10000;
+
+    // Each 10th table has no references, so schema consists of many connected components
+    private static final int UNLINKED_TABLE_PERIOD = 10;
+    private static final int MAX_TABLE_REFERENCES = 3;
+
+    /**
+     * Returns indexes of tables referenced by the specified table.
+     * Tables refer only to tables with lower indexes, mostly to the recent ones. Result is always the same for the same table.
+     */
+    public static int[] getTableReferences(int tableIndex) {
+        if (tableIndex == 0 || tableIndex % UNLINKED_TABLE_PERIOD == 0) {
+            return new int[0];
+        }
+        Random random = new Random(tableIndex);
+        int[] refs = new int[1 + random.nextInt(MAX_TABLE_REFERENCES)];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = Math.max(0, tableIndex - 1 - random.nextInt(Math.min(tableIndex, 50)));
+        }
+        return refs;
+    }
+
     public static void main(String[] args) throws SQLException {
 
         final String url = "jdbc:postgresql://localhost/postgres";
@@ -40,9 +63,15 @@ public class HugeSchemaGenerator {
                 stmt.execute();
             }
 
-            for (int i = 0; i < 10000; i++) {
-                try (PreparedStatement stmt = conn.prepareStatement(
-                        "CREATE TABLE HUGE_SCHEMA.TEST_TABLE" + i + "(ID INTEGER NOT NULL, VAL VARCHAR(64))")) {
+            for (int i = 0; i < TABLE_COUNT; i++) {
+                StringBuilder ddl = new StringBuilder();
+                ddl.append("CREATE TABLE HUGE_SCHEMA.TEST_TABLE").append(i).append("(ID INTEGER NOT NULL PRIMARY KEY, VAL VARCHAR(64)");
+                int[] refs = getTableReferences(i);
+                for (int k = 0; k < refs.length; k++) {
+                    ddl.append(", REF").append(k).append(" INTEGER REFERENCES HUGE_SCHEMA.TEST_TABLE").append(refs[k]).append("(ID)");
+                }
+                ddl.append(")");
+                try (PreparedStatement stmt = conn.prepareStatement(ddl.toString())) {
                     stmt.execute();
                     if (i % 100 == 0) {
                         System.out.println(i + " tables");
@@ -0,0 +1,189 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCFetchPlan;
+import org.jkiss.dbeaver.model.impl.jdbc.data.JDBCRowBuffer;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCBooleanValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.sql.*;
+
+/**
+ * Compares reading of result set values with value handlers and with typed fetch plan.
+ * Reads in-memory table of the specified database (H2 by default, its driver must be in classpath).
+ * Usage: JDBCFetchPlanBenchmark [jdbc-url]
+ */
+public class JDBCFetchPlanBenchmark {
+
+    private static final int ROW_COUNT = 500000;
+    private static final int ITERATIONS = 5;
+
+    private static final int[] COLUMN_TYPES = {Types.INTEGER, Types.SMALLINT, Types.BOOLEAN, Types.DOUBLE, Types.DECIMAL};
+
+    private static final JDBCNumberValueHandler NUMBER_HANDLER = new JDBCNumberValueHandler(null, null);
+    private static final JDBCNumberValueHandler DOUBLE_HANDLER = new JDBCNumberValueHandler(null, null) {
+        @Override
+        protected boolean isReadDecimalsAsDouble() {
+            return true;
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:fetch_plan_benchmark";
+        JDBCSession session = Mockito.mock(JDBCSession.class, Mockito.withSettings().stubOnly());
+        DBDAttributeBinding[] attributes = new DBDAttributeBinding[COLUMN_TYPES.length];
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            attributes[i] = makeAttribute(i, COLUMN_TYPES[i]);
+        }
+
+        try (Connection connection = DriverManager.getConnection(url)) {
+            createTable(connection);
+            // Warm up
+            for (int i = 0; i < ITERATIONS; i++) {
+                readWithValueHandlers(connection, session, attributes);
+                readWithFetchPlan(connection, session, attributes);
+            }
+            long handlersTime = Long.MAX_VALUE, planTime = Long.MAX_VALUE;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long startTime = System.nanoTime();
+                double handlersChecksum = readWithValueHandlers(connection, session, attributes);
+                handlersTime = Math.min(handlersTime, System.nanoTime() - startTime);
+
+                startTime = System.nanoTime();
+                double planChecksum = readWithFetchPlan(connection, session, attributes);
+                planTime = Math.min(planTime, System.nanoTime() - startTime);
+                if (handlersChecksum != planChecksum) {
+                    throw new IllegalStateException("Different values read: " + handlersChecksum + " != " + planChecksum);
+                }
+            }
+            System.out.println(ROW_COUNT + " rows: " +
+                "value handlers " + (handlersTime / 1000000) + "ms, " +
+                "fetch plan " + (planTime / 1000000) + "ms");
+        }
+    }
+
+    private static void createTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE fetch_plan_test (id INTEGER, small_value SMALLINT, flag BOOLEAN, amount DOUBLE, price DECIMAL(12,2))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement stmt = connection.prepareStatement("INSERT INTO fetch_plan_test VALUES (?,?,?,?,?)")) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                stmt.setInt(1, i);
+                stmt.setShort(2, (short) (i % 1000));
+                stmt.setBoolean(3, i % 3 == 0);
+                if (i % 10 == 0) {
+                    stmt.setNull(4, Types.DOUBLE);
+                } else {
+                    stmt.setDouble(4, i * 0.5);
+                }
+                stmt.setBigDecimal(5, BigDecimal.valueOf(i, 2));
+                stmt.addBatch();
+                if (i % 10000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static double readWithValueHandlers(Connection connection, JDBCSession session, DBDAttributeBinding[] attributes) throws SQLException, DBCException {
+        double checksum = 0;
+        try (Statement stmt = connection.createStatement(); ResultSet original = stmt.executeQuery("SELECT * FROM fetch_plan_test")) {
+            JDBCResultSetImpl resultSet = new BenchmarkResultSet(session, original);
+            while (resultSet.next()) {
+                for (int i = 0; i < attributes.length; i++) {
+                    DBDValueHandler valueHandler = attributes[i].getValueHandler();
+                    Object value = valueHandler.fetchValueObject(session, resultSet, attributes[i].getMetaAttribute(), i);
+                    checksum += toDouble(value);
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static double readWithFetchPlan(Connection connection, JDBCSession session, DBDAttributeBinding[] attributes) throws SQLException, DBCException {
+        double checksum = 0;
+        JDBCFetchPlan fetchPlan = new JDBCFetchPlan(attributes, attributes.length);
+        JDBCRowBuffer buffer = fetchPlan.createBuffer();
+        try (Statement stmt = connection.createStatement(); ResultSet original = stmt.executeQuery("SELECT * FROM fetch_plan_test")) {
+            JDBCResultSetImpl resultSet = new BenchmarkResultSet(session, original);
+            while (resultSet.next()) {
+                fetchPlan.readRow(session, resultSet, buffer);
+                for (int i = 0; i < attributes.length; i++) {
+                    if (buffer.isNull(i)) {
+                        continue;
+                    }
+                    switch (buffer.getValueKind(i)) {
+                        case OBJECT:
+                            checksum += toDouble(buffer.getObject(i));
+                            break;
+                        case DOUBLE:
+                            checksum += buffer.getDouble(i);
+                            break;
+                        default:
+                            checksum += buffer.getLong(i);
+                            break;
+                    }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    private static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return 0;
+    }
+
+    private static DBDAttributeBinding makeAttribute(int index, int typeId) {
+        DBCAttributeMetaData metaAttribute = Mockito.mock(DBCAttributeMetaData.class, Mockito.withSettings().stubOnly());
+        Mockito.when(metaAttribute.getTypeID()).thenReturn(typeId);
+        Mockito.when(metaAttribute.getOrdinalPosition()).thenReturn(index);
+        DBDValueHandler valueHandler = typeId == Types.BOOLEAN ? JDBCBooleanValueHandler.INSTANCE :
+            typeId == Types.DOUBLE ? DOUBLE_HANDLER : NUMBER_HANDLER;
+        DBDAttributeBinding attribute = Mockito.mock(DBDAttributeBinding.class, Mockito.withSettings().stubOnly());
+        Mockito.when(attribute.getOrdinalPosition()).thenReturn(index);
+        Mockito.doReturn(metaAttribute).when(attribute).getMetaAttribute();
+        Mockito.when(attribute.getValueHandler()).thenReturn(valueHandler);
+        return attribute;
+    }
+
+    /**
+     * Result set wrapper without query manager notifications
+     */
+    private static class BenchmarkResultSet extends JDBCResultSetImpl {
+        BenchmarkResultSet(JDBCSession session, ResultSet original) {
+            super(session, null, original, "Benchmark", true);
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class TaskRunJournalTest {
+
+    // The same as task run statistics configuration
+    private static final Gson GSON = new GsonBuilder()
+        .setLenient()
+        .setDateFormat(GeneralUtils.DEFAULT_TIMESTAMP_PATTERN)
+        .create();
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File folder;
+
+    @Before
+    public void init() {
+        folder = new File(tempFolder.getRoot(), "task");
+    }
+
+    @Test
+    public void appendAndReload() {
+        TaskRunJournal journal = new TaskRunJournal(folder, GSON, 0, 0);
+        for (int i = 1; i <= 3; i++) {
+            journal.addRun(makeRun(i));
+        }
+        TaskRunImpl updatedRun = makeRun(2);
+        updatedRun.setRunDuration(1000);
+        journal.updateRun(updatedRun);
+        journal.removeRun("run1");
+        Assert.assertEquals(Arrays.asList("run2", "run3"), getRunIds(journal.getRuns()));
+
+        TaskRunJournal reloaded = new TaskRunJournal(folder, GSON, 0, 0);
+        List<TaskRunImpl> runs = reloaded.getRuns();
+        Assert.assertEquals(Arrays.asList("run2", "run3"), getRunIds(runs));
+        Assert.assertEquals(1000, runs.get(0).getRunDuration());
+        Assert.assertEquals("run3", reloaded.getLastRun().getId());
+
+        // Pages are ordered from the newest run
+        Assert.assertEquals(Arrays.asList("run3"), getRunIds(reloaded.getRuns(0, 1)));
+        Assert.assertEquals(Arrays.asList("run2"), getRunIds(reloaded.getRuns(1, 10)));
+        Assert.assertTrue(reloaded.getRuns(2, 10).isEmpty());
+    }
+
+    @Test
+    public void readRecordsOfOtherProcess() {
+        TaskRunJournal journal1 = new TaskRunJournal(folder, GSON, 0, 0);
+        TaskRunJournal journal2 = new TaskRunJournal(folder, GSON, 0, 0);
+        journal1.addRun(makeRun(1));
+        Assert.assertEquals(Arrays.asList("run1"), getRunIds(journal2.getRuns()));
+
+        journal1.addRun(makeRun(2));
+        journal2.addRun(makeRun(3));
+        journal1.refresh();
+        Assert.assertEquals(Arrays.asList("run1", "run2", "run3"), getRunIds(journal1.getRuns()));
+        Assert.assertEquals(Arrays.asList("run1", "run2", "run3"), getRunIds(journal2.getRuns()));
+    }
+
+    @Test
+    public void segmentRollover() {
+        TaskRunJournal journal = new TaskRunJournal(folder, GSON, 0, 0);
+        int runCount = TaskRunJournal.SEGMENT_MAX_RECORDS * 2 + 10;
+        for (int i = 1; i <= runCount; i++) {
+            journal.addRun(makeRun(i));
+        }
+        Assert.assertEquals(3, getSegmentFiles().size());
+
+        TaskRunJournal reloaded = new TaskRunJournal(folder, GSON, 0, 0);
+        Assert.assertEquals(runCount, reloaded.getRuns().size());
+        Assert.assertEquals("run" + runCount, reloaded.getLastRun().getId());
+    }
+
+    @Test
+    public void compaction() throws IOException {
+        int maxRuns = 50;
+        TaskRunJournal journal = new TaskRunJournal(folder, GSON, maxRuns, 0);
+        journal.addRun(makeRun(1));
+        File runLog = new File(folder, TaskRunImpl.RUN_LOG_PREFIX + "run1." + TaskRunImpl.RUN_LOG_EXT);
+        Files.write(runLog.toPath(), "log".getBytes(StandardCharsets.UTF_8));
+
+        int runCount = TaskRunJournal.SEGMENT_MAX_RECORDS * 2 + 10;
+        for (int i = 2; i <= runCount; i++) {
+            journal.addRun(makeRun(i));
+        }
+        List<TaskRunImpl> runs = journal.getRuns();
+        Assert.assertEquals(maxRuns, runs.size());
+        Assert.assertEquals("run" + (runCount - maxRuns + 1), runs.get(0).getId());
+        Assert.assertFalse("Log of removed run must be deleted", runLog.exists());
+        // First segment has no live runs
+        List<File> segmentFiles = getSegmentFiles();
+        Assert.assertEquals(2, segmentFiles.size());
+        Assert.assertTrue(segmentFiles.get(0).getName().contains("000002"));
+
+        // Segment without live runs is deleted after runs removal
+        int lastSegmentRuns = runCount - TaskRunJournal.SEGMENT_MAX_RECORDS * 2;
+        for (TaskRunImpl run : journal.getRuns(lastSegmentRuns, Integer.MAX_VALUE)) {
+            journal.removeRun(run.getId());
+        }
+        segmentFiles = getSegmentFiles();
+        Assert.assertEquals(1, segmentFiles.size());
+        Assert.assertTrue(segmentFiles.get(0).getName().contains("000003"));
+        Assert.assertEquals(lastSegmentRuns, new TaskRunJournal(folder, GSON, maxRuns, 0).getRuns().size());
+    }
+
+    @Test
+    public void readLegacyStatistics() throws IOException {
+        Assert.assertTrue(folder.mkdirs());
+        File metaFile = new File(folder, TaskRunJournal.LEGACY_META_FILE_NAME);
+        String legacyStats = "{\"runs\": [" +
+            "{\"id\": \"run1\", \"startTime\": \"202103011000\", \"startUser\": \"user\", \"startedBy\": \"DBeaver\", \"duration\": 10}," +
+            "{\"id\": \"run2\", \"startTime\": \"202103011100\", \"startUser\": \"user\", \"startedBy\": \"DBeaver\", \"duration\": 20, " +
+            "\"errorMessage\": \"Error\"}" +
+            "]}";
+        Files.write(metaFile.toPath(), legacyStats.getBytes(StandardCharsets.UTF_8));
+
+        TaskRunJournal journal = new TaskRunJournal(folder, GSON, 0, 0);
+        List<TaskRunImpl> runs = journal.getRuns();
+        Assert.assertEquals(Arrays.asList("run1", "run2"), getRunIds(runs));
+        Assert.assertEquals(20, runs.get(1).getRunDuration());
+        Assert.assertFalse(runs.get(1).isRunSuccess());
+
+        // Statistics are moved into the journal
+        Assert.assertFalse(metaFile.exists());
+        Assert.assertEquals(1, getSegmentFiles().size());
+        Assert.assertEquals(2, new TaskRunJournal(folder, GSON, 0, 0).getRuns().size());
+    }
+
+    private List<File> getSegmentFiles() {
+        File[] files = folder.listFiles((dir, name) ->
+            name.startsWith(TaskRunJournal.SEGMENT_PREFIX) && name.endsWith(TaskRunJournal.SEGMENT_EXT));
+        List<File> result = files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+        result.sort(null);
+        return result;
+    }
+
+    private static TaskRunImpl makeRun(int number) {
+        return new TaskRunImpl("run" + number, new Date(), "user", "DBeaver", number, null, null);
+    }
+
+    private static List<String> getRunIds(List<TaskRunImpl> runs) {
+        List<String> ids = new ArrayList<>();
+        for (TaskRunImpl run : runs) {
+            ids.add(run.getId());
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class ContentMemoryCacheTest {
+
+    private static final int VALUE_SIZE = 10000;
+
+    private static class TestContent implements ContentMemoryCache.Spillable {
+        private byte[] data;
+        private ContentMemoryCache.Entry entry;
+
+        TestContent(ContentMemoryCache cache) {
+            data = new byte[VALUE_SIZE];
+            entry = cache.register(this, data.length);
+        }
+
+        byte[] getData() {
+            if (entry.isSpilled()) {
+                data = (byte[]) ((BytesContentStorage) entry.getSpillStorage()).getCachedValue();
+                entry.reloaded(data.length);
+            } else {
+                entry.touch();
+            }
+            return data;
+        }
+
+        @Override
+        public boolean spillContent() {
+            entry.setSpillStorage(new BytesContentStorage(data, StandardCharsets.UTF_8));
+            data = null;
+            return true;
+        }
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        ContentMemoryCache cache = new ContentMemoryCache(VALUE_SIZE * 10);
+        TestContent[] contents = new TestContent[10];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = new TestContent(cache);
+        }
+        Assert.assertEquals(VALUE_SIZE * 10, cache.getUsedMemory());
+        Assert.assertEquals(0, cache.getEvictionCount());
+
+        // First value is the most recently used now
+        contents[0].getData();
+        TestContent extra = new TestContent(cache);
+
+        Assert.assertTrue(cache.getUsedMemory() <= cache.getMemoryLimit() * 0.9);
+        Assert.assertEquals(2, cache.getEvictionCount());
+        Assert.assertFalse(contents[0].entry.isSpilled());
+        Assert.assertTrue(contents[1].entry.isSpilled());
+        Assert.assertTrue(contents[2].entry.isSpilled());
+        Assert.assertFalse(contents[3].entry.isSpilled());
+        Assert.assertFalse(extra.entry.isSpilled());
+        Assert.assertEquals(1, cache.getHitCount());
+
+        // Spilled value is read back, then new value evicts the least recently used one
+        Assert.assertEquals(VALUE_SIZE, contents[1].getData().length);
+        Assert.assertFalse(contents[1].entry.isSpilled());
+        Assert.assertEquals(1, cache.getMissCount());
+        new TestContent(cache);
+        Assert.assertTrue(contents[3].entry.isSpilled());
+        Assert.assertFalse(contents[1].entry.isSpilled());
+        Assert.assertEquals(VALUE_SIZE * 4, cache.getSpilledBytes());
+    }
+
+    @Test
+    public void skipSmallAndRemovedValues() {
+        ContentMemoryCache cache = new ContentMemoryCache(VALUE_SIZE * 2);
+        Assert.assertNull(cache.register(() -> true, ContentMemoryCache.MIN_CACHED_SIZE - 1));
+
+        TestContent content1 = new TestContent(cache);
+        TestContent content2 = new TestContent(cache);
+        content1.entry.remove();
+        Assert.assertEquals(VALUE_SIZE, cache.getUsedMemory());
+
+        new TestContent(cache);
+        Assert.assertEquals(0, cache.getEvictionCount());
+        Assert.assertFalse(content2.entry.isSpilled());
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data.storage;
+
+import org.jkiss.utils.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class PagedContentStorageTest {
+
+    @Test
+    public void readBinaryRanges() throws IOException {
+        byte[] data = new byte[PagedContentStorage.DEFAULT_PAGE_SIZE * 3 + 123];
+        new Random(1).nextBytes(data);
+        int[] pageReads = new int[1];
+        PagedBinaryContentStorage storage = new PagedBinaryContentStorage(null, data.length, "UTF-8") {
+            @Override
+            protected byte[] readPage(long position, int length) {
+                pageReads[0]++;
+                return Arrays.copyOfRange(data, (int) position, (int) position + length);
+            }
+
+            @Override
+            protected void releaseSource() {
+            }
+        };
+        // Range which crosses page boundary
+        byte[] buffer = new byte[100];
+        int position = PagedContentStorage.DEFAULT_PAGE_SIZE - 50;
+        Assert.assertEquals(100, storage.readBytes(position, buffer, 0, 100));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, position, position + 100), buffer);
+        Assert.assertEquals(2, pageReads[0]);
+
+        // Cached pages are not read again
+        Assert.assertEquals(10, storage.readBytes(position + 10, buffer, 0, 10));
+        Assert.assertEquals(2, pageReads[0]);
+
+        // Tail
+        Assert.assertEquals(23, storage.readBytes(data.length - 23, buffer, 0, 100));
+        Assert.assertEquals(-1, storage.readBytes(data.length, buffer, 0, 100));
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream is = storage.getContentStream()) {
+            IOUtils.copyStream(is, result);
+        }
+        Assert.assertArrayEquals(data, result.toByteArray());
+
+        storage.release();
+        try {
+            storage.readBytes(0, buffer, 0, 1);
+            Assert.fail("Released storage must not be readable");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void sourceFailure() throws IOException {
+        byte[] data = new byte[PagedContentStorage.DEFAULT_PAGE_SIZE * 2];
+        new Random(1).nextBytes(data);
+        boolean[] sourceClosed = new boolean[1];
+        int[] pageReads = new int[1];
+        PagedBinaryContentStorage storage = new PagedBinaryContentStorage(null, data.length, "UTF-8") {
+            @Override
+            protected byte[] readPage(long position, int length) throws IOException {
+                pageReads[0]++;
+                if (sourceClosed[0]) {
+                    throw new IOException("Locator is not valid");
+                }
+                return Arrays.copyOfRange(data, (int) position, (int) position + length);
+            }
+
+            @Override
+            protected void releaseSource() {
+            }
+        };
+        byte[] buffer = new byte[10];
+        storage.readBytes(0, buffer, 0, 10);
+        sourceClosed[0] = true;
+        for (int i = 0; i < 2; i++) {
+            try {
+                storage.readBytes(PagedContentStorage.DEFAULT_PAGE_SIZE, buffer, 0, 10);
+                Assert.fail("Page of closed source must not be readable");
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+        // Failed source is read only once
+        Assert.assertEquals(2, pageReads[0]);
+
+        // Cached page is still available
+        Assert.assertEquals(10, storage.readBytes(0, buffer, 0, 10));
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 0, 10), buffer);
+        Assert.assertEquals(2, pageReads[0]);
+    }
+
+    @Test
+    public void readTextStream() throws IOException {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < PagedContentStorage.DEFAULT_PAGE_SIZE * 2) {
+            // Surrogate pairs are split by page and chunk boundaries
+            text.append("a\uD83D\uDD25");
+        }
+        String data = text.toString();
+        PagedTextContentStorage storage = new PagedTextContentStorage(null, data.length(), "UTF-8") {
+            @Override
+            protected char[] readPage(long position, int length) {
+                return data.substring((int) position, (int) position + length).toCharArray();
+            }
+
+            @Override
+            protected void releaseSource() {
+            }
+        };
+        char[] buffer = new char[5];
+        Assert.assertEquals(5, storage.readChars(4, buffer, 0, 5));
+        Assert.assertEquals(data.substring(4, 9), new String(buffer));
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream is = storage.getContentStream()) {
+            IOUtils.copyStream(is, result);
+        }
+        Assert.assertEquals(data, new String(result.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DBCAdaptiveFetchSizeTest {
+
+    private static final long MEMORY_LIMIT = 1024 * 1024;
+
+    @Test
+    public void limitWideRows() {
+        DBCAdaptiveFetchSize fetchSize = new DBCAdaptiveFetchSize(1000, 10000, MEMORY_LIMIT);
+        int newFetchSize = fetchSize.startResultSet(makeMetaData(DBPDataKind.STRING, 10, 4000));
+        Assert.assertTrue(newFetchSize > 0);
+        Assert.assertTrue(newFetchSize * fetchSize.getRowSize() <= MEMORY_LIMIT);
+    }
+
+    @Test
+    public void growOnSlowRoundTrips() {
+        DBCAdaptiveFetchSize fetchSize = new DBCAdaptiveFetchSize(100, 10000, MEMORY_LIMIT);
+        Assert.assertEquals(-1, fetchSize.startResultSet(makeMetaData(DBPDataKind.NUMERIC, 2, 0)));
+        // Fast batch - fetch size remains the same
+        Assert.assertEquals(-1, fetchBatch(fetchSize, 100, 1000));
+        // Slow batch - fetch size grows
+        Assert.assertEquals(200, fetchBatch(fetchSize, 100, 1000 * 1000));
+        Assert.assertEquals(400, fetchBatch(fetchSize, 200, 1000 * 1000));
+    }
+
+    @Test
+    public void shrinkOnWideValues() {
+        DBCAdaptiveFetchSize fetchSize = new DBCAdaptiveFetchSize(1000, 10000, MEMORY_LIMIT);
+        Assert.assertEquals(-1, fetchSize.startResultSet(makeMetaData(DBPDataKind.STRING, 1, 0)));
+
+        // The first row of batch is sampled from the values read by consumer
+        Assert.assertEquals(-1, fetchSize.rowFetched(1000));
+        Assert.assertTrue(fetchSize.isSampling());
+        fetchSize.addSampleValue(new String(new char[100000]));
+        Assert.assertEquals(-1, fetchSize.rowFetched(1000));
+        Assert.assertFalse(fetchSize.isSampling());
+
+        int newFetchSize = fetchBatch(fetchSize, 998, 1000 * 1000);
+        Assert.assertTrue(newFetchSize > 0 && newFetchSize < 1000);
+        Assert.assertTrue(newFetchSize * fetchSize.getRowSize() <= MEMORY_LIMIT);
+    }
+
+    private static int fetchBatch(DBCAdaptiveFetchSize fetchSize, int rowCount, long rowFetchTime) {
+        int newFetchSize = -1;
+        for (int i = 0; i < rowCount; i++) {
+            Assert.assertEquals(-1, newFetchSize);
+            newFetchSize = fetchSize.rowFetched(rowFetchTime);
+        }
+        return newFetchSize;
+    }
+
+    private static DBCResultSetMetaData makeMetaData(DBPDataKind dataKind, int columnCount, long maxLength) {
+        List<DBCAttributeMetaData> attributes = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            DBCAttributeMetaData attribute = Mockito.mock(DBCAttributeMetaData.class);
+            Mockito.when(attribute.getDataKind()).thenReturn(dataKind);
+            Mockito.when(attribute.getMaxLength()).thenReturn(maxLength);
+            attributes.add(attribute);
+        }
+        DBCResultSetMetaData metaData = Mockito.mock(DBCResultSetMetaData.class);
+        Mockito.doReturn(attributes).when(metaData).getAttributes();
+        return metaData;
+    }
+
+}
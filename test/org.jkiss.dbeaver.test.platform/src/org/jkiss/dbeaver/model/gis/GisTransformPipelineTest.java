@@ -0,0 +1,136 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.gis;
+
+import org.cts.op.CoordinateOperation;
+import org.jkiss.dbeaver.DBException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.lang.reflect.Proxy;
+
+public class GisTransformPipelineTest {
+
+    private static final int SRID_WGS84 = 4326;
+    private static final int SRID_WEB_MERCATOR = 3857;
+
+    // Fake SRIDs with explicit operations
+    private static final int SRID_SOURCE = 100001;
+    private static final int SRID_TARGET = 100002;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    @Test
+    public void transformationCache() throws DBException {
+        GisTransformPipeline pipeline = new GisTransformPipeline();
+        GisTransformRequest request = makeRequest(1000, 1000, SRID_WEB_MERCATOR, SRID_WGS84);
+        pipeline.transform(request);
+        Assert.assertEquals(1, pipeline.getCachedTransformationCount());
+        Assert.assertEquals(SRID_WGS84, request.getTargetValue().getSRID());
+        Assert.assertEquals(0.00898, request.getTargetValue().getCoordinate().x, 0.00001);
+        Assert.assertTrue(request.isShowOnMap());
+        // Source geometry is not modified
+        Assert.assertEquals(1000, request.getSourceValue().getCoordinate().x, 0);
+
+        pipeline.transform(new GisTransformRequest[]{
+            makeRequest(2000, 2000, SRID_WEB_MERCATOR, SRID_WGS84),
+            makeRequest(3000, 3000, SRID_WEB_MERCATOR, SRID_WGS84)
+        });
+        Assert.assertEquals(1, pipeline.getCachedTransformationCount());
+
+        pipeline.transform(makeRequest(10, 10, SRID_WGS84, SRID_WEB_MERCATOR));
+        Assert.assertEquals(2, pipeline.getCachedTransformationCount());
+
+        pipeline.clearCache();
+        Assert.assertEquals(0, pipeline.getCachedTransformationCount());
+    }
+
+    @Test
+    public void fallbackOperation() throws DBException {
+        GisTransformPipeline pipeline = new GisTransformPipeline();
+        pipeline.putTransformation(SRID_SOURCE, SRID_TARGET, makeOperation(false), makeOperation(true));
+        GisTransformRequest request = makeRequest(1, 2, SRID_SOURCE, SRID_TARGET);
+        pipeline.transform(request);
+
+        Geometry targetValue = request.getTargetValue();
+        Assert.assertEquals(SRID_TARGET, targetValue.getSRID());
+        Assert.assertEquals(new Coordinate(2, 3), targetValue.getCoordinate());
+        Assert.assertFalse(request.isShowOnMap());
+    }
+
+    @Test
+    public void fallbackOperationError() {
+        GisTransformPipeline pipeline = new GisTransformPipeline();
+        pipeline.putTransformation(SRID_SOURCE, SRID_TARGET, makeOperation(false), makeOperation(false));
+        try {
+            pipeline.transform(makeRequest(1, 2, SRID_SOURCE, SRID_TARGET));
+            Assert.fail("Fallback error must be reported");
+        } catch (DBException e) {
+            // Expected
+        }
+
+        // Batch reports errors per request
+        GisTransformRequest[] requests = {
+            makeRequest(1, 2, SRID_SOURCE, SRID_TARGET),
+            makeRequest(1000, 1000, SRID_WEB_MERCATOR, SRID_WGS84)
+        };
+        pipeline.transform(requests);
+        Assert.assertTrue(requests[0].getError() instanceof DBException);
+        Assert.assertNull(requests[1].getError());
+        Assert.assertNotNull(requests[1].getTargetValue());
+    }
+
+    @Test
+    public void transformBetweenCRS() throws Exception {
+        Geometry geometry = geometryFactory.createPoint(new Coordinate(1000, 1000));
+        Geometry targetValue = GisTransformUtils.transformGisData(
+            geometry,
+            GisTransformUtils.getCRSFactory().getCRS("EPSG:" + SRID_WEB_MERCATOR),
+            GisTransformUtils.getCRSFactory().getCRS("EPSG:" + SRID_WGS84));
+        Assert.assertEquals(0.00898, targetValue.getCoordinate().x, 0.00001);
+        Assert.assertEquals(1000, geometry.getCoordinate().x, 0);
+    }
+
+    private GisTransformRequest makeRequest(double x, double y, int sourceSRID, int targetSRID) {
+        Geometry geometry = geometryFactory.createPoint(new Coordinate(x, y));
+        geometry.setSRID(sourceSRID);
+        return new GisTransformRequest(geometry, sourceSRID, targetSRID);
+    }
+
+    /**
+     * Operation which shifts coordinates by 1 or fails like CTS does for coordinates out of CRS domain
+     */
+    private static CoordinateOperation makeOperation(boolean valid) {
+        return (CoordinateOperation) Proxy.newProxyInstance(
+            GisTransformPipelineTest.class.getClassLoader(),
+            new Class[]{CoordinateOperation.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("transform")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                if (!valid) {
+                    throw new IllegalArgumentException("Coordinate is out of range");
+                }
+                double[] coord = (double[]) args[0];
+                return new double[]{coord[0] + 1, coord[1] + 1};
+            });
+    }
+
+}
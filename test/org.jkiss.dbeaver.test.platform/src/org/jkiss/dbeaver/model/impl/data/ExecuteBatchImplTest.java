@@ -0,0 +1,93 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class ExecuteBatchImplTest {
+
+    @Test
+    public void reprepareOnNullsChangeWithoutBatches() throws DBCException {
+        DBCSession session = makeSession(false);
+        List<String> executedQueries = new ArrayList<>();
+        TestBatch batch = new TestBatch(executedQueries);
+        batch.add(new Object[]{1});
+        batch.add(new Object[]{2});
+        batch.add(new Object[]{null});
+        batch.add(new Object[]{3});
+        batch.execute(session, Collections.emptyMap());
+
+        // Statement is reused for rows with the same nulls only
+        Assert.assertEquals(3, batch.prepareCount);
+        Assert.assertEquals(Arrays.asList("k=?", "k=?", "k IS NULL", "k=?"), executedQueries);
+    }
+
+    private static DBCSession makeSession(boolean supportsBatches) {
+        DBPDataSourceInfo info = Mockito.mock(DBPDataSourceInfo.class);
+        Mockito.when(info.supportsBatchUpdates()).thenReturn(supportsBatches);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getInfo()).thenReturn(info);
+        DBCSession session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        return session;
+    }
+
+    private static class TestBatch extends ExecuteBatchImpl {
+        private final List<String> executedQueries;
+        private int prepareCount;
+
+        TestBatch(List<String> executedQueries) {
+            super(new DBSAttributeBase[]{Mockito.mock(DBDAttributeBinding.class)}, null, true);
+            this.executedQueries = executedQueries;
+        }
+
+        @NotNull
+        @Override
+        protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
+            prepareCount++;
+            String query = attributeValues[0] == null ? "k IS NULL" : "k=?";
+            DBCStatement statement = Mockito.mock(DBCStatement.class);
+            Mockito.when(statement.getQueryString()).thenReturn(query);
+            Mockito.when(statement.executeStatement()).then(invocation -> executedQueries.add(query));
+            return statement;
+        }
+
+        @Override
+        protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) {
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.data.storage.ContentMemoryCache;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class JDBCContentCharsTest {
+
+    private static final int VALUE_LENGTH = 10000;
+
+    // Cache is global, values of previous tests may be spilled later
+    @ClassRule
+    public static TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private DBCExecutionContext executionContext;
+    private long oldMemoryLimit;
+
+    @Before
+    public void init() throws Exception {
+        DBPPlatform platform = Mockito.mock(DBPPlatform.class);
+        Mockito.when(platform.getTempFolder(Mockito.any(), Mockito.anyString())).thenReturn(tempFolder.getRoot());
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        Mockito.when(container.getPlatform()).thenReturn(platform);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        executionContext = Mockito.mock(DBCExecutionContext.class);
+        Mockito.when(executionContext.getDataSource()).thenReturn(dataSource);
+
+        oldMemoryLimit = ContentMemoryCache.getInstance().getMemoryLimit();
+        // Only one value fits into memory (chars take two bytes)
+        ContentMemoryCache.getInstance().setMemoryLimit(VALUE_LENGTH * 3);
+    }
+
+    @After
+    public void restore() {
+        ContentMemoryCache.getInstance().setMemoryLimit(oldMemoryLimit);
+    }
+
+    @Test
+    public void spilledLengthDoesNotReadData() {
+        ContentMemoryCache cache = ContentMemoryCache.getInstance();
+        JDBCContentChars content1 = new JDBCContentChars(executionContext, makeValue('a'));
+        new JDBCContentChars(executionContext, makeValue('b'));
+        long missCount = cache.getMissCount();
+
+        Assert.assertFalse(content1.isNull());
+        Assert.assertEquals(VALUE_LENGTH, content1.getContentLength());
+        Assert.assertEquals(missCount, cache.getMissCount());
+
+        Assert.assertEquals(makeValue('a'), content1.getRawValue());
+        Assert.assertEquals(missCount + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void equalsDoesNotReadSpilledData() {
+        ContentMemoryCache cache = ContentMemoryCache.getInstance();
+        JDBCContentChars content1 = new JDBCContentChars(executionContext, makeValue('a'));
+        JDBCContentChars content2 = new JDBCContentChars(executionContext, makeValue('a'));
+        JDBCContentChars content3 = new JDBCContentChars(executionContext, makeValue('b'));
+        long missCount = cache.getMissCount();
+
+        Assert.assertEquals(content1, content2);
+        Assert.assertEquals(content1.hashCode(), content2.hashCode());
+        Assert.assertNotEquals(content1, content3);
+        Assert.assertEquals(missCount, cache.getMissCount());
+    }
+
+    @Test
+    public void releaseDeletesSpilledData() {
+        ContentMemoryCache cache = ContentMemoryCache.getInstance();
+        JDBCContentChars content1 = new JDBCContentChars(executionContext, makeValue('a'));
+        new JDBCContentChars(executionContext, makeValue('b'));
+        int spilledCount = cache.getSpilledCount();
+        int fileCount = tempFolder.getRoot().listFiles().length;
+
+        content1.release();
+        Assert.assertEquals(spilledCount - 1, cache.getSpilledCount());
+        Assert.assertEquals(fileCount - 1, tempFolder.getRoot().listFiles().length);
+        Assert.assertTrue(content1.isNull());
+    }
+
+    @Test
+    public void copyIsRegistered() {
+        ContentMemoryCache cache = ContentMemoryCache.getInstance();
+        JDBCContentChars content = new JDBCContentChars(executionContext, makeValue('a'));
+        long evictionCount = cache.getEvictionCount();
+
+        // Copy doesn't fit into memory together with the source, so the source is spilled
+        JDBCContentChars copy = new JDBCContentChars(content);
+        Assert.assertEquals(evictionCount + 1, cache.getEvictionCount());
+        Assert.assertEquals(makeValue('a'), copy.getRawValue());
+        Assert.assertEquals(makeValue('a'), content.getRawValue());
+    }
+
+    @Test(timeout = 30000)
+    public void concurrentReload() throws Exception {
+        JDBCContentChars content1 = new JDBCContentChars(executionContext, makeValue('a'));
+        JDBCContentChars content2 = new JDBCContentChars(executionContext, makeValue('b'));
+        // Each reload spills the other value
+        List<Throwable> errors = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (JDBCContentChars[] contents : new JDBCContentChars[][]{{content1, content2}, {content2, content1}}) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        for (JDBCContentChars content : contents) {
+                            Assert.assertEquals(VALUE_LENGTH, ((String) content.getRawValue()).length());
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertTrue(errors.toString(), errors.isEmpty());
+    }
+
+    private static String makeValue(char c) {
+        char[] chars = new char[VALUE_LENGTH];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCBooleanValueHandler;
+import org.jkiss.dbeaver.model.impl.jdbc.data.handlers.JDBCNumberValueHandler;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Compares typed fetch plan with value handlers on in-memory result set.
+ */
+public class JDBCFetchPlanTest {
+
+    private static final int ROW_COUNT = 1000;
+
+    private static final int[] COLUMN_TYPES = {Types.INTEGER, Types.SMALLINT, Types.BOOLEAN, Types.DOUBLE, Types.DECIMAL};
+
+    private static final JDBCNumberValueHandler NUMBER_HANDLER = new JDBCNumberValueHandler(null, null);
+    private static final JDBCNumberValueHandler DOUBLE_HANDLER = new JDBCNumberValueHandler(null, null) {
+        @Override
+        protected boolean isReadDecimalsAsDouble() {
+            return true;
+        }
+    };
+
+    private DBCSession session;
+    private DBDAttributeBinding[] attributes;
+    private DBDValueHandler[] valueHandlers;
+    private DBCAttributeMetaData[] metaAttributes;
+    private Object[][] rows;
+
+    @Before
+    public void init() {
+        session = Mockito.mock(DBCSession.class, Mockito.withSettings().stubOnly());
+        attributes = new DBDAttributeBinding[COLUMN_TYPES.length];
+        valueHandlers = new DBDValueHandler[COLUMN_TYPES.length];
+        metaAttributes = new DBCAttributeMetaData[COLUMN_TYPES.length];
+        for (int i = 0; i < COLUMN_TYPES.length; i++) {
+            DBDValueHandler valueHandler = COLUMN_TYPES[i] == Types.BOOLEAN ? JDBCBooleanValueHandler.INSTANCE :
+                COLUMN_TYPES[i] == Types.DOUBLE ? DOUBLE_HANDLER : NUMBER_HANDLER;
+            attributes[i] = makeAttribute(i, COLUMN_TYPES[i], valueHandler);
+            valueHandlers[i] = valueHandler;
+            metaAttributes[i] = (DBCAttributeMetaData) attributes[i].getMetaAttribute();
+        }
+        rows = new Object[ROW_COUNT][];
+        for (int i = 0; i < ROW_COUNT; i++) {
+            rows[i] = new Object[]{
+                i,
+                (short) (i % 1000),
+                i % 3 == 0,
+                i % 10 == 0 ? null : i * 0.5,
+                BigDecimal.valueOf(i, 2)
+            };
+        }
+    }
+
+    @Test
+    public void sameValuesAsValueHandlers() throws DBCException {
+        JDBCFetchPlan fetchPlan = new JDBCFetchPlan(attributes, attributes.length);
+        JDBCRowBuffer buffer = fetchPlan.createBuffer();
+        JDBCResultSet planResultSet = makeResultSet(rows, -1);
+        JDBCResultSet handlerResultSet = makeResultSet(rows, -1);
+        Object[] values = null;
+        while (nextRow(planResultSet) && nextRow(handlerResultSet)) {
+            fetchPlan.readRow(session, planResultSet, buffer);
+            values = buffer.getValues(values);
+            for (int i = 0; i < attributes.length; i++) {
+                Assert.assertEquals(readValue(handlerResultSet, i), values[i]);
+            }
+        }
+        Assert.assertEquals(JDBCRowBuffer.ValueKind.LONG, buffer.getValueKind(0));
+        Assert.assertEquals(JDBCRowBuffer.ValueKind.INT, buffer.getValueKind(1));
+        Assert.assertEquals(JDBCRowBuffer.ValueKind.BOOLEAN, buffer.getValueKind(2));
+        Assert.assertEquals(JDBCRowBuffer.ValueKind.DOUBLE, buffer.getValueKind(3));
+        Assert.assertEquals(JDBCRowBuffer.ValueKind.OBJECT, buffer.getValueKind(4));
+    }
+
+    @Test
+    public void fallbackToValueHandler() throws DBCException {
+        JDBCFetchPlan fetchPlan = new JDBCFetchPlan(attributes, attributes.length);
+        JDBCRowBuffer buffer = fetchPlan.createBuffer();
+        // Driver can't read first column with primitive getter
+        JDBCResultSet resultSet = makeResultSet(rows, 0);
+        for (int i = 0; i < 10 && nextRow(resultSet); i++) {
+            fetchPlan.readRow(session, resultSet, buffer);
+            Assert.assertEquals(JDBCRowBuffer.ValueKind.OBJECT, buffer.getValueKind(0));
+            Assert.assertEquals(rows[i][0], buffer.getObject(0));
+            Assert.assertEquals(i, buffer.getLong(0));
+        }
+    }
+
+    /**
+     * Values read column by column (with driver fallback column) and copied into the reused row array
+     */
+    @Test
+    public void readValuesIntoReusedRow() throws DBCException {
+        JDBCFetchPlan fetchPlan = new JDBCFetchPlan(attributes, attributes.length);
+        JDBCRowBuffer buffer = fetchPlan.createBuffer();
+        JDBCResultSet planResultSet = makeResultSet(rows, 3);
+        JDBCResultSet handlerResultSet = makeResultSet(rows, -1);
+        Object[] rowValues = buffer.getValues(null);
+        while (nextRow(planResultSet) && nextRow(handlerResultSet)) {
+            for (int i = 0; i < fetchPlan.getColumnCount(); i++) {
+                fetchPlan.readValue(session, planResultSet, buffer, i);
+            }
+            Assert.assertSame(rowValues, buffer.getValues(rowValues));
+            for (int i = 0; i < attributes.length; i++) {
+                Assert.assertEquals(readValue(handlerResultSet, i), rowValues[i]);
+            }
+        }
+    }
+
+    private Object readValue(JDBCResultSet resultSet, int index) throws DBCException {
+        return valueHandlers[index].fetchValueObject(session, resultSet, metaAttributes[index], index);
+    }
+
+    private static boolean nextRow(JDBCResultSet resultSet) {
+        try {
+            return resultSet.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DBDAttributeBinding makeAttribute(int index, int typeId, DBDValueHandler valueHandler) {
+        DBCAttributeMetaData metaAttribute = (DBCAttributeMetaData) Proxy.newProxyInstance(
+            JDBCFetchPlanTest.class.getClassLoader(),
+            new Class[]{DBCAttributeMetaData.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getTypeID":
+                        return typeId;
+                    case "getOrdinalPosition":
+                        return index;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        DBDAttributeBinding attribute = Mockito.mock(DBDAttributeBinding.class, Mockito.withSettings().stubOnly());
+        Mockito.when(attribute.getOrdinalPosition()).thenReturn(index);
+        Mockito.doReturn(metaAttribute).when(attribute).getMetaAttribute();
+        Mockito.when(attribute.getValueHandler()).thenReturn(valueHandler);
+        return attribute;
+    }
+
+    /**
+     * Result set over rows array. Primitive getters fail for the failing column (0-based) if it is not negative.
+     */
+    private static JDBCResultSet makeResultSet(Object[][] rows, int failingColumn) {
+        InvocationHandler handler = new InvocationHandler() {
+            private int rowNum = -1;
+            private boolean wasNull;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "next":
+                        return ++rowNum < rows.length;
+                    case "wasNull":
+                        return wasNull;
+                    case "getObject":
+                    case "getBoolean":
+                    case "getShort":
+                    case "getInt":
+                    case "getLong":
+                    case "getDouble":
+                        break;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+                int column = (Integer) args[0] - 1;
+                Object value = rows[rowNum][column];
+                wasNull = value == null;
+                if (method.getName().equals("getObject")) {
+                    return value;
+                }
+                if (column == failingColumn) {
+                    throw new SQLException("Can't read column " + (column + 1) + " as primitive");
+                }
+                switch (method.getName()) {
+                    case "getBoolean":
+                        return value instanceof Boolean ? value : value != null && ((Number) value).intValue() != 0;
+                    case "getShort":
+                        return value == null ? 0 : ((Number) value).shortValue();
+                    case "getInt":
+                        return value == null ? 0 : ((Number) value).intValue();
+                    case "getLong":
+                        return value == null ? 0L : ((Number) value).longValue();
+                    default:
+                        return value == null ? 0.0 : ((Number) value).doubleValue();
+                }
+            }
+        };
+        return (JDBCResultSet) Proxy.newProxyInstance(JDBCFetchPlanTest.class.getClassLoader(), new Class[]{JDBCResultSet.class}, handler);
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.net.ssh;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class SSHSessionPoolTest {
+
+    private static final SSHSessionPool.SessionKey BASTION1 = new SSHSessionPool.SessionKey("bastion1", 22, "user", "PASSWORD", null, "secret");
+    private static final SSHSessionPool.SessionKey BASTION2 = new SSHSessionPool.SessionKey("bastion2", 22, "user", "PASSWORD", null, "secret");
+
+    /**
+     * Stand-in for SSH server connection
+     */
+    private static class TestSession {
+        final String host;
+        volatile boolean alive = true;
+        volatile boolean closed;
+
+        TestSession(String host) {
+            this.host = host;
+        }
+    }
+
+    private final List<TestSession> openedSessions = new CopyOnWriteArrayList<>();
+    private SSHSessionPool<TestSession> pool;
+
+    @Before
+    public void setUp() {
+        pool = new SSHSessionPool<>(new SSHSessionPool.SessionController<TestSession>() {
+            @Override
+            public boolean isSessionAlive(@NotNull TestSession session) {
+                return session.alive && !session.closed;
+            }
+
+            @Override
+            public void closeSession(@NotNull DBRProgressMonitor monitor, @NotNull TestSession session) {
+                Assert.assertFalse("Session closed twice", session.closed);
+                session.closed = true;
+            }
+        });
+    }
+
+    private SSHSessionPool.SessionOpener<TestSession> opener(String host) {
+        return () -> {
+            TestSession session = new TestSession(host);
+            openedSessions.add(session);
+            return session;
+        };
+    }
+
+    @Test
+    public void shareSessionBySameKey() throws Exception {
+        TestSession session1 = pool.acquireSession(BASTION1, opener("bastion1"));
+        TestSession session2 = pool.acquireSession(
+            new SSHSessionPool.SessionKey("bastion1", 22, "user", "PASSWORD", null, "secret"), opener("bastion1"));
+        TestSession session3 = pool.acquireSession(BASTION2, opener("bastion2"));
+        TestSession session4 = pool.acquireSession(
+            new SSHSessionPool.SessionKey("bastion1", 22, "user", "PASSWORD", null, "other secret"), opener("bastion1"));
+
+        Assert.assertSame(session1, session2);
+        Assert.assertNotSame(session1, session3);
+        Assert.assertNotSame(session1, session4);
+        Assert.assertEquals(3, openedSessions.size());
+        Assert.assertEquals(2, pool.getSessionUseCount(session1));
+
+        pool.releaseSession(new VoidProgressMonitor(), session1);
+        Assert.assertFalse(session1.closed);
+        Assert.assertSame(session1, pool.acquireSession(BASTION1, opener("bastion1")));
+        pool.releaseSession(new VoidProgressMonitor(), session1);
+        pool.releaseSession(new VoidProgressMonitor(), session2);
+        Assert.assertTrue(session1.closed);
+        Assert.assertEquals(0, pool.getSessionUseCount(session1));
+
+        // Closed session is not reused
+        TestSession session5 = pool.acquireSession(BASTION1, opener("bastion1"));
+        Assert.assertNotSame(session1, session5);
+        Assert.assertEquals(4, openedSessions.size());
+    }
+
+    @Test
+    public void replaceBrokenSession() throws Exception {
+        TestSession session1 = pool.acquireSession(BASTION1, opener("bastion1"));
+        session1.alive = false;
+
+        TestSession session2 = pool.acquireSession(BASTION1, opener("bastion1"));
+        Assert.assertNotSame(session1, session2);
+        Assert.assertFalse("Broken session is closed by its last tunnel", session1.closed);
+
+        pool.releaseSession(new VoidProgressMonitor(), session1);
+        Assert.assertTrue(session1.closed);
+        Assert.assertFalse(session2.closed);
+        Assert.assertSame(session2, pool.acquireSession(BASTION1, opener("bastion1")));
+
+        pool.invalidateSession(session2);
+        TestSession session3 = pool.acquireSession(BASTION1, opener("bastion1"));
+        Assert.assertNotSame(session2, session3);
+        Assert.assertEquals(2, pool.getSessionUseCount(session2));
+    }
+
+    @Test
+    public void failedOpenIsNotPooled() throws Exception {
+        try {
+            pool.acquireSession(BASTION1, () -> {
+                throw new DBException("Auth fail");
+            });
+            Assert.fail("Error expected");
+        } catch (DBException e) {
+            Assert.assertEquals("Auth fail", e.getMessage());
+        }
+        TestSession session = pool.acquireSession(BASTION1, opener("bastion1"));
+        Assert.assertEquals(1, pool.getSessionUseCount(session));
+        Assert.assertEquals(1, openedSessions.size());
+    }
+
+    @Test
+    public void openSessionOnceForConcurrentTunnels() throws Exception {
+        CountDownLatch connecting = new CountDownLatch(1);
+        CountDownLatch connected = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<TestSession> first = executor.submit(() -> pool.acquireSession(BASTION1, () -> {
+                connecting.countDown();
+                // Slow handshake
+                try {
+                    connected.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new DBException("Interrupted", e);
+                }
+                return opener("bastion1").openSession();
+            }));
+            connecting.await(10, TimeUnit.SECONDS);
+            List<Future<TestSession>> others = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                others.add(executor.submit(() -> pool.acquireSession(BASTION1, opener("bastion1"))));
+            }
+            connected.countDown();
+            TestSession session = first.get(10, TimeUnit.SECONDS);
+            for (Future<TestSession> other : others) {
+                Assert.assertSame(session, other.get(10, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, openedSessions.size());
+            Assert.assertEquals(4, pool.getSessionUseCount(session));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.format.tokenized;
+
+import org.jkiss.dbeaver.model.DBPIdentifierCase;
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.sql.SQLSyntaxManager;
+import org.jkiss.dbeaver.model.sql.format.SQLFormatterConfiguration;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Formatter settings are not read for each token, so the number of reads doesn't depend on script size.
+ * Mocks are stub-only, otherwise they record every invocation made by the formatter.
+ * Formatting time of large scripts is measured by SQLFormatterBenchmark in the test tools.
+ */
+public class SQLFormatterTokenizedLargeScriptTest {
+
+    private SQLFormatterConfiguration configuration;
+    private int settingsReads;
+
+    @Before
+    public void init() {
+        configuration = Mockito.mock(SQLFormatterConfiguration.class, Mockito.withSettings().stubOnly());
+        SQLSyntaxManager syntaxManager = Mockito.mock(SQLSyntaxManager.class, Mockito.withSettings().stubOnly());
+        DBPPreferenceStore preferenceStore = Mockito.mock(DBPPreferenceStore.class, Mockito.withSettings().stubOnly());
+        Mockito.when(configuration.getSyntaxManager()).thenReturn(syntaxManager);
+        Mockito.when(syntaxManager.getStatementDelimiters()).thenReturn(new String[]{";"});
+        Mockito.when(syntaxManager.getDialect()).thenAnswer(invocation -> {
+            settingsReads++;
+            return BasicSQLDialect.INSTANCE;
+        });
+        Mockito.when(syntaxManager.getCatalogSeparator()).thenReturn(".");
+        Mockito.when(syntaxManager.getStructSeparator()).thenReturn('.');
+        Mockito.when(configuration.getKeywordCase()).thenReturn(DBPIdentifierCase.UPPER);
+        Mockito.when(configuration.getIndentString()).thenAnswer(invocation -> {
+            settingsReads++;
+            return "\t";
+        });
+        Mockito.when(preferenceStore.getBoolean(Mockito.anyString())).thenAnswer(invocation -> {
+            settingsReads++;
+            return false;
+        });
+        Mockito.doReturn(preferenceStore).when(configuration).getPreferenceStore();
+    }
+
+    @Test
+    public void settingsReadsDontDependOnScriptSize() {
+        int smallScriptReads = countSettingsReads(generateScript(10));
+        int largeScriptReads = countSettingsReads(generateScript(1000));
+        Assert.assertEquals(smallScriptReads, largeScriptReads);
+    }
+
+    private int countSettingsReads(String script) {
+        settingsReads = 0;
+        new SQLFormatterTokenized().format(script, configuration);
+        return settingsReads;
+    }
+
+    private static String generateScript(int statementCount) {
+        StringBuilder script = new StringBuilder();
+        script.append("insert into values_table (id, name, value) values ");
+        for (int i = 0; i < statementCount; i++) {
+            script.append(i == 0 ? "" : ", ").append("(").append(i).append(", 'name").append(i).append("', ").append(i * 10).append(")");
+        }
+        script.append(";\n");
+        for (int i = 0; i < statementCount; i++) {
+            script.append("-- statement ").append(i).append("\n");
+            script.append("select t.id, t.name, count(j.id) from table").append(i % 10).append(" t ")
+                .append("left outer join joined j on j.id = t.id and j.value in (1, 2, 3) ")
+                .append("where t.id > ").append(i).append(" and t.name between 'a' and 'z' ")
+                .append("group by t.id, t.name order by t.id;\n");
+        }
+        return script.toString();
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.parser;
+
+import org.jkiss.dbeaver.model.impl.sql.BasicSQLDialect;
+import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SQLQueryFingerprinterTest {
+
+    private SQLQueryFingerprinter fingerprinter;
+
+    @Before
+    public void init() {
+        fingerprinter = new SQLQueryFingerprinter(BasicSQLDialect.INSTANCE, DBWorkbench.getPlatform().getPreferenceStore());
+    }
+
+    @Test
+    public void replaceLiterals() {
+        Assert.assertEquals(
+            "SELECT * FROM orders o WHERE o.id = ? AND o.status = ? AND o.price > ?",
+            fingerprinter.getFingerprint("select * from orders o where o.id = 42 and o.status='new' and o.price>-1.5"));
+        Assert.assertEquals(
+            fingerprinter.getFingerprint("select * from orders where id = 42"),
+            fingerprinter.getFingerprint("SELECT *\n  FROM orders -- by id\n WHERE id=17;"));
+        Assert.assertEquals(
+            "UPDATE t SET a = a - ? WHERE b <> ?",
+            fingerprinter.getFingerprint("update t set a = a - 1 where b <> ?"));
+    }
+
+    @Test
+    public void collapseInLists() {
+        Assert.assertEquals(
+            "SELECT name FROM users WHERE id IN (...) AND user_role NOT IN (...)",
+            fingerprinter.getFingerprint("select name from users where id in (1, 2, 3) and user_role not in ('admin')"));
+        Assert.assertEquals(
+            "SELECT COUNT(*) FROM users WHERE id IN (SELECT user_id FROM roles)",
+            fingerprinter.getFingerprint("select count(*) from users where id in (select user_id from roles)"));
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.sql.qm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SQLQueryLatencyHistogramTest {
+
+    @Test
+    public void latencyPercentiles() {
+        SQLQueryLatencyHistogram histogram = new SQLQueryLatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordValue(i);
+        }
+        Assert.assertEquals(1000, histogram.getTotalCount());
+        Assert.assertEquals(1000, histogram.getMaxValue());
+        assertNear(500, histogram.getValueAtPercentile(50));
+        assertNear(950, histogram.getValueAtPercentile(95));
+        assertNear(990, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(1000, histogram.getValueAtPercentile(100));
+        Assert.assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    private static void assertNear(long expected, long actual) {
+        Assert.assertTrue("Expected ~" + expected + " but was " + actual, Math.abs(expected - actual) <= expected * 0.04);
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import com.google.gson.Gson;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.Job;
+import org.jkiss.dbeaver.model.app.DBASecureStorage;
+import org.jkiss.dbeaver.model.app.DBPDataSourceRegistry;
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
+import org.jkiss.dbeaver.registry.driver.DriverDescriptor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+public class DataSourceSerializerModernTest {
+
+    // Name of the registry job which saves data sources configuration
+    private static final String CONFIG_SAVE_JOB_NAME = "Datasource configuration save";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private DataSourceRegistry registry;
+    private DriverDescriptor driver;
+    private File configFile;
+
+    @Before
+    public void init() throws Exception {
+        File metadataFolder = tempFolder.newFolder(DBPProject.METADATA_FOLDER);
+        DBASecureStorage secureStorage = Mockito.mock(DBASecureStorage.class);
+        Mockito.when(secureStorage.useSecurePreferences()).thenReturn(true);
+        DBPProject project = Mockito.mock(DBPProject.class);
+        Mockito.when(project.getName()).thenReturn("Test");
+        Mockito.when(project.isOpen()).thenReturn(true);
+        Mockito.when(project.isModernProject()).thenReturn(true);
+        Mockito.when(project.getAbsolutePath()).thenReturn(tempFolder.getRoot());
+        Mockito.when(project.getEclipseProject()).thenReturn(Mockito.mock(IProject.class));
+        Mockito.when(project.getMetadataFolder(Mockito.anyBoolean())).thenReturn(metadataFolder);
+        Mockito.when(project.getSecureStorage()).thenReturn(secureStorage);
+        registry = new DataSourceRegistry(Mockito.mock(DBPPlatform.class, Mockito.RETURNS_DEEP_STUBS), project);
+        Mockito.when(project.getDataSourceRegistry()).thenReturn(registry);
+
+        DataSourceProviderDescriptor provider = Mockito.mock(DataSourceProviderDescriptor.class);
+        Mockito.when(provider.getId()).thenReturn("generic");
+        driver = Mockito.mock(DriverDescriptor.class);
+        Mockito.when(driver.getId()).thenReturn("test");
+        Mockito.when(driver.getProviderDescriptor()).thenReturn(provider);
+
+        configFile = new File(metadataFolder, DBPDataSourceRegistry.MODERN_CONFIG_FILE_NAME);
+    }
+
+    @After
+    public void dispose() {
+        registry.dispose();
+    }
+
+    @Test
+    public void saveChangedDataSource() throws Exception {
+        DataSourceDescriptor changed = makeDataSource("ds1", "First");
+        DataSourceDescriptor unchanged = makeDataSource("ds2", "Second");
+        registry.addDataSource(changed);
+        registry.addDataSource(unchanged);
+        waitForConfigSave();
+        Assert.assertEquals("First", getConnectionName("ds1"));
+        Assert.assertEquals("Second", getConnectionName("ds2"));
+
+        // Only the updated data source is serialized again, the second one is taken from the previous save
+        changed.setName("First changed");
+        unchanged.setName("Second changed");
+        registry.updateDataSource(changed);
+        waitForConfigSave();
+        Assert.assertEquals("First changed", getConnectionName("ds1"));
+        Assert.assertEquals("Second", getConnectionName("ds2"));
+
+        // Full save serializes all data sources
+        registry.flushConfig();
+        waitForConfigSave();
+        Assert.assertEquals("First changed", getConnectionName("ds1"));
+        Assert.assertEquals("Second changed", getConnectionName("ds2"));
+    }
+
+    @Test
+    public void saveRemovedDataSource() throws Exception {
+        DataSourceDescriptor removed = makeDataSource("ds1", "First");
+        registry.addDataSource(removed);
+        registry.addDataSource(makeDataSource("ds2", "Second"));
+        waitForConfigSave();
+
+        registry.removeDataSource(removed);
+        waitForConfigSave();
+        Assert.assertNull(getConnectionName("ds1"));
+        Assert.assertEquals("Second", getConnectionName("ds2"));
+    }
+
+    private DataSourceDescriptor makeDataSource(String id, String name) {
+        DataSourceDescriptor dataSource = new DataSourceDescriptor(registry, id, driver, new DBPConnectionConfiguration());
+        dataSource.setName(name);
+        return dataSource;
+    }
+
+    private String getConnectionName(String id) throws Exception {
+        Map<String, Object> config;
+        try (Reader reader = Files.newBufferedReader(configFile.toPath(), StandardCharsets.UTF_8)) {
+            config = JSONUtils.parseMap(new Gson(), reader);
+        }
+        Map<String, Object> connection = JSONUtils.getObject(JSONUtils.getObject(config, "connections"), id);
+        return JSONUtils.getString(connection, "name");
+    }
+
+    private static void waitForConfigSave() throws InterruptedException {
+        for (Job job : Job.getJobManager().find(null)) {
+            if (CONFIG_SAVE_JOB_NAME.equals(job.getName())) {
+                job.join();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class DriverClassIndexTest {
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void findByClassHierarchy() throws Exception {
+        Map<String, byte[]> baseClasses = new LinkedHashMap<>();
+        baseClasses.put("base/BaseDriver.class", classFile("base/BaseDriver", ACC_PUBLIC | ACC_ABSTRACT, "java/lang/Object", "java/sql/Driver"));
+        baseClasses.put("base/ExtDriver.class", classFile("base/ExtDriver", ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT, "java/lang/Object", "java/sql/Driver"));
+        File baseJar = createJar("base.jar", baseClasses);
+
+        Map<String, byte[]> driverClasses = new LinkedHashMap<>();
+        driverClasses.put("test/DirectDriver.class", classFile("test/DirectDriver", ACC_PUBLIC, "java/lang/Object", "java/sql/Driver"));
+        // Super class from another jar
+        driverClasses.put("test/InheritedDriver.class", classFile("test/InheritedDriver", ACC_PUBLIC, "base/BaseDriver"));
+        driverClasses.put("test/SubInterfaceDriver.class", classFile("test/SubInterfaceDriver", ACC_PUBLIC, "java/lang/Object", "java/lang/Runnable", "base/ExtDriver"));
+        driverClasses.put("test/HiddenDriver.class", classFile("test/HiddenDriver", 0, "java/lang/Object", "java/sql/Driver"));
+        driverClasses.put("test/DirectDriver$Inner.class", classFile("test/DirectDriver$Inner", ACC_PUBLIC, "test/DirectDriver"));
+        driverClasses.put("test/Other.class", classFile("test/Other", ACC_PUBLIC, "java/lang/Object"));
+        File driverJar = createJar("driver.jar", driverClasses);
+
+        List<String> drivers = DriverClassIndex.findImplementations(
+            new VoidProgressMonitor(), Arrays.asList(driverJar, baseJar), "java.sql.Driver", true);
+        Assert.assertEquals(Arrays.asList("test.DirectDriver", "test.InheritedDriver", "test.SubInterfaceDriver"), drivers);
+
+        List<String> subclasses = DriverClassIndex.findImplementations(
+            new VoidProgressMonitor(), Arrays.asList(driverJar, baseJar), "base.BaseDriver", false);
+        Assert.assertEquals(Collections.singletonList("test.InheritedDriver"), subclasses);
+
+        // Index is cached by jar content
+        File driverJarCopy = createJar("driver-copy.jar", driverClasses);
+        Assert.assertSame(DriverClassIndex.getJarIndex(driverJar), DriverClassIndex.getJarIndex(driverJarCopy));
+        Assert.assertNotNull(DriverClassIndex.getJarIndex(driverJarCopy).getClasses());
+    }
+
+    @Test
+    public void findByServiceDeclaration() throws Exception {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("test/DirectDriver.class", classFile("test/DirectDriver", ACC_PUBLIC, "java/lang/Object", "java/sql/Driver"));
+        entries.put("test/OldDriver.class", classFile("test/OldDriver", ACC_PUBLIC, "java/lang/Object", "java/sql/Driver"));
+        entries.put(DriverClassIndex.SERVICES_FOLDER + "java.sql.Driver",
+            "# Driver\ntest.DirectDriver\n\ntest.DirectDriver # duplicate\n".getBytes(StandardCharsets.UTF_8));
+        File jar = createJar("service.jar", entries);
+
+        List<String> drivers = DriverClassIndex.findImplementations(
+            new VoidProgressMonitor(), Collections.singletonList(jar), "java.sql.Driver", true);
+        Assert.assertEquals(Collections.singletonList("test.DirectDriver"), drivers);
+        // Class files weren't scanned
+        Assert.assertNull(DriverClassIndex.getJarIndex(jar).getClasses());
+    }
+
+    private File createJar(String name, Map<String, byte[]> entries) throws IOException {
+        File jarFile = new File(tempFolder.getRoot(), name);
+        try (JarOutputStream os = new JarOutputStream(new FileOutputStream(jarFile))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                JarEntry jarEntry = new JarEntry(entry.getKey());
+                // Fixed time makes jar copies identical
+                jarEntry.setTime(0);
+                os.putNextEntry(jarEntry);
+                os.write(entry.getValue());
+                os.closeEntry();
+            }
+        }
+        return jarFile;
+    }
+
+    /**
+     * Minimal class file without fields and methods
+     */
+    private static byte[] classFile(String className, int access, String superName, String... interfaces) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        classNames.add(className);
+        classNames.add(superName);
+        classNames.addAll(Arrays.asList(interfaces));
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream os = new DataOutputStream(buffer);
+        os.writeInt(0xCAFEBABE);
+        os.writeShort(0);
+        os.writeShort(52);
+        // Utf8 and Class entry for each name, plus some other constants
+        os.writeShort(1 + classNames.size() * 2 + 3);
+        for (int i = 0; i < classNames.size(); i++) {
+            os.writeByte(1);
+            os.writeUTF(classNames.get(i));
+            os.writeByte(7);
+            os.writeShort(i * 2 + 1);
+        }
+        os.writeByte(5);
+        os.writeLong(Long.MAX_VALUE);
+        os.writeByte(8);
+        os.writeShort(1);
+        os.writeShort(access);
+        os.writeShort(2);
+        os.writeShort(4);
+        os.writeShort(interfaces.length);
+        for (int i = 0; i < interfaces.length; i++) {
+            os.writeShort(i * 2 + 6);
+        }
+        os.writeShort(0);
+        os.writeShort(0);
+        os.writeShort(0);
+        os.flush();
+        return buffer.toByteArray();
+    }
+
+}
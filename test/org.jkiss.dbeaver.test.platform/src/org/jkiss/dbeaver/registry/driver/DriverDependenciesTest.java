@@ -0,0 +1,97 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.driver;
+
+import org.jkiss.dbeaver.model.connection.DBPDriverDependencies;
+import org.jkiss.dbeaver.model.connection.DBPDriverLibrary;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DriverDependenciesTest {
+
+    private static final long REQUEST_TIME_MS = 50;
+
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveRequests = new AtomicInteger();
+
+    /**
+     * Library with artificial latency of dependencies resolve
+     */
+    private DBPDriverLibrary createLibrary(String id, DBPDriverLibrary... dependencies) throws Exception {
+        DBPDriverLibrary library = Mockito.mock(DBPDriverLibrary.class);
+        Mockito.when(library.getId()).thenReturn(id);
+        Mockito.when(library.getDisplayName()).thenReturn(id);
+        Mockito.when(library.getDependencies(Mockito.any())).thenAnswer(invocation -> {
+            int active = activeRequests.incrementAndGet();
+            maxActiveRequests.accumulateAndGet(active, Math::max);
+            try {
+                Thread.sleep(REQUEST_TIME_MS);
+            } finally {
+                activeRequests.decrementAndGet();
+            }
+            return Arrays.asList(dependencies);
+        });
+        return library;
+    }
+
+    @Test
+    public void resolveInParallel() throws Exception {
+        List<DBPDriverLibrary> leaves = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            leaves.add(createLibrary("leaf" + i));
+        }
+        DBPDriverLibrary shared = createLibrary("shared", leaves.subList(0, 4).toArray(new DBPDriverLibrary[0]));
+        DBPDriverLibrary lib1 = createLibrary("lib1", concat(shared, leaves.subList(4, 10)));
+        DBPDriverLibrary lib2 = createLibrary("lib2", concat(shared, leaves.subList(10, 16)));
+        DBPDriverLibrary root = createLibrary("root", lib1, lib2);
+
+        DriverDependencies dependencies = new DriverDependencies(Collections.singletonList(root));
+        long startTime = System.currentTimeMillis();
+        dependencies.resolveDependencies(new VoidProgressMonitor());
+        long resolveTime = System.currentTimeMillis() - startTime;
+
+        Assert.assertTrue("Requests must run in parallel", maxActiveRequests.get() > 1);
+        // 20 libraries with sequential resolve take 1000ms, parallel resolve only needs 4 levels
+        Assert.assertTrue("Resolve took " + resolveTime + "ms", resolveTime < REQUEST_TIME_MS * 16);
+
+        // Tree is the same as with sequential resolve
+        Set<String> libraryIds = new LinkedHashSet<>();
+        for (DBPDriverDependencies.DependencyNode node : dependencies.getLibraryList()) {
+            libraryIds.add(node.library.getId());
+        }
+        Assert.assertEquals(20, libraryIds.size());
+        Assert.assertEquals(20, dependencies.getLibraryList().size());
+        Assert.assertEquals("root", dependencies.getLibraryList().get(0).library.getId());
+        DBPDriverDependencies.DependencyNode rootNode = dependencies.getLibraryMap().get(0);
+        Assert.assertEquals(2, rootNode.dependencies.size());
+        Assert.assertFalse(rootNode.dependencies.get(0).dependencies.get(0).duplicate);
+        Assert.assertTrue(rootNode.dependencies.get(1).dependencies.get(0).duplicate);
+    }
+
+    private static DBPDriverLibrary[] concat(DBPDriverLibrary first, List<DBPDriverLibrary> rest) {
+        List<DBPDriverLibrary> result = new ArrayList<>();
+        result.add(first);
+        result.addAll(rest);
+        return result.toArray(new DBPDriverLibrary[0]);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.maven;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uses file-based repository instead of remote one
+ */
+public class MavenFileCacheTest {
+
+    private static final String POM_PATH = "org/test/artifact/1.0/artifact-1.0.pom";
+    private static final String POM_CONTENT = "<project><artifactId>artifact</artifactId></project>";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final AtomicInteger downloadCount = new AtomicInteger();
+
+    private MavenFileCache createCache() {
+        return new MavenFileCache(url -> {
+            if (!url.endsWith(MavenFileCache.CHECKSUM_EXTENSION)) {
+                downloadCount.incrementAndGet();
+            }
+            return new URL(url).openStream();
+        });
+    }
+
+    private String createRepository(String checksum) throws Exception {
+        File repoFolder = tempFolder.newFolder("repo");
+        File pomFile = new File(repoFolder, POM_PATH);
+        Assert.assertTrue(pomFile.getParentFile().mkdirs());
+        Files.write(pomFile.toPath(), POM_CONTENT.getBytes(StandardCharsets.UTF_8));
+        if (checksum != null) {
+            Files.write(new File(repoFolder, POM_PATH + MavenFileCache.CHECKSUM_EXTENSION).toPath(), (checksum + "  artifact-1.0.pom").getBytes(StandardCharsets.US_ASCII));
+        }
+        return repoFolder.toURI().toString() + POM_PATH;
+    }
+
+    @Test
+    public void downloadAndVerify() throws Exception {
+        String pomURL = createRepository(sha1(POM_CONTENT));
+        File localFile = new File(tempFolder.getRoot(), "cache/artifact-1.0.pom");
+        MavenFileCache cache = createCache();
+
+        cache.getFile(pomURL, localFile, 0);
+        Assert.assertEquals(POM_CONTENT, readFile(localFile));
+        Assert.assertTrue(MavenFileCache.getChecksumFile(localFile).exists());
+        Assert.assertEquals(1, downloadCount.get());
+
+        // Valid cached file is reused
+        cache.getFile(pomURL, localFile, 0);
+        Assert.assertEquals(1, downloadCount.get());
+
+        // Corrupted file is downloaded again
+        Files.write(localFile.toPath(), "<proj".getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(MavenFileCache.verifyChecksum(localFile));
+        cache.getFile(pomURL, localFile, 0);
+        Assert.assertEquals(POM_CONTENT, readFile(localFile));
+        Assert.assertEquals(2, downloadCount.get());
+
+        // Expired file is downloaded again
+        Assert.assertTrue(localFile.setLastModified(System.currentTimeMillis() - 60000));
+        cache.getFile(pomURL, localFile, 1000);
+        Assert.assertEquals(3, downloadCount.get());
+
+        cache.invalidateFile(localFile);
+        Assert.assertFalse(localFile.exists());
+        Assert.assertFalse(MavenFileCache.getChecksumFile(localFile).exists());
+    }
+
+    @Test
+    public void rejectChecksumMismatch() throws Exception {
+        String pomURL = createRepository(sha1("something else"));
+        File localFile = new File(tempFolder.getRoot(), "cache/artifact-1.0.pom");
+        try {
+            createCache().getFile(pomURL, localFile, 0);
+            Assert.fail("Checksum mismatch must be detected");
+        } catch (IOException e) {
+            // expected
+        }
+        Assert.assertFalse(localFile.exists());
+        Assert.assertFalse(new File(localFile.getParentFile(), localFile.getName() + ".tmp").exists());
+    }
+
+    @Test
+    public void repositoryWithoutChecksums() throws Exception {
+        String pomURL = createRepository(null);
+        File localFile = new File(tempFolder.getRoot(), "cache/artifact-1.0.pom");
+        createCache().getFile(pomURL, localFile, 0);
+        Assert.assertEquals(POM_CONTENT, readFile(localFile));
+        Assert.assertTrue(MavenFileCache.verifyChecksum(localFile));
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String sha1(String text) throws Exception {
+        StringBuilder result = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8))) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+}
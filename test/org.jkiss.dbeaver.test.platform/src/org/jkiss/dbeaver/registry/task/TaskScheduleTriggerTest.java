@@ -0,0 +1,192 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.task.DBTTaskScheduleConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+public class TaskScheduleTriggerTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final Date CREATE_TIME = date(2021, 3, 1, 8, 10);
+
+    @Test
+    public void cronSchedule() throws DBException {
+        DBTTaskScheduleConfiguration config = new DBTTaskScheduleConfiguration();
+        config.cronExpression = "*/15 9-17 * * MON-FRI";
+        TaskScheduleTrigger trigger = new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+        // 2021-03-05 is Friday
+        Assert.assertEquals(date(2021, 3, 5, 10, 15), trigger.getNextFireTime(date(2021, 3, 5, 10, 0)));
+        Assert.assertEquals(date(2021, 3, 8, 9, 0), trigger.getNextFireTime(date(2021, 3, 5, 17, 45)));
+
+        // Day of month or day of week
+        config.cronExpression = "0 0 13 * 5";
+        trigger = new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+        Assert.assertEquals(date(2021, 3, 5, 0, 0), trigger.getNextFireTime(date(2021, 3, 1, 0, 0)));
+        Assert.assertEquals(date(2021, 3, 12, 0, 0), trigger.getNextFireTime(date(2021, 3, 5, 0, 0)));
+        Assert.assertEquals(date(2021, 3, 13, 0, 0), trigger.getNextFireTime(date(2021, 3, 12, 0, 0)));
+
+        config.cronExpression = "@yearly";
+        trigger = new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+        Assert.assertEquals(date(2022, 1, 1, 0, 0), trigger.getNextFireTime(date(2021, 3, 1, 0, 0)));
+
+        for (String badExpression : new String[] {"* * * *", "60 * * * *", "5-1 * * * *", "* * * FOO *"}) {
+            config.cronExpression = badExpression;
+            try {
+                new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+                Assert.fail("Expression '" + badExpression + "' must be rejected");
+            } catch (DBException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void frequencySchedule() throws DBException {
+        DBTTaskScheduleConfiguration config = new DBTTaskScheduleConfiguration();
+        config.startTime = date(2021, 3, 1, 8, 30);
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.MINUTELY;
+        config.recurrence = 20;
+        Assert.assertEquals(date(2021, 3, 1, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 2, 1, 0, 0)));
+        Assert.assertEquals(date(2021, 3, 1, 10, 10), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 1, 9, 55)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.DAILY;
+        config.recurrence = 3;
+        Assert.assertEquals(date(2021, 3, 7, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 4, 8, 30)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.WEEKLY;
+        config.recurrence = 2;
+        config.days = Arrays.asList((short) 2, (short) 4);
+        // 2021-03-01 is Monday, next week is skipped
+        Assert.assertEquals(date(2021, 3, 4, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 2, 9, 0)));
+        Assert.assertEquals(date(2021, 3, 16, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 4, 9, 0)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.MONTHLY;
+        config.recurrence = 0;
+        config.days = Collections.singletonList((short) DBTTaskScheduleConfiguration.DAYS_LAST);
+        config.months = Arrays.asList((short) 2, (short) 4);
+        Assert.assertEquals(date(2021, 4, 30, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 1, 9, 0)));
+        Assert.assertEquals(date(2022, 2, 28, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 4, 30, 9, 0)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.ONE_TIME;
+        Assert.assertEquals(date(2021, 3, 1, 8, 30), new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 1, 8, 0)));
+        Assert.assertNull(new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 1, 8, 30)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.HOURLY;
+        config.recurrence = 1;
+        config.endTime = date(2021, 3, 1, 12, 0);
+        Assert.assertNull(new TaskScheduleTrigger(config, ZONE, CREATE_TIME).getNextFireTime(date(2021, 3, 1, 11, 45)));
+    }
+
+    @Test
+    public void frequencyScheduleWithoutStartTime() throws DBException {
+        DBTTaskScheduleConfiguration config = new DBTTaskScheduleConfiguration();
+
+        // Recurrence is counted from the creation time, not from the time of the check
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.MINUTELY;
+        config.recurrence = 20;
+        TaskScheduleTrigger trigger = new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+        Assert.assertEquals(date(2021, 3, 1, 8, 30), trigger.getNextFireTime(CREATE_TIME));
+        Assert.assertEquals(date(2021, 3, 1, 8, 50), trigger.getNextFireTime(date(2021, 3, 1, 8, 30)));
+        Assert.assertEquals(date(2021, 3, 1, 10, 10), trigger.getNextFireTime(date(2021, 3, 1, 9, 55)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.HOURLY;
+        config.recurrence = 3;
+        config.executionMinute = 15;
+        trigger = new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+        Assert.assertEquals(date(2021, 3, 1, 8, 15), trigger.getNextFireTime(date(2021, 3, 1, 8, 0)));
+        Assert.assertEquals(date(2021, 3, 1, 11, 15), trigger.getNextFireTime(date(2021, 3, 1, 8, 15)));
+
+        config.frequency = DBTTaskScheduleConfiguration.Frequency.DAILY;
+        config.recurrence = 2;
+        trigger = new TaskScheduleTrigger(config, ZONE, CREATE_TIME);
+        Assert.assertEquals(date(2021, 3, 3, 0, 0), trigger.getNextFireTime(date(2021, 3, 1, 9, 0)));
+        Assert.assertEquals(date(2021, 3, 5, 0, 0), trigger.getNextFireTime(date(2021, 3, 3, 0, 0)));
+    }
+
+    @Test
+    public void limitConcurrentRuns() {
+        TaskConcurrencyLimiter limiter = new TaskConcurrencyLimiter(2, 1);
+        List<String> started = new ArrayList<>();
+        TestRequest run1 = new TestRequest("task1", started, "ds1");
+        TestRequest run2 = new TestRequest("task2", started, "ds1");
+        TestRequest run3 = new TestRequest("task3", started, "ds2");
+        TestRequest run4 = new TestRequest("task4", started, "ds3");
+        TestRequest run1Again = new TestRequest("task1", started, "ds1");
+        TestRequest run1Duplicate = new TestRequest("task1", started, "ds1");
+
+        Assert.assertTrue(limiter.submit(run1));
+        Assert.assertTrue(limiter.submit(run2));
+        Assert.assertTrue(limiter.submit(run3));
+        Assert.assertTrue(limiter.submit(run4));
+        // Same data source runs are queued, global limit holds the rest
+        Assert.assertEquals(Arrays.asList("task1", "task3"), started);
+        Assert.assertEquals(2, limiter.getQueueSize());
+
+        Assert.assertTrue(limiter.submit(run1Again));
+        Assert.assertFalse(limiter.submit(run1Duplicate));
+
+        limiter.release(run1);
+        Assert.assertEquals(Arrays.asList("task1", "task3", "task2"), started);
+        limiter.release(run3);
+        // task1 waits for task2 on ds1
+        Assert.assertEquals(Arrays.asList("task1", "task3", "task2", "task4"), started);
+        Assert.assertTrue(limiter.isQueued("task1"));
+        limiter.release(run2);
+        Assert.assertEquals(Arrays.asList("task1", "task3", "task2", "task4", "task1"), started);
+        Assert.assertEquals(0, limiter.getQueueSize());
+    }
+
+    private static Date date(int year, int month, int day, int hour, int minute) {
+        return Date.from(LocalDateTime.of(year, month, day, hour, minute).atZone(ZONE).toInstant());
+    }
+
+    private static class TestRequest implements TaskConcurrencyLimiter.Request {
+        private final String key;
+        private final List<String> started;
+        private final List<String> resources;
+
+        TestRequest(String key, List<String> started, String... resources) {
+            this.key = key;
+            this.started = started;
+            this.resources = Arrays.asList(resources);
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Collection<String> getResources() {
+            return resources;
+        }
+
+        @Override
+        public void start() {
+            started.add(key);
+        }
+    }
+
+}
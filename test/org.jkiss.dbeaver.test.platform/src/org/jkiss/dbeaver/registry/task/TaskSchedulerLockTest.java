@@ -0,0 +1,49 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry.task;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+public class TaskSchedulerLockTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void singleOwner() {
+        File lockFile = new File(tempFolder.getRoot(), LocalTaskScheduler.LOCK_FILE);
+        TaskSchedulerLock lock1 = new TaskSchedulerLock(lockFile);
+        TaskSchedulerLock lock2 = new TaskSchedulerLock(lockFile);
+
+        Assert.assertTrue(lock1.tryAcquire());
+        Assert.assertTrue(lock1.tryAcquire());
+        Assert.assertFalse(lock2.tryAcquire());
+
+        // Another instance takes over after release
+        lock1.release();
+        Assert.assertTrue(lock2.tryAcquire());
+        Assert.assertFalse(lock1.tryAcquire());
+        lock2.release();
+        lock1.release();
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.model.task.DBTTask;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferCheckpoints;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+public class DatabaseTransferCheckpointsTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void updateAndRemoveCheckpoint() throws IOException {
+        File stateFolder = tempFolder.newFolder("task1");
+        DatabaseTransferCheckpoints checkpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        Assert.assertNull(checkpoints.getCheckpoint("src"));
+
+        checkpoints.updateCheckpoint("src", 1000, "id", "1234");
+        DatabaseTransferCheckpoints.Checkpoint checkpoint = checkpoints.getCheckpoint("src");
+        Assert.assertNotNull(checkpoint);
+        Assert.assertEquals(1000, checkpoint.getCommittedRows());
+        Assert.assertEquals("id", checkpoint.getKeyAttribute());
+        Assert.assertEquals("1234", checkpoint.getKeyValue());
+        Assert.assertEquals(1, stateFolder.listFiles().length);
+
+        checkpoints.removeCheckpoint("src");
+        Assert.assertNull(checkpoints.getCheckpoint("src"));
+        Assert.assertEquals(0, stateFolder.listFiles().length);
+    }
+
+    @Test
+    public void sharedBetweenTaskRuns() throws IOException {
+        File stateFolder = tempFolder.newFolder("task2");
+        DatabaseTransferCheckpoints checkpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        checkpoints.updateCheckpoint("src1", 10, null, null);
+        checkpoints.updateCheckpoint("src2", 20, "id", "20");
+
+        DatabaseTransferCheckpoints sameCheckpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        Assert.assertSame(checkpoints, sameCheckpoints);
+        Assert.assertEquals(10, sameCheckpoints.getCheckpoint("src1").getCommittedRows());
+        Assert.assertNull(sameCheckpoints.getCheckpoint("src1").getKeyAttribute());
+        Assert.assertEquals("20", sameCheckpoints.getCheckpoint("src2").getKeyValue());
+    }
+
+    @Test
+    public void evictAfterRelease() throws IOException {
+        File stateFolder = tempFolder.newFolder("task3");
+        DatabaseTransferCheckpoints checkpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        DatabaseTransferCheckpoints parallelCheckpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        checkpoints.updateCheckpoint("src", 10, null, null);
+
+        // Still used by the parallel transfer
+        checkpoints.release();
+        DatabaseTransferCheckpoints sameCheckpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        Assert.assertSame(parallelCheckpoints, sameCheckpoints);
+        sameCheckpoints.release();
+        parallelCheckpoints.release();
+
+        // Next run reads checkpoints from file
+        DatabaseTransferCheckpoints nextRunCheckpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        Assert.assertNotSame(checkpoints, nextRunCheckpoints);
+        Assert.assertEquals(10, nextRunCheckpoints.getCheckpoint("src").getCommittedRows());
+        nextRunCheckpoints.release();
+    }
+
+    @Test
+    public void keyValuesKeepPrecision() throws IOException {
+        File stateFolder = tempFolder.newFolder("task4");
+        Timestamp timestamp = Timestamp.valueOf("2021-03-04 05:06:07.123456789");
+        BigDecimal decimal = new BigDecimal("12345678901234567890.123456789");
+        DatabaseTransferCheckpoints checkpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        checkpoints.updateCheckpoint("long", 1, "id", Long.MAX_VALUE);
+        checkpoints.updateCheckpoint("decimal", 1, "id", decimal);
+        checkpoints.updateCheckpoint("timestamp", 1, "id", timestamp);
+        checkpoints.release();
+
+        checkpoints = DatabaseTransferCheckpoints.getTaskCheckpoints(mockTask(stateFolder));
+        Assert.assertEquals(Long.MAX_VALUE, checkpoints.getCheckpoint("long").getKeyValue());
+        Assert.assertEquals(decimal, checkpoints.getCheckpoint("decimal").getKeyValue());
+        Assert.assertEquals(timestamp, checkpoints.getCheckpoint("timestamp").getKeyValue());
+        checkpoints.release();
+    }
+
+    private static DBTTask mockTask(File stateFolder) {
+        DBTTask task = Mockito.mock(DBTTask.class);
+        Mockito.when(task.getRunLogFolder()).thenReturn(stateFolder);
+        return task;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2021 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.gis.panel;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class GISGeometryTileSourceTest {
+
+    private static final int ZOOM = 5;
+
+    private final GeometryFactory geometryFactory = new GeometryFactory();
+
+    @Test
+    public void viewportSelection() {
+        GISGeometryTileSource source = makeSource();
+        Assert.assertEquals(new Envelope(-50, 50, -10, 20), source.getBounds());
+
+        // Points 0..4 are at x = -50, -25, 0, 25, 50. Line 5 crosses the viewport without vertices in it.
+        JsonObject result = readFeatures(source, -30, -5, 10, 5, 100);
+        Assert.assertTrue(result.get("reset").getAsBoolean());
+        Assert.assertFalse(result.get("more").getAsBoolean());
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(1, 2, 5)), getFeatureIds(result));
+
+        // Delivered features are not served again
+        result = readFeatures(source, -60, -5, 10, 5, 100);
+        Assert.assertFalse(result.get("reset").getAsBoolean());
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(0)), getFeatureIds(result));
+
+        // Nothing to serve outside of data bounds
+        result = readFeatures(source, 100, 100, 120, 120, 100);
+        Assert.assertEquals(0, getFeatureIds(result).size());
+    }
+
+    @Test
+    public void chunkedDelivery() {
+        GISGeometryTileSource source = makeSource();
+        Set<Integer> allIds = new TreeSet<>();
+        JsonObject result = readFeatures(source, -180, -90, 180, 90, 2);
+        Assert.assertTrue(result.get("reset").getAsBoolean());
+        allIds.addAll(getFeatureIds(result));
+        int chunks = 1;
+        while (result.get("more").getAsBoolean()) {
+            result = readFeatures(source, -180, -90, 180, 90, 2);
+            Assert.assertFalse(result.get("reset").getAsBoolean());
+            Set<Integer> ids = getFeatureIds(result);
+            Assert.assertTrue(ids.size() <= 2);
+            allIds.addAll(ids);
+            chunks++;
+        }
+        Assert.assertEquals(3, chunks);
+        Assert.assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3, 4, 5)), allIds);
+    }
+
+    @Test
+    public void resetOnZoomAndRender() {
+        GISGeometryTileSource source = makeSource();
+        Assert.assertEquals(6, getFeatureIds(readFeatures(source, -180, -90, 180, 90, 100)).size());
+
+        // Another zoom level - features are served again with different simplification
+        JsonObject result = readFeatures(source, -180, -90, 180, 90, ZOOM + 1, 100);
+        Assert.assertTrue(result.get("reset").getAsBoolean());
+        Assert.assertEquals(6, getFeatureIds(result).size());
+
+        // Page was rendered again - the same zoom level must be served from scratch
+        source.reset();
+        result = readFeatures(source, -180, -90, 180, 90, ZOOM + 1, 100);
+        Assert.assertTrue(result.get("reset").getAsBoolean());
+        Assert.assertEquals(6, getFeatureIds(result).size());
+    }
+
+    private GISGeometryTileSource makeSource() {
+        List<GISGeometryTileSource.Feature> features = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            features.add(new GISGeometryTileSource.Feature(geometryFactory.createPoint(new Coordinate(-50 + i * 25, 0)), null));
+        }
+        features.add(new GISGeometryTileSource.Feature(
+            geometryFactory.createLineString(new Coordinate[]{new Coordinate(-40, -10), new Coordinate(40, 20)}),
+            "{\"name\":\"line\"}"));
+        return new GISGeometryTileSource(features, false);
+    }
+
+    private static JsonObject readFeatures(GISGeometryTileSource source, double west, double south, double east, double north, int maxFeatures) {
+        return readFeatures(source, west, south, east, north, ZOOM, maxFeatures);
+    }
+
+    private static JsonObject readFeatures(GISGeometryTileSource source, double west, double south, double east, double north, int zoom, int maxFeatures) {
+        return new JsonParser().parse(source.readFeatures(west, south, east, north, zoom, maxFeatures)).getAsJsonObject();
+    }
+
+    private static Set<Integer> getFeatureIds(JsonObject result) {
+        Set<Integer> ids = new TreeSet<>();
+        JsonArray features = result.getAsJsonArray("features");
+        for (JsonElement feature : features) {
+            ids.add(feature.getAsJsonObject().get("id").getAsInt());
+        }
+        return ids;
+    }
+
+}